@@ -0,0 +1,9 @@
+package com.contextoia.chatinteraction.api.dto;
+
+import java.util.UUID;
+
+public record ChatMessageRequest(
+        UUID sessionId,
+        String content
+) {
+}
@@ -0,0 +1,52 @@
+package com.contextoia.chatinteraction.api.dto;
+
+import com.contextoia.chatinteraction.domain.model.ContextPassage;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A frame of a streamed answer. An answer is sent as one {@code SOURCES} event, any number
+ * of {@code TOKEN} events carrying the next piece of text, and a final {@code COMPLETE}
+ * event with the whole answer, or an {@code ERROR} event.
+ */
+public record ChatStreamEvent(
+        UUID sessionId,
+        Type type,
+        String content,
+        List<Source> sources
+) {
+
+    public enum Type {
+        SOURCES,
+        TOKEN,
+        COMPLETE,
+        ERROR
+    }
+
+    public record Source(
+            String fileName,
+            int pageStart,
+            int pageEnd
+    ) {
+    }
+
+    public static ChatStreamEvent sources(UUID sessionId, List<ContextPassage> passages) {
+        List<Source> sources = passages.stream()
+                .map(passage -> new Source(passage.fileName(), passage.pageStart(), passage.pageEnd()))
+                .toList();
+        return new ChatStreamEvent(sessionId, Type.SOURCES, null, sources);
+    }
+
+    public static ChatStreamEvent token(UUID sessionId, String token) {
+        return new ChatStreamEvent(sessionId, Type.TOKEN, token, null);
+    }
+
+    public static ChatStreamEvent complete(UUID sessionId, String answer) {
+        return new ChatStreamEvent(sessionId, Type.COMPLETE, answer, null);
+    }
+
+    public static ChatStreamEvent error(UUID sessionId, String message) {
+        return new ChatStreamEvent(sessionId, Type.ERROR, message, null);
+    }
+}
@@ -0,0 +1,106 @@
+package com.contextoia.chatinteraction.api.websocket;
+
+import com.contextoia.chatinteraction.api.dto.ChatMessageRequest;
+import com.contextoia.chatinteraction.api.dto.ChatStreamEvent;
+import com.contextoia.chatinteraction.application.dto.SendMessageCommand;
+import com.contextoia.chatinteraction.application.port.in.ChatResponseListener;
+import com.contextoia.chatinteraction.application.port.in.SendMessageUseCase;
+import com.contextoia.chatinteraction.domain.model.ChatMessage;
+import com.contextoia.chatinteraction.domain.model.ContextPassage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * ChatWebSocketController receives chat messages over STOMP and streams the answers back.
+ * <p>
+ * Messages sent to /app/chat.send are answered on the sender's /user/queue/chat
+ * destination as a sequence of {@link ChatStreamEvent}s, with each token pushed as soon as
+ * the model produces it. The user is the one authenticated on the STOMP connection.
+ */
+@Controller
+public class ChatWebSocketController {
+
+    static final String CHAT_QUEUE = "/queue/chat";
+    static final String UNEXPECTED_ERROR_MESSAGE = "Não foi possível processar a mensagem. Tente novamente.";
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatWebSocketController.class);
+
+    private final SendMessageUseCase sendMessageUseCase;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public ChatWebSocketController(SendMessageUseCase sendMessageUseCase, SimpMessagingTemplate messagingTemplate) {
+        this.sendMessageUseCase = sendMessageUseCase;
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    @MessageMapping("/chat.send")
+    public void sendMessage(ChatMessageRequest request, Principal principal) {
+        UUID userId = UUID.fromString(principal.getName());
+        SendMessageCommand command = new SendMessageCommand(userId, request.sessionId(), request.content());
+
+        sendMessageUseCase.execute(command, new StompResponseListener(principal.getName(), request.sessionId()));
+    }
+
+    @MessageExceptionHandler(IllegalArgumentException.class)
+    public void handleInvalidMessage(IllegalArgumentException e, ChatMessageRequest request, Principal principal) {
+        UUID sessionId = request != null ? request.sessionId() : null;
+        messagingTemplate.convertAndSendToUser(principal.getName(), CHAT_QUEUE, ChatStreamEvent.error(sessionId, e.getMessage()));
+    }
+
+    /**
+     * Answers any other failure with a generic error event, so the client stops waiting for
+     * the answer without seeing the internal cause.
+     */
+    @MessageExceptionHandler(Exception.class)
+    public void handleUnexpectedError(Exception e, ChatMessageRequest request, Principal principal) {
+        UUID sessionId = request != null ? request.sessionId() : null;
+        logger.error("Erro ao processar mensagem do chat da sessão {}: {}", sessionId, e.getMessage(), e);
+        if (principal != null) {
+            messagingTemplate.convertAndSendToUser(principal.getName(), CHAT_QUEUE,
+                    ChatStreamEvent.error(sessionId, UNEXPECTED_ERROR_MESSAGE));
+        }
+    }
+
+    private class StompResponseListener implements ChatResponseListener {
+
+        private final String user;
+        private final UUID sessionId;
+
+        StompResponseListener(String user, UUID sessionId) {
+            this.user = user;
+            this.sessionId = sessionId;
+        }
+
+        @Override
+        public void onSources(List<ContextPassage> passages) {
+            send(ChatStreamEvent.sources(sessionId, passages));
+        }
+
+        @Override
+        public void onToken(String token) {
+            send(ChatStreamEvent.token(sessionId, token));
+        }
+
+        @Override
+        public void onComplete(ChatMessage answer) {
+            send(ChatStreamEvent.complete(sessionId, answer.content()));
+        }
+
+        @Override
+        public void onError(String message) {
+            send(ChatStreamEvent.error(sessionId, message));
+        }
+
+        private void send(ChatStreamEvent event) {
+            messagingTemplate.convertAndSendToUser(user, CHAT_QUEUE, event);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.contextoia.chatinteraction.application.dto;
+
+import com.contextoia.chatinteraction.domain.model.CachedAnswer;
+
+import java.util.UUID;
+
+/**
+ * Result of looking a question up in the answer cache. On a miss it records the version of
+ * the user's document set that was current at lookup time, so that an answer generated
+ * afterwards is not cached if the documents changed in the meantime.
+ */
+public record AnswerLookup(
+        UUID userId,
+        float[] questionEmbedding,
+        long corpusVersion,
+        CachedAnswer hit
+) {
+
+    public boolean isHit() {
+        return hit != null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.contextoia.chatinteraction.application.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Position of the oldest message of a page of chat history in the
+ * {@code (created_at DESC, id DESC)} ordering.
+ */
+public record ChatHistoryCursor(
+        Instant createdAt,
+        UUID id
+) {
+}
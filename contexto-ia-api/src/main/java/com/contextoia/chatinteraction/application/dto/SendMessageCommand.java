@@ -0,0 +1,23 @@
+package com.contextoia.chatinteraction.application.dto;
+
+import java.util.UUID;
+
+public record SendMessageCommand(
+        UUID userId,
+        UUID sessionId,
+        String content
+) {
+    private static final int MAX_CONTENT_LENGTH = 4000;
+
+    public SendMessageCommand {
+        if (userId == null || sessionId == null) {
+            throw new IllegalArgumentException("Usuário e sessão são obrigatórios");
+        }
+        if (content == null || content.isBlank()) {
+            throw new IllegalArgumentException("Mensagem não pode estar vazia");
+        }
+        if (content.length() > MAX_CONTENT_LENGTH) {
+            throw new IllegalArgumentException("Mensagem excede o tamanho máximo de " + MAX_CONTENT_LENGTH + " caracteres");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.contextoia.chatinteraction.application.port.in;
+
+import com.contextoia.chatinteraction.domain.model.ChatMessage;
+import com.contextoia.chatinteraction.domain.model.ContextPassage;
+
+import java.util.List;
+
+/**
+ * Receives the answer to a message as it is produced. Calls may come from a thread other
+ * than the one that sent the message.
+ */
+public interface ChatResponseListener {
+
+    /**
+     * The passages the answer is grounded on, sent before the first token.
+     */
+    void onSources(List<ContextPassage> passages);
+
+    void onToken(String token);
+
+    void onComplete(ChatMessage answer);
+
+    void onError(String message);
+}
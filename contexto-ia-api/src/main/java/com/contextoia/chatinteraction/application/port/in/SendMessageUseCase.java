@@ -0,0 +1,7 @@
+package com.contextoia.chatinteraction.application.port.in;
+
+import com.contextoia.chatinteraction.application.dto.SendMessageCommand;
+
+public interface SendMessageUseCase {
+    void execute(SendMessageCommand command, ChatResponseListener listener);
+}
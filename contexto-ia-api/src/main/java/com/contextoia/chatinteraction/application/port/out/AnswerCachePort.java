@@ -0,0 +1,12 @@
+package com.contextoia.chatinteraction.application.port.out;
+
+import com.contextoia.chatinteraction.application.dto.AnswerLookup;
+import com.contextoia.chatinteraction.domain.model.CachedAnswer;
+
+import java.util.UUID;
+
+public interface AnswerCachePort {
+    AnswerLookup lookup(UUID userId, float[] questionEmbedding);
+    void store(AnswerLookup lookup, CachedAnswer answer);
+    void invalidate(UUID userId);
+}
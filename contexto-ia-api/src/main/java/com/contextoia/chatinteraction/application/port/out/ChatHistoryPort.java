@@ -0,0 +1,23 @@
+package com.contextoia.chatinteraction.application.port.out;
+
+import com.contextoia.chatinteraction.application.dto.ChatHistoryCursor;
+import com.contextoia.chatinteraction.domain.model.ChatMessage;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface ChatHistoryPort {
+    void append(ChatMessage message);
+
+    /**
+     * @param before the position to read before, or {@code null} for the latest messages
+     * @return at most {@code limit} messages of the user's session, newest first
+     */
+    List<ChatMessage> findRecent(UUID sessionId, UUID userId, ChatHistoryCursor before, int limit);
+
+    /**
+     * @param after the position to read after, or {@code null} for the first messages
+     * @return at most {@code limit} messages of the user's session, oldest first
+     */
+    List<ChatMessage> findOldest(UUID sessionId, UUID userId, ChatHistoryCursor after, int limit);
+}
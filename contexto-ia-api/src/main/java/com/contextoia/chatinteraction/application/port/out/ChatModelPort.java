@@ -0,0 +1,20 @@
+package com.contextoia.chatinteraction.application.port.out;
+
+import com.contextoia.chatinteraction.domain.model.ChatPrompt;
+
+public interface ChatModelPort {
+
+    /**
+     * Starts generating the answer to the prompt and returns immediately; the answer is
+     * delivered to the handler as it is generated.
+     */
+    void streamAnswer(ChatPrompt prompt, AnswerStreamHandler handler);
+
+    interface AnswerStreamHandler {
+        void onToken(String token);
+
+        void onComplete(String answer);
+
+        void onError(Throwable error);
+    }
+}
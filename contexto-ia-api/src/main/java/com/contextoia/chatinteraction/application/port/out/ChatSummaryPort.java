@@ -0,0 +1,19 @@
+package com.contextoia.chatinteraction.application.port.out;
+
+import com.contextoia.chatinteraction.domain.model.SessionSummary;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ChatSummaryPort {
+    Optional<SessionSummary> find(UUID sessionId, UUID userId);
+
+    /**
+     * Stores the summary if the session's current summary is still {@code previous}, so
+     * that concurrent compactions of the same session cannot overwrite each other.
+     *
+     * @param previous the summary the new one was built from, or {@code null} if there was none
+     * @return whether the summary was stored
+     */
+    boolean save(SessionSummary summary, SessionSummary previous);
+}
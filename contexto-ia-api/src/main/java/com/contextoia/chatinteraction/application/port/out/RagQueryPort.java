@@ -0,0 +1,11 @@
+package com.contextoia.chatinteraction.application.port.out;
+
+import com.contextoia.chatinteraction.domain.model.ContextPassage;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface RagQueryPort {
+    float[] embedQuestion(String question);
+    List<ContextPassage> findRelevantPassages(float[] questionEmbedding, UUID userId, int limit);
+}
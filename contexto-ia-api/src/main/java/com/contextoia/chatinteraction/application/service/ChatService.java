@@ -0,0 +1,171 @@
+package com.contextoia.chatinteraction.application.service;
+
+import com.contextoia.chatinteraction.application.dto.AnswerLookup;
+import com.contextoia.chatinteraction.application.dto.SendMessageCommand;
+import com.contextoia.chatinteraction.application.port.in.ChatResponseListener;
+import com.contextoia.chatinteraction.application.port.in.SendMessageUseCase;
+import com.contextoia.chatinteraction.application.port.out.AnswerCachePort;
+import com.contextoia.chatinteraction.application.port.out.ChatHistoryPort;
+import com.contextoia.chatinteraction.application.port.out.ChatModelPort;
+import com.contextoia.chatinteraction.application.port.out.RagQueryPort;
+import com.contextoia.chatinteraction.domain.model.CachedAnswer;
+import com.contextoia.chatinteraction.domain.model.ChatMessage;
+import com.contextoia.chatinteraction.domain.model.ChatPrompt;
+import com.contextoia.chatinteraction.domain.model.ContextPassage;
+import com.contextoia.chatinteraction.domain.model.ConversationContext;
+import com.contextoia.chatinteraction.domain.service.RagDomainService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers a user's question from their own documents.
+ *
+ * The question is embedded and matched against the user's chunks, the best passages are
+ * sent to the listener as sources and then placed in the prompt, and the model's answer is
+ * forwarded token by token as it is generated, so the user starts reading long before the
+ * answer is complete. When no passage matches, a fixed answer is returned without calling
+ * the model.
+ *
+ * Answers are cached by question meaning for each user: a question close enough to one
+ * already answered from the same documents is given that answer, skipping both the vector
+ * search and the model call. Only answers generated by the model to the first question of
+ * a session are cached, since later questions may depend on the earlier turns.
+ *
+ * Both the question and the answer are appended to the session's history. The model is
+ * given the conversation as described by the {@link SessionMemoryService}, which compacts
+ * older messages into a summary after each answer.
+ *
+ * The estimated size of each prompt is recorded in the {@code chat.prompt.tokens} summary,
+ * and the time from calling the model to its first token and to the end of the answer in
+ * the {@code chat.answer.latency} timer.
+ */
+@Service
+public class ChatService implements SendMessageUseCase {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatService.class);
+
+    static final String NO_CONTEXT_ANSWER = "Não encontrei informações sobre isso nos seus documentos.";
+    static final String MODEL_ERROR_MESSAGE = "Não foi possível gerar a resposta. Tente novamente.";
+
+    private final RagQueryPort ragQueryPort;
+    private final ChatModelPort chatModelPort;
+    private final AnswerCachePort answerCachePort;
+    private final ChatHistoryPort chatHistoryPort;
+    private final SessionMemoryService sessionMemoryService;
+    private final RagDomainService ragDomainService;
+    private final int retrievalLimit;
+    private final DistributionSummary promptTokens;
+    private final Timer firstTokenLatency;
+    private final Timer completionLatency;
+
+    public ChatService(
+            RagQueryPort ragQueryPort,
+            ChatModelPort chatModelPort,
+            AnswerCachePort answerCachePort,
+            ChatHistoryPort chatHistoryPort,
+            SessionMemoryService sessionMemoryService,
+            RagDomainService ragDomainService,
+            @Value("${application.chat.retrieval-limit:20}") int retrievalLimit,
+            MeterRegistry meterRegistry) {
+        if (retrievalLimit <= 0) {
+            throw new IllegalArgumentException("Limite de trechos recuperados deve ser positivo");
+        }
+        this.ragQueryPort = ragQueryPort;
+        this.chatModelPort = chatModelPort;
+        this.answerCachePort = answerCachePort;
+        this.chatHistoryPort = chatHistoryPort;
+        this.sessionMemoryService = sessionMemoryService;
+        this.ragDomainService = ragDomainService;
+        this.retrievalLimit = retrievalLimit;
+        this.promptTokens = DistributionSummary.builder("chat.prompt.tokens")
+                .baseUnit("tokens")
+                .register(meterRegistry);
+        this.firstTokenLatency = latencyTimer(meterRegistry, "first-token");
+        this.completionLatency = latencyTimer(meterRegistry, "complete");
+    }
+
+    @Override
+    public void execute(SendMessageCommand command, ChatResponseListener listener) {
+        ConversationContext conversation = sessionMemoryService.load(command.sessionId(), command.userId());
+        chatHistoryPort.append(ChatMessage.user(command.sessionId(), command.userId(), command.content()));
+
+        float[] questionEmbedding = ragQueryPort.embedQuestion(command.content());
+
+        AnswerLookup lookup = conversation.isEmpty()
+                ? answerCachePort.lookup(command.userId(), questionEmbedding)
+                : null;
+        if (lookup != null && lookup.isHit()) {
+            replay(command, lookup.hit(), listener);
+            return;
+        }
+
+        List<ContextPassage> passages = ragQueryPort.findRelevantPassages(
+                questionEmbedding, command.userId(), retrievalLimit);
+
+        if (passages.isEmpty()) {
+            listener.onSources(List.of());
+            complete(command, NO_CONTEXT_ANSWER, listener);
+            return;
+        }
+
+        ChatPrompt prompt = ragDomainService.buildPrompt(command.content(), passages, conversation);
+        listener.onSources(prompt.passages());
+        promptTokens.record(prompt.estimatedTokens());
+
+        long start = System.nanoTime();
+        chatModelPort.streamAnswer(prompt, new ChatModelPort.AnswerStreamHandler() {
+            private boolean firstToken = true;
+
+            @Override
+            public void onToken(String token) {
+                if (firstToken) {
+                    firstToken = false;
+                    firstTokenLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+                listener.onToken(token);
+            }
+
+            @Override
+            public void onComplete(String answer) {
+                completionLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (lookup != null) {
+                    answerCachePort.store(lookup, new CachedAnswer(answer, prompt.passages()));
+                }
+                complete(command, answer, listener);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                logger.error("Erro ao gerar resposta para a sessão {}: {}", command.sessionId(), error.getMessage(), error);
+                listener.onError(MODEL_ERROR_MESSAGE);
+            }
+        });
+    }
+
+    private void replay(SendMessageCommand command, CachedAnswer cached, ChatResponseListener listener) {
+        listener.onSources(cached.passages());
+        listener.onToken(cached.answer());
+        complete(command, cached.answer(), listener);
+    }
+
+    private void complete(SendMessageCommand command, String answer, ChatResponseListener listener) {
+        ChatMessage message = ChatMessage.assistant(command.sessionId(), command.userId(), answer);
+        chatHistoryPort.append(message);
+        listener.onComplete(message);
+        sessionMemoryService.compactAsync(command.sessionId(), command.userId());
+    }
+
+    private static Timer latencyTimer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder("chat.answer.latency")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+}
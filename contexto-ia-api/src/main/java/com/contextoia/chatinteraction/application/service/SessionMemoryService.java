@@ -0,0 +1,248 @@
+package com.contextoia.chatinteraction.application.service;
+
+import com.contextoia.chatinteraction.application.dto.ChatHistoryCursor;
+import com.contextoia.chatinteraction.application.port.out.ChatHistoryPort;
+import com.contextoia.chatinteraction.application.port.out.ChatModelPort;
+import com.contextoia.chatinteraction.application.port.out.ChatSummaryPort;
+import com.contextoia.chatinteraction.domain.model.ChatMessage;
+import com.contextoia.chatinteraction.domain.model.ChatPrompt;
+import com.contextoia.chatinteraction.domain.model.ConversationContext;
+import com.contextoia.chatinteraction.domain.model.SessionSummary;
+import com.contextoia.chatinteraction.domain.service.ConversationSummarizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps what the model is told about a chat session bounded, however long it runs.
+ *
+ * The latest {@code recent-turns} messages of a session are sent verbatim; everything
+ * older is represented by a running summary. Once at least {@code compact-after} messages
+ * have left that window without being summarized, they are folded into the summary by the
+ * chat model in the background, so the conversation never waits for it. Until then they
+ * are still sent verbatim, so a session is described by its summary and between
+ * {@code recent-turns} and {@code recent-turns + compact-after} messages. Messages are
+ * folded oldest first, at most {@code max-compacted-turns} per call to the model, and the
+ * compaction repeats until the summary reaches the verbatim window, so a backlog left by
+ * failed or skipped compactions is caught up rather than skipped over.
+ *
+ * Each session is compacted by at most one thread of this instance at a time, and a summary
+ * is only stored if nobody else replaced it meanwhile. Compactions are counted by result in
+ * the {@code chat.memory.compactions} counter.
+ */
+@Service
+public class SessionMemoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionMemoryService.class);
+
+    private static final Comparator<ChatMessage> CHRONOLOGICAL = Comparator
+            .comparing(ChatMessage::createdAt)
+            .thenComparing(ChatMessage::id);
+
+    private final ChatHistoryPort chatHistoryPort;
+    private final ChatSummaryPort chatSummaryPort;
+    private final ChatModelPort chatModelPort;
+    private final ConversationSummarizer conversationSummarizer;
+    private final int recentTurns;
+    private final int compactAfter;
+    private final int maxCompactedTurns;
+    private final Duration summaryTimeout;
+    private final ExecutorService compactionExecutor;
+    private final Set<SessionKey> compactingSessions = ConcurrentHashMap.newKeySet();
+    private final Counter compactedCounter;
+    private final Counter failedCounter;
+
+    public SessionMemoryService(
+            ChatHistoryPort chatHistoryPort,
+            ChatSummaryPort chatSummaryPort,
+            ChatModelPort chatModelPort,
+            ConversationSummarizer conversationSummarizer,
+            @Value("${application.chat.memory.recent-turns}") int recentTurns,
+            @Value("${application.chat.memory.compact-after}") int compactAfter,
+            @Value("${application.chat.memory.max-compacted-turns}") int maxCompactedTurns,
+            @Value("${application.chat.memory.summary-timeout}") Duration summaryTimeout,
+            @Value("${application.chat.memory.compaction-threads}") int compactionThreads,
+            MeterRegistry meterRegistry) {
+        if (recentTurns < 0 || compactAfter <= 0 || maxCompactedTurns < compactAfter || compactionThreads <= 0) {
+            throw new IllegalArgumentException("Parâmetros inválidos para a memória das sessões de chat");
+        }
+        this.chatHistoryPort = chatHistoryPort;
+        this.chatSummaryPort = chatSummaryPort;
+        this.chatModelPort = chatModelPort;
+        this.conversationSummarizer = conversationSummarizer;
+        this.recentTurns = recentTurns;
+        this.compactAfter = compactAfter;
+        this.maxCompactedTurns = maxCompactedTurns;
+        this.summaryTimeout = summaryTimeout;
+        this.compactionExecutor = Executors.newFixedThreadPool(compactionThreads, namedThreadFactory());
+        this.compactedCounter = compactionCounter(meterRegistry, "compacted");
+        this.failedCounter = compactionCounter(meterRegistry, "failed");
+    }
+
+    /**
+     * Reads the summary and the latest messages of the session that it does not cover.
+     */
+    public ConversationContext load(UUID sessionId, UUID userId) {
+        SessionSummary summary = chatSummaryPort.find(sessionId, userId).orElse(null);
+        List<ChatMessage> turns = uncovered(
+                chatHistoryPort.findRecent(sessionId, userId, null, recentTurns + compactAfter), summary);
+
+        return new ConversationContext(summary == null ? null : summary.content(), turns);
+    }
+
+    /**
+     * Folds the messages that left the verbatim window into the summary, in the background,
+     * if enough of them have accumulated.
+     */
+    public void compactAsync(UUID sessionId, UUID userId) {
+        SessionKey session = new SessionKey(sessionId, userId);
+        if (!compactingSessions.add(session)) {
+            return;
+        }
+        try {
+            compactionExecutor.execute(() -> {
+                try {
+                    compact(sessionId, userId);
+                } catch (Exception e) {
+                    failedCounter.increment();
+                    logger.warn("Falha ao resumir o histórico da sessão {}", sessionId, e);
+                } finally {
+                    compactingSessions.remove(session);
+                }
+            });
+        } catch (RuntimeException e) {
+            compactingSessions.remove(session);
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        compactionExecutor.shutdown();
+    }
+
+    private void compact(UUID sessionId, UUID userId) throws InterruptedException, ExecutionException, TimeoutException {
+        while (compactOldest(sessionId, userId)) {
+            logger.debug("Continuando o resumo do histórico da sessão {}", sessionId);
+        }
+    }
+
+    /**
+     * Folds into the summary the oldest messages it does not cover yet, up to the newest one
+     * outside the verbatim window.
+     *
+     * @return whether a summary was stored, in which case older messages may still be waiting
+     */
+    private boolean compactOldest(UUID sessionId, UUID userId)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        SessionSummary current = chatSummaryPort.find(sessionId, userId).orElse(null);
+        List<ChatMessage> latest = chatHistoryPort.findRecent(sessionId, userId, null, recentTurns + 1);
+        if (latest.size() <= recentTurns) {
+            return false;
+        }
+        ChatMessage newestOlder = latest.get(recentTurns);
+        if (current != null && current.covers(newestOlder)) {
+            return false;
+        }
+
+        ChatHistoryCursor after = current == null
+                ? null
+                : new ChatHistoryCursor(current.summarizedUntilCreatedAt(), current.summarizedUntilId());
+        List<ChatMessage> older = chatHistoryPort.findOldest(sessionId, userId, after, maxCompactedTurns).stream()
+                .takeWhile(message -> CHRONOLOGICAL.compare(message, newestOlder) <= 0)
+                .toList();
+        if (older.size() < compactAfter) {
+            return false;
+        }
+
+        ChatPrompt prompt = conversationSummarizer.buildSummaryPrompt(
+                current == null ? null : current.content(), older);
+        String summary = generate(prompt);
+
+        ChatMessage last = older.get(older.size() - 1);
+        SessionSummary updated = new SessionSummary(sessionId, userId, summary, last.createdAt(), last.id());
+        if (!chatSummaryPort.save(updated, current)) {
+            return false;
+        }
+        compactedCounter.increment();
+        logger.debug("{} mensagens da sessão {} incorporadas ao resumo", older.size(), sessionId);
+        return true;
+    }
+
+    private String generate(ChatPrompt prompt) throws InterruptedException, ExecutionException, TimeoutException {
+        CompletableFuture<String> answer = new CompletableFuture<>();
+        chatModelPort.streamAnswer(prompt, new ChatModelPort.AnswerStreamHandler() {
+            @Override
+            public void onToken(String token) {
+            }
+
+            @Override
+            public void onComplete(String text) {
+                answer.complete(text);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                answer.completeExceptionally(error);
+            }
+        });
+
+        String summary = answer.get(summaryTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        if (summary == null || summary.isBlank()) {
+            throw new IllegalStateException("Modelo retornou um resumo vazio");
+        }
+        return summary.strip();
+    }
+
+    /**
+     * The given messages, newest first, that the summary does not cover, in chronological order.
+     */
+    private static List<ChatMessage> uncovered(List<ChatMessage> newestFirst, SessionSummary summary) {
+        List<ChatMessage> turns = new ArrayList<>();
+        for (ChatMessage message : newestFirst) {
+            if (summary != null && summary.covers(message)) break;
+            turns.add(message);
+        }
+        Collections.reverse(turns);
+        return turns;
+    }
+
+    private static Counter compactionCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("chat.memory.compactions")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record SessionKey(UUID sessionId, UUID userId) {
+    }
+
+    private static ThreadFactory namedThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "chat-memory-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
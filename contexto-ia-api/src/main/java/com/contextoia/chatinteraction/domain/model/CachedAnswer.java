@@ -0,0 +1,13 @@
+package com.contextoia.chatinteraction.domain.model;
+
+import java.util.List;
+
+/**
+ * An answer generated earlier, with the passages it was grounded on, that can be given
+ * again to a question with the same meaning.
+ */
+public record CachedAnswer(
+        String answer,
+        List<ContextPassage> passages
+) {
+}
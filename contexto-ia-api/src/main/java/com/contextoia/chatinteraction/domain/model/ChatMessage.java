@@ -0,0 +1,45 @@
+package com.contextoia.chatinteraction.domain.model;
+
+import com.github.f4b6a3.uuid.UuidCreator;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * A message of a chat session, either a question from the user or an answer from the
+ * assistant. Ids are time ordered, and creation times are kept at the microsecond
+ * precision the database stores.
+ */
+public record ChatMessage(
+        UUID id,
+        UUID sessionId,
+        UUID userId,
+        Role role,
+        String content,
+        Instant createdAt
+) {
+
+    public enum Role {
+        USER,
+        ASSISTANT
+    }
+
+    public static ChatMessage user(UUID sessionId, UUID userId, String content) {
+        return create(sessionId, userId, Role.USER, content);
+    }
+
+    public static ChatMessage assistant(UUID sessionId, UUID userId, String content) {
+        return create(sessionId, userId, Role.ASSISTANT, content);
+    }
+
+    private static ChatMessage create(UUID sessionId, UUID userId, Role role, String content) {
+        return new ChatMessage(
+                UuidCreator.getTimeOrderedEpoch(),
+                sessionId,
+                userId,
+                role,
+                content,
+                Instant.now().truncatedTo(ChronoUnit.MICROS));
+    }
+}
@@ -0,0 +1,17 @@
+package com.contextoia.chatinteraction.domain.model;
+
+import java.util.List;
+
+/**
+ * The input sent to the chat model: the system instruction, the earlier turns of the
+ * conversation, oldest first, the user message with the question and its context, the
+ * passages that were included in it and an estimate of the tokens the whole prompt takes.
+ */
+public record ChatPrompt(
+        String systemInstruction,
+        List<ChatMessage> history,
+        String userMessage,
+        List<ContextPassage> passages,
+        int estimatedTokens
+) {
+}
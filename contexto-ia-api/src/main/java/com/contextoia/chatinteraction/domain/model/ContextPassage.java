@@ -0,0 +1,20 @@
+package com.contextoia.chatinteraction.domain.model;
+
+import java.util.UUID;
+
+/**
+ * An excerpt of one of the user's documents retrieved to ground an answer. It spans the
+ * consecutive chunks {@code chunkStart} to {@code chunkEnd} of the document; a passage
+ * assembled from several adjacent chunks keeps the best similarity among them.
+ */
+public record ContextPassage(
+        UUID documentId,
+        String fileName,
+        int chunkStart,
+        int chunkEnd,
+        int pageStart,
+        int pageEnd,
+        String content,
+        float similarity
+) {
+}
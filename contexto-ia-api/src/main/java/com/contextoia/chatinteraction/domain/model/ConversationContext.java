@@ -0,0 +1,25 @@
+package com.contextoia.chatinteraction.domain.model;
+
+import java.util.List;
+
+/**
+ * What the model is told about a session before a new question: the summary of its older
+ * messages, if any, and its latest messages verbatim, oldest first.
+ */
+public record ConversationContext(
+        String summary,
+        List<ChatMessage> recentTurns
+) {
+
+    public ConversationContext {
+        recentTurns = List.copyOf(recentTurns);
+    }
+
+    public static ConversationContext empty() {
+        return new ConversationContext(null, List.of());
+    }
+
+    public boolean isEmpty() {
+        return summary == null && recentTurns.isEmpty();
+    }
+}
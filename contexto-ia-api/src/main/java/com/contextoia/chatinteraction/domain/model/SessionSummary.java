@@ -0,0 +1,26 @@
+package com.contextoia.chatinteraction.domain.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Running summary of the older part of a chat session. It covers every message up to and
+ * including the one identified by {@code summarizedUntilCreatedAt} and
+ * {@code summarizedUntilId}.
+ */
+public record SessionSummary(
+        UUID sessionId,
+        UUID userId,
+        String content,
+        Instant summarizedUntilCreatedAt,
+        UUID summarizedUntilId
+) {
+
+    /**
+     * Whether the message is already part of this summary.
+     */
+    public boolean covers(ChatMessage message) {
+        int byTime = message.createdAt().compareTo(summarizedUntilCreatedAt);
+        return byTime < 0 || (byTime == 0 && message.id().compareTo(summarizedUntilId) <= 0);
+    }
+}
@@ -0,0 +1,198 @@
+package com.contextoia.chatinteraction.domain.service;
+
+import com.contextoia.chatinteraction.domain.model.ContextPassage;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Chooses which of the retrieved passages go into the prompt.
+ *
+ * Passages whose words are nearly the same as those of a more relevant passage, such as the
+ * same text in two documents, are dropped first. The rest are picked by maximal marginal
+ * relevance: each step takes the passage with the best balance between its similarity to
+ * the question and its word overlap with the passages already taken, weighted by
+ * {@code relevanceWeight}, as long as it fits in the remaining {@code maxTokens} budget.
+ * Finally, picked chunks that are adjacent in the same document are merged into a single
+ * passage, without repeating the text that consecutive chunks share.
+ *
+ * Token counts are estimated locally by the {@link TokenEstimator}.
+ */
+public class ContextAssembler {
+
+    /**
+     * Tokens taken by the number, file name and pages written before each passage.
+     */
+    static final int PASSAGE_OVERHEAD_TOKENS = 16;
+
+    /**
+     * Shortest common text between adjacent chunks that is taken as their overlap rather
+     * than a coincidence.
+     */
+    private static final int MIN_OVERLAP_LENGTH = 20;
+
+    private final TokenEstimator tokenEstimator;
+    private final int maxTokens;
+    private final double relevanceWeight;
+    private final double duplicateThreshold;
+
+    public ContextAssembler(TokenEstimator tokenEstimator, int maxTokens, double relevanceWeight, double duplicateThreshold) {
+        if (maxTokens <= 0) {
+            throw new IllegalArgumentException("Limite de tokens do contexto deve ser positivo");
+        }
+        if (relevanceWeight < 0 || relevanceWeight > 1 || duplicateThreshold <= 0 || duplicateThreshold > 1) {
+            throw new IllegalArgumentException("Pesos da seleção de contexto devem estar entre 0 e 1");
+        }
+        this.tokenEstimator = tokenEstimator;
+        this.maxTokens = maxTokens;
+        this.relevanceWeight = relevanceWeight;
+        this.duplicateThreshold = duplicateThreshold;
+    }
+
+    /**
+     * @param passages the retrieved passages, each spanning a single chunk
+     * @return the passages to place in the prompt, most relevant first; the most relevant
+     *         passage is always included, even if it alone exceeds the budget
+     */
+    public List<ContextPassage> assemble(List<ContextPassage> passages) {
+        List<Candidate> candidates = removeDuplicates(passages);
+        List<Candidate> selected = selectDiverse(candidates);
+        return mergeAdjacent(selected);
+    }
+
+    private List<Candidate> removeDuplicates(List<ContextPassage> passages) {
+        List<Candidate> kept = new ArrayList<>();
+        passages.stream()
+                .sorted(Comparator.comparingDouble(ContextPassage::similarity).reversed())
+                .map(passage -> new Candidate(
+                        passage,
+                        tokenEstimator.estimate(passage.content()) + PASSAGE_OVERHEAD_TOKENS,
+                        words(passage.content())))
+                .filter(candidate -> kept.stream()
+                        .noneMatch(other -> jaccard(candidate.words(), other.words()) >= duplicateThreshold))
+                .forEach(kept::add);
+        return kept;
+    }
+
+    private List<Candidate> selectDiverse(List<Candidate> candidates) {
+        List<Candidate> remaining = new ArrayList<>(candidates);
+        List<Candidate> selected = new ArrayList<>();
+        int usedTokens = 0;
+
+        while (!remaining.isEmpty()) {
+            Candidate best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+
+            for (Candidate candidate : remaining) {
+                if (!selected.isEmpty() && usedTokens + candidate.tokens() > maxTokens) continue;
+
+                double redundancy = 0;
+                for (Candidate other : selected) {
+                    redundancy = Math.max(redundancy, jaccard(candidate.words(), other.words()));
+                }
+                double score = relevanceWeight * candidate.passage().similarity() - (1 - relevanceWeight) * redundancy;
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = candidate;
+                }
+            }
+
+            if (best == null) break;
+            remaining.remove(best);
+            selected.add(best);
+            usedTokens += best.tokens();
+        }
+        return selected;
+    }
+
+    /**
+     * Merges runs of consecutive chunks of the same document. Each merged passage takes the
+     * place of its earliest selected chunk.
+     */
+    private List<ContextPassage> mergeAdjacent(List<Candidate> selected) {
+        Map<UUID, List<Integer>> ranksByDocument = new LinkedHashMap<>();
+        for (int rank = 0; rank < selected.size(); rank++) {
+            ranksByDocument.computeIfAbsent(selected.get(rank).passage().documentId(), id -> new ArrayList<>())
+                    .add(rank);
+        }
+
+        List<RankedPassage> merged = new ArrayList<>();
+        for (List<Integer> ranks : ranksByDocument.values()) {
+            ranks.sort(Comparator.comparingInt(rank -> selected.get(rank).passage().chunkStart()));
+            RankedPassage current = null;
+            for (int rank : ranks) {
+                ContextPassage next = selected.get(rank).passage();
+                if (current != null && next.chunkStart() <= current.passage().chunkEnd() + 1) {
+                    current = new RankedPassage(merge(current.passage(), next), Math.min(current.rank(), rank));
+                } else {
+                    if (current != null) merged.add(current);
+                    current = new RankedPassage(next, rank);
+                }
+            }
+            merged.add(current);
+        }
+
+        return merged.stream()
+                .sorted(Comparator.comparingInt(RankedPassage::rank))
+                .map(RankedPassage::passage)
+                .toList();
+    }
+
+    private ContextPassage merge(ContextPassage first, ContextPassage second) {
+        return new ContextPassage(
+                first.documentId(),
+                first.fileName(),
+                first.chunkStart(),
+                Math.max(first.chunkEnd(), second.chunkEnd()),
+                Math.min(first.pageStart(), second.pageStart()),
+                Math.max(first.pageEnd(), second.pageEnd()),
+                joinOverlapping(first.content(), second.content()),
+                Math.max(first.similarity(), second.similarity()));
+    }
+
+    /**
+     * Appends {@code second} to {@code first}, skipping the longest prefix of {@code second}
+     * that {@code first} already ends with.
+     */
+    static String joinOverlapping(String first, String second) {
+        int longest = Math.min(first.length(), second.length());
+        for (int length = longest; length >= MIN_OVERLAP_LENGTH; length--) {
+            if (first.regionMatches(first.length() - length, second, 0, length)) {
+                return first + second.substring(length);
+            }
+        }
+        return first + "\n" + second;
+    }
+
+    private static Set<String> words(String text) {
+        Set<String> words = new HashSet<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) words.add(word);
+        }
+        return words;
+    }
+
+    private static double jaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() && b.isEmpty()) return 1;
+        Set<String> smaller = a.size() <= b.size() ? a : b;
+        Set<String> larger = smaller == a ? b : a;
+        int common = 0;
+        for (String word : smaller) {
+            if (larger.contains(word)) common++;
+        }
+        return (double) common / (a.size() + b.size() - common);
+    }
+
+    private record Candidate(ContextPassage passage, int tokens, Set<String> words) {
+    }
+
+    private record RankedPassage(ContextPassage passage, int rank) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.contextoia.chatinteraction.domain.service;
+
+import com.contextoia.chatinteraction.domain.model.ChatMessage;
+import com.contextoia.chatinteraction.domain.model.ChatPrompt;
+
+import java.util.List;
+
+/**
+ * Builds the prompt that folds older messages of a session into its running summary.
+ *
+ * The model receives the current summary, if any, and the messages that left the verbatim
+ * window since it was written, and is asked for a new summary of at most
+ * {@code maxSummaryWords} words. The summary therefore stays about the same size however
+ * long the session runs.
+ */
+public class ConversationSummarizer {
+
+    private static final String SYSTEM_INSTRUCTION = """
+            Você resume conversas entre um usuário e um assistente que responde com base em documentos.
+            Escreva um resumo único, em terceira pessoa e no idioma da conversa, que preserve as perguntas feitas,
+            as respostas dadas, os documentos e números de trechos citados, e qualquer preferência ou dado informado pelo usuário.
+            Não invente informações e não acrescente comentários além do resumo.
+            """;
+
+    private final TokenEstimator tokenEstimator;
+    private final int maxSummaryWords;
+
+    public ConversationSummarizer(TokenEstimator tokenEstimator, int maxSummaryWords) {
+        if (maxSummaryWords <= 0) {
+            throw new IllegalArgumentException("Tamanho máximo do resumo deve ser positivo");
+        }
+        this.tokenEstimator = tokenEstimator;
+        this.maxSummaryWords = maxSummaryWords;
+    }
+
+    /**
+     * @param previousSummary the current summary of the session, or {@code null} if there is none
+     * @param turns           the messages to add to the summary, oldest first
+     */
+    public ChatPrompt buildSummaryPrompt(String previousSummary, List<ChatMessage> turns) {
+        StringBuilder message = new StringBuilder();
+        if (previousSummary != null) {
+            message.append("Resumo atual da conversa:\n").append(previousSummary).append("\n\n");
+        }
+        message.append("Mensagens seguintes:\n");
+        for (ChatMessage turn : turns) {
+            message.append(turn.role() == ChatMessage.Role.USER ? "Usuário: " : "Assistente: ")
+                    .append(turn.content())
+                    .append('\n');
+        }
+        message.append("\nEscreva o resumo atualizado da conversa inteira em no máximo ")
+                .append(maxSummaryWords)
+                .append(" palavras.");
+
+        int estimatedTokens = tokenEstimator.estimate(SYSTEM_INSTRUCTION) + tokenEstimator.estimate(message);
+        return new ChatPrompt(SYSTEM_INSTRUCTION, List.of(), message.toString(), List.of(), estimatedTokens);
+    }
+}
@@ -0,0 +1,69 @@
+package com.contextoia.chatinteraction.domain.service;
+
+import com.contextoia.chatinteraction.domain.model.ChatMessage;
+import com.contextoia.chatinteraction.domain.model.ChatPrompt;
+import com.contextoia.chatinteraction.domain.model.ContextPassage;
+import com.contextoia.chatinteraction.domain.model.ConversationContext;
+
+import java.util.List;
+
+/**
+ * Builds the retrieval augmented prompt for a question.
+ *
+ * The {@link ContextAssembler} decides which of the retrieved passages fit in the context
+ * budget; they are then numbered in that order, most relevant first. The model is
+ * instructed to answer only from those passages and to cite them by number. The summary of
+ * the older part of the conversation is added to the instructions and its latest turns go
+ * before the question, so follow-up questions can be understood.
+ */
+public class RagDomainService {
+
+    private static final String SYSTEM_INSTRUCTION = """
+            Você é um assistente que responde perguntas sobre os documentos do usuário.
+            Responda apenas com base nos trechos fornecidos, no idioma da pergunta.
+            Cite os trechos usados pelo número entre colchetes, por exemplo [1].
+            Se os trechos não contiverem a resposta, diga que não encontrou essa informação nos documentos.
+            """;
+
+    private final ContextAssembler contextAssembler;
+    private final TokenEstimator tokenEstimator;
+
+    public RagDomainService(ContextAssembler contextAssembler, TokenEstimator tokenEstimator) {
+        this.contextAssembler = contextAssembler;
+        this.tokenEstimator = tokenEstimator;
+    }
+
+    /**
+     * @param question the user's question
+     * @param passages the retrieved passages
+     * @param conversation what is known of the conversation so far
+     * @return the prompt, with the passages chosen for it
+     */
+    public ChatPrompt buildPrompt(String question, List<ContextPassage> passages, ConversationContext conversation) {
+        List<ContextPassage> included = contextAssembler.assemble(passages);
+
+        StringBuilder userMessage = new StringBuilder("Trechos dos documentos:\n\n");
+        for (int i = 0; i < included.size(); i++) {
+            userMessage.append(formatPassage(i + 1, included.get(i)));
+        }
+        userMessage.append("Pergunta: ").append(question);
+
+        String systemInstruction = conversation.summary() == null
+                ? SYSTEM_INSTRUCTION
+                : SYSTEM_INSTRUCTION + "\nResumo da conversa até aqui:\n" + conversation.summary() + "\n";
+
+        int estimatedTokens = tokenEstimator.estimate(systemInstruction) + tokenEstimator.estimate(userMessage);
+        for (ChatMessage turn : conversation.recentTurns()) {
+            estimatedTokens += tokenEstimator.estimate(turn.content());
+        }
+        return new ChatPrompt(
+                systemInstruction, conversation.recentTurns(), userMessage.toString(), included, estimatedTokens);
+    }
+
+    private String formatPassage(int number, ContextPassage passage) {
+        String pages = passage.pageStart() == passage.pageEnd()
+                ? "p. " + passage.pageStart()
+                : "p. " + passage.pageStart() + "-" + passage.pageEnd();
+        return "[" + number + "] " + passage.fileName() + " (" + pages + ")\n" + passage.content() + "\n\n";
+    }
+}
@@ -0,0 +1,38 @@
+package com.contextoia.chatinteraction.domain.service;
+
+/**
+ * Estimates how many tokens a text takes in the model's context without calling the model.
+ *
+ * Subword tokenizers split common words into one or two tokens and rare or long ones into
+ * more, so each run of letters and digits is counted as one token per
+ * {@code CHARACTERS_PER_TOKEN} characters, rounded up, and every other non-whitespace
+ * character as a token of its own. The estimate is meant for budgeting and errs on the high
+ * side for Portuguese and English prose.
+ */
+public class TokenEstimator {
+
+    private static final int CHARACTERS_PER_TOKEN = 4;
+
+    public int estimate(CharSequence text) {
+        int tokens = 0;
+        int wordLength = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                wordLength++;
+                continue;
+            }
+            tokens += wordTokens(wordLength);
+            wordLength = 0;
+            if (!Character.isWhitespace(c)) {
+                tokens++;
+            }
+        }
+        return tokens + wordTokens(wordLength);
+    }
+
+    private int wordTokens(int length) {
+        return (length + CHARACTERS_PER_TOKEN - 1) / CHARACTERS_PER_TOKEN;
+    }
+}
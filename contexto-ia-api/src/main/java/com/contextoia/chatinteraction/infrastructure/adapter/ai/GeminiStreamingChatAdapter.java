@@ -0,0 +1,89 @@
+package com.contextoia.chatinteraction.infrastructure.adapter.ai;
+
+import com.contextoia.chatinteraction.application.port.out.ChatModelPort;
+import com.contextoia.chatinteraction.domain.model.ChatPrompt;
+import com.contextoia.chatinteraction.domain.model.ChatMessage;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adapter that implements {@link ChatModelPort} on top of a streaming chat model, relaying
+ * each partial response to the handler as soon as the model emits it.
+ *
+ * The model calls the handler from its own threads; a failure to start the request is
+ * reported through the handler as well, so callers have a single error path.
+ */
+@Component
+public class GeminiStreamingChatAdapter implements ChatModelPort {
+
+    private final StreamingChatLanguageModel streamingChatModel;
+
+    public GeminiStreamingChatAdapter(StreamingChatLanguageModel streamingChatModel) {
+        this.streamingChatModel = streamingChatModel;
+    }
+
+    @Override
+    public void streamAnswer(ChatPrompt prompt, AnswerStreamHandler handler) {
+        try {
+            streamingChatModel.generate(
+                    toModelMessages(prompt),
+                    new StreamingResponseHandler<AiMessage>() {
+                        @Override
+                        public void onNext(String token) {
+                            handler.onToken(token);
+                        }
+
+                        @Override
+                        public void onComplete(Response<AiMessage> response) {
+                            handler.onComplete(response.content().text());
+                        }
+
+                        @Override
+                        public void onError(Throwable error) {
+                            handler.onError(error);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            handler.onError(e);
+        }
+    }
+
+    /**
+     * Gemini expects user and model turns to alternate, so consecutive turns of the same
+     * role, left for instance by an answer that failed, are joined into one.
+     */
+    private List<dev.langchain4j.data.message.ChatMessage> toModelMessages(ChatPrompt prompt) {
+        List<ChatMessage.Role> roles = new ArrayList<>();
+        List<StringBuilder> contents = new ArrayList<>();
+        for (ChatMessage turn : prompt.history()) {
+            addTurn(roles, contents, turn.role(), turn.content());
+        }
+        addTurn(roles, contents, ChatMessage.Role.USER, prompt.userMessage());
+
+        List<dev.langchain4j.data.message.ChatMessage> messages = new ArrayList<>();
+        messages.add(SystemMessage.from(prompt.systemInstruction()));
+        for (int i = 0; i < roles.size(); i++) {
+            String content = contents.get(i).toString();
+            messages.add(roles.get(i) == ChatMessage.Role.USER ? UserMessage.from(content) : AiMessage.from(content));
+        }
+        return messages;
+    }
+
+    private void addTurn(List<ChatMessage.Role> roles, List<StringBuilder> contents, ChatMessage.Role role, String content) {
+        int last = roles.size() - 1;
+        if (last >= 0 && roles.get(last) == role) {
+            contents.get(last).append("\n\n").append(content);
+        } else {
+            roles.add(role);
+            contents.add(new StringBuilder(content));
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.contextoia.chatinteraction.infrastructure.adapter.cache;
+
+import com.contextoia.chatinteraction.application.dto.AnswerLookup;
+import com.contextoia.chatinteraction.application.port.out.AnswerCachePort;
+import com.contextoia.chatinteraction.domain.model.CachedAnswer;
+import com.contextoia.documentingestion.application.event.DocumentProcessedEvent;
+import com.contextoia.documentingestion.application.port.out.DocumentRepositoryPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * In-heap semantic cache of chat answers, implementing {@link AnswerCachePort}.
+ *
+ * Answers are kept per user and matched by the cosine similarity between question
+ * embeddings: a question whose embedding is at least {@code similarity-threshold} similar to
+ * a cached one gets the cached answer, without a vector search or a model call. Each user
+ * keeps at most {@code max-entries-per-user} answers and at most {@code max-users} users
+ * are kept, both evicted in least recently used order; entries also expire after a fixed
+ * time-to-live.
+ *
+ * A user's answers are dropped when one of their documents finishes processing: at once
+ * on the instance that processed it, and on the others at the user's next lookup, which
+ * compares the latest change to the user's completed documents in the database with the
+ * one seen before. Every such change gives the user a new corpus version, and an answer is
+ * only stored if the version is still the one seen when the question was looked up. When
+ * the database cannot be read, the lookup is a miss whose answer is not stored.
+ *
+ * Lookups are recorded as hits and misses in the {@code chat.answer.cache.requests} counter.
+ */
+@Component
+public class InMemorySemanticAnswerCache implements AnswerCachePort {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemorySemanticAnswerCache.class);
+
+    private final DocumentRepositoryPort documentRepository;
+    private final boolean enabled;
+    private final float similarityThreshold;
+    private final int maxEntriesPerUser;
+    private final long ttlMillis;
+    private final LinkedHashMap<UUID, UserAnswers> answersByUser;
+    private long lastVersion;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public InMemorySemanticAnswerCache(
+            DocumentRepositoryPort documentRepository,
+            @Value("${application.chat.answer-cache.enabled}") boolean enabled,
+            @Value("${application.chat.answer-cache.similarity-threshold}") float similarityThreshold,
+            @Value("${application.chat.answer-cache.max-entries-per-user}") int maxEntriesPerUser,
+            @Value("${application.chat.answer-cache.max-users}") int maxUsers,
+            @Value("${application.chat.answer-cache.ttl}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        if (similarityThreshold <= 0 || similarityThreshold > 1) {
+            throw new IllegalArgumentException("Limiar de similaridade do cache de respostas deve estar entre 0 e 1");
+        }
+        if (maxEntriesPerUser <= 0 || maxUsers <= 0) {
+            throw new IllegalArgumentException("Tamanho máximo do cache de respostas deve ser positivo");
+        }
+        this.documentRepository = documentRepository;
+        this.enabled = enabled;
+        this.similarityThreshold = similarityThreshold;
+        this.maxEntriesPerUser = maxEntriesPerUser;
+        this.ttlMillis = ttl.toMillis();
+        this.answersByUser = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, UserAnswers> eldest) {
+                return size() > maxUsers;
+            }
+        };
+
+        this.hitCounter = requestCounter(meterRegistry, "hit");
+        this.missCounter = requestCounter(meterRegistry, "miss");
+        Gauge.builder("chat.answer.cache.size", this, InMemorySemanticAnswerCache::size)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public AnswerLookup lookup(UUID userId, float[] questionEmbedding) {
+        float[] normalized = normalize(questionEmbedding);
+        if (!enabled) {
+            return new AnswerLookup(userId, normalized, -1, null);
+        }
+
+        LocalDateTime corpusChangedAt;
+        try {
+            corpusChangedAt = documentRepository.findLatestCompletedChange(userId).orElse(null);
+        } catch (RuntimeException e) {
+            logger.warn("Não foi possível verificar os documentos do usuário {}; cache de respostas ignorado",
+                    userId, e);
+            missCounter.increment();
+            return new AnswerLookup(userId, normalized, -1, null);
+        }
+
+        AnswerLookup lookup;
+        synchronized (this) {
+            UserAnswers answers = answersByUser.computeIfAbsent(
+                    userId, id -> new UserAnswers(++lastVersion, corpusChangedAt));
+            if (!Objects.equals(answers.corpusChangedAt, corpusChangedAt)) {
+                answers.clear(++lastVersion);
+                answers.corpusChangedAt = corpusChangedAt;
+            }
+            lookup = new AnswerLookup(userId, normalized, answers.version, answers.findSimilar(normalized));
+        }
+        (lookup.isHit() ? hitCounter : missCounter).increment();
+        return lookup;
+    }
+
+    @Override
+    public synchronized void store(AnswerLookup lookup, CachedAnswer answer) {
+        if (!enabled) return;
+
+        UserAnswers answers = answersByUser.get(lookup.userId());
+        if (answers == null || answers.version != lookup.corpusVersion()) {
+            return;
+        }
+        answers.add(lookup.questionEmbedding(), answer);
+    }
+
+    @Override
+    public synchronized void invalidate(UUID userId) {
+        UserAnswers answers = answersByUser.get(userId);
+        if (answers != null) {
+            answers.clear(++lastVersion);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentProcessed(DocumentProcessedEvent event) {
+        invalidate(event.userId());
+    }
+
+    private synchronized int size() {
+        return answersByUser.values().stream()
+                .mapToInt(answers -> answers.entries.size())
+                .sum();
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        float[] normalized = Arrays.copyOf(vector, vector.length);
+        if (norm == 0) return normalized;
+        float inverse = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < normalized.length; i++) {
+            normalized[i] *= inverse;
+        }
+        return normalized;
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("chat.answer.cache.requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The cached answers of one user, in least recently used order. Not thread-safe; guarded
+     * by the enclosing cache.
+     */
+    private final class UserAnswers {
+
+        private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntriesPerUser;
+            }
+        };
+        private long version;
+        private LocalDateTime corpusChangedAt;
+        private long nextEntryId;
+
+        private UserAnswers(long version, LocalDateTime corpusChangedAt) {
+            this.version = version;
+            this.corpusChangedAt = corpusChangedAt;
+        }
+
+        /**
+         * Finds the most similar live answer above the threshold, dropping expired ones
+         * along the way.
+         */
+        private CachedAnswer findSimilar(float[] embedding) {
+            long now = System.currentTimeMillis();
+            Long bestId = null;
+            float bestSimilarity = similarityThreshold;
+
+            Iterator<Map.Entry<Long, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Long, Entry> candidate = iterator.next();
+                if (candidate.getValue().expiresAt() <= now) {
+                    iterator.remove();
+                    continue;
+                }
+                float similarity = dot(embedding, candidate.getValue().embedding());
+                if (similarity >= bestSimilarity) {
+                    bestSimilarity = similarity;
+                    bestId = candidate.getKey();
+                }
+            }
+            return bestId == null ? null : entries.get(bestId).answer();
+        }
+
+        private void add(float[] embedding, CachedAnswer answer) {
+            entries.put(nextEntryId++, new Entry(embedding, answer, System.currentTimeMillis() + ttlMillis));
+        }
+
+        private void clear(long newVersion) {
+            entries.clear();
+            version = newVersion;
+        }
+
+        private static float dot(float[] a, float[] b) {
+            if (a.length != b.length) return 0;
+            float sum = 0;
+            for (int i = 0; i < a.length; i++) {
+                sum += a[i] * b[i];
+            }
+            return sum;
+        }
+    }
+
+    private record Entry(float[] embedding, CachedAnswer answer, long expiresAt) {
+    }
+}
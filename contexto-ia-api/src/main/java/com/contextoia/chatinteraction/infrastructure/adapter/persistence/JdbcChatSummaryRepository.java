@@ -0,0 +1,90 @@
+package com.contextoia.chatinteraction.infrastructure.adapter.persistence;
+
+import com.contextoia.chatinteraction.application.port.out.ChatSummaryPort;
+import com.contextoia.chatinteraction.domain.model.SessionSummary;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Access to the "tb_chat_session_summary" table, which holds one running summary per chat
+ * session of each user.
+ */
+@Repository
+public class JdbcChatSummaryRepository implements ChatSummaryPort {
+
+    private static final String SELECT_SQL = """
+            SELECT session_id, user_id, summary, summarized_until_created_at, summarized_until_id
+            FROM tb_chat_session_summary
+            WHERE session_id = :sessionId
+              AND user_id = :userId
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO tb_chat_session_summary
+                (session_id, user_id, summary, summarized_until_created_at, summarized_until_id)
+            VALUES (:sessionId, :userId, :summary, :summarizedUntilCreatedAt, :summarizedUntilId)
+            ON CONFLICT (session_id, user_id) DO NOTHING
+            """;
+
+    /**
+     * Replaces the summary only if it still covers the same messages as the one the new
+     * summary was built from.
+     */
+    private static final String UPDATE_SQL = """
+            UPDATE tb_chat_session_summary
+            SET summary = :summary,
+                summarized_until_created_at = :summarizedUntilCreatedAt,
+                summarized_until_id = :summarizedUntilId,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE session_id = :sessionId
+              AND user_id = :userId
+              AND summarized_until_id = :previousUntilId
+            """;
+
+    private static final RowMapper<SessionSummary> SESSION_SUMMARY_MAPPER = (rs, rowNum) ->
+            new SessionSummary(
+                    rs.getObject("session_id", UUID.class),
+                    rs.getObject("user_id", UUID.class),
+                    rs.getString("summary"),
+                    rs.getObject("summarized_until_created_at", OffsetDateTime.class).toInstant(),
+                    rs.getObject("summarized_until_id", UUID.class)
+            );
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public JdbcChatSummaryRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<SessionSummary> find(UUID sessionId, UUID userId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("sessionId", sessionId)
+                .addValue("userId", userId);
+        return jdbcTemplate.query(SELECT_SQL, params, SESSION_SUMMARY_MAPPER).stream().findFirst();
+    }
+
+    @Override
+    public boolean save(SessionSummary summary, SessionSummary previous) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("sessionId", summary.sessionId())
+                .addValue("userId", summary.userId())
+                .addValue("summary", summary.content())
+                .addValue("summarizedUntilCreatedAt",
+                        OffsetDateTime.ofInstant(summary.summarizedUntilCreatedAt(), ZoneOffset.UTC))
+                .addValue("summarizedUntilId", summary.summarizedUntilId());
+
+        if (previous == null) {
+            return jdbcTemplate.update(INSERT_SQL, params) == 1;
+        }
+        params.addValue("previousUntilId", previous.summarizedUntilId());
+        return jdbcTemplate.update(UPDATE_SQL, params) == 1;
+    }
+}
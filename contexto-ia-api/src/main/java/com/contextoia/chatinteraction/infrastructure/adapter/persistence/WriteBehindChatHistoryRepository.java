@@ -0,0 +1,351 @@
+package com.contextoia.chatinteraction.infrastructure.adapter.persistence;
+
+import com.contextoia.chatinteraction.application.dto.ChatHistoryCursor;
+import com.contextoia.chatinteraction.application.port.out.ChatHistoryPort;
+import com.contextoia.chatinteraction.domain.model.ChatMessage;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Chat history backed by the "tb_chat_history" table, written behind the conversation.
+ *
+ * Appended messages are buffered in memory and written by a background thread as a single
+ * multi-row {@code INSERT}, every {@code flush-interval} or as soon as {@code batch-size}
+ * messages are waiting, so a chat turn never waits for a database connection. When the
+ * buffer is full, the appending thread writes the pending messages itself, and its own
+ * message directly if the buffer could not be emptied. A batch that fails stays pending
+ * and is written again on the next flush; inserts ignore ids already stored, so retrying
+ * a batch that did reach the database is harmless.
+ *
+ * The buffer is drained when the application stops, after the web server, so messages
+ * accepted before shutdown are written before the connection pool closes. Messages still
+ * buffered when the process dies abruptly are lost.
+ *
+ * Reads see buffered messages too: they are merged with the rows already stored, so a
+ * session's latest turns are available to the next prompt before they are written.
+ */
+@Repository
+public class WriteBehindChatHistoryRepository implements ChatHistoryPort, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindChatHistoryRepository.class);
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int SHUTDOWN_FLUSH_ATTEMPTS = 3;
+    private static final int COLUMNS = 6;
+    private static final int MAX_STATEMENT_PARAMETERS = 32767;
+
+    private static final String INSERT_SQL_PREFIX = """
+            INSERT INTO tb_chat_history (id, session_id, user_id, role, content, created_at)
+            VALUES\s""";
+    private static final String INSERT_ROW = "(?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_SQL_SUFFIX = " ON CONFLICT (id) DO NOTHING";
+
+    private static final String SELECT_RECENT_SQL = """
+            SELECT id, session_id, user_id, role, content, created_at
+            FROM tb_chat_history
+            WHERE session_id = :sessionId
+              AND user_id = :userId
+            ORDER BY created_at DESC, id DESC
+            LIMIT :limit
+            """;
+
+    private static final String SELECT_RECENT_BEFORE_SQL = """
+            SELECT id, session_id, user_id, role, content, created_at
+            FROM tb_chat_history
+            WHERE session_id = :sessionId
+              AND user_id = :userId
+              AND (created_at, id) < (:createdAt, :id)
+            ORDER BY created_at DESC, id DESC
+            LIMIT :limit
+            """;
+
+    private static final String SELECT_OLDEST_SQL = """
+            SELECT id, session_id, user_id, role, content, created_at
+            FROM tb_chat_history
+            WHERE session_id = :sessionId
+              AND user_id = :userId
+            ORDER BY created_at, id
+            LIMIT :limit
+            """;
+
+    private static final String SELECT_OLDEST_AFTER_SQL = """
+            SELECT id, session_id, user_id, role, content, created_at
+            FROM tb_chat_history
+            WHERE session_id = :sessionId
+              AND user_id = :userId
+              AND (created_at, id) > (:createdAt, :id)
+            ORDER BY created_at, id
+            LIMIT :limit
+            """;
+
+    private static final RowMapper<ChatMessage> CHAT_MESSAGE_MAPPER = (rs, rowNum) ->
+            new ChatMessage(
+                    rs.getObject("id", UUID.class),
+                    rs.getObject("session_id", UUID.class),
+                    rs.getObject("user_id", UUID.class),
+                    ChatMessage.Role.valueOf(rs.getString("role")),
+                    rs.getString("content"),
+                    rs.getObject("created_at", OffsetDateTime.class).toInstant()
+            );
+
+    private static final Comparator<ChatMessage> OLDEST_FIRST = Comparator
+            .comparing(ChatMessage::createdAt)
+            .thenComparing(ChatMessage::id);
+    private static final Comparator<ChatMessage> NEWEST_FIRST = OLDEST_FIRST.reversed();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final BlockingQueue<ChatMessage> buffer;
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * The batch being written, or left over by a failed write. Only replaced under the
+     * flush lock; read without it to include its messages in queries.
+     */
+    private volatile List<ChatMessage> pendingBatch = List.of();
+    private volatile boolean running;
+    private Thread flusher;
+
+    public WriteBehindChatHistoryRepository(
+            JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            @Value("${application.chat.history.batch-size}") int batchSize,
+            @Value("${application.chat.history.flush-interval}") Duration flushInterval,
+            @Value("${application.chat.history.buffer-capacity}") int bufferCapacity,
+            MeterRegistry meterRegistry) {
+        if (batchSize <= 0 || bufferCapacity < batchSize) {
+            throw new IllegalArgumentException("Capacidade do buffer do histórico deve ser maior que o tamanho do lote");
+        }
+        if (batchSize * COLUMNS > MAX_STATEMENT_PARAMETERS) {
+            throw new IllegalArgumentException("Tamanho do lote do histórico excede o limite de parâmetros de uma instrução");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+
+        Gauge.builder("chat.history.buffer.size", buffer, BlockingQueue::size)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void append(ChatMessage message) {
+        if (!running) {
+            insert(List.of(message));
+            return;
+        }
+        if (buffer.offer(message)) {
+            if (buffer.size() >= batchSize) {
+                LockSupport.unpark(flusher);
+            }
+            return;
+        }
+
+        flush();
+        if (!buffer.offer(message)) {
+            insert(List.of(message));
+        }
+    }
+
+    @Override
+    public List<ChatMessage> findRecent(UUID sessionId, UUID userId, ChatHistoryCursor before, int limit) {
+        return find(sessionId, userId, before, limit, true);
+    }
+
+    @Override
+    public List<ChatMessage> findOldest(UUID sessionId, UUID userId, ChatHistoryCursor after, int limit) {
+        return find(sessionId, userId, after, limit, false);
+    }
+
+    /**
+     * Reads a page of the session, newest or oldest first, starting past the cursor, and
+     * merges it with the buffered messages that fall in the same range. The buffered ones
+     * are taken before the query, so a message written in between is found by the query.
+     */
+    private List<ChatMessage> find(UUID sessionId, UUID userId, ChatHistoryCursor cursor, int limit,
+                                   boolean newestFirst) {
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+        if (pageSize <= 0) {
+            return List.of();
+        }
+
+        List<ChatMessage> buffered = bufferedMessages();
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("sessionId", sessionId)
+                .addValue("userId", userId)
+                .addValue("limit", pageSize);
+        List<ChatMessage> stored;
+        if (cursor == null) {
+            stored = namedJdbcTemplate.query(
+                    newestFirst ? SELECT_RECENT_SQL : SELECT_OLDEST_SQL, params, CHAT_MESSAGE_MAPPER);
+        } else {
+            params.addValue("createdAt", OffsetDateTime.ofInstant(cursor.createdAt(), ZoneOffset.UTC))
+                    .addValue("id", cursor.id());
+            stored = namedJdbcTemplate.query(
+                    newestFirst ? SELECT_RECENT_BEFORE_SQL : SELECT_OLDEST_AFTER_SQL, params, CHAT_MESSAGE_MAPPER);
+        }
+
+        Map<UUID, ChatMessage> merged = new LinkedHashMap<>();
+        stored.forEach(message -> merged.put(message.id(), message));
+        for (ChatMessage message : buffered) {
+            if (message.sessionId().equals(sessionId) && message.userId().equals(userId)
+                    && (cursor == null || compare(message, cursor) == (newestFirst ? -1 : 1))) {
+                merged.putIfAbsent(message.id(), message);
+            }
+        }
+
+        return merged.values().stream()
+                .sorted(newestFirst ? NEWEST_FIRST : OLDEST_FIRST)
+                .limit(pageSize)
+                .toList();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = Thread.ofPlatform()
+                .name("chat-history-flusher")
+                .daemon(true)
+                .start(this::flushPeriodically);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(Duration.ofNanos(flushIntervalNanos).plusSeconds(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (int attempt = 1; attempt <= SHUTDOWN_FLUSH_ATTEMPTS && hasPendingMessages(); attempt++) {
+            flush();
+        }
+        if (hasPendingMessages()) {
+            logger.error("{} mensagens do histórico de chat não foram gravadas no encerramento",
+                    pendingBatch.size() + buffer.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the web server, which stops at a higher phase, so no chat message is
+     * accepted once the buffer has been drained.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void flushPeriodically() {
+        while (running) {
+            LockSupport.parkNanos(this, flushIntervalNanos);
+            flush();
+        }
+    }
+
+    /**
+     * Writes the pending batch, if a previous write failed, and then everything buffered,
+     * in batches of at most {@code batchSize} messages. Stops at the first failure.
+     *
+     * A batch becomes the pending one before it leaves the buffer, so a reader always finds
+     * each message in one of them until it is stored. Only this method removes messages
+     * from the buffer, under the flush lock, so the head of the buffer is the batch copied.
+     */
+    private void flush() {
+        flushLock.lock();
+        try {
+            while (true) {
+                if (pendingBatch.isEmpty()) {
+                    List<ChatMessage> batch = buffer.stream().limit(batchSize).toList();
+                    if (batch.isEmpty()) return;
+                    pendingBatch = batch;
+                    batch.forEach(message -> buffer.poll());
+                }
+                insert(pendingBatch);
+                pendingBatch = List.of();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Falha ao gravar {} mensagens do histórico de chat; nova tentativa na próxima gravação",
+                    pendingBatch.size(), e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void insert(List<ChatMessage> messages) {
+        String sql = INSERT_SQL_PREFIX
+                + String.join(", ", Collections.nCopies(messages.size(), INSERT_ROW))
+                + INSERT_SQL_SUFFIX;
+
+        jdbcTemplate.update(sql, ps -> {
+            int index = 1;
+            for (ChatMessage message : messages) {
+                ps.setObject(index++, message.id());
+                ps.setObject(index++, message.sessionId());
+                ps.setObject(index++, message.userId());
+                ps.setString(index++, message.role().name());
+                ps.setString(index++, message.content());
+                ps.setObject(index++, OffsetDateTime.ofInstant(message.createdAt(), ZoneOffset.UTC));
+            }
+        });
+    }
+
+    /**
+     * Snapshot of the messages not yet stored, read in the opposite direction to the one
+     * they move in: first the buffer, then the pending batch. A message that leaves the
+     * buffer after it was read is already counted; one that left before is still pending,
+     * or stored before the query that follows.
+     */
+    private List<ChatMessage> bufferedMessages() {
+        List<ChatMessage> messages = new ArrayList<>(buffer);
+        messages.addAll(pendingBatch);
+        return messages;
+    }
+
+    private boolean hasPendingMessages() {
+        return !pendingBatch.isEmpty() || !buffer.isEmpty();
+    }
+
+    /**
+     * Compares the position of the message with the cursor: -1 if it is older, 1 if newer.
+     */
+    private static int compare(ChatMessage message, ChatHistoryCursor cursor) {
+        int byTime = message.createdAt().compareTo(cursor.createdAt());
+        int byPosition = byTime != 0 ? byTime : message.id().compareTo(cursor.id());
+        return Integer.signum(byPosition);
+    }
+}
@@ -0,0 +1,47 @@
+package com.contextoia.chatinteraction.infrastructure.adapter.rag;
+
+import com.contextoia.chatinteraction.application.port.out.RagQueryPort;
+import com.contextoia.chatinteraction.domain.model.ContextPassage;
+import com.contextoia.documentingestion.application.port.out.DocumentVectorStoragePort;
+import com.contextoia.documentingestion.application.port.out.EmbeddingPort;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Adapter that implements {@link RagQueryPort} with the document ingestion module: the
+ * question is embedded with the same model used for the chunks and matched against the
+ * user's chunks by the configured vector store.
+ */
+@Component
+public class DocumentRagQueryAdapter implements RagQueryPort {
+
+    private final EmbeddingPort embeddingPort;
+    private final DocumentVectorStoragePort vectorStoragePort;
+
+    public DocumentRagQueryAdapter(EmbeddingPort embeddingPort, DocumentVectorStoragePort vectorStoragePort) {
+        this.embeddingPort = embeddingPort;
+        this.vectorStoragePort = vectorStoragePort;
+    }
+
+    @Override
+    public float[] embedQuestion(String question) {
+        return embeddingPort.generateEmbedding(question);
+    }
+
+    @Override
+    public List<ContextPassage> findRelevantPassages(float[] questionEmbedding, UUID userId, int limit) {
+        return vectorStoragePort.findSimilarChunks(questionEmbedding, userId, limit).stream()
+                .map(chunk -> new ContextPassage(
+                        chunk.documentId(),
+                        chunk.fileName(),
+                        chunk.chunkIndex(),
+                        chunk.chunkIndex(),
+                        chunk.pageStart(),
+                        chunk.pageEnd(),
+                        chunk.content(),
+                        chunk.similarity()))
+                .toList();
+    }
+}
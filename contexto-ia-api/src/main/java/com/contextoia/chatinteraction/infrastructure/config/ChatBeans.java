@@ -0,0 +1,48 @@
+package com.contextoia.chatinteraction.infrastructure.config;
+
+import com.contextoia.chatinteraction.domain.service.ContextAssembler;
+import com.contextoia.chatinteraction.domain.service.ConversationSummarizer;
+import com.contextoia.chatinteraction.domain.service.RagDomainService;
+import com.contextoia.chatinteraction.domain.service.TokenEstimator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuração dos serviços de domínio do chat
+ */
+@Configuration
+public class ChatBeans {
+
+    @Value("${application.chat.context.max-tokens}")
+    private int maxContextTokens;
+
+    @Value("${application.chat.context.relevance-weight}")
+    private double relevanceWeight;
+
+    @Value("${application.chat.context.duplicate-threshold}")
+    private double duplicateThreshold;
+
+    @Value("${application.chat.memory.summary-max-words}")
+    private int summaryMaxWords;
+
+    @Bean
+    public TokenEstimator tokenEstimator() {
+        return new TokenEstimator();
+    }
+
+    @Bean
+    public ContextAssembler contextAssembler(TokenEstimator tokenEstimator) {
+        return new ContextAssembler(tokenEstimator, maxContextTokens, relevanceWeight, duplicateThreshold);
+    }
+
+    @Bean
+    public RagDomainService ragDomainService(ContextAssembler contextAssembler, TokenEstimator tokenEstimator) {
+        return new RagDomainService(contextAssembler, tokenEstimator);
+    }
+
+    @Bean
+    public ConversationSummarizer conversationSummarizer(TokenEstimator tokenEstimator) {
+        return new ConversationSummarizer(tokenEstimator, summaryMaxWords);
+    }
+}
@@ -0,0 +1,12 @@
+package com.contextoia.common.exceptions;
+
+/**
+ * Signals a failure caused by a temporarily unavailable dependency (rate limiting, network
+ * errors, timeouts). The same operation may succeed if retried later.
+ */
+public class TransientFailureException extends RuntimeException {
+
+    public TransientFailureException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,42 @@
+package com.contextoia.config;
+
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.vertexai.VertexAiGeminiStreamingChatModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuração do modelo de chat do Vertex AI Gemini usado para responder em streaming
+ */
+@Configuration
+public class AiConfig {
+
+    @Value("${langchain4j.vertexai.project-id}")
+    private String projectId;
+
+    @Value("${langchain4j.vertexai.location}")
+    private String location;
+
+    @Value("${langchain4j.vertexai.chat-model.model-name}")
+    private String modelName;
+
+    @Value("${application.chat.temperature}")
+    private float temperature;
+
+    @Value("${application.chat.max-output-tokens}")
+    private int maxOutputTokens;
+
+    @Bean
+    @ConditionalOnMissingBean
+    public StreamingChatLanguageModel streamingChatLanguageModel() {
+        return VertexAiGeminiStreamingChatModel.builder()
+                .project(projectId)
+                .location(location)
+                .modelName(modelName)
+                .temperature(temperature)
+                .maxOutputTokens(maxOutputTokens)
+                .build();
+    }
+}
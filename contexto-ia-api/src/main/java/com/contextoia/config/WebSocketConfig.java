@@ -0,0 +1,62 @@
+package com.contextoia.config;
+
+import com.contextoia.identityaccess.application.config.JwtChannelInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+import java.util.Arrays;
+
+/**
+ * Configuração do WebSocket/STOMP usado pelo chat.
+ * Os clientes conectam em /ws/chat, enviam mensagens para /app/chat.send e recebem as
+ * respostas em /user/queue/chat.
+ * Apenas as origens listadas em application.chat.allowed-origins são aceitas; sem nenhuma,
+ * só a própria origem da API, e o curinga "*" é recusado na inicialização.
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private final JwtChannelInterceptor jwtChannelInterceptor;
+
+    @Value("${application.chat.allowed-origins}")
+    private String[] allowedOrigins;
+
+    public WebSocketConfig(JwtChannelInterceptor jwtChannelInterceptor) {
+        this.jwtChannelInterceptor = jwtChannelInterceptor;
+    }
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws/chat")
+                .setAllowedOriginPatterns(allowedOriginPatterns());
+    }
+
+    private String[] allowedOriginPatterns() {
+        String[] patterns = Arrays.stream(allowedOrigins)
+                .map(String::trim)
+                .filter(origin -> !origin.isEmpty())
+                .toArray(String[]::new);
+        if (Arrays.asList(patterns).contains("*")) {
+            throw new IllegalStateException("application.chat.allowed-origins não pode aceitar qualquer origem (*)");
+        }
+        return patterns;
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker("/queue");
+        registry.setApplicationDestinationPrefixes("/app");
+        registry.setUserDestinationPrefix("/user");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(jwtChannelInterceptor);
+    }
+}
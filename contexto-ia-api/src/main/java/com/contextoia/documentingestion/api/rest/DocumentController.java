@@ -1,15 +1,24 @@
 package com.contextoia.documentingestion.api.rest;
 
 import com.contextoia.documentingestion.application.dto.DocumentDetailsResponse;
+import com.contextoia.documentingestion.application.dto.DocumentPageRequest;
+import com.contextoia.documentingestion.application.dto.DocumentPageResponse;
 import com.contextoia.documentingestion.application.dto.DocumentUploadResponse;
 import com.contextoia.documentingestion.application.dto.SearchSimilarRequest;
 import com.contextoia.documentingestion.application.dto.SimilarDocumentResponse;
+import com.contextoia.documentingestion.application.dto.UploadUrlRequest;
+import com.contextoia.documentingestion.application.dto.UploadUrlResponse;
+import com.contextoia.documentingestion.application.port.in.CompleteUploadUseCase;
 import com.contextoia.documentingestion.application.port.in.GetDocumentUseCase;
 import com.contextoia.documentingestion.application.port.in.ListUserDocumentsUseCase;
+import com.contextoia.documentingestion.application.port.in.RequestUploadUrlUseCase;
 import com.contextoia.documentingestion.application.port.in.SearchSimilarDocumentsUseCase;
 import com.contextoia.documentingestion.application.port.in.UploadDocumentUseCase;
+import com.contextoia.documentingestion.domain.enums.DocumentStatus;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,6 +26,8 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 import java.util.function.Supplier;
@@ -31,8 +42,15 @@ import java.util.function.Supplier;
  * <p>
  * Endpoints:
  * - POST /api/documents/upload: Supports document uploads.
+ * - POST /api/documents/upload/stream: Uploads a PDF sent as the raw request body, streamed
+ *   to storage without being buffered by the server.
+ * - POST /api/documents/upload-url: Creates a pending document and returns a presigned URL
+ *   to upload its PDF directly to storage.
+ * - POST /api/documents/{id}/upload/complete: Verifies a directly uploaded PDF and queues it
+ *   for processing.
  * - GET /api/documents/{id}: Retrieves details of a specific document.
- * - GET /api/documents: Lists all documents associated with the authenticated user.
+ * - GET /api/documents: Lists the authenticated user's documents, newest first, using
+ *   cursor-based pagination with optional status and creation date filters.
  * - POST /api/documents/search: Searches for similar documents based on a given query.
  * <p>
  * Exceptions are handled within each API method to ensure appropriate HTTP responses.
@@ -42,16 +60,22 @@ import java.util.function.Supplier;
 @RequestMapping("/api/documents")
 public class DocumentController {
     private final UploadDocumentUseCase uploadDocumentUseCase;
+    private final RequestUploadUrlUseCase requestUploadUrlUseCase;
+    private final CompleteUploadUseCase completeUploadUseCase;
     private final GetDocumentUseCase getDocumentUseCase;
     private final ListUserDocumentsUseCase listUserDocumentsUseCase;
     private final SearchSimilarDocumentsUseCase searchSimilarDocumentsUseCase;
 
     public DocumentController(
             UploadDocumentUseCase uploadDocumentUseCase,
+            RequestUploadUrlUseCase requestUploadUrlUseCase,
+            CompleteUploadUseCase completeUploadUseCase,
             GetDocumentUseCase getDocumentUseCase,
             ListUserDocumentsUseCase listUserDocumentsUseCase,
             SearchSimilarDocumentsUseCase searchSimilarDocumentsUseCase) {
         this.uploadDocumentUseCase = uploadDocumentUseCase;
+        this.requestUploadUrlUseCase = requestUploadUrlUseCase;
+        this.completeUploadUseCase = completeUploadUseCase;
         this.getDocumentUseCase = getDocumentUseCase;
         this.listUserDocumentsUseCase = listUserDocumentsUseCase;
         this.searchSimilarDocumentsUseCase = searchSimilarDocumentsUseCase;
@@ -74,6 +98,58 @@ public class DocumentController {
         );
     }
 
+    @PostMapping(value = "/upload/stream", consumes = MediaType.APPLICATION_PDF_VALUE)
+    public ResponseEntity<DocumentUploadResponse> uploadDocumentStream(
+            @RequestParam("fileName") String fileName,
+            InputStream body,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        UUID userId = extractUserId(userDetails);
+        return executeWithExceptionHandling(
+                () -> {
+                    try {
+                        return uploadDocumentUseCase.execute(body, fileName, userId);
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                },
+                HttpStatus.CREATED
+        );
+    }
+
+    @PostMapping("/upload-url")
+    public ResponseEntity<UploadUrlResponse> requestUploadUrl(
+            @RequestBody UploadUrlRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        UUID userId = extractUserId(userDetails);
+        return executeWithExceptionHandling(
+                () -> {
+                    try {
+                        return requestUploadUrlUseCase.execute(request, userId);
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                },
+                HttpStatus.CREATED
+        );
+    }
+
+    @PostMapping("/{id}/upload/complete")
+    public ResponseEntity<DocumentUploadResponse> completeUpload(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        UUID userId = extractUserId(userDetails);
+        return executeWithExceptionHandling(
+                () -> {
+                    try {
+                        return completeUploadUseCase.execute(id, userId);
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                },
+                HttpStatus.ACCEPTED
+        );
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<DocumentDetailsResponse> getDocument(
             @PathVariable UUID id,
@@ -86,11 +162,21 @@ public class DocumentController {
     }
 
     @GetMapping
-    public ResponseEntity<List<DocumentDetailsResponse>> getUserDocuments(
+    public ResponseEntity<DocumentPageResponse> getUserDocuments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) DocumentStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
             @AuthenticationPrincipal UserDetails userDetails) {
         UUID userId = extractUserId(userDetails);
-        List<DocumentDetailsResponse> response = listUserDocumentsUseCase.execute(userId);
-        return ResponseEntity.ok(response);
+        return executeWithExceptionHandling(
+                () -> listUserDocumentsUseCase.execute(
+                        userId,
+                        new DocumentPageRequest(cursor, size, status, createdFrom, createdTo)
+                ),
+                HttpStatus.OK
+        );
     }
 
     @PostMapping("/search")
@@ -0,0 +1,46 @@
+package com.contextoia.documentingestion.application.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last document of a page in the {@code (created_at DESC, id DESC)} ordering.
+ * It is exchanged with clients as an opaque, URL-safe token.
+ */
+public record DocumentCursor(
+        LocalDateTime createdAt,
+        UUID id
+) {
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a token produced by {@link #encode()}. Any other token is rejected, including
+     * altered ones that would still parse, such as a truncated id that
+     * {@link UUID#fromString(String)} would silently accept.
+     */
+    public static DocumentCursor decode(String token) {
+        DocumentCursor cursor;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            cursor = new DocumentCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido", e);
+        }
+        if (!cursor.encode().equals(token)) {
+            throw new IllegalArgumentException("Cursor de paginação inválido");
+        }
+        return cursor;
+    }
+}
@@ -0,0 +1,28 @@
+package com.contextoia.documentingestion.application.dto;
+
+import com.contextoia.documentingestion.domain.enums.DocumentStatus;
+
+import java.time.LocalDateTime;
+
+public record DocumentPageRequest(
+        String cursor,
+        Integer size,
+        DocumentStatus status,
+        LocalDateTime createdFrom,
+        LocalDateTime createdTo
+) {
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    public DocumentPageRequest {
+        if (size == null) {
+            size = DEFAULT_SIZE;
+        }
+        if (size <= 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Tamanho da página deve estar entre 1 e " + MAX_SIZE);
+        }
+        if (createdFrom != null && createdTo != null && createdFrom.isAfter(createdTo)) {
+            throw new IllegalArgumentException("Data inicial deve ser anterior à data final");
+        }
+    }
+}
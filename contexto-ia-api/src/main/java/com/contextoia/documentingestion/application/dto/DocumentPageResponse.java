@@ -0,0 +1,9 @@
+package com.contextoia.documentingestion.application.dto;
+
+import java.util.List;
+
+public record DocumentPageResponse(
+        List<DocumentDetailsResponse> items,
+        String nextCursor
+) {
+}
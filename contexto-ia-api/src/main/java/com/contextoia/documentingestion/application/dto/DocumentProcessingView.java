@@ -0,0 +1,19 @@
+package com.contextoia.documentingestion.application.dto;
+
+import com.contextoia.documentingestion.domain.enums.DocumentStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Interface-based projection with the columns the document processor needs, read without
+ * loading the full entity.
+ */
+public interface DocumentProcessingView {
+    UUID getId();
+    UUID getUserId();
+    String getStorageKey();
+    String getOriginalFileName();
+    DocumentStatus getStatus();
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,21 @@
+package com.contextoia.documentingestion.application.dto;
+
+import com.contextoia.documentingestion.domain.enums.DocumentStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only view over the metadata columns of a document. Queries returning this
+ * projection never load the extracted text or the embedding.
+ */
+public interface DocumentSummary {
+    UUID getId();
+    String getFileName();
+    String getOriginalFileName();
+    Long getFileSize();
+    DocumentStatus getStatus();
+    String getErrorMessage();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getProcessedAt();
+}
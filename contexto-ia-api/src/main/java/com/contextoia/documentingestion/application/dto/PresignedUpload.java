@@ -0,0 +1,13 @@
+package com.contextoia.documentingestion.application.dto;
+
+import java.util.Map;
+
+/**
+ * A signed browser-style upload: the file is sent with an HTTP {@code POST} to {@code url}
+ * as a multipart form holding {@code formFields} followed by a {@code file} field.
+ */
+public record PresignedUpload(
+        String url,
+        Map<String, String> formFields
+) {
+}
@@ -0,0 +1,19 @@
+package com.contextoia.documentingestion.application.dto;
+
+import java.util.UUID;
+
+/**
+ * A chunk matched by vector search, with its full content and the pages it was taken
+ * from, as needed to ground an answer on it.
+ */
+public record SimilarChunkResult(
+        UUID chunkId,
+        UUID documentId,
+        String fileName,
+        int chunkIndex,
+        int pageStart,
+        int pageEnd,
+        String content,
+        float similarity
+) {
+}
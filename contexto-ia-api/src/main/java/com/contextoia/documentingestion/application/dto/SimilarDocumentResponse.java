@@ -2,12 +2,17 @@ package com.contextoia.documentingestion.application.dto;
 
 import java.util.UUID;
 
+/**
+ * A hit of the hybrid search. {@code score} is the Reciprocal Rank Fusion score the results
+ * are ordered by; {@code similarity} is the cosine similarity of the document's closest
+ * chunk, or {@code null} when the document was only matched lexically.
+ */
 public record SimilarDocumentResponse(
         UUID id,
         String fileName,
         String extractedText,
-        float similarity
+        Float similarity,
+        double score
 ) {
 
 }
-
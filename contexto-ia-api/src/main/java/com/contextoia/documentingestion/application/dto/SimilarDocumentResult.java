@@ -0,0 +1,15 @@
+package com.contextoia.documentingestion.application.dto;
+
+import java.util.UUID;
+
+/**
+ * A document matched by vector search, carrying the similarity of its closest chunk
+ * and a short snippet of that chunk.
+ */
+public record SimilarDocumentResult(
+        UUID documentId,
+        String fileName,
+        float similarity,
+        String snippet
+) {
+}
@@ -0,0 +1,7 @@
+package com.contextoia.documentingestion.application.dto;
+
+public record StoredObjectInfo(
+        long size,
+        String contentType
+) {
+}
@@ -0,0 +1,11 @@
+package com.contextoia.documentingestion.application.dto;
+
+public record UploadUrlRequest(
+        String fileName
+) {
+    public UploadUrlRequest {
+        if (fileName == null || !fileName.toLowerCase().endsWith(".pdf")) {
+            throw new IllegalArgumentException("Apenas arquivos PDF são permitidos");
+        }
+    }
+}
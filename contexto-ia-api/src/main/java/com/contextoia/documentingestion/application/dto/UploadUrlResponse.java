@@ -0,0 +1,14 @@
+package com.contextoia.documentingestion.application.dto;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+public record UploadUrlResponse(
+        UUID documentId,
+        String uploadUrl,
+        String method,
+        Map<String, String> formFields,
+        Instant expiresAt
+) {
+}
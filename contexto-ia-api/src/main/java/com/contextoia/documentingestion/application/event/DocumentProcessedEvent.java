@@ -0,0 +1,15 @@
+package com.contextoia.documentingestion.application.event;
+
+import java.util.UUID;
+
+/**
+ * Published by the document processor once a document and its embedded chunks have been
+ * stored, so that in-process read models can be refreshed. The chunks themselves are not
+ * carried: a large document would otherwise be held in memory until every listener ran.
+ */
+public record DocumentProcessedEvent(
+        UUID documentId,
+        UUID userId,
+        String fileName
+) {
+}
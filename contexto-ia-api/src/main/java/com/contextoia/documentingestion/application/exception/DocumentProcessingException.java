@@ -0,0 +1,21 @@
+package com.contextoia.documentingestion.application.exception;
+
+import java.util.UUID;
+
+/**
+ * Thrown when a document fails processing for a reason that retrying will not fix, such
+ * as an unreadable or encrypted PDF. The document has already been marked as failed.
+ */
+public class DocumentProcessingException extends RuntimeException {
+
+    private final UUID documentId;
+
+    public DocumentProcessingException(UUID documentId, Throwable cause) {
+        super("Falha definitiva ao processar documento: " + documentId, cause);
+        this.documentId = documentId;
+    }
+
+    public UUID getDocumentId() {
+        return documentId;
+    }
+}
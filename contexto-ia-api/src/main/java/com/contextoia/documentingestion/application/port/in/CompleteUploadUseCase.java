@@ -0,0 +1,10 @@
+package com.contextoia.documentingestion.application.port.in;
+
+import com.contextoia.documentingestion.application.dto.DocumentUploadResponse;
+
+import java.io.IOException;
+import java.util.UUID;
+
+public interface CompleteUploadUseCase {
+    DocumentUploadResponse execute(UUID documentId, UUID userId) throws IOException;
+}
@@ -1,10 +1,10 @@
 package com.contextoia.documentingestion.application.port.in;
 
-import com.contextoia.documentingestion.application.dto.DocumentDetailsResponse;
+import com.contextoia.documentingestion.application.dto.DocumentPageRequest;
+import com.contextoia.documentingestion.application.dto.DocumentPageResponse;
 
-import java.util.List;
 import java.util.UUID;
 
 public interface ListUserDocumentsUseCase {
-    List<DocumentDetailsResponse> execute(UUID userId);
+    DocumentPageResponse execute(UUID userId, DocumentPageRequest request);
 }
@@ -0,0 +1,11 @@
+package com.contextoia.documentingestion.application.port.in;
+
+import com.contextoia.documentingestion.application.dto.UploadUrlRequest;
+import com.contextoia.documentingestion.application.dto.UploadUrlResponse;
+
+import java.io.IOException;
+import java.util.UUID;
+
+public interface RequestUploadUrlUseCase {
+    UploadUrlResponse execute(UploadUrlRequest request, UUID userId) throws IOException;
+}
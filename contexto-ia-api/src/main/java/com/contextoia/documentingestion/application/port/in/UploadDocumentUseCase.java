@@ -4,8 +4,10 @@ import com.contextoia.documentingestion.application.dto.DocumentUploadResponse;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.UUID;
 
 public interface UploadDocumentUseCase {
     DocumentUploadResponse execute(MultipartFile file, UUID userId) throws IOException;
-}
\ No newline at end of file
+    DocumentUploadResponse execute(InputStream content, String originalFileName, UUID userId) throws IOException;
+}
@@ -0,0 +1,12 @@
+package com.contextoia.documentingestion.application.port.out;
+
+import com.contextoia.documentingestion.domain.model.DocumentChunk;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface DocumentChunkRepositoryPort {
+    void stageChunks(UUID attemptId, List<DocumentChunk> chunks);
+    int publishStagedChunks(UUID documentId, UUID attemptId);
+    void discardStagedChunks(UUID documentId, UUID attemptId);
+}
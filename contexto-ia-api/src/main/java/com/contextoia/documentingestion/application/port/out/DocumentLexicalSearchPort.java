@@ -0,0 +1,10 @@
+package com.contextoia.documentingestion.application.port.out;
+
+import com.contextoia.documentingestion.application.dto.SimilarDocumentResult;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface DocumentLexicalSearchPort {
+    List<SimilarDocumentResult> findMatchingDocuments(String query, UUID userId, int limit);
+}
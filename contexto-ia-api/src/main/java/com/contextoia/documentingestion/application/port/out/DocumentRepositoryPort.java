@@ -1,15 +1,41 @@
 package com.contextoia.documentingestion.application.port.out;
 
+import com.contextoia.documentingestion.application.dto.DocumentCursor;
+import com.contextoia.documentingestion.application.dto.DocumentProcessingView;
+import com.contextoia.documentingestion.application.dto.DocumentSummary;
 import com.contextoia.documentingestion.domain.enums.DocumentStatus;
 import com.contextoia.documentingestion.domain.model.Document;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface DocumentRepositoryPort {
     Document save(Document document);
+    Document saveAndFlush(Document document);
     Optional<Document> findById(UUID id);
     List<Document> findByUserId(UUID userId);
     List<Document> findByUserIdAndStatus(UUID userId, DocumentStatus status);
+    Optional<DocumentSummary> findSummaryByIdAndUserId(UUID id, UUID userId);
+    Optional<DocumentProcessingView> findProcessingViewById(UUID id);
+    Optional<Document> findCompletedByContentSha256(String contentSha256);
+    Optional<Document> findActiveByUserIdAndContentSha256(UUID userId, String contentSha256);
+    void lockContentHash(UUID userId, String contentSha256);
+    boolean claimForProcessing(UUID id, UUID attemptId, LocalDateTime staleBefore);
+    boolean renewProcessingClaim(UUID id, UUID attemptId);
+    boolean releaseProcessingClaim(UUID id, UUID attemptId);
+    boolean markCompleted(UUID id, UUID attemptId, String contentSha256, LocalDateTime processedAt);
+    boolean markFailed(UUID id, UUID attemptId, String errorMessage, LocalDateTime processedAt);
+    boolean markFailedUnlessClaimed(UUID id, String errorMessage, LocalDateTime staleBefore, LocalDateTime processedAt);
+    boolean resetFailed(UUID id);
+    Optional<LocalDateTime> findLatestCompletedChange(UUID userId);
+    boolean confirmUpload(UUID id, long fileSize);
+    List<DocumentSummary> findSummariesPage(
+            UUID userId,
+            DocumentStatus status,
+            LocalDateTime createdFrom,
+            LocalDateTime createdTo,
+            DocumentCursor after,
+            int limit);
 }
\ No newline at end of file
@@ -1,10 +1,12 @@
 package com.contextoia.documentingestion.application.port.out;
 
-import com.contextoia.documentingestion.domain.model.Document;
+import com.contextoia.documentingestion.application.dto.SimilarChunkResult;
+import com.contextoia.documentingestion.application.dto.SimilarDocumentResult;
 
 import java.util.List;
 import java.util.UUID;
 
 public interface DocumentVectorStoragePort {
-    List<Document> findSimilarDocuments(Float[] embedding, UUID userId, int limit);
-}
\ No newline at end of file
+    List<SimilarDocumentResult> findSimilarDocuments(float[] embedding, UUID userId, int limit);
+    List<SimilarChunkResult> findSimilarChunks(float[] embedding, UUID userId, int limit);
+}
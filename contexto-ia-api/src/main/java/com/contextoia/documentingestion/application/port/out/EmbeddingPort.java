@@ -1,5 +1,8 @@
 package com.contextoia.documentingestion.application.port.out;
 
+import java.util.List;
+
 public interface EmbeddingPort {
-    Float[] generateEmbedding(String text);
-}
\ No newline at end of file
+    float[] generateEmbedding(String text);
+    List<float[]> generateEmbeddings(List<String> texts);
+}
@@ -1,8 +1,17 @@
 package com.contextoia.documentingestion.application.port.out;
 
+import com.contextoia.documentingestion.domain.model.PageText;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.function.Consumer;
 
 public interface PdfProcessorPort {
     String extractText(InputStream inputStream) throws IOException;
+
+    /**
+     * Extracts the text of the document page by page, handing each page to the consumer as
+     * soon as it is extracted, so that the text of the whole document is never held at once.
+     */
+    void extractPages(InputStream inputStream, Consumer<PageText> pageConsumer) throws IOException;
 }
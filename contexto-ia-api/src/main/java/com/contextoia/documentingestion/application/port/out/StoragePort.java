@@ -1,13 +1,37 @@
 package com.contextoia.documentingestion.application.port.out;
 
-import org.springframework.web.multipart.MultipartFile;
+import com.contextoia.documentingestion.application.dto.PresignedUpload;
+import com.contextoia.documentingestion.application.dto.StoredObjectInfo;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
+import java.util.Optional;
 
 public interface StoragePort {
-    String store(MultipartFile file, String fileName) throws IOException;
+
+    /**
+     * Stores the content as it is read, without knowing its size in advance.
+     *
+     * @return the storage key of the stored object
+     */
+    String store(InputStream content, String fileName, String contentType) throws IOException;
     InputStream retrieve(String storageKey) throws IOException;
+    InputStream retrieve(String storageKey, long offset, long length) throws IOException;
+    Optional<StoredObjectInfo> stat(String storageKey) throws IOException;
+
+    /**
+     * Signs an upload that lets a client store the object directly, without credentials,
+     * until it expires. The signature covers the key, the content type and the allowed size
+     * range, so storage itself refuses any other object.
+     */
+    PresignedUpload createUpload(String storageKey, String contentType, long maxSize, Duration expiry)
+            throws IOException;
+
+    /**
+     * Copies an object inside storage, without transferring its content through the caller.
+     */
+    void copy(String sourceKey, String targetKey) throws IOException;
     void delete(String storageKey) throws IOException;
     String generateFileName(String originalFileName);
-}
\ No newline at end of file
+}
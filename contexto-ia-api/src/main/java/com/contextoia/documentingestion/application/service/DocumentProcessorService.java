@@ -1,21 +1,45 @@
 package com.contextoia.documentingestion.application.service;
 
 import com.contextoia.common.exceptions.ResourceNotFoundException;
+import com.contextoia.common.exceptions.TransientFailureException;
+import com.contextoia.documentingestion.application.dto.DocumentProcessingView;
+import com.contextoia.documentingestion.application.exception.DocumentProcessingException;
+import com.contextoia.documentingestion.application.event.DocumentProcessedEvent;
+import com.contextoia.documentingestion.application.port.out.DocumentChunkRepositoryPort;
 import com.contextoia.documentingestion.application.port.out.DocumentRepositoryPort;
 import com.contextoia.documentingestion.application.port.out.EmbeddingPort;
 import com.contextoia.documentingestion.application.port.out.PdfProcessorPort;
 import com.contextoia.documentingestion.application.port.out.StoragePort;
-import com.contextoia.documentingestion.domain.model.Document;
+import com.contextoia.documentingestion.domain.enums.DocumentStatus;
+import com.contextoia.documentingestion.domain.model.DocumentChunk;
+import com.contextoia.documentingestion.domain.model.TextChunk;
+import com.contextoia.documentingestion.domain.service.TextChunker;
+import com.github.f4b6a3.uuid.UuidCreator;
 import com.pgvector.PGvector;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.InputStream;
-import java.sql.SQLException;
-import java.util.Arrays;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Service responsible for handling the processing of documents. This includes
@@ -25,8 +49,12 @@ import java.util.UUID;
  * The class leverages various ports/interfaces for specific functionalities:
  * 1. DocumentRepositoryPort: Handles persistence and retrieval of document entities.
  * 2. StoragePort: Manages document storage and retrieval operations.
- * 3. PdfProcessorPort: Extracts text from document files.
- * 4. EmbeddingPort: Generates vector embeddings from extracted document text.
+ * 3. PdfProcessorPort: Streams the text of document files, page by page.
+ * 4. TextChunker: Splits the streamed pages into overlapping chunks as they arrive.
+ * 5. EmbeddingPort: Generates one vector embedding per chunk, in batches.
+ * 6. DocumentChunkRepositoryPort: Stages each window of embedded chunks and publishes them
+ *    for vector search once the document completes.
+ * 7. ApplicationEventPublisher: Announces completed documents with a {@link DocumentProcessedEvent}.
  *
  * The primary functionality of this service revolves around the `processDocument` method,
  * which orchestrates the processing flow for a given document.
@@ -34,83 +62,292 @@ import java.util.UUID;
  * Key responsibilities:
  * - Find the document by its ID and validate its existence.
  * - Update the document's state throughout the processing stages.
- * - Extract text content from the document using the PdfProcessorPort.
- * - Generate embeddings based on the extracted text using the EmbeddingPort.
+ * - Stream the text content of the document, page by page, using the PdfProcessorPort.
+ * - Split the streamed text into chunks and generate an embedding for each window of them.
  * - Handle failure scenarios and appropriately update the document's state.
  *
- * This service ensures that the document's processing flow is transactional and
- * consistently maintains the integrity of the document's state in the system.
+ * Downloading, extraction and embedding run outside any database transaction, so no pooled
+ * connection is held while waiting on remote services. The document state only changes
+ * through short conditional updates: one to claim the document, one per embedding window
+ * that stages its chunks and renews the claim, and one final transaction that publishes the
+ * staged chunks together with the completed status (or a single failed-status update). The
+ * time each of these steps keeps a connection is recorded in the
+ * {@code document.processing.connection.hold} timer, tagged by phase.
+ *
+ * Each claim carries a new attempt id, which fences the attempt: renewing, releasing and
+ * completing the claim all require it, so a worker whose claim expired and was taken over
+ * finds out at its next window and stops, and its staged chunks are never published.
  */
 @Service
 public class DocumentProcessorService {
 
     private static final Logger logger = LoggerFactory.getLogger(DocumentProcessorService.class);
+    private static final int EMBEDDING_WINDOW = 128;
 
     private final DocumentRepositoryPort documentRepository;
     private final StoragePort storagePort;
     private final PdfProcessorPort pdfProcessor;
     private final EmbeddingPort embeddingPort;
+    private final DocumentChunkRepositoryPort chunkRepository;
+    private final TextChunker textChunker;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration processingLease;
 
     public DocumentProcessorService(
             DocumentRepositoryPort documentRepository,
             StoragePort storagePort,
             PdfProcessorPort pdfProcessor,
-            EmbeddingPort embeddingPort) {
+            EmbeddingPort embeddingPort,
+            DocumentChunkRepositoryPort chunkRepository,
+            TextChunker textChunker,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${application.ingestion.processing-lease:10m}") Duration processingLease) {
         this.documentRepository = documentRepository;
         this.storagePort = storagePort;
         this.pdfProcessor = pdfProcessor;
         this.embeddingPort = embeddingPort;
+        this.chunkRepository = chunkRepository;
+        this.textChunker = textChunker;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.processingLease = processingLease;
     }
 
-    @Transactional
+    /**
+     * Processes the document. Failures are classified before leaving this method:
+     * <ul>
+     *   <li>transient ones (rate limits, unavailable dependencies) release the claim,
+     *       leaving the document pending, and are rethrown as
+     *       {@link TransientFailureException} so that the message can be retried later;</li>
+     *   <li>any other failure marks the document as failed, if this attempt still holds
+     *       the claim, and is rethrown as {@link DocumentProcessingException}.</li>
+     * </ul>
+     *
+     * A document already being processed by another consumer is reported as a transient
+     * failure too: if that consumer died, the claim expires after the processing lease and
+     * a later retry takes the document over. An attempt whose claim was taken over in the
+     * meantime discards its work and returns without changing the document.
+     */
     public void processDocument(UUID documentId) {
-        Document document = documentRepository.findById(documentId)
-                .orElseThrow(() -> new RuntimeException("Documento não encontrado"));
+        DocumentProcessingView document = documentRepository.findProcessingViewById(documentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Documento", documentId));
+
+        if (document.getStatus() == DocumentStatus.COMPLETED || document.getStatus() == DocumentStatus.FAILED) {
+            logger.info("Documento {} já está {}; mensagem duplicada ignorada", documentId, document.getStatus());
+            return;
+        }
+
+        UUID attemptId = UuidCreator.getTimeOrderedEpoch();
+        LocalDateTime staleBefore = LocalDateTime.now().minus(processingLease);
+        if (!timed("claim", () -> documentRepository.claimForProcessing(documentId, attemptId, staleBefore))) {
+            throw new TransientFailureException("Documento já está em processamento: " + documentId, null);
+        }
 
         try {
             logger.info("Iniciando processamento do documento: {}", documentId);
 
-            document.startProcessing();
-            document = updateDocumentState(document);
+            MessageDigest contentDigest = sha256();
+            int chunkCount = processChunkEmbeddings(documentId, attemptId, document, contentDigest);
+            String contentSha256 = HexFormat.of().formatHex(contentDigest.digest());
 
-            document = processTextExtraction(document);
-            document = processEmbeddingGeneration(document);
+            boolean completed = timed("complete", () -> transactionTemplate.execute(status -> {
+                chunkRepository.publishStagedChunks(documentId, attemptId);
+                if (!documentRepository.markCompleted(documentId, attemptId, contentSha256, LocalDateTime.now())) {
+                    status.setRollbackOnly();
+                    return false;
+                }
+                return true;
+            }));
 
-            document.completeProcessing();
-            updateDocumentState(document);
+            if (!completed) {
+                throw new ClaimLostException();
+            }
 
-            logger.info("Documento processado com sucesso: {}", documentId);
+            eventPublisher.publishEvent(new DocumentProcessedEvent(
+                    documentId, document.getUserId(), document.getOriginalFileName()));
+
+            logger.info("Documento processado com sucesso: {} ({} chunks)", documentId, chunkCount);
 
         } catch (Exception e) {
+            discardStagedChunks(documentId, attemptId);
+            if (isClaimLost(e)) {
+                logger.warn("Documento {} deixou de estar em processamento por esta tentativa; resultado descartado",
+                        documentId);
+                return;
+            }
+            if (isTransient(e)) {
+                logger.warn("Falha temporária ao processar documento: {}", documentId, e);
+                releaseClaim(documentId, attemptId);
+                throw new TransientFailureException("Falha temporária ao processar documento: " + documentId, e);
+            }
             logger.error("Erro ao processar documento: {}", documentId, e);
-            handleProcessingFailure(document, e);
+            timed("fail", () -> documentRepository.markFailed(
+                    documentId, attemptId, e.getMessage(), LocalDateTime.now()));
+            throw new DocumentProcessingException(documentId, e);
+        }
+    }
+
+    /**
+     * Marks a document that is not completed as failed once its processing retries are
+     * exhausted. A document that another attempt is still processing is left alone, unless
+     * that attempt stopped renewing its claim for longer than the processing lease.
+     *
+     * @return {@code false} if the document was left unchanged
+     */
+    public boolean failDocument(UUID documentId, String errorMessage) {
+        LocalDateTime staleBefore = LocalDateTime.now().minus(processingLease);
+        return timed("fail", () -> documentRepository.markFailedUnlessClaimed(
+                documentId, errorMessage, staleBefore, LocalDateTime.now()));
+    }
+
+    /**
+     * Moves a failed document back to pending so that it can be processed again.
+     *
+     * @return {@code false} if the document no longer exists
+     */
+    public boolean resetForRetry(UUID documentId) {
+        return timed("reset", () -> documentRepository.resetFailed(documentId)
+                || documentRepository.findProcessingViewById(documentId).isPresent());
+    }
+
+    private void releaseClaim(UUID documentId, UUID attemptId) {
+        try {
+            timed("release", () -> documentRepository.releaseProcessingClaim(documentId, attemptId));
+        } catch (RuntimeException e) {
+            logger.warn("Não foi possível liberar o documento {}; será retomado após o prazo de processamento",
+                    documentId, e);
+        }
+    }
+
+    private void discardStagedChunks(UUID documentId, UUID attemptId) {
+        try {
+            timed("discard", () -> {
+                chunkRepository.discardStagedChunks(documentId, attemptId);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Não foi possível remover os chunks temporários do documento {}", documentId, e);
         }
     }
 
-    private Document updateDocumentState(Document document) {
-        return documentRepository.save(document);
+    private <T> T timed(String phase, Supplier<T> step) {
+        return Timer.builder("document.processing.connection.hold")
+                .tag("phase", phase)
+                .register(meterRegistry)
+                .record(step);
     }
 
-    private Document processTextExtraction(Document document) throws Exception {
-        String extractedText = extractTextFromDocument(document);
-        Document updatedDocument = document.withExtractedText(extractedText);
-        return updateDocumentState(updatedDocument);
+    private boolean isClaimLost(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ClaimLostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientFailureException
+                    || cause instanceof TransientDataAccessException
+                    || cause instanceof DataAccessResourceFailureException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Streams the pages of the document into the chunker and embeds the chunks in windows
+     * as they are produced. Each embedded window is staged right away, in a short
+     * transaction that also renews the claim, so memory use does not grow with the size of
+     * the document and a long document keeps its claim for as long as it makes progress.
+     * The processing lease must therefore exceed the time needed to embed one window.
+     *
+     * The file is hashed into {@code contentDigest} as it is read, so that documents uploaded
+     * directly to storage also get a content hash for deduplication.
+     *
+     * @return the number of chunks staged
+     */
+    private int processChunkEmbeddings(
+            UUID documentId, UUID attemptId, DocumentProcessingView document, MessageDigest contentDigest)
+            throws Exception {
+        UUID userId = document.getUserId();
+        List<TextChunk> pending = new ArrayList<>(EMBEDDING_WINDOW);
+        int[] staged = {0};
+
+        TextChunker.Session session = textChunker.newSession(chunk -> {
+            pending.add(chunk);
+            if (pending.size() == EMBEDDING_WINDOW) {
+                staged[0] += embedAndStage(documentId, attemptId, userId, pending);
+            }
+        });
+
+        try (InputStream inputStream = new DigestInputStream(
+                storagePort.retrieve(document.getStorageKey()), contentDigest)) {
+            pdfProcessor.extractPages(inputStream, session::addPage);
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+        session.finish();
+        staged[0] += embedAndStage(documentId, attemptId, userId, pending);
+
+        if (staged[0] == 0) {
+            throw new IllegalStateException("Nenhum trecho de texto encontrado no documento");
+        }
+
+        logger.info("{} chunks gerados para o documento: {}", staged[0], documentId);
+        return staged[0];
     }
 
-    private Document processEmbeddingGeneration(Document document) throws SQLException {
-        Float[] embedding = embeddingPort.generateEmbedding(document.getExtractedText());
-        Document updatedDocument = document.withEmbedding(new PGvector(Arrays.toString(embedding)));
-        return updateDocumentState(updatedDocument);
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
     }
 
-    private void handleProcessingFailure(Document document, Exception e) {
-        document.failProcessing(e.getMessage());
-        updateDocumentState(document);
+    /**
+     * Embeds the pending chunks and stages them under the attempt, renewing its claim in the
+     * same transaction.
+     *
+     * @throws ClaimLostException if the attempt no longer holds the document
+     */
+    private int embedAndStage(UUID documentId, UUID attemptId, UUID userId, List<TextChunk> pending) {
+        if (pending.isEmpty()) return 0;
+
+        List<float[]> embeddings = embeddingPort.generateEmbeddings(
+                pending.stream().map(TextChunk::content).toList()
+        );
+        List<DocumentChunk> chunks = new ArrayList<>(pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            PGvector embedding = new PGvector(embeddings.get(i));
+            chunks.add(DocumentChunk.create(documentId, userId, pending.get(i), embedding));
+        }
+        pending.clear();
+
+        timed("stage", () -> transactionTemplate.execute(status -> {
+            if (!documentRepository.renewProcessingClaim(documentId, attemptId)) {
+                throw new ClaimLostException();
+            }
+            chunkRepository.stageChunks(attemptId, chunks);
+            return null;
+        }));
+        return chunks.size();
     }
 
-    private String extractTextFromDocument(Document document) throws Exception {
-        try (InputStream inputStream = storagePort.retrieve(document.getStorageKey())) {
-            return pdfProcessor.extractText(inputStream);
+    /**
+     * The attempt's claim expired and was taken over, or the document left processing.
+     */
+    private static final class ClaimLostException extends RuntimeException {
+        private ClaimLostException() {
+            super("Tentativa de processamento não detém mais o documento", null, false, false);
         }
     }
+
 }
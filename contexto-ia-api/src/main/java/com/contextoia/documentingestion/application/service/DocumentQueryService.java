@@ -1,20 +1,35 @@
 package com.contextoia.documentingestion.application.service;
 
+import com.contextoia.documentingestion.application.dto.DocumentCursor;
 import com.contextoia.documentingestion.application.dto.DocumentDetailsResponse;
+import com.contextoia.documentingestion.application.dto.DocumentPageRequest;
+import com.contextoia.documentingestion.application.dto.DocumentPageResponse;
+import com.contextoia.documentingestion.application.dto.DocumentSummary;
 import com.contextoia.documentingestion.application.dto.SearchSimilarRequest;
 import com.contextoia.documentingestion.application.dto.SimilarDocumentResponse;
+import com.contextoia.documentingestion.application.dto.SimilarDocumentResult;
 import com.contextoia.documentingestion.application.port.in.GetDocumentUseCase;
 import com.contextoia.documentingestion.application.port.in.ListUserDocumentsUseCase;
 import com.contextoia.documentingestion.application.port.in.SearchSimilarDocumentsUseCase;
+import com.contextoia.documentingestion.application.port.out.DocumentLexicalSearchPort;
 import com.contextoia.documentingestion.application.port.out.DocumentRepositoryPort;
 import com.contextoia.documentingestion.application.port.out.DocumentVectorStoragePort;
 import com.contextoia.documentingestion.application.port.out.EmbeddingPort;
-import com.contextoia.documentingestion.domain.model.Document;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,54 +38,169 @@ public class DocumentQueryService implements
         ListUserDocumentsUseCase,
         SearchSimilarDocumentsUseCase {
 
+    /**
+     * Quoted phrases and single tokens containing a digit (part numbers, codes, references)
+     * are looked up lexically only: an embedding adds nothing for them.
+     */
+    private static final Pattern EXACT_TERM_QUERY = Pattern.compile(
+            "\\s*(\"[^\"]+\"|\\S*\\d\\S*)\\s*");
+
     private final DocumentRepositoryPort documentRepository;
     private final DocumentVectorStoragePort vectorStorage;
+    private final DocumentLexicalSearchPort lexicalSearch;
     private final EmbeddingPort embeddingPort;
+    private final ExecutorService lexicalSearchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore concurrentLexicalQueries;
 
     public DocumentQueryService(
             DocumentRepositoryPort documentRepository,
             DocumentVectorStoragePort vectorStorage,
-            EmbeddingPort embeddingPort) {
+            DocumentLexicalSearchPort lexicalSearch,
+            EmbeddingPort embeddingPort,
+            @Value("${application.search.lexical.max-concurrent-queries}") int maxConcurrentLexicalQueries) {
+        if (maxConcurrentLexicalQueries < 0) {
+            throw new IllegalArgumentException("Número de consultas lexicais em paralelo não pode ser negativo");
+        }
         this.documentRepository = documentRepository;
         this.vectorStorage = vectorStorage;
+        this.lexicalSearch = lexicalSearch;
         this.embeddingPort = embeddingPort;
+        this.concurrentLexicalQueries = new Semaphore(maxConcurrentLexicalQueries);
     }
 
     @Override
     public DocumentDetailsResponse execute(UUID documentId, UUID userId) {
-        Document document = documentRepository.findById(documentId)
+        DocumentSummary document = documentRepository.findSummaryByIdAndUserId(documentId, userId)
                 .orElseThrow(() -> new RuntimeException("Documento não encontrado"));
 
-        if (!document.getUserId().equals(userId)) {
-            throw new RuntimeException("Acesso negado");
-        }
-
         return mapToDetailsResponse(document);
     }
 
     @Override
-    public List<DocumentDetailsResponse> execute(UUID userId) {
-        List<Document> documents = documentRepository.findByUserId(userId);
-        return documents.stream()
-                .map(this::mapToDetailsResponse)
-                .collect(Collectors.toList());
+    public DocumentPageResponse execute(UUID userId, DocumentPageRequest request) {
+        DocumentCursor after = request.cursor() != null ? DocumentCursor.decode(request.cursor()) : null;
+
+        List<DocumentSummary> documents = documentRepository.findSummariesPage(
+                userId,
+                request.status(),
+                request.createdFrom(),
+                request.createdTo(),
+                after,
+                request.size() + 1
+        );
+
+        boolean hasNext = documents.size() > request.size();
+        List<DocumentSummary> page = hasNext ? documents.subList(0, request.size()) : documents;
+
+        String nextCursor = null;
+        if (hasNext) {
+            DocumentSummary last = page.get(page.size() - 1);
+            nextCursor = new DocumentCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return new DocumentPageResponse(
+                page.stream().map(this::mapToDetailsResponse).collect(Collectors.toList()),
+                nextCursor
+        );
     }
 
+    /**
+     * Hybrid search: the lexical and vector rankings are merged with Reciprocal Rank Fusion.
+     * The lexical query runs on a virtual thread while the query is embedded and searched by
+     * vector, so the latency is that of the slower path rather than their sum. Since that
+     * holds a second database connection, only {@code max-concurrent-queries} lexical queries
+     * run this way at once; beyond that, the lexical query runs after the vector search, on
+     * the calling thread. A lexical query left behind by a failed vector search is not
+     * interrupted, which JDBC would ignore, but ends within the query timeout. Exact-term
+     * queries are answered from the lexical ranking alone when it finds anything, skipping
+     * the embedding call.
+     *
+     * Every hit reports its fused score, also when it comes from a single ranking, and the
+     * cosine similarity only when the vector search found it.
+     */
     @Override
     public List<SimilarDocumentResponse> execute(SearchSimilarRequest request, UUID userId) {
-        Float[] queryEmbedding = embeddingPort.generateEmbedding(request.query());
-        List<Document> similarDocs = vectorStorage.findSimilarDocuments(
-                queryEmbedding,
-                userId,
-                request.limit()
-        );
+        if (EXACT_TERM_QUERY.matcher(request.query()).matches()) {
+            List<SimilarDocumentResult> lexicalDocs = findMatchingDocuments(request, userId);
+            if (!lexicalDocs.isEmpty()) {
+                return toResponses(ReciprocalRankFusion.fuse(List.of(lexicalDocs), request.limit()), List.of());
+            }
+            List<SimilarDocumentResult> similarDocs = findSimilarDocuments(request, userId);
+            return toResponses(ReciprocalRankFusion.fuse(List.of(similarDocs), request.limit()), similarDocs);
+        }
+
+        if (!concurrentLexicalQueries.tryAcquire()) {
+            List<SimilarDocumentResult> similarDocs = findSimilarDocuments(request, userId);
+            List<ReciprocalRankFusion.FusedDocument> fused = ReciprocalRankFusion.fuse(
+                    List.of(similarDocs, findMatchingDocuments(request, userId)), request.limit());
+            return toResponses(fused, similarDocs);
+        }
 
-        return similarDocs.stream()
-                .map(this::mapToSimilarResponse)
+        CompletableFuture<List<SimilarDocumentResult>> lexicalDocs = startLexicalSearch(request, userId);
+        List<SimilarDocumentResult> similarDocs = findSimilarDocuments(request, userId);
+        List<ReciprocalRankFusion.FusedDocument> fused = ReciprocalRankFusion.fuse(
+                List.of(similarDocs, awaitLexicalSearch(lexicalDocs)), request.limit());
+        return toResponses(fused, similarDocs);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        lexicalSearchExecutor.shutdown();
+    }
+
+    private List<SimilarDocumentResult> findMatchingDocuments(SearchSimilarRequest request, UUID userId) {
+        return lexicalSearch.findMatchingDocuments(request.query(), userId, request.limit());
+    }
+
+    /**
+     * Runs the lexical query on a virtual thread under a permit already acquired, which is
+     * released when the query ends.
+     */
+    private CompletableFuture<List<SimilarDocumentResult>> startLexicalSearch(SearchSimilarRequest request, UUID userId) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return findMatchingDocuments(request, userId);
+                } finally {
+                    concurrentLexicalQueries.release();
+                }
+            }, lexicalSearchExecutor);
+        } catch (RuntimeException e) {
+            concurrentLexicalQueries.release();
+            throw e;
+        }
+    }
+
+    private List<SimilarDocumentResult> findSimilarDocuments(SearchSimilarRequest request, UUID userId) {
+        float[] queryEmbedding = embeddingPort.generateEmbedding(request.query());
+        return vectorStorage.findSimilarDocuments(queryEmbedding, userId, request.limit());
+    }
+
+    private List<SimilarDocumentResult> awaitLexicalSearch(CompletableFuture<List<SimilarDocumentResult>> search) {
+        try {
+            return search.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @param vectorDocs the vector ranking, the only source of cosine similarities
+     */
+    private List<SimilarDocumentResponse> toResponses(
+            List<ReciprocalRankFusion.FusedDocument> fused,
+            List<SimilarDocumentResult> vectorDocs) {
+        Map<UUID, Float> cosine = new HashMap<>();
+        vectorDocs.forEach(doc -> cosine.put(doc.documentId(), doc.similarity()));
+        return fused.stream()
+                .map(doc -> mapToSimilarResponse(doc, cosine.get(doc.document().documentId())))
                 .collect(Collectors.toList());
     }
 
-    private DocumentDetailsResponse mapToDetailsResponse(Document document) {
+    private DocumentDetailsResponse mapToDetailsResponse(DocumentSummary document) {
         return new DocumentDetailsResponse(
                 document.getId(),
                 document.getFileName(),
@@ -83,17 +213,14 @@ public class DocumentQueryService implements
         );
     }
 
-    private SimilarDocumentResponse mapToSimilarResponse(Document document) {
+    private SimilarDocumentResponse mapToSimilarResponse(ReciprocalRankFusion.FusedDocument fused, Float similarity) {
+        SimilarDocumentResult result = fused.document();
         return new SimilarDocumentResponse(
-                document.getId(),
-                document.getOriginalFileName(),
-                truncateText(document.getExtractedText(), 200),
-                0.95f // Implementar cálculo real de similaridade
+                result.documentId(),
+                result.fileName(),
+                result.snippet(),
+                similarity,
+                fused.score()
         );
     }
-
-    private String truncateText(String text, int maxLength) {
-        if (text == null || text.length() <= maxLength) return text;
-        return text.substring(0, maxLength) + "...";
-    }
-}
\ No newline at end of file
+}
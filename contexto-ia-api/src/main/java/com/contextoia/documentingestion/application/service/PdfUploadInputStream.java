@@ -0,0 +1,146 @@
+package com.contextoia.documentingestion.application.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Inspects an uploaded PDF while it is being streamed to storage: it counts the bytes,
+ * computes their SHA-256 hash and checks the {@code %PDF-} signature, so that the upload
+ * needs a single pass over the data.
+ *
+ * A stream that breaks a rule fails the read with an {@link IOException}; the reason is
+ * kept in {@link #rejection()} so that callers can tell invalid input from storage errors.
+ */
+final class PdfUploadInputStream extends FilterInputStream {
+
+    private static final byte[] PDF_SIGNATURE = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+
+    private final long maxSize;
+    private final MessageDigest digest;
+    private final byte[] header = new byte[PDF_SIGNATURE.length];
+    private long size;
+    private String rejection;
+
+    PdfUploadInputStream(InputStream in, long maxSize) {
+        super(in);
+        this.maxSize = maxSize;
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b == -1) {
+            onEnd();
+        } else {
+            inspect(new byte[]{(byte) b}, 0, 1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = in.read(b, off, len);
+        if (n == -1) {
+            onEnd();
+        } else {
+            inspect(b, off, n);
+        }
+        return n;
+    }
+
+    /**
+     * Skipped bytes must still be hashed and counted, so they are read through.
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read == -1) break;
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * @return whether the given leading bytes of a file are the PDF signature
+     */
+    static boolean hasPdfSignature(byte[] header) {
+        return header.length >= PDF_SIGNATURE.length
+                && Arrays.equals(header, 0, PDF_SIGNATURE.length, PDF_SIGNATURE, 0, PDF_SIGNATURE.length);
+    }
+
+    static int signatureLength() {
+        return PDF_SIGNATURE.length;
+    }
+
+    /**
+     * @return the number of bytes read so far
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * @return the hex encoded SHA-256 hash of the whole stream; only valid once it was fully read
+     */
+    String sha256() {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * @return why the upload was rejected, or {@code null} if it was not
+     */
+    String rejection() {
+        return rejection;
+    }
+
+    private void inspect(byte[] b, int off, int n) throws IOException {
+        if (n <= 0) return;
+
+        if (size < header.length) {
+            int count = (int) Math.min(n, header.length - size);
+            System.arraycopy(b, off, header, (int) size, count);
+            if (size + count == header.length && !hasPdfSignature(header)) {
+                reject("Apenas arquivos PDF são permitidos");
+            }
+        }
+
+        size += n;
+        if (size > maxSize) {
+            reject("Arquivo excede o tamanho máximo de " + (maxSize / (1024 * 1024)) + "MB");
+        }
+        digest.update(b, off, n);
+    }
+
+    private void onEnd() throws IOException {
+        if (size == 0) {
+            reject("Arquivo não pode estar vazio");
+        }
+        if (size < header.length) {
+            reject("Apenas arquivos PDF são permitidos");
+        }
+    }
+
+    private void reject(String reason) throws IOException {
+        rejection = reason;
+        throw new IOException(reason);
+    }
+}
@@ -0,0 +1,192 @@
+package com.contextoia.documentingestion.application.service;
+
+import com.contextoia.common.exceptions.ResourceNotFoundException;
+import com.contextoia.documentingestion.application.dto.DocumentUploadResponse;
+import com.contextoia.documentingestion.application.dto.PresignedUpload;
+import com.contextoia.documentingestion.application.dto.ProcessDocumentMessage;
+import com.contextoia.documentingestion.application.dto.StoredObjectInfo;
+import com.contextoia.documentingestion.application.dto.UploadUrlRequest;
+import com.contextoia.documentingestion.application.dto.UploadUrlResponse;
+import com.contextoia.documentingestion.application.port.in.CompleteUploadUseCase;
+import com.contextoia.documentingestion.application.port.in.RequestUploadUrlUseCase;
+import com.contextoia.documentingestion.application.port.out.DocumentMessagePublisher;
+import com.contextoia.documentingestion.application.port.out.DocumentRepositoryPort;
+import com.contextoia.documentingestion.application.port.out.StoragePort;
+import com.contextoia.documentingestion.domain.model.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Two-step upload in which the PDF goes from the client straight to storage, never
+ * through the API:
+ * <ol>
+ *   <li>the client asks for an upload URL; a pending document is created and a signed
+ *       upload to a staging key under {@value #UPLOAD_KEY_PREFIX}, limited to the maximum
+ *       file size, is returned;</li>
+ *   <li>after uploading, the client confirms; the object is copied to the document's own
+ *       storage key, the copy is checked (size limit and PDF signature, reading only its
+ *       first bytes) and the document is queued for processing.</li>
+ * </ol>
+ * The signed upload stays valid until it expires, but it only ever writes the staging key:
+ * the object that was verified, and that the processor later reads, cannot be replaced
+ * through it. A document is only processed once its upload has been confirmed, which is
+ * recorded by setting its file size. Confirming again is harmless.
+ */
+@Service
+public class PresignedUploadService implements
+        RequestUploadUrlUseCase,
+        CompleteUploadUseCase {
+
+    private static final Logger logger = LoggerFactory.getLogger(PresignedUploadService.class);
+    private static final String PDF_CONTENT_TYPE = "application/pdf";
+    static final String UPLOAD_KEY_PREFIX = "uploads/";
+
+    private final DocumentRepositoryPort documentRepository;
+    private final StoragePort storagePort;
+    private final DocumentMessagePublisher messagePublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration uploadUrlExpiry;
+    private final long maxFileSize;
+
+    public PresignedUploadService(
+            DocumentRepositoryPort documentRepository,
+            StoragePort storagePort,
+            DocumentMessagePublisher messagePublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${application.storage.upload-url-expiry:15m}") Duration uploadUrlExpiry,
+            @Value("${application.storage.max-file-size:50MB}") DataSize maxFileSize) {
+        this.documentRepository = documentRepository;
+        this.storagePort = storagePort;
+        this.messagePublisher = messagePublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.uploadUrlExpiry = uploadUrlExpiry;
+        this.maxFileSize = maxFileSize.toBytes();
+    }
+
+    @Override
+    public UploadUrlResponse execute(UploadUrlRequest request, UUID userId) throws IOException {
+        String fileName = storagePort.generateFileName(request.fileName());
+
+        Document document = documentRepository.save(Document.builder()
+                .originalFileName(sanitizeFileName(request.fileName()))
+                .fileName(fileName)
+                .storageKey(fileName)
+                .contentType(PDF_CONTENT_TYPE)
+                .userId(userId)
+                .build());
+
+        PresignedUpload upload = storagePort.createUpload(
+                uploadKey(document), PDF_CONTENT_TYPE, maxFileSize, uploadUrlExpiry);
+
+        return new UploadUrlResponse(
+                document.getId(),
+                upload.url(),
+                "POST",
+                upload.formFields(),
+                Instant.now().plus(uploadUrlExpiry)
+        );
+    }
+
+    @Override
+    public DocumentUploadResponse execute(UUID documentId, UUID userId) throws IOException {
+        Document document = documentRepository.findById(documentId)
+                .filter(found -> found.getUserId().equals(userId))
+                .orElseThrow(() -> new ResourceNotFoundException("Documento", documentId));
+
+        if (document.getFileSize() != null) {
+            return toResponse(document, document.getFileSize(), "Upload já confirmado");
+        }
+
+        takeOverUpload(document);
+        StoredObjectInfo stored = storagePort.stat(document.getStorageKey())
+                .orElseThrow(() -> new IllegalArgumentException("Arquivo ainda não foi enviado"));
+        verifyStoredFile(document, stored);
+
+        boolean confirmed = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (!documentRepository.confirmUpload(documentId, stored.size())) {
+                return false;
+            }
+            messagePublisher.publishProcessingMessage(
+                    new ProcessDocumentMessage(documentId, document.getStorageKey()));
+            return true;
+        }));
+
+        return toResponse(
+                document,
+                stored.size(),
+                confirmed ? "Documento enviado para processamento" : "Upload já confirmado"
+        );
+    }
+
+    /**
+     * Copies the uploaded object to the document's storage key, which no signed upload can
+     * write, and removes the staging object. When the staging object is already gone, a
+     * previous confirmation copied it and the copy is used.
+     */
+    private void takeOverUpload(Document document) throws IOException {
+        String uploadKey = uploadKey(document);
+        if (storagePort.stat(uploadKey).isEmpty()) {
+            return;
+        }
+        storagePort.copy(uploadKey, document.getStorageKey());
+        try {
+            storagePort.delete(uploadKey);
+        } catch (IOException e) {
+            logger.warn("Não foi possível remover o upload temporário {}", uploadKey, e);
+        }
+    }
+
+    private static String uploadKey(Document document) {
+        return UPLOAD_KEY_PREFIX + document.getStorageKey();
+    }
+
+    private void verifyStoredFile(Document document, StoredObjectInfo stored) throws IOException {
+        String rejection = null;
+        if (stored.size() == 0) {
+            rejection = "Arquivo não pode estar vazio";
+        } else if (stored.size() > maxFileSize) {
+            rejection = "Arquivo excede o tamanho máximo de " + (maxFileSize / (1024 * 1024)) + "MB";
+        } else if (!hasPdfSignature(document.getStorageKey())) {
+            rejection = "Apenas arquivos PDF são permitidos";
+        }
+
+        if (rejection != null) {
+            logger.warn("Upload do documento {} rejeitado: {}", document.getId(), rejection);
+            storagePort.delete(document.getStorageKey());
+            throw new IllegalArgumentException(rejection);
+        }
+    }
+
+    private boolean hasPdfSignature(String storageKey) throws IOException {
+        int length = PdfUploadInputStream.signatureLength();
+        try (InputStream header = storagePort.retrieve(storageKey, 0, length)) {
+            return PdfUploadInputStream.hasPdfSignature(header.readNBytes(length));
+        }
+    }
+
+    private DocumentUploadResponse toResponse(Document document, long fileSize, String message) {
+        return new DocumentUploadResponse(
+                document.getId(),
+                document.getOriginalFileName(),
+                fileSize,
+                document.getStatus(),
+                document.getCreatedAt(),
+                message
+        );
+    }
+
+    private String sanitizeFileName(String fileName) {
+        return fileName.replaceAll("[^a-zA-Z0-9._\\-]", "_");
+    }
+}
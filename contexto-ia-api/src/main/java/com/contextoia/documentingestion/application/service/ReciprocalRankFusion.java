@@ -0,0 +1,56 @@
+package com.contextoia.documentingestion.application.service;
+
+import com.contextoia.documentingestion.application.dto.SimilarDocumentResult;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Merges ranked result lists with Reciprocal Rank Fusion: each document scores
+ * {@code 1 / (k + rank)} in every list it appears in, and documents are ordered by the sum.
+ * Only ranks are used, so lists with incomparable scores (cosine similarity, text rank) can
+ * be fused without calibration. For the same reason the scores of the input lists are not
+ * carried over: each fused document reports its fused score.
+ */
+final class ReciprocalRankFusion {
+
+    static final int K = 60;
+
+    private ReciprocalRankFusion() {
+    }
+
+    /**
+     * @param rankings the ranked lists, best first; when a document appears in several lists,
+     *                 the entry of the first list is kept in the output
+     * @param limit    the maximum number of documents returned
+     * @return the fused documents, best first; ties keep the order in which the documents
+     *         were first seen
+     */
+    static List<FusedDocument> fuse(List<List<SimilarDocumentResult>> rankings, int limit) {
+        Map<UUID, SimilarDocumentResult> entries = new LinkedHashMap<>();
+        Map<UUID, Double> scores = new LinkedHashMap<>();
+
+        for (List<SimilarDocumentResult> ranking : rankings) {
+            for (int rank = 0; rank < ranking.size(); rank++) {
+                SimilarDocumentResult result = ranking.get(rank);
+                entries.putIfAbsent(result.documentId(), result);
+                scores.merge(result.documentId(), 1.0 / (K + rank + 1), Double::sum);
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<UUID, Double>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(entry -> new FusedDocument(entries.get(entry.getKey()), entry.getValue()))
+                .toList();
+    }
+
+    /**
+     * A document of the fused ranking with its Reciprocal Rank Fusion score.
+     */
+    record FusedDocument(SimilarDocumentResult document, double score) {
+    }
+}
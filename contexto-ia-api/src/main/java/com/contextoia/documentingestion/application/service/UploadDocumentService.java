@@ -2,44 +2,195 @@ package com.contextoia.documentingestion.application.service;
 
 import com.contextoia.documentingestion.application.dto.DocumentUploadResponse;
 import com.contextoia.documentingestion.application.dto.ProcessDocumentMessage;
+import com.contextoia.documentingestion.application.event.DocumentProcessedEvent;
 import com.contextoia.documentingestion.application.port.in.UploadDocumentUseCase;
 import com.contextoia.documentingestion.application.port.out.DocumentMessagePublisher;
 import com.contextoia.documentingestion.application.port.out.DocumentRepositoryPort;
 import com.contextoia.documentingestion.application.port.out.StoragePort;
+import com.contextoia.documentingestion.domain.enums.DocumentStatus;
 import com.contextoia.documentingestion.domain.model.Document;
-import jakarta.transaction.Transactional;
+import com.github.f4b6a3.uuid.UuidCreator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Uploads PDF documents and queues them for processing.
+ *
+ * The content is streamed straight to storage through a {@link PdfUploadInputStream}, which
+ * validates the PDF signature and the size limit and computes the SHA-256 hash on the way,
+ * so the bytes are transferred only once. The document row and its processing message are
+ * then written in a short transaction, after the upload has finished.
+ *
+ * Uploads are deduplicated by content hash. If the user already owns a document with the
+ * same bytes, that document is returned. If another document with the same bytes was
+ * already processed, the new document references its stored file and its chunks, which
+ * are not copied: it is completed at once, without extraction or embedding. Only the
+ * first upload of a given content is processed. Concurrent uploads of the same content by
+ * the same user are serialized by a lock on the user and the hash, taken by the
+ * transaction that looks for an existing document and creates the new one.
+ */
 @Service
 public class UploadDocumentService implements UploadDocumentUseCase {
 
+    private static final Logger logger = LoggerFactory.getLogger(UploadDocumentService.class);
+    private static final String PDF_CONTENT_TYPE = "application/pdf";
+
     private final DocumentRepositoryPort documentRepository;
     private final StoragePort storagePort;
     private final DocumentMessagePublisher messagePublisher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final long maxFileSize;
 
     public UploadDocumentService(
             DocumentRepositoryPort documentRepository,
             StoragePort storagePort,
-            DocumentMessagePublisher messagePublisher) {
+            DocumentMessagePublisher messagePublisher,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${application.storage.max-file-size:50MB}") DataSize maxFileSize) {
         this.documentRepository = documentRepository;
         this.storagePort = storagePort;
         this.messagePublisher = messagePublisher;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxFileSize = maxFileSize.toBytes();
     }
 
     @Override
-    @Transactional
     public DocumentUploadResponse execute(MultipartFile file, UUID userId) throws IOException {
         validateFile(file);
 
-        Document document = createDocument(file, userId);
+        try (InputStream content = file.getInputStream()) {
+            return upload(content, file.getOriginalFilename(), userId);
+        }
+    }
+
+    /**
+     * Uploads a PDF sent as the raw request body. Nothing is known about the content up
+     * front besides its name; it is validated while it is streamed.
+     */
+    @Override
+    public DocumentUploadResponse execute(InputStream content, String originalFileName, UUID userId)
+            throws IOException {
+        validateFileName(originalFileName);
+        return upload(content, originalFileName, userId);
+    }
+
+    private DocumentUploadResponse upload(InputStream content, String originalFileName, UUID userId)
+            throws IOException {
+        String fileName = storagePort.generateFileName(originalFileName);
+        PdfUploadInputStream inspected = new PdfUploadInputStream(content, maxFileSize);
+
+        String storageKey;
+        try {
+            storageKey = storagePort.store(inspected, fileName, PDF_CONTENT_TYPE);
+        } catch (IOException e) {
+            if (inspected.rejection() != null) {
+                throw new IllegalArgumentException(inspected.rejection(), e);
+            }
+            throw e;
+        }
 
-        String storageKey = storagePort.store(file, document.getFileName());
-        document = document.withStorageKey(storageKey);
+        String contentSha256 = inspected.sha256();
+
+        Document document = Document.builder()
+                .originalFileName(sanitizeFileName(originalFileName))
+                .fileName(fileName)
+                .storageKey(storageKey)
+                .contentType(PDF_CONTENT_TYPE)
+                .fileSize(inspected.size())
+                .contentSha256(contentSha256)
+                .userId(userId)
+                .build();
+
+        UploadOutcome outcome;
+        try {
+            outcome = transactionTemplate.execute(status -> {
+                documentRepository.lockContentHash(userId, contentSha256);
+
+                Optional<Document> owned = documentRepository.findActiveByUserIdAndContentSha256(userId, contentSha256);
+                if (owned.isPresent()) {
+                    return new UploadOutcome(owned.get(), owned.get().getStatus(), "Documento já enviado anteriormente");
+                }
+
+                Optional<Document> processed = documentRepository.findCompletedByContentSha256(contentSha256);
+                if (processed.isPresent()) {
+                    return new UploadOutcome(
+                            shareProcessedDocument(processed.get(), originalFileName, userId),
+                            DocumentStatus.COMPLETED,
+                            "Documento já processado anteriormente");
+                }
+
+                Document savedDocument = saveAndQueue(document);
+                return new UploadOutcome(savedDocument, savedDocument.getStatus(), "Documento enviado para processamento");
+            });
+        } catch (RuntimeException e) {
+            discardStoredFile(storageKey);
+            throw e;
+        }
+
+        if (!storageKey.equals(outcome.document().getStorageKey())) {
+            discardStoredFile(storageKey);
+        }
+        return toResponse(outcome.document(), outcome.status(), outcome.message());
+    }
+
+    /**
+     * Creates the user's document for content that was already processed, inside the
+     * caller's transaction. It shares the stored file of {@code source} and references the
+     * document holding its chunks, so searches of the new owner read the same rows.
+     */
+    private Document shareProcessedDocument(Document source, String originalFileName, UUID userId) {
+        UUID chunksDocumentId = source.getChunksDocumentId() != null ? source.getChunksDocumentId() : source.getId();
+
+        Document document = Document.builder()
+                .originalFileName(sanitizeFileName(originalFileName))
+                .fileName(source.getFileName())
+                .storageKey(source.getStorageKey())
+                .contentType(PDF_CONTENT_TYPE)
+                .fileSize(source.getFileSize())
+                .contentSha256(source.getContentSha256())
+                .chunksDocumentId(chunksDocumentId)
+                .userId(userId)
+                .build();
 
+        UUID attemptId = UuidCreator.getTimeOrderedEpoch();
+        Document shared = documentRepository.saveAndFlush(document);
+        documentRepository.claimForProcessing(shared.getId(), attemptId, LocalDateTime.now());
+        documentRepository.markCompleted(shared.getId(), attemptId, source.getContentSha256(), LocalDateTime.now());
+
+        eventPublisher.publishEvent(new DocumentProcessedEvent(
+                shared.getId(), userId, shared.getOriginalFileName()));
+        logger.info("Documento {} reaproveitou o processamento do documento {}", shared.getId(), chunksDocumentId);
+        return shared;
+    }
+
+    private DocumentUploadResponse toResponse(Document document, DocumentStatus status, String message) {
+        return new DocumentUploadResponse(
+                document.getId(),
+                document.getOriginalFileName(),
+                document.getFileSize(),
+                status,
+                document.getCreatedAt(),
+                message
+        );
+    }
+
+    private Document saveAndQueue(Document document) {
         Document savedDocument = documentRepository.save(document);
 
         ProcessDocumentMessage message = new ProcessDocumentMessage(
@@ -47,15 +198,15 @@ public class UploadDocumentService implements UploadDocumentUseCase {
                 savedDocument.getStorageKey()
         );
         messagePublisher.publishProcessingMessage(message);
+        return savedDocument;
+    }
 
-        return new DocumentUploadResponse(
-                savedDocument.getId(),
-                savedDocument.getOriginalFileName(),
-                savedDocument.getFileSize(),
-                savedDocument.getStatus(),
-                savedDocument.getCreatedAt(),
-                "Documento enviado para processamento"
-        );
+    private void discardStoredFile(String storageKey) {
+        try {
+            storagePort.delete(storageKey);
+        } catch (IOException e) {
+            logger.warn("Não foi possível remover o arquivo órfão {}", storageKey, e);
+        }
     }
 
     private void validateFile(MultipartFile file) {
@@ -67,8 +218,9 @@ public class UploadDocumentService implements UploadDocumentUseCase {
             throw new IllegalArgumentException("Apenas arquivos PDF são permitidos");
         }
 
-        if (file.getSize() > 52428800) { // 50MB
-            throw new IllegalArgumentException("Arquivo excede o tamanho máximo de 50MB");
+        if (file.getSize() > maxFileSize) {
+            throw new IllegalArgumentException(
+                    "Arquivo excede o tamanho máximo de " + (maxFileSize / (1024 * 1024)) + "MB");
         }
     }
 
@@ -76,22 +228,21 @@ public class UploadDocumentService implements UploadDocumentUseCase {
         String contentType = file.getContentType();
         String originalFilename = file.getOriginalFilename();
 
-        return (contentType != null && contentType.equals("application/pdf")) &&
+        return (contentType != null && contentType.equals(PDF_CONTENT_TYPE)) &&
                 (originalFilename != null && originalFilename.toLowerCase().endsWith(".pdf"));
     }
 
-    private Document createDocument(MultipartFile file, UUID userId) {
-        return Document.builder()
-                .originalFileName(sanitizeFileName(file.getOriginalFilename()))
-                .fileName(storagePort.generateFileName(file.getOriginalFilename()))
-                .contentType(file.getContentType())
-                .fileSize(file.getSize())
-                .userId(userId)
-                .build();
+    private void validateFileName(String originalFileName) {
+        if (originalFileName == null || !originalFileName.toLowerCase().endsWith(".pdf")) {
+            throw new IllegalArgumentException("Apenas arquivos PDF são permitidos");
+        }
     }
 
     private String sanitizeFileName(String fileName) {
         if (fileName == null) return "unnamed.pdf";
         return fileName.replaceAll("[^a-zA-Z0-9._\\-]", "_");
     }
-}
\ No newline at end of file
+
+    private record UploadOutcome(Document document, DocumentStatus status, String message) {
+    }
+}
@@ -38,6 +38,12 @@ public class Document {
     @Column(name = "content-type", nullable = false)
     private String contentType;
 
+    @Column(name = "content_sha256", length = 64)
+    private String contentSha256;
+
+    @Column(name = "chunks_document_id")
+    private UUID chunksDocumentId;
+
     @Column(name = "user_id", nullable = false)
     private UUID userId;
 
@@ -62,6 +68,9 @@ public class Document {
     @Column(name = "processed_at")
     private LocalDateTime processedAt;
 
+    @Column(name = "processing_attempt")
+    private UUID processingAttempt;
+
     @Column(name = "extracted_text", columnDefinition = "TEXT")
     private String extractedText;
 
@@ -73,6 +82,8 @@ public class Document {
         this.storageKey = builder.storageKey;
         this.fileSize = builder.fileSize;
         this.contentType = builder.contentType;
+        this.contentSha256 = builder.contentSha256;
+        this.chunksDocumentId = builder.chunksDocumentId;
         this.extractedText = builder.extractedText;
         this.embedding = builder.embedding;
         this.userId = builder.userId;
@@ -116,6 +127,8 @@ public class Document {
     public String getStorageKey() { return storageKey; }
     public Long getFileSize() { return fileSize; }
     public String getContentType() { return contentType; }
+    public String getContentSha256() { return contentSha256; }
+    public UUID getChunksDocumentId() { return chunksDocumentId; }
     public String getExtractedText() { return extractedText; }
     public PGvector getEmbedding() { return embedding; }
     public UUID getUserId() { return userId; }
@@ -124,6 +137,7 @@ public class Document {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public LocalDateTime getProcessedAt() { return processedAt; }
+    public UUID getProcessingAttempt() { return processingAttempt; }
 
 
     public void assignToUser(UUID userId) {
@@ -201,6 +215,8 @@ public class Document {
         private String storageKey;
         private Long fileSize;
         private String contentType;
+        private String contentSha256;
+        private UUID chunksDocumentId;
         private String extractedText;
         private PGvector embedding;
         private UUID userId;
@@ -232,6 +248,20 @@ public class Document {
             return this;
         }
 
+        public Builder contentSha256(String contentSha256) {
+            this.contentSha256 = contentSha256;
+            return this;
+        }
+
+        /**
+         * Makes the document reuse the chunks of another document with the same content
+         * instead of having its own.
+         */
+        public Builder chunksDocumentId(UUID chunksDocumentId) {
+            this.chunksDocumentId = chunksDocumentId;
+            return this;
+        }
+
         public Builder extractedText(String extractedText) {
             this.extractedText = extractedText;
             return this;
@@ -264,6 +294,8 @@ public class Document {
             this.storageKey = document.storageKey;
             this.fileSize = document.fileSize;
             this.contentType = document.contentType;
+            this.contentSha256 = document.contentSha256;
+            this.chunksDocumentId = document.chunksDocumentId;
             this.extractedText = document.extractedText;
             this.embedding = document.embedding;
             this.userId = document.userId;
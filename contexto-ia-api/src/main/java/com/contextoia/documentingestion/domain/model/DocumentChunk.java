@@ -0,0 +1,39 @@
+package com.contextoia.documentingestion.domain.model;
+
+import com.github.f4b6a3.uuid.UuidCreator;
+import com.pgvector.PGvector;
+
+import java.util.UUID;
+
+/**
+ * Represents an embedded chunk of a document, mapped to the table "tb_document_chunks".
+ * Chunks are the unit of vector search: each one carries its own embedding and the
+ * page range it was extracted from.
+ */
+public record DocumentChunk(
+        UUID id,
+        UUID documentId,
+        UUID userId,
+        int chunkIndex,
+        String content,
+        int pageStart,
+        int pageEnd,
+        PGvector embedding
+) {
+
+    public static DocumentChunk create(UUID documentId, UUID userId, TextChunk chunk, PGvector embedding) {
+        if (documentId == null || userId == null) {
+            throw new IllegalArgumentException("Documento e usuário são obrigatórios para o chunk");
+        }
+        return new DocumentChunk(
+                UuidCreator.getTimeOrderedEpoch(),
+                documentId,
+                userId,
+                chunk.chunkIndex(),
+                chunk.content(),
+                chunk.pageStart(),
+                chunk.pageEnd(),
+                embedding
+        );
+    }
+}
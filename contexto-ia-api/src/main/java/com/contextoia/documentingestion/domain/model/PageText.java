@@ -0,0 +1,13 @@
+package com.contextoia.documentingestion.domain.model;
+
+/**
+ * Text extracted from a single page of a document.
+ *
+ * @param pageNumber the 1-based page number inside the source document
+ * @param text       the raw text extracted from the page
+ */
+public record PageText(
+        int pageNumber,
+        String text
+) {
+}
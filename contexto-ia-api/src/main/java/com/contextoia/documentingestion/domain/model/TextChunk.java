@@ -0,0 +1,18 @@
+package com.contextoia.documentingestion.domain.model;
+
+/**
+ * A contiguous slice of a document's text produced by the chunking stage,
+ * before it is embedded and persisted.
+ *
+ * @param chunkIndex the 0-based ordinal of the chunk inside the document
+ * @param content    the chunk text
+ * @param pageStart  the first page (1-based) covered by the chunk
+ * @param pageEnd    the last page (1-based) covered by the chunk
+ */
+public record TextChunk(
+        int chunkIndex,
+        String content,
+        int pageStart,
+        int pageEnd
+) {
+}
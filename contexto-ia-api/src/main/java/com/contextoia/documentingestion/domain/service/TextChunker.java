@@ -0,0 +1,220 @@
+package com.contextoia.documentingestion.domain.service;
+
+import com.contextoia.documentingestion.domain.model.PageText;
+import com.contextoia.documentingestion.domain.model.TextChunk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Splits the text extracted from a document into overlapping chunks of bounded size.
+ *
+ * Chunks are cut at the closest paragraph, sentence or word boundary before the size
+ * limit, and consecutive chunks share up to {@code chunkOverlap} characters so that
+ * sentences crossing a boundary remain searchable. Each chunk keeps the range of pages
+ * it was taken from.
+ *
+ * Pages can be fed one at a time through a {@link Session}, which emits each chunk as soon
+ * as it is complete and only buffers the text not yet chunked.
+ */
+public class TextChunker {
+
+    private static final String PAGE_SEPARATOR = "\n\n";
+
+    private final int chunkSize;
+    private final int chunkOverlap;
+
+    public TextChunker(int chunkSize, int chunkOverlap) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Tamanho do chunk deve ser positivo");
+        }
+        if (chunkOverlap < 0 || chunkOverlap >= chunkSize) {
+            throw new IllegalArgumentException("Sobreposição deve estar entre 0 e o tamanho do chunk");
+        }
+        this.chunkSize = chunkSize;
+        this.chunkOverlap = chunkOverlap;
+    }
+
+    /**
+     * Splits the given pages into ordered, overlapping chunks.
+     *
+     * @param pages the pages of the document, in reading order
+     * @return the chunks, ordered by {@link TextChunk#chunkIndex()}; empty if the pages contain no text
+     */
+    public List<TextChunk> chunk(List<PageText> pages) {
+        List<TextChunk> chunks = new ArrayList<>();
+        Session session = newSession(chunks::add);
+        pages.forEach(session::addPage);
+        session.finish();
+        return chunks;
+    }
+
+    /**
+     * Starts chunking a document whose pages will be provided incrementally.
+     *
+     * @param sink receives the chunks in order, as soon as each one is complete
+     */
+    public Session newSession(Consumer<TextChunk> sink) {
+        return new Session(sink);
+    }
+
+    /**
+     * Incremental chunking of a single document. Produces exactly the same chunks as
+     * {@link #chunk(List)} over the same pages.
+     */
+    public final class Session {
+
+        private final Consumer<TextChunk> sink;
+        private final StringBuilder text = new StringBuilder();
+        private int[] pageOffsets = new int[8];
+        private int[] pageNumbers = new int[8];
+        private int pageCount;
+        private int pagesAdded;
+        private int chunkCount;
+        private int start;
+        private boolean finished;
+
+        private Session(Consumer<TextChunk> sink) {
+            this.sink = sink;
+        }
+
+        public void addPage(PageText page) {
+            if (finished) {
+                throw new IllegalStateException("Sessão de chunking já finalizada");
+            }
+            if (pagesAdded++ > 0) text.append(PAGE_SEPARATOR);
+            if (pageCount == pageOffsets.length) {
+                pageOffsets = Arrays.copyOf(pageOffsets, pageCount * 2);
+                pageNumbers = Arrays.copyOf(pageNumbers, pageCount * 2);
+            }
+            pageOffsets[pageCount] = text.length();
+            pageNumbers[pageCount] = page.pageNumber();
+            pageCount++;
+            text.append(page.text());
+
+            emitCompleteChunks();
+            compact();
+        }
+
+        /**
+         * Emits the remaining text as the last chunks of the document.
+         */
+        public void finish() {
+            if (finished) return;
+            finished = true;
+
+            int length = text.length();
+            start = skipWhitespace(text, start);
+            while (start < length) {
+                int end = Math.min(start + chunkSize, length);
+                if (end < length) {
+                    end = findBreakPoint(text, start, end);
+                }
+                emit(start, end);
+                if (end >= length) break;
+                start = nextStart(text, start, end);
+            }
+        }
+
+        /**
+         * Emits every chunk whose end is already known, that is, whose size limit falls
+         * before the end of the text buffered so far.
+         */
+        private void emitCompleteChunks() {
+            start = skipWhitespace(text, start);
+            while (start + chunkSize < text.length()) {
+                int end = findBreakPoint(text, start, start + chunkSize);
+                emit(start, end);
+                start = nextStart(text, start, end);
+            }
+        }
+
+        private void emit(int from, int to) {
+            String content = text.substring(from, to).trim();
+            if (!content.isEmpty()) {
+                sink.accept(new TextChunk(
+                        chunkCount++,
+                        content,
+                        pageAt(from),
+                        pageAt(to - 1)
+                ));
+            }
+        }
+
+        /**
+         * Drops the text before the next chunk start, and the pages entirely before it.
+         */
+        private void compact() {
+            int firstPage = Math.max(pageIndexAt(start), 0);
+            if (start == 0) return;
+
+            text.delete(0, start);
+            int remaining = pageCount - firstPage;
+            System.arraycopy(pageNumbers, firstPage, pageNumbers, 0, remaining);
+            for (int i = 0; i < remaining; i++) {
+                pageOffsets[i] = Math.max(pageOffsets[firstPage + i] - start, 0);
+            }
+            pageCount = remaining;
+            start = 0;
+        }
+
+        private int pageAt(int offset) {
+            return pageNumbers[Math.max(pageIndexAt(offset), 0)];
+        }
+
+        private int pageIndexAt(int offset) {
+            int index = Arrays.binarySearch(pageOffsets, 0, pageCount, offset);
+            return index < 0 ? -index - 2 : index;
+        }
+    }
+
+    private int findBreakPoint(CharSequence text, int start, int end) {
+        int minimum = start + chunkSize / 2;
+
+        int paragraph = lastIndexOf(text, PAGE_SEPARATOR, minimum, end);
+        if (paragraph > 0) return paragraph;
+
+        for (int i = end - 1; i >= minimum; i--) {
+            char c = text.charAt(i);
+            if ((c == '.' || c == '!' || c == '?') && i + 1 < text.length()
+                    && Character.isWhitespace(text.charAt(i + 1))) {
+                return i + 1;
+            }
+        }
+
+        for (int i = end - 1; i >= minimum; i--) {
+            if (Character.isWhitespace(text.charAt(i))) return i;
+        }
+
+        return end;
+    }
+
+    private int nextStart(CharSequence text, int previousStart, int end) {
+        int candidate = Math.max(end - chunkOverlap, previousStart + 1);
+        if (candidate < end && !Character.isWhitespace(text.charAt(candidate - 1))) {
+            while (candidate < end && !Character.isWhitespace(text.charAt(candidate))) {
+                candidate++;
+            }
+        }
+        return skipWhitespace(text, candidate);
+    }
+
+    private int skipWhitespace(CharSequence text, int from) {
+        int i = from;
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) i++;
+        return i;
+    }
+
+    private int lastIndexOf(CharSequence text, String token, int from, int to) {
+        for (int i = to - token.length(); i >= from; i--) {
+            boolean matches = true;
+            for (int j = 0; j < token.length() && matches; j++) {
+                matches = text.charAt(i + j) == token.charAt(j);
+            }
+            if (matches) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,161 @@
+package com.contextoia.documentingestion.infrastructure.adapter.ai;
+
+import com.contextoia.documentingestion.application.port.out.EmbeddingPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Caching decorator around {@link GeminiEmbeddingAdapter}. Embeddings are keyed by a SHA-256
+ * hash of the embedding model name and the normalized text, and looked up in every configured
+ * {@link EmbeddingCacheStore} tier in order before the remote model is called. Entries found
+ * in a slower tier are promoted to the faster ones, and freshly computed embeddings are written
+ * to all tiers.
+ *
+ * Being the {@code @Primary} {@link EmbeddingPort}, it serves both document ingestion and
+ * similarity search. Hits and misses are recorded per tier in the
+ * {@code embedding.cache.requests} counter.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "application.embedding.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CachingEmbeddingAdapter implements EmbeddingPort {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final GeminiEmbeddingAdapter delegate;
+    private final List<EmbeddingCacheStore> tiers;
+    private final String modelName;
+    private final Map<String, Counter> hitCounters = new HashMap<>();
+    private final Map<String, Counter> missCounters = new HashMap<>();
+
+    public CachingEmbeddingAdapter(
+            GeminiEmbeddingAdapter delegate,
+            List<EmbeddingCacheStore> tiers,
+            @Value("${langchain4j.vertexai.embedding-model.model-name}") String modelName,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.tiers = tiers;
+        this.modelName = modelName;
+
+        for (EmbeddingCacheStore tier : tiers) {
+            hitCounters.put(tier.tierName(), requestCounter(meterRegistry, tier, "hit"));
+            missCounters.put(tier.tierName(), requestCounter(meterRegistry, tier, "miss"));
+        }
+    }
+
+    @Override
+    public float[] generateEmbedding(String text) {
+        return generateEmbeddings(List.of(text)).get(0);
+    }
+
+    @Override
+    public List<float[]> generateEmbeddings(List<String> texts) {
+        if (texts == null || texts.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, String> textByKey = new LinkedHashMap<>();
+        List<String> keys = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            String key = cacheKey(text);
+            keys.add(key);
+            textByKey.putIfAbsent(key, text);
+        }
+
+        Map<String, float[]> resolved = lookupTiers(textByKey.keySet());
+
+        List<String> missingKeys = textByKey.keySet().stream()
+                .filter(key -> !resolved.containsKey(key))
+                .toList();
+
+        if (!missingKeys.isEmpty()) {
+            List<float[]> computed = delegate.generateEmbeddings(
+                    missingKeys.stream().map(textByKey::get).toList()
+            );
+
+            Map<String, float[]> newEntries = new HashMap<>(missingKeys.size());
+            for (int i = 0; i < missingKeys.size(); i++) {
+                newEntries.put(missingKeys.get(i), computed.get(i));
+            }
+            tiers.forEach(tier -> tier.putAll(newEntries));
+            resolved.putAll(newEntries);
+        }
+
+        return keys.stream()
+                .map(resolved::get)
+                .toList();
+    }
+
+    private Map<String, float[]> lookupTiers(Set<String> keys) {
+        Map<String, float[]> resolved = new HashMap<>();
+        List<EmbeddingCacheStore> missedTiers = new ArrayList<>(tiers.size());
+
+        for (EmbeddingCacheStore tier : tiers) {
+            List<String> pending = keys.stream()
+                    .filter(key -> !resolved.containsKey(key))
+                    .toList();
+            if (pending.isEmpty()) break;
+
+            Map<String, float[]> found = tier.getAll(pending);
+            hitCounters.get(tier.tierName()).increment(found.size());
+            missCounters.get(tier.tierName()).increment(pending.size() - found.size());
+
+            if (!found.isEmpty()) {
+                missedTiers.forEach(fasterTier -> fasterTier.putAll(found));
+                resolved.putAll(found);
+            }
+            missedTiers.add(tier);
+        }
+
+        return resolved;
+    }
+
+    /**
+     * Builds the cache key for a text: whitespace is collapsed and the text is Unicode
+     * normalized, so that extraction artifacts do not defeat the cache. The model name is
+     * part of the hash, so changing models never serves stale vectors.
+     */
+    private String cacheKey(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Texto não pode ser vazio");
+        }
+
+        String normalized = WHITESPACE.matcher(Normalizer.normalize(text, Normalizer.Form.NFC))
+                .replaceAll(" ")
+                .trim();
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(modelName.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(normalized.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, EmbeddingCacheStore tier, String result) {
+        return Counter.builder("embedding.cache.requests")
+                .tag("tier", tier.tierName())
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,26 @@
+package com.contextoia.documentingestion.infrastructure.adapter.ai;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A storage tier of the embedding cache. Keys are content hashes computed by
+ * {@link CachingEmbeddingAdapter}; values are embedding vectors.
+ */
+public interface EmbeddingCacheStore {
+
+    /**
+     * @return a short name identifying the tier, used as a metric tag
+     */
+    String tierName();
+
+    /**
+     * Looks up several keys at once.
+     *
+     * @param keys the cache keys to look up
+     * @return the entries found, keyed by cache key; missing or expired keys are absent
+     */
+    Map<String, float[]> getAll(Collection<String> keys);
+
+    void putAll(Map<String, float[]> entries);
+}
@@ -1,16 +1,43 @@
 package com.contextoia.documentingestion.infrastructure.adapter.ai;
 
+import com.contextoia.common.exceptions.TransientFailureException;
 import com.contextoia.documentingestion.application.port.out.EmbeddingPort;
 import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.model.embedding.EmbeddingModel;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
 /**
  * Adapter class that implements the {@code EmbeddingPort} interface to provide functionality
  * for generating text embeddings using an underlying embedding model.
  * This class serves as a bridge between the {@code EmbeddingModel} and the external interface,
  * handling pre-processing and validations required for embedding generation.
  * Ensures that input text adheres to a maximum length constraint before invoking the model logic.
+ *
+ * Batch requests are split into groups of at most {@code application.embedding.batch-size}
+ * texts, each sent with a single {@link EmbeddingModel#embedAll(List)} call. At most
+ * {@code application.embedding.max-concurrent-batches} model calls are in flight at any
+ * time across the whole application, whether they embed a batch or a single text such as
+ * a search question; further calls wait for one of them to finish.
+ *
+ * Model failures caused by rate limiting, unavailability or timeouts are rethrown as
+ * {@link TransientFailureException}, so that callers can retry them later.
  */
 @Component
 public class GeminiEmbeddingAdapter implements EmbeddingPort {
@@ -18,8 +45,30 @@ public class GeminiEmbeddingAdapter implements EmbeddingPort {
     private final EmbeddingModel embeddingModel;
     private static final int MAX_TEXT_LENGTH = 10000;
 
-    public GeminiEmbeddingAdapter(EmbeddingModel embeddingModel) {
+    /**
+     * gRPC status codes, as named by the Google API client exceptions and messages, that
+     * indicate a temporary condition on the Vertex AI side.
+     */
+    private static final Set<String> TRANSIENT_STATUSES = Set.of(
+            "RESOURCE_EXHAUSTED", "UNAVAILABLE", "DEADLINE_EXCEEDED", "ABORTED");
+    private static final Set<String> TRANSIENT_EXCEPTIONS = Set.of(
+            "ResourceExhaustedException", "UnavailableException", "DeadlineExceededException", "AbortedException");
+
+    private final int batchSize;
+    private final Semaphore modelCallPermits;
+    private final ExecutorService batchExecutor;
+
+    public GeminiEmbeddingAdapter(
+            EmbeddingModel embeddingModel,
+            @Value("${application.embedding.batch-size}") int batchSize,
+            @Value("${application.embedding.max-concurrent-batches}") int maxConcurrentBatches) {
+        if (batchSize <= 0 || maxConcurrentBatches <= 0) {
+            throw new IllegalArgumentException("Tamanho e concorrência dos lotes de embedding devem ser positivos");
+        }
         this.embeddingModel = embeddingModel;
+        this.batchSize = batchSize;
+        this.modelCallPermits = new Semaphore(maxConcurrentBatches, true);
+        this.batchExecutor = Executors.newFixedThreadPool(maxConcurrentBatches, namedThreadFactory());
     }
 
     /**
@@ -28,21 +77,120 @@ public class GeminiEmbeddingAdapter implements EmbeddingPort {
      * before generating the embedding.
      *
      * @param text the input text to generate the embedding for. Cannot be null or blank.
-     * @return an array of Float values representing the embedding vector of the input text.
+     * @return an array of float values representing the embedding vector of the input text.
      * @throws IllegalArgumentException if the input text is null or blank.
      */
     @Override
-    public Float[] generateEmbedding(String text) {
-        if (text == null || text.isBlank()) {
-            throw new IllegalArgumentException("Texto não pode ser vazio");
-        }
+    public float[] generateEmbedding(String text) {
+        validateText(text);
 
         String truncatedText = truncateText(text, MAX_TEXT_LENGTH);
-        Embedding embedding = embeddingModel.embed(truncatedText).content();
+        Embedding embedding = callModel(() -> embeddingModel.embed(truncatedText).content());
+
+        return embedding.vector();
+    }
+
+    /**
+     * Generates embeddings for several texts at once. The texts are grouped into batches that
+     * are embedded concurrently, and the results are returned in the same order as the input.
+     *
+     * @param texts the input texts. None of them can be null or blank.
+     * @return the embedding vectors, one per input text and in the same order.
+     * @throws IllegalArgumentException if any input text is null or blank.
+     */
+    @Override
+    public List<float[]> generateEmbeddings(List<String> texts) {
+        if (texts == null || texts.isEmpty()) {
+            return List.of();
+        }
+
+        List<TextSegment> segments = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            validateText(text);
+            segments.add(TextSegment.from(truncateText(text, MAX_TEXT_LENGTH)));
+        }
+
+        if (segments.size() <= batchSize) {
+            return embedBatch(segments);
+        }
+
+        List<CompletableFuture<List<float[]>>> batches = new ArrayList<>();
+        for (int from = 0; from < segments.size(); from += batchSize) {
+            List<TextSegment> batch = segments.subList(from, Math.min(from + batchSize, segments.size()));
+            batches.add(CompletableFuture.supplyAsync(() -> embedBatch(batch), batchExecutor));
+        }
 
-        return embedding.vectorAsList().stream()
-                .toList()
-                .toArray(new Float[0]);
+        List<float[]> embeddings = new ArrayList<>(segments.size());
+        for (CompletableFuture<List<float[]>> batch : batches) {
+            embeddings.addAll(awaitBatch(batch));
+        }
+        return embeddings;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        batchExecutor.shutdown();
+    }
+
+    private List<float[]> embedBatch(List<TextSegment> batch) {
+        List<Embedding> embeddings = callModel(() -> embeddingModel.embedAll(batch).content());
+        if (embeddings.size() != batch.size()) {
+            throw new IllegalStateException("Quantidade de embeddings retornada difere da quantidade de textos");
+        }
+        return embeddings.stream()
+                .map(Embedding::vector)
+                .toList();
+    }
+
+    private <T> T callModel(Supplier<T> call) {
+        try {
+            modelCallPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransientFailureException("Interrompido aguardando o serviço de embedding", e);
+        }
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw new TransientFailureException("Serviço de embedding temporariamente indisponível", e);
+            }
+            throw e;
+        } finally {
+            modelCallPermits.release();
+        }
+    }
+
+    private boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException || cause instanceof TimeoutException
+                    || TRANSIENT_EXCEPTIONS.contains(cause.getClass().getSimpleName())) {
+                return true;
+            }
+            String message = cause.getMessage();
+            if (message != null && (message.contains("429")
+                    || TRANSIENT_STATUSES.stream().anyMatch(message::contains))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<float[]> awaitBatch(CompletableFuture<List<float[]>> batch) {
+        try {
+            return batch.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void validateText(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Texto não pode ser vazio");
+        }
     }
 
     /**
@@ -61,4 +209,13 @@ public class GeminiEmbeddingAdapter implements EmbeddingPort {
         }
         return text.substring(0, maxLength);
     }
-}
\ No newline at end of file
+
+    private static ThreadFactory namedThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "embedding-batch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package com.contextoia.documentingestion.infrastructure.adapter.ai;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-heap tier of the embedding cache: a size-bounded LRU map whose entries expire
+ * after a fixed time-to-live. It is consulted before any other tier. Embeddings are
+ * copied on the way in and out, so a caller changing its array cannot alter the cache.
+ */
+@Component
+@Order(1)
+@ConditionalOnProperty(name = "application.embedding.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class InMemoryEmbeddingCacheStore implements EmbeddingCacheStore {
+
+    private final long ttlMillis;
+    private final LinkedHashMap<String, CacheEntry> entries;
+
+    public InMemoryEmbeddingCacheStore(
+            @Value("${application.embedding.cache.memory.max-entries}") int maxEntries,
+            @Value("${application.embedding.cache.memory.ttl}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Tamanho máximo do cache de embeddings deve ser positivo");
+        }
+        this.ttlMillis = ttl.toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        Gauge.builder("embedding.cache.size", this, InMemoryEmbeddingCacheStore::size)
+                .tag("tier", tierName())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String tierName() {
+        return "memory";
+    }
+
+    @Override
+    public synchronized Map<String, float[]> getAll(Collection<String> keys) {
+        long now = System.currentTimeMillis();
+        Map<String, float[]> found = new HashMap<>();
+        for (String key : keys) {
+            CacheEntry entry = entries.get(key);
+            if (entry == null) continue;
+            if (entry.expiresAt() <= now) {
+                entries.remove(key);
+                continue;
+            }
+            found.put(key, entry.embedding().clone());
+        }
+        return found;
+    }
+
+    @Override
+    public synchronized void putAll(Map<String, float[]> newEntries) {
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        newEntries.forEach((key, embedding) -> entries.put(key, new CacheEntry(embedding.clone(), expiresAt)));
+    }
+
+    private synchronized int size() {
+        return entries.size();
+    }
+
+    private record CacheEntry(float[] embedding, long expiresAt) {
+    }
+}
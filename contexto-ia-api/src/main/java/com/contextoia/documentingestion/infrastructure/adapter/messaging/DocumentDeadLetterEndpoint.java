@@ -0,0 +1,121 @@
+package com.contextoia.documentingestion.infrastructure.adapter.messaging;
+
+import com.contextoia.documentingestion.application.dto.ProcessDocumentMessage;
+import com.contextoia.documentingestion.application.service.DocumentProcessorService;
+import com.rabbitmq.client.GetResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.amqp.rabbit.support.MessagePropertiesConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Operator endpoint ({@code /actuator/documentdlq}) for the PDF processing dead letter
+ * queue. A read returns the number of dead-lettered messages; a write replays up to
+ * {@code limit} of them: each document is moved back to pending and its message is
+ * published again to the processing queue with a fresh retry count.
+ *
+ * Each message is read, republished and acknowledged on one dedicated channel, and only
+ * acknowledged on the DLQ once the broker has confirmed the republished copy; a failure or
+ * a missing confirm leaves it in the DLQ. The endpoint is served on the management port
+ * and restricted to administrators.
+ */
+@Component
+@Endpoint(id = "documentdlq")
+public class DocumentDeadLetterEndpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentDeadLetterEndpoint.class);
+    private static final int DEFAULT_REPLAY_LIMIT = 100;
+
+    private final RabbitTemplate rabbitTemplate;
+    private final AmqpAdmin amqpAdmin;
+    private final DocumentProcessorService documentProcessorService;
+    private final MessagePropertiesConverter propertiesConverter = new DefaultMessagePropertiesConverter();
+    private final String processingQueue;
+    private final String deadLetterQueue;
+    private final Duration confirmTimeout;
+
+    public DocumentDeadLetterEndpoint(
+            RabbitTemplate rabbitTemplate,
+            AmqpAdmin amqpAdmin,
+            DocumentProcessorService documentProcessorService,
+            @Value("${rabbitmq.queue.pdf-processing}") String processingQueue,
+            @Value("${rabbitmq.queue.pdf-processing-dlq}") String deadLetterQueue,
+            @Value("${application.outbox.confirm-timeout}") Duration confirmTimeout) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.amqpAdmin = amqpAdmin;
+        this.documentProcessorService = documentProcessorService;
+        this.processingQueue = processingQueue;
+        this.deadLetterQueue = deadLetterQueue;
+        this.confirmTimeout = confirmTimeout;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        QueueInformation info = amqpAdmin.getQueueInfo(deadLetterQueue);
+        return Map.of(
+                "queue", deadLetterQueue,
+                "messages", info != null ? info.getMessageCount() : 0
+        );
+    }
+
+    @WriteOperation
+    public Map<String, Object> replay(@Nullable Integer limit) {
+        int max = limit != null && limit > 0 ? limit : DEFAULT_REPLAY_LIMIT;
+        int replayed = 0;
+        int discarded = 0;
+
+        for (int i = 0; i < max; i++) {
+            Boolean outcome = rabbitTemplate.invoke(operations -> operations.execute(channel -> {
+                GetResponse response = channel.basicGet(deadLetterQueue, false);
+                if (response == null) {
+                    return null;
+                }
+
+                long deliveryTag = response.getEnvelope().getDeliveryTag();
+                try {
+                    MessageProperties properties = propertiesConverter.toMessageProperties(
+                            response.getProps(), response.getEnvelope(), StandardCharsets.UTF_8.name());
+                    properties.setInferredArgumentType(ProcessDocumentMessage.class);
+                    Message message = new Message(response.getBody(), properties);
+                    ProcessDocumentMessage payload =
+                            (ProcessDocumentMessage) rabbitTemplate.getMessageConverter().fromMessage(message);
+
+                    boolean exists = documentProcessorService.resetForRetry(payload.documentId());
+                    if (exists) {
+                        operations.convertAndSend(processingQueue, payload);
+                        operations.waitForConfirmsOrDie(confirmTimeout.toMillis());
+                    } else {
+                        logger.warn("Documento {} não existe mais; mensagem descartada da DLQ", payload.documentId());
+                    }
+                    channel.basicAck(deliveryTag, false);
+                    return exists;
+                } catch (RuntimeException e) {
+                    channel.basicNack(deliveryTag, false, true);
+                    throw e;
+                }
+            }));
+
+            if (outcome == null) break;
+            if (outcome) replayed++;
+            else discarded++;
+        }
+
+        logger.info("Reprocessamento da DLQ: {} mensagens reenviadas, {} descartadas", replayed, discarded);
+        return Map.of("replayed", replayed, "discarded", discarded);
+    }
+}
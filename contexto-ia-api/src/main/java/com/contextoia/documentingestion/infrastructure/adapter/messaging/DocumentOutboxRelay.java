@@ -0,0 +1,79 @@
+package com.contextoia.documentingestion.infrastructure.adapter.messaging;
+
+import com.contextoia.documentingestion.infrastructure.adapter.persistence.DocumentOutboxRepository;
+import com.contextoia.documentingestion.infrastructure.adapter.persistence.DocumentOutboxRepository.OutboxEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Publishes the processing messages stored in the document outbox to RabbitMQ.
+ *
+ * Each batch is locked, published on a single channel and only deleted from the outbox
+ * once the broker has confirmed every message of the batch; if a confirm is missing or
+ * negative, the transaction rolls back and the batch is retried on the next run. Delivery
+ * is therefore at least once, and the processor skips documents that are no longer pending.
+ */
+@Component
+public class DocumentOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentOutboxRelay.class);
+
+    private final DocumentOutboxRepository outboxRepository;
+    private final RabbitMQMessagePublisher messagePublisher;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration confirmTimeout;
+
+    public DocumentOutboxRelay(
+            DocumentOutboxRepository outboxRepository,
+            RabbitMQMessagePublisher messagePublisher,
+            RabbitTemplate rabbitTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${application.outbox.batch-size}") int batchSize,
+            @Value("${application.outbox.confirm-timeout}") Duration confirmTimeout) {
+        this.outboxRepository = outboxRepository;
+        this.messagePublisher = messagePublisher;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.confirmTimeout = confirmTimeout;
+    }
+
+    @Scheduled(fixedDelayString = "${application.outbox.poll-interval}")
+    void relay() {
+        try {
+            Integer published;
+            do {
+                published = transactionTemplate.execute(status -> relayBatch());
+            } while (published != null && published == batchSize);
+        } catch (Exception e) {
+            logger.warn("Falha ao publicar mensagens do outbox; nova tentativa na próxima execução", e);
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEntry> batch = outboxRepository.lockBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        rabbitTemplate.invoke(operations -> {
+            batch.forEach(entry -> messagePublisher.publishProcessingMessage(entry.message()));
+            operations.waitForConfirmsOrDie(confirmTimeout.toMillis());
+            return null;
+        });
+
+        outboxRepository.delete(batch.stream().map(OutboxEntry::id).toList());
+        logger.debug("{} mensagens do outbox publicadas", batch.size());
+        return batch.size();
+    }
+}
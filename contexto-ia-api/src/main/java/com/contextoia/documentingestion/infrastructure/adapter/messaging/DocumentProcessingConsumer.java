@@ -1,10 +1,17 @@
 package com.contextoia.documentingestion.infrastructure.adapter.messaging;
 
+import com.contextoia.common.exceptions.TransientFailureException;
 import com.contextoia.documentingestion.application.dto.ProcessDocumentMessage;
+import com.contextoia.documentingestion.application.exception.DocumentProcessingException;
 import com.contextoia.documentingestion.application.service.DocumentProcessorService;
+import com.contextoia.documentingestion.infrastructure.config.RabbitMQConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
 import java.util.UUID;
@@ -19,36 +26,58 @@ import java.util.UUID;
  * {@link DocumentProcessorService} to handle the document processing operations.
  *
  * This class listens to the queue configured via the "rabbitmq.queue.pdf-processing"
- * property and processes messages asynchronously.
+ * property and processes messages asynchronously, with the concurrency and prefetch of
+ * the "pdfProcessingContainerFactory" defined in RabbitMQConfig.
  *
  * Key responsibilities:
  * - Listening to the PDF processing RabbitMQ queue.
  * - Extracting the document ID from the received messages.
- * - Logging the reception of messages and handling any errors during processing.
- *
- * The implementation also includes error handling mechanisms to log any failures
- * during the processing workflow, with a placeholder for implementing Dead Letter
- * Queue (DLQ) or retry logic in the future.
+ * - Routing failed messages according to the kind of failure:
+ *   transient failures are sent to the retry queue of the next attempt, carrying the
+ *   attempt count in the {@value #RETRY_COUNT_HEADER} header, until the maximum number of
+ *   attempts is reached; permanent failures and exhausted retries are rejected, and the
+ *   broker dead-letters them to the DLQ. A message whose retries are exhausted while
+ *   another attempt still holds a live claim on the document, as a duplicate delivery
+ *   does, is dropped instead, leaving the document to that attempt.
  */
 @Component
 public class DocumentProcessingConsumer {
     private static final Logger logger = LoggerFactory.getLogger(DocumentProcessingConsumer.class);
 
+    static final String RETRY_COUNT_HEADER = "x-retry-count";
+
     private final DocumentProcessorService documentProcessorService;
+    private final RabbitTemplate rabbitTemplate;
+    private final String retryQueue;
+    private final int maxRetryAttempts;
 
-    public DocumentProcessingConsumer(DocumentProcessorService documentProcessorService) {
+    public DocumentProcessingConsumer(
+            DocumentProcessorService documentProcessorService,
+            RabbitTemplate rabbitTemplate,
+            @Value("${rabbitmq.queue.pdf-processing-retry}") String retryQueue,
+            @Value("${rabbitmq.retry.pdf-processing.max-attempts}") int maxRetryAttempts) {
         this.documentProcessorService = documentProcessorService;
+        this.rabbitTemplate = rabbitTemplate;
+        this.retryQueue = retryQueue;
+        this.maxRetryAttempts = maxRetryAttempts;
     }
 
-    @RabbitListener(queues = "${rabbitmq.queue.pdf-processing}")
-    public void processDocument(ProcessDocumentMessage message) {
+    @RabbitListener(
+            queues = "${rabbitmq.queue.pdf-processing}",
+            containerFactory = "pdfProcessingContainerFactory")
+    public void processDocument(
+            ProcessDocumentMessage message,
+            @Header(name = RETRY_COUNT_HEADER, required = false) Integer retryCount) {
         UUID documentId = getDocumentId(message);
+        int attempt = retryCount != null ? retryCount : 0;
 
         try {
-            logReceivedMessage(documentId);
+            logReceivedMessage(documentId, attempt);
             documentProcessorService.processDocument(documentId);
-        } catch (Exception e) {
-            handleProcessingError(documentId, e);
+        } catch (TransientFailureException e) {
+            handleTransientFailure(message, attempt, e);
+        } catch (DocumentProcessingException e) {
+            throw new AmqpRejectAndDontRequeueException("Falha definitiva no documento " + documentId, e);
         }
     }
 
@@ -56,12 +85,31 @@ public class DocumentProcessingConsumer {
         return message.documentId();
     }
 
-    private void logReceivedMessage(UUID documentId) {
-        logger.info("Mensagem recebida para processar documento: {}", documentId);
+    private void logReceivedMessage(UUID documentId, int attempt) {
+        logger.info("Mensagem recebida para processar documento: {} (tentativa {})", documentId, attempt + 1);
     }
 
-    private void handleProcessingError(UUID documentId, Exception e) {
-        logger.error("Erro ao processar mensagem: {}", documentId, e);
-        //TODO: futuramente, Implementar DLQ ou retry conforme necessário
+    private void handleTransientFailure(ProcessDocumentMessage message, int attempt, TransientFailureException e) {
+        UUID documentId = message.documentId();
+
+        if (attempt >= maxRetryAttempts) {
+            if (!documentProcessorService.failDocument(documentId, e.getMessage())) {
+                logger.info("Documento {} segue em processamento por outra tentativa ou já foi concluído; "
+                        + "mensagem descartada", documentId);
+                return;
+            }
+            logger.error("Tentativas esgotadas para o documento: {}", documentId, e);
+            throw new AmqpRejectAndDontRequeueException("Tentativas esgotadas para o documento " + documentId, e);
+        }
+
+        int nextAttempt = attempt + 1;
+        rabbitTemplate.convertAndSend(
+                RabbitMQConfig.retryQueueName(retryQueue, nextAttempt),
+                message,
+                retryMessage -> {
+                    retryMessage.getMessageProperties().setHeader(RETRY_COUNT_HEADER, nextAttempt);
+                    return retryMessage;
+                });
+        logger.warn("Documento {} reagendado para nova tentativa ({} de {})", documentId, nextAttempt, maxRetryAttempts);
     }
 }
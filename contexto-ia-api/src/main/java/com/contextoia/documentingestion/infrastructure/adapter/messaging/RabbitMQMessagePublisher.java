@@ -17,6 +17,9 @@ import org.springframework.stereotype.Component;
  *
  * The queue name is configured via the application properties using the
  * property key "rabbitmq.queue.pdf-processing".
+ *
+ * Application services publish through the outbox; this publisher is used by the
+ * {@link DocumentOutboxRelay} to send the stored messages to the broker.
  */
 @Component
 public class RabbitMQMessagePublisher implements DocumentMessagePublisher {
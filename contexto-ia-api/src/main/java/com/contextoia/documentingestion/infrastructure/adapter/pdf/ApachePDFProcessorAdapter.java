@@ -1,12 +1,30 @@
 package com.contextoia.documentingestion.infrastructure.adapter.pdf;
 
 import com.contextoia.documentingestion.application.port.out.PdfProcessorPort;
+import com.contextoia.documentingestion.domain.model.PageText;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * An adapter for processing PDF files using Apache PDFBox.
@@ -15,13 +33,56 @@ import java.io.InputStream;
  *
  * Component ensures validation checks for encrypted files, presence of pages,
  * and successful text extraction. Any validation failure results in an {@code IOException}.
+ *
+ * Documents are loaded with a mixed memory setting: at most
+ * {@code application.ingestion.pdf.max-main-memory} of the parsed file is kept on the heap
+ * and the rest spills to a temporary scratch file, which bounds the memory used per document
+ * regardless of its size.
+ *
+ * Documents with at least {@code application.ingestion.pdf.parallel-min-pages} pages are
+ * extracted by up to {@code application.ingestion.pdf.parallelism} threads. {@link PDDocument}
+ * is not thread safe, so every thread loads its own copy of the document, from memory when
+ * the file is at most {@code application.ingestion.pdf.spool-threshold} and otherwise from a
+ * temporary file the stream is first spooled to. The threads take ranges of
+ * {@value #PAGES_PER_RANGE} pages in order, and the pages are handed to the consumer in order
+ * as soon as their range is done. At most two ranges per thread are extracted ahead of the
+ * consumer, so the text held at once does not grow with the document.
  */
 @Component
 public class ApachePDFProcessorAdapter implements PdfProcessorPort {
 
+    static final int PAGES_PER_RANGE = 16;
+    private static final int RANGES_AHEAD_PER_THREAD = 2;
+
+    private final long maxMainMemoryBytes;
+    private final int parallelism;
+    private final int parallelMinPages;
+    private final long spoolThresholdBytes;
+    private final ExecutorService extractionExecutor;
+
+    public ApachePDFProcessorAdapter(
+            @Value("${application.ingestion.pdf.max-main-memory:32MB}") DataSize maxMainMemory,
+            @Value("${application.ingestion.pdf.parallelism:1}") int parallelism,
+            @Value("${application.ingestion.pdf.parallel-min-pages:64}") int parallelMinPages,
+            @Value("${application.ingestion.pdf.spool-threshold:8MB}") DataSize spoolThreshold) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Paralelismo da extração de PDF deve ser positivo");
+        }
+        if (spoolThreshold.toBytes() >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Limite para arquivo temporário do PDF deve ser menor que 2GB");
+        }
+        this.maxMainMemoryBytes = maxMainMemory.toBytes();
+        this.parallelism = parallelism;
+        this.parallelMinPages = parallelMinPages;
+        this.spoolThresholdBytes = spoolThreshold.toBytes();
+        this.extractionExecutor = parallelism > 1
+                ? Executors.newFixedThreadPool(parallelism, namedThreadFactory())
+                : null;
+    }
+
     @Override
     public String extractText(InputStream inputStream) throws IOException {
-        try (PDDocument document = PDDocument.load(inputStream)) {
+        try (PDDocument document = PDDocument.load(inputStream, memoryUsage(1))) {
             validateDocumentNotEncrypted(document);
             validateDocumentHasPages(document);
 
@@ -33,6 +94,204 @@ public class ApachePDFProcessorAdapter implements PdfProcessorPort {
         }
     }
 
+    /**
+     * Extracts the text of each page separately, preserving page numbers so that
+     * downstream chunks can reference the page range they came from. Pages are passed to
+     * the consumer in order; with a single thread each one is passed as soon as it is
+     * extracted, and in parallel as soon as its range is.
+     */
+    @Override
+    public void extractPages(InputStream inputStream, Consumer<PageText> pageConsumer) throws IOException {
+        if (extractionExecutor == null) {
+            try (PDDocument document = PDDocument.load(inputStream, memoryUsage(1))) {
+                validateDocumentNotEncrypted(document);
+                validateDocumentHasPages(document);
+                boolean hasText = extractRange(document, 1, document.getNumberOfPages(), pageConsumer);
+                validateHasText(hasText);
+            }
+            return;
+        }
+
+        byte[] head = inputStream.readNBytes((int) spoolThresholdBytes + 1);
+        if (head.length <= spoolThresholdBytes) {
+            extractPagesInParallel(setting -> PDDocument.load(head, "", null, null, setting), pageConsumer);
+            return;
+        }
+
+        Path file = Files.createTempFile("contexto-pdf-", ".pdf");
+        try {
+            try (OutputStream out = Files.newOutputStream(file)) {
+                out.write(head);
+                inputStream.transferTo(out);
+            }
+            extractPagesInParallel(setting -> PDDocument.load(file.toFile(), setting), pageConsumer);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (extractionExecutor != null) {
+            extractionExecutor.shutdown();
+        }
+    }
+
+    private void extractPagesInParallel(PdfSource source, Consumer<PageText> pageConsumer) throws IOException {
+        int numberOfPages;
+        try (PDDocument document = source.load(memoryUsage(1))) {
+            validateDocumentNotEncrypted(document);
+            validateDocumentHasPages(document);
+            numberOfPages = document.getNumberOfPages();
+
+            if (numberOfPages < parallelMinPages) {
+                validateHasText(extractRange(document, 1, numberOfPages, pageConsumer));
+                return;
+            }
+        }
+
+        int ranges = Math.ceilDiv(numberOfPages, PAGES_PER_RANGE);
+        int workers = Math.min(parallelism, ranges);
+        RangeExtraction extraction = new RangeExtraction(source, numberOfPages, ranges, workers);
+        for (int i = 0; i < workers; i++) {
+            extractionExecutor.execute(extraction::work);
+        }
+
+        boolean hasText = false;
+        try {
+            for (int range = 0; range < ranges; range++) {
+                for (PageText page : extraction.await(range)) {
+                    hasText |= !page.text().isEmpty();
+                    pageConsumer.accept(page);
+                }
+            }
+        } finally {
+            extraction.abort();
+        }
+        validateHasText(hasText);
+    }
+
+    private boolean extractRange(PDDocument document, int startPage, int endPage,
+                                 Consumer<PageText> pageConsumer) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        boolean hasText = false;
+
+        for (int page = startPage; page <= endPage; page++) {
+            stripper.setStartPage(page);
+            stripper.setEndPage(page);
+            String text = stripper.getText(document).trim();
+            hasText |= !text.isEmpty();
+            pageConsumer.accept(new PageText(page, text));
+        }
+        return hasText;
+    }
+
+    /**
+     * The ranges of one document shared by the extraction threads. Each thread loads its own
+     * copy of the document and claims ranges in increasing order, waiting for a permit
+     * before each claim; the consumer returns a permit once it has taken a range. The ranges
+     * claimed and not yet consumed are therefore always the next ones the consumer needs,
+     * and there are never more than {@code permits} of them.
+     */
+    private final class RangeExtraction {
+
+        private final PdfSource source;
+        private final int numberOfPages;
+        private final int workers;
+        private final CompletableFuture<List<PageText>>[] results;
+        private final Semaphore permits;
+        private final AtomicInteger nextRange = new AtomicInteger();
+        private volatile boolean aborted;
+
+        @SuppressWarnings("unchecked")
+        RangeExtraction(PdfSource source, int numberOfPages, int ranges, int workers) {
+            this.source = source;
+            this.numberOfPages = numberOfPages;
+            this.workers = workers;
+            this.results = new CompletableFuture[ranges];
+            for (int i = 0; i < ranges; i++) {
+                results[i] = new CompletableFuture<>();
+            }
+            this.permits = new Semaphore(workers * RANGES_AHEAD_PER_THREAD);
+        }
+
+        void work() {
+            try (PDDocument document = source.load(memoryUsage(workers))) {
+                while (true) {
+                    permits.acquire();
+                    int range = nextRange.getAndIncrement();
+                    if (aborted || range >= results.length) {
+                        return;
+                    }
+                    int startPage = range * PAGES_PER_RANGE + 1;
+                    int endPage = Math.min(startPage + PAGES_PER_RANGE - 1, numberOfPages);
+                    List<PageText> pages = new ArrayList<>(endPage - startPage + 1);
+                    extractRange(document, startPage, endPage, pages::add);
+                    results[range].complete(pages);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+            }
+        }
+
+        List<PageText> await(int range) throws IOException {
+            try {
+                return results[range].join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof IOException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            } finally {
+                results[range] = null;
+                permits.release();
+            }
+        }
+
+        /**
+         * Stops the threads once the consumer is done, or has failed. Threads waiting for a
+         * permit are woken up and see the flag before claiming another range.
+         */
+        void abort() {
+            aborted = true;
+            permits.release(workers);
+        }
+
+        /**
+         * A failed thread fails every range not yet done: the document cannot be completed,
+         * and the consumer, which takes the ranges in order, must not wait for a range no
+         * thread will extract.
+         */
+        private void fail(Exception cause) {
+            for (CompletableFuture<List<PageText>> result : results) {
+                if (result != null) {
+                    result.completeExceptionally(cause);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads a fresh copy of the document being extracted.
+     */
+    @FunctionalInterface
+    private interface PdfSource {
+        PDDocument load(MemoryUsageSetting memoryUsage) throws IOException;
+    }
+
+    /**
+     * The heap budget is shared between the copies of a document loaded concurrently.
+     */
+    private MemoryUsageSetting memoryUsage(int concurrentLoads) {
+        return MemoryUsageSetting.setupMixed(maxMainMemoryBytes / concurrentLoads);
+    }
+
     private void validateDocumentNotEncrypted(PDDocument document) throws IOException {
         if (document.isEncrypted()) {
             throw new IOException("PDF está criptografado e não pode ser processado");
@@ -45,9 +304,24 @@ public class ApachePDFProcessorAdapter implements PdfProcessorPort {
         }
     }
 
+    private void validateHasText(boolean hasText) throws IOException {
+        if (!hasText) {
+            throw new IOException("Não foi possível extrair texto do PDF");
+        }
+    }
+
     private void validateExtractedText(String text) throws IOException {
         if (text == null || text.isBlank()) {
             throw new IOException("Não foi possível extrair texto do PDF");
         }
     }
+
+    private static ThreadFactory namedThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "pdf-extraction-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
 }
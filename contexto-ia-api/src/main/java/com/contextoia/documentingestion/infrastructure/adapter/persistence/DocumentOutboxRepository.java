@@ -0,0 +1,73 @@
+package com.contextoia.documentingestion.infrastructure.adapter.persistence;
+
+import com.contextoia.documentingestion.application.dto.ProcessDocumentMessage;
+import com.github.f4b6a3.uuid.UuidCreator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Access to the "tb_document_outbox" table, which holds the processing messages of
+ * uploaded documents until they have been published to the broker.
+ */
+@Repository
+public class DocumentOutboxRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO tb_document_outbox (id, document_id, storage_key)
+            VALUES (?, ?, ?)
+            """;
+
+    /**
+     * Oldest pending entries first. {@code SKIP LOCKED} lets several nodes relay in
+     * parallel without publishing the same entry twice.
+     */
+    private static final String LOCK_BATCH_SQL = """
+            SELECT id, document_id, storage_key
+            FROM tb_document_outbox
+            ORDER BY created_at
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String DELETE_SQL = """
+            DELETE FROM tb_document_outbox WHERE id IN (:ids)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public DocumentOutboxRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    public void add(ProcessDocumentMessage message) {
+        jdbcTemplate.update(INSERT_SQL, UuidCreator.getTimeOrderedEpoch(), message.documentId(), message.storageKey());
+    }
+
+    /**
+     * Locks the oldest pending entries until the end of the current transaction.
+     */
+    public List<OutboxEntry> lockBatch(int batchSize) {
+        return jdbcTemplate.query(LOCK_BATCH_SQL, (rs, rowNum) -> new OutboxEntry(
+                rs.getObject("id", UUID.class),
+                new ProcessDocumentMessage(
+                        rs.getObject("document_id", UUID.class),
+                        rs.getString("storage_key"))
+        ), batchSize);
+    }
+
+    public void delete(Collection<UUID> ids) {
+        if (ids.isEmpty()) return;
+        namedJdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource("ids", ids));
+    }
+
+    public record OutboxEntry(UUID id, ProcessDocumentMessage message) {
+    }
+}
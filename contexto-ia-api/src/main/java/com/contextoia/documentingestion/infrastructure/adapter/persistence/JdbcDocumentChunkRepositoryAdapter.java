@@ -0,0 +1,99 @@
+package com.contextoia.documentingestion.infrastructure.adapter.persistence;
+
+import com.contextoia.documentingestion.application.port.out.DocumentChunkRepositoryPort;
+import com.contextoia.documentingestion.domain.model.DocumentChunk;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Adapter class that implements the {@link DocumentChunkRepositoryPort} interface using
+ * plain JDBC batch statements, so that the chunks of a document and their embeddings are
+ * written in a few round trips instead of one entity merge per chunk.
+ *
+ * Embeddings are bound and read as {@link com.pgvector.PGvector} values, which the PostgreSQL
+ * driver transfers in binary form once the type is registered on the connection, as
+ * {@code PgVectorConfig} does for every pooled connection. The binary quantized copy of each embedding, used
+ * by the coarse search pass, is computed by Postgres on insert.
+ */
+@Repository
+public class JdbcDocumentChunkRepositoryAdapter implements DocumentChunkRepositoryPort {
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final String DELETE_BY_DOCUMENT_SQL = """
+            DELETE FROM tb_document_chunks WHERE document_id = ?
+            """;
+
+    private static final String INSERT_STAGING_SQL = """
+            INSERT INTO tb_document_chunks_staging
+                (id, document_id, attempt_id, user_id, chunk_index, content, page_start, page_end,
+                 embedding)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String PUBLISH_STAGING_SQL = """
+            INSERT INTO tb_document_chunks
+                (id, document_id, user_id, chunk_index, content, page_start, page_end,
+                 embedding, embedding_binary)
+            SELECT id, document_id, user_id, chunk_index, content, page_start, page_end,
+                   embedding, binary_quantize(embedding)::bit(768)
+            FROM tb_document_chunks_staging
+            WHERE document_id = ? AND attempt_id = ?
+            """;
+
+    private static final String DELETE_STAGING_BY_DOCUMENT_SQL = """
+            DELETE FROM tb_document_chunks_staging WHERE document_id = ?
+            """;
+
+    private static final String DELETE_STAGING_BY_ATTEMPT_SQL = """
+            DELETE FROM tb_document_chunks_staging WHERE document_id = ? AND attempt_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcDocumentChunkRepositoryAdapter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Writes one window of embedded chunks of a processing attempt to the staging table.
+     * They only become visible to searches once {@link #publishStagedChunks} runs.
+     */
+    @Override
+    public void stageChunks(UUID attemptId, List<DocumentChunk> chunks) {
+        jdbcTemplate.batchUpdate(INSERT_STAGING_SQL, chunks, BATCH_SIZE, (ps, chunk) -> {
+            ps.setObject(1, chunk.id());
+            ps.setObject(2, chunk.documentId());
+            ps.setObject(3, attemptId);
+            ps.setObject(4, chunk.userId());
+            ps.setInt(5, chunk.chunkIndex());
+            ps.setString(6, chunk.content());
+            ps.setInt(7, chunk.pageStart());
+            ps.setInt(8, chunk.pageEnd());
+            ps.setObject(9, chunk.embedding());
+        });
+    }
+
+    /**
+     * Replaces the chunks of the document with those staged by the given attempt, inside
+     * the caller's transaction. The staged rows of the document, including any left behind
+     * by earlier attempts, are removed.
+     *
+     * @return the number of chunks published
+     */
+    @Override
+    public int publishStagedChunks(UUID documentId, UUID attemptId) {
+        jdbcTemplate.update(DELETE_BY_DOCUMENT_SQL, documentId);
+        int published = jdbcTemplate.update(PUBLISH_STAGING_SQL, documentId, attemptId);
+        jdbcTemplate.update(DELETE_STAGING_BY_DOCUMENT_SQL, documentId);
+        return published;
+    }
+
+    @Override
+    public void discardStagedChunks(UUID documentId, UUID attemptId) {
+        jdbcTemplate.update(DELETE_STAGING_BY_ATTEMPT_SQL, documentId, attemptId);
+    }
+}
@@ -0,0 +1,141 @@
+package com.contextoia.documentingestion.infrastructure.adapter.persistence;
+
+import com.contextoia.documentingestion.infrastructure.adapter.ai.EmbeddingCacheStore;
+import com.pgvector.PGvector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistent tier of the embedding cache, backed by the "tb_embedding_cache" table and
+ * therefore shared by every node. Enabled with {@code application.embedding.cache.database.enabled}.
+ *
+ * Entries expire {@code ttl} after they were stored: lookups ignore them, and every node
+ * periodically deletes them in small batches, oldest first, through the index on
+ * {@code created_at}. Rows locked by another node's pruning are skipped.
+ */
+@Repository
+@Order(2)
+@ConditionalOnProperty(name = "application.embedding.cache.database.enabled", havingValue = "true")
+public class JdbcEmbeddingCacheStore implements EmbeddingCacheStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcEmbeddingCacheStore.class);
+
+    private static final int BATCH_SIZE = 100;
+    private static final int PRUNE_BATCH_SIZE = 1000;
+
+    private static final String SELECT_SQL = """
+            SELECT cache_key, embedding
+            FROM tb_embedding_cache
+            WHERE cache_key IN (:keys)
+              AND created_at >= :notBefore
+            """;
+
+    private static final String PRUNE_SQL = """
+            DELETE FROM tb_embedding_cache
+            WHERE cache_key IN (
+                SELECT cache_key FROM tb_embedding_cache
+                WHERE created_at < ?
+                ORDER BY created_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO tb_embedding_cache (cache_key, model_name, embedding)
+            VALUES (?, ?, ?)
+            ON CONFLICT (cache_key) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final String modelName;
+    private final Duration ttl;
+
+    public JdbcEmbeddingCacheStore(
+            JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            @Value("${langchain4j.vertexai.embedding-model.model-name}") String modelName,
+            @Value("${application.embedding.cache.database.ttl}") Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Validade do cache de embeddings no banco deve ser positiva");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.modelName = modelName;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public String tierName() {
+        return "database";
+    }
+
+    @Override
+    public Map<String, float[]> getAll(Collection<String> keys) {
+        Map<String, float[]> found = new HashMap<>();
+        if (keys.isEmpty()) {
+            return found;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("keys", keys)
+                .addValue("notBefore", expiredBefore());
+        namedJdbcTemplate.query(SELECT_SQL, params, rs -> {
+            found.put(rs.getString("cache_key"), rs.getObject("embedding", PGvector.class).toArray());
+        });
+        return found;
+    }
+
+    @Override
+    public void putAll(Map<String, float[]> entries) {
+        List<Map.Entry<String, float[]>> rows = new ArrayList<>(entries.entrySet());
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, BATCH_SIZE, (ps, entry) -> {
+            ps.setString(1, entry.getKey());
+            ps.setString(2, modelName);
+            ps.setObject(3, new PGvector(entry.getValue()));
+        });
+    }
+
+    @Scheduled(
+            fixedDelayString = "${application.embedding.cache.database.prune-interval}",
+            initialDelayString = "${application.embedding.cache.database.prune-interval}")
+    void pruneExpired() {
+        try {
+            OffsetDateTime expiredBefore = expiredBefore();
+            int total = 0;
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(PRUNE_SQL, expiredBefore, PRUNE_BATCH_SIZE);
+                total += deleted;
+            } while (deleted == PRUNE_BATCH_SIZE);
+
+            if (total > 0) {
+                logger.info("{} embeddings expirados removidos do cache", total);
+            }
+        } catch (Exception e) {
+            logger.warn("Falha ao remover embeddings expirados do cache", e);
+        }
+    }
+
+    private OffsetDateTime expiredBefore() {
+        return OffsetDateTime.now(ZoneOffset.UTC).minus(ttl);
+    }
+}
@@ -1,15 +1,181 @@
 package com.contextoia.documentingestion.infrastructure.adapter.persistence;
 
+import com.contextoia.documentingestion.application.dto.DocumentProcessingView;
+import com.contextoia.documentingestion.application.dto.DocumentSummary;
 import com.contextoia.documentingestion.domain.enums.DocumentStatus;
 import com.contextoia.documentingestion.domain.model.Document;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 interface JpaDocumentRepository extends JpaRepository<Document, UUID> {
     List<Document> findByUserId(UUID userId);
     List<Document> findByUserIdAndStatus(UUID userId, DocumentStatus status);
+    Optional<DocumentSummary> findSummaryByIdAndUserId(UUID id, UUID userId);
+    Optional<DocumentProcessingView> findProcessingViewById(UUID id);
+    Optional<Document> findFirstByContentSha256AndStatusOrderByCreatedAtAsc(String contentSha256, DocumentStatus status);
+    Optional<Document> findFirstByUserIdAndContentSha256AndStatusNotOrderByCreatedAtAsc(
+            UUID userId, String contentSha256, DocumentStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Document d SET d.status = :processing, d.processingAttempt = :attempt
+        WHERE d.id = :id
+          AND (d.status = :pending OR (d.status = :processing AND d.updatedAt < :staleBefore))
+        """)
+    int claimForProcessing(
+            @Param("id") UUID id,
+            @Param("attempt") UUID attempt,
+            @Param("pending") DocumentStatus pending,
+            @Param("processing") DocumentStatus processing,
+            @Param("staleBefore") LocalDateTime staleBefore
+    );
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Document d SET d.status = :newStatus
+        WHERE d.id = :id AND d.status = :processing AND d.processingAttempt = :attempt
+        """)
+    int updateClaimedStatus(
+            @Param("id") UUID id,
+            @Param("attempt") UUID attempt,
+            @Param("processing") DocumentStatus processing,
+            @Param("newStatus") DocumentStatus newStatus
+    );
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Document d
+        SET d.status = :completed, d.processedAt = :processedAt, d.errorMessage = NULL,
+            d.contentSha256 = COALESCE(d.contentSha256, :contentSha256)
+        WHERE d.id = :id AND d.status = :processing AND d.processingAttempt = :attempt
+        """)
+    int markCompleted(
+            @Param("id") UUID id,
+            @Param("attempt") UUID attempt,
+            @Param("contentSha256") String contentSha256,
+            @Param("processing") DocumentStatus processing,
+            @Param("completed") DocumentStatus completed,
+            @Param("processedAt") LocalDateTime processedAt
+    );
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Document d SET d.status = :failed, d.errorMessage = :errorMessage, d.processedAt = :processedAt
+        WHERE d.id = :id AND d.status = :processing AND d.processingAttempt = :attempt
+        """)
+    int markFailed(
+            @Param("id") UUID id,
+            @Param("attempt") UUID attempt,
+            @Param("errorMessage") String errorMessage,
+            @Param("processing") DocumentStatus processing,
+            @Param("failed") DocumentStatus failed,
+            @Param("processedAt") LocalDateTime processedAt
+    );
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Document d SET d.status = :failed, d.errorMessage = :errorMessage, d.processedAt = :processedAt
+        WHERE d.id = :id AND d.status <> :completed
+          AND (d.status <> :processing OR d.processingAttempt IS NULL OR d.updatedAt < :staleBefore)
+        """)
+    int markFailedUnlessClaimed(
+            @Param("id") UUID id,
+            @Param("errorMessage") String errorMessage,
+            @Param("processing") DocumentStatus processing,
+            @Param("failed") DocumentStatus failed,
+            @Param("completed") DocumentStatus completed,
+            @Param("staleBefore") LocalDateTime staleBefore,
+            @Param("processedAt") LocalDateTime processedAt
+    );
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Document d SET d.status = :pending, d.errorMessage = NULL, d.processedAt = NULL
+        WHERE d.id = :id AND d.status = :failed
+        """)
+    int resetFailed(
+            @Param("id") UUID id,
+            @Param("failed") DocumentStatus failed,
+            @Param("pending") DocumentStatus pending
+    );
+
+    @Query("""
+        SELECT MAX(d.updatedAt) FROM Document d
+        WHERE d.userId = :userId AND d.status = :completed
+        """)
+    LocalDateTime findLatestCompletedChange(
+            @Param("userId") UUID userId,
+            @Param("completed") DocumentStatus completed
+    );
+
+    @Query(value = """
+        SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtextextended(:key, 0))) l
+        """, nativeQuery = true)
+    Integer lockKey(@Param("key") String key);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Document d SET d.fileSize = :fileSize
+        WHERE d.id = :id AND d.fileSize IS NULL
+        """)
+    int confirmUpload(@Param("id") UUID id, @Param("fileSize") long fileSize);
+
+    @Query("""
+        SELECT d.id AS id, d.fileName AS fileName, d.originalFileName AS originalFileName,
+               d.fileSize AS fileSize, d.status AS status, d.errorMessage AS errorMessage,
+               d.createdAt AS createdAt, d.processedAt AS processedAt
+        FROM Document d
+        WHERE d.userId = :userId
+          AND (:status IS NULL OR d.status = :status)
+          AND (:createdFrom IS NULL OR d.createdAt >= :createdFrom)
+          AND (:createdTo IS NULL OR d.createdAt < :createdTo)
+        ORDER BY d.createdAt DESC, d.id DESC
+        """)
+    List<DocumentSummary> findFirstSummariesPage(
+            @Param("userId") UUID userId,
+            @Param("status") DocumentStatus status,
+            @Param("createdFrom") LocalDateTime createdFrom,
+            @Param("createdTo") LocalDateTime createdTo,
+            Limit limit
+    );
+
+    @Query("""
+        SELECT d.id AS id, d.fileName AS fileName, d.originalFileName AS originalFileName,
+               d.fileSize AS fileSize, d.status AS status, d.errorMessage AS errorMessage,
+               d.createdAt AS createdAt, d.processedAt AS processedAt
+        FROM Document d
+        WHERE d.userId = :userId
+          AND (d.createdAt, d.id) < (:cursorCreatedAt, :cursorId)
+          AND (:status IS NULL OR d.status = :status)
+          AND (:createdFrom IS NULL OR d.createdAt >= :createdFrom)
+          AND (:createdTo IS NULL OR d.createdAt < :createdTo)
+        ORDER BY d.createdAt DESC, d.id DESC
+        """)
+    List<DocumentSummary> findSummariesPageAfter(
+            @Param("userId") UUID userId,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") UUID cursorId,
+            @Param("status") DocumentStatus status,
+            @Param("createdFrom") LocalDateTime createdFrom,
+            @Param("createdTo") LocalDateTime createdTo,
+            Limit limit
+    );
 }
@@ -1,10 +1,15 @@
 package com.contextoia.documentingestion.infrastructure.adapter.persistence;
 
+import com.contextoia.documentingestion.application.dto.DocumentCursor;
+import com.contextoia.documentingestion.application.dto.DocumentProcessingView;
+import com.contextoia.documentingestion.application.dto.DocumentSummary;
 import com.contextoia.documentingestion.application.port.out.DocumentRepositoryPort;
 import com.contextoia.documentingestion.domain.enums.DocumentStatus;
 import com.contextoia.documentingestion.domain.model.Document;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,6 +21,10 @@ import java.util.UUID;
  *
  * This class is marked as a Spring {@code @Repository}, making it a component
  * responsible for data access and enabling dependency injection.
+ *
+ * Processing state changes are single conditional {@code UPDATE} statements that neither
+ * load nor merge the entity; the expected current status in the {@code WHERE} clause makes
+ * each transition atomic, and each method reports whether the transition was applied.
  */
 @Repository
 public class JpaDocumentRepositoryAdapter implements DocumentRepositoryPort {
@@ -31,6 +40,15 @@ public class JpaDocumentRepositoryAdapter implements DocumentRepositoryPort {
         return jpaRepository.save(document);
     }
 
+    /**
+     * Saves and immediately writes the document, for callers that insert rows referencing
+     * it through plain JDBC in the same transaction.
+     */
+    @Override
+    public Document saveAndFlush(Document document) {
+        return jpaRepository.saveAndFlush(document);
+    }
+
     @Override
     public Optional<Document> findById(UUID id) {
         return jpaRepository.findById(id);
@@ -45,4 +63,136 @@ public class JpaDocumentRepositoryAdapter implements DocumentRepositoryPort {
     public List<Document> findByUserIdAndStatus(UUID userId, DocumentStatus status) {
         return jpaRepository.findByUserIdAndStatus(userId, status);
     }
+
+    @Override
+    public Optional<DocumentSummary> findSummaryByIdAndUserId(UUID id, UUID userId) {
+        return jpaRepository.findSummaryByIdAndUserId(id, userId);
+    }
+
+    @Override
+    public Optional<DocumentProcessingView> findProcessingViewById(UUID id) {
+        return jpaRepository.findProcessingViewById(id);
+    }
+
+    /**
+     * Finds the oldest processed document with the given content, whose stored file and
+     * chunks can be reused by a new upload of the same bytes.
+     */
+    @Override
+    public Optional<Document> findCompletedByContentSha256(String contentSha256) {
+        return jpaRepository.findFirstByContentSha256AndStatusOrderByCreatedAtAsc(
+                contentSha256, DocumentStatus.COMPLETED);
+    }
+
+    @Override
+    public Optional<Document> findActiveByUserIdAndContentSha256(UUID userId, String contentSha256) {
+        return jpaRepository.findFirstByUserIdAndContentSha256AndStatusNotOrderByCreatedAtAsc(
+                userId, contentSha256, DocumentStatus.FAILED);
+    }
+
+    /**
+     * Serializes, until the current transaction ends, the uploads of the same content by the
+     * same user, so that only one of them creates a document. Must run inside a transaction.
+     */
+    @Override
+    public void lockContentHash(UUID userId, String contentSha256) {
+        jpaRepository.lockKey("document-content:" + userId + ":" + contentSha256);
+    }
+
+    /**
+     * Moves a pending document to processing under the given attempt id. A document left in
+     * processing since before {@code staleBefore}, by a worker that died or stopped renewing
+     * its claim, can be claimed again; the previous attempt is then fenced off, since every
+     * later state change requires the attempt id that holds the claim.
+     */
+    @Override
+    public boolean claimForProcessing(UUID id, UUID attemptId, LocalDateTime staleBefore) {
+        return jpaRepository.claimForProcessing(
+                id, attemptId, DocumentStatus.PENDING, DocumentStatus.PROCESSING, staleBefore) == 1;
+    }
+
+    /**
+     * Refreshes the claim of the given attempt. The update itself is what counts: the
+     * {@code updated_at} trigger moves the claim time forward.
+     */
+    @Override
+    public boolean renewProcessingClaim(UUID id, UUID attemptId) {
+        return jpaRepository.updateClaimedStatus(
+                id, attemptId, DocumentStatus.PROCESSING, DocumentStatus.PROCESSING) == 1;
+    }
+
+    @Override
+    public boolean releaseProcessingClaim(UUID id, UUID attemptId) {
+        return jpaRepository.updateClaimedStatus(
+                id, attemptId, DocumentStatus.PROCESSING, DocumentStatus.PENDING) == 1;
+    }
+
+    @Override
+    public boolean markCompleted(UUID id, UUID attemptId, String contentSha256, LocalDateTime processedAt) {
+        return jpaRepository.markCompleted(
+                id, attemptId, contentSha256, DocumentStatus.PROCESSING, DocumentStatus.COMPLETED, processedAt) == 1;
+    }
+
+    @Override
+    public boolean markFailed(UUID id, UUID attemptId, String errorMessage, LocalDateTime processedAt) {
+        return jpaRepository.markFailed(
+                id, attemptId, errorMessage, DocumentStatus.PROCESSING, DocumentStatus.FAILED, processedAt) == 1;
+    }
+
+    /**
+     * Marks the document as failed unless an attempt still holds a live claim on it: a
+     * document in processing is only failed once its claim went stale, as in
+     * {@link #claimForProcessing}. Completed documents are never failed.
+     */
+    @Override
+    public boolean markFailedUnlessClaimed(
+            UUID id, String errorMessage, LocalDateTime staleBefore, LocalDateTime processedAt) {
+        return jpaRepository.markFailedUnlessClaimed(id, errorMessage, DocumentStatus.PROCESSING,
+                DocumentStatus.FAILED, DocumentStatus.COMPLETED, staleBefore, processedAt) == 1;
+    }
+
+    /**
+     * Latest change to any of the user's completed documents, as stamped by the database
+     * clock through the {@code updated_at} trigger, so that it only moves forward whichever
+     * instance completed the document. Empty if the user has no completed document.
+     */
+    @Override
+    public Optional<LocalDateTime> findLatestCompletedChange(UUID userId) {
+        return Optional.ofNullable(jpaRepository.findLatestCompletedChange(userId, DocumentStatus.COMPLETED));
+    }
+
+    @Override
+    public boolean resetFailed(UUID id) {
+        return jpaRepository.resetFailed(id, DocumentStatus.FAILED, DocumentStatus.PENDING) == 1;
+    }
+
+    /**
+     * Records the size of a file uploaded directly to storage. Only the first confirmation
+     * of a document succeeds.
+     */
+    @Override
+    public boolean confirmUpload(UUID id, long fileSize) {
+        return jpaRepository.confirmUpload(id, fileSize) == 1;
+    }
+
+    /**
+     * Reads one page of the user's documents ordered by {@code (created_at DESC, id DESC)}.
+     * Pages after the first seek directly past the cursor, so the cost of a page does not
+     * depend on how deep into the listing it is.
+     */
+    @Override
+    public List<DocumentSummary> findSummariesPage(
+            UUID userId,
+            DocumentStatus status,
+            LocalDateTime createdFrom,
+            LocalDateTime createdTo,
+            DocumentCursor after,
+            int limit) {
+        if (after == null) {
+            return jpaRepository.findFirstSummariesPage(
+                    userId, status, createdFrom, createdTo, Limit.of(limit));
+        }
+        return jpaRepository.findSummariesPageAfter(
+                userId, after.createdAt(), after.id(), status, createdFrom, createdTo, Limit.of(limit));
+    }
 }
@@ -0,0 +1,28 @@
+package com.contextoia.documentingestion.infrastructure.adapter.persistence;
+
+import com.contextoia.documentingestion.application.dto.ProcessDocumentMessage;
+import com.contextoia.documentingestion.application.port.out.DocumentMessagePublisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * Transactional outbox implementation of {@link DocumentMessagePublisher}. Messages are
+ * written to "tb_document_outbox" in the caller's transaction, so they exist if and only if
+ * the document row was committed, and the caller never waits on the broker. The
+ * {@code DocumentOutboxRelay} publishes them to RabbitMQ afterwards.
+ */
+@Component
+@Primary
+public class OutboxDocumentMessagePublisher implements DocumentMessagePublisher {
+
+    private final DocumentOutboxRepository outboxRepository;
+
+    public OutboxDocumentMessagePublisher(DocumentOutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+
+    @Override
+    public void publishProcessingMessage(ProcessDocumentMessage message) {
+        outboxRepository.add(message);
+    }
+}
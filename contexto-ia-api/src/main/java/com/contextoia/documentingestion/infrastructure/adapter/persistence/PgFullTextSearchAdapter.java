@@ -0,0 +1,96 @@
+package com.contextoia.documentingestion.infrastructure.adapter.persistence;
+
+import com.contextoia.documentingestion.application.dto.SimilarDocumentResult;
+import com.contextoia.documentingestion.application.port.out.DocumentLexicalSearchPort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Adapter class that implements the {@link DocumentLexicalSearchPort} interface using
+ * PostgreSQL full-text search over the generated {@code content_tsv} column of the chunks.
+ *
+ * Queries are parsed with {@code websearch_to_tsquery}, so users may quote phrases or
+ * exclude terms. Chunks are ranked with {@code ts_rank_cd} normalized by the logarithm of
+ * the chunk length, which, like BM25, keeps long chunks from winning on term frequency
+ * alone; the {@code 32} flag scales the rank to {@code [0, 1)}. Documents are ranked by
+ * their best chunk.
+ *
+ * Every query runs under {@code application.search.lexical.query-timeout}, after which the
+ * driver cancels it on the server, so an abandoned or runaway query frees its connection.
+ */
+@Repository
+public class PgFullTextSearchAdapter implements DocumentLexicalSearchPort {
+
+    private static final int SNIPPET_LENGTH = 200;
+
+    private static final String FIND_MATCHING_DOCUMENTS_SQL = """
+        SELECT d.id,
+               d.original_file_name,
+               best.rank AS similarity,
+               best.snippet
+        FROM (
+            SELECT DISTINCT ON (ch.document_id)
+                   ch.document_id,
+                   ts_rank_cd(ch.content_tsv, q.query, 1 | 32) AS rank,
+                   CASE WHEN length(ch.content) > :snippetLength
+                        THEN left(ch.content, :snippetLength) || '...'
+                        ELSE ch.content
+                   END AS snippet
+            FROM tb_document_chunks ch,
+                 websearch_to_tsquery('simple', :query) q(query)
+            WHERE ch.document_id IN (
+                SELECT COALESCE(ud.chunks_document_id, ud.id) FROM tb_documents ud WHERE ud.user_id = :userId)
+              AND ch.content_tsv @@ q.query
+            ORDER BY ch.document_id, rank DESC
+        ) best
+        JOIN tb_documents d ON COALESCE(d.chunks_document_id, d.id) = best.document_id AND d.user_id = :userId
+        ORDER BY best.rank DESC
+        LIMIT :limit
+        """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public PgFullTextSearchAdapter(
+            DataSource dataSource,
+            @Value("${application.search.lexical.query-timeout}") Duration queryTimeout) {
+        if (queryTimeout.toSeconds() <= 0) {
+            throw new IllegalArgumentException("Tempo máximo da consulta lexical deve ser de pelo menos um segundo");
+        }
+        JdbcTemplate timedJdbcTemplate = new JdbcTemplate(dataSource);
+        timedJdbcTemplate.setQueryTimeout(Math.toIntExact(queryTimeout.toSeconds()));
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(timedJdbcTemplate);
+    }
+
+    /**
+     * Finds the user's documents containing the terms of the query.
+     *
+     * @param query  the text typed by the user
+     * @param userId the unique identifier of the user whose documents are searched
+     * @param limit  the maximum number of documents returned
+     * @return the matching documents with a lexical score and a snippet of their best chunk,
+     *         sorted by score
+     */
+    @Override
+    public List<SimilarDocumentResult> findMatchingDocuments(String query, UUID userId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("userId", userId)
+                .addValue("limit", limit)
+                .addValue("snippetLength", SNIPPET_LENGTH);
+
+        return jdbcTemplate.query(FIND_MATCHING_DOCUMENTS_SQL, params, (rs, rowNum) -> new SimilarDocumentResult(
+                rs.getObject("id", UUID.class),
+                rs.getString("original_file_name"),
+                rs.getFloat("similarity"),
+                rs.getString("snippet")
+        ));
+    }
+}
@@ -1,27 +1,294 @@
 package com.contextoia.documentingestion.infrastructure.adapter.persistence;
 
-import com.contextoia.documentingestion.domain.model.Document;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.Repository;
-import org.springframework.data.repository.query.Param;
+import com.contextoia.documentingestion.application.dto.SimilarChunkResult;
+import com.contextoia.documentingestion.application.dto.SimilarDocumentResult;
+import com.pgvector.PGvector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
-interface PgVectorRepository extends Repository<Document, UUID> {
+/**
+ * Runs the pgvector similarity queries over plain JDBC. The query embedding is bound as a
+ * {@link PGvector} parameter, which the driver sends typed as {@code vector} and in binary
+ * form, since the type is registered on every pooled connection by {@code PgVectorConfig}.
+ * No vector literal is built in Java or parsed by Postgres.
+ *
+ * The HNSW indexes are global, while every query is filtered by user, and Postgres applies
+ * that filter to the rows the index scan returns. Each search therefore runs in its own
+ * transaction, which first raises {@code hnsw.ef_search} to at least the number of rows
+ * requested and, unless {@code iterative-scan} is {@code off}, lets the scan go on until
+ * enough rows of the user have been found. Otherwise a user holding a small share of the
+ * table would get fewer results than requested, or none. The quantized searches size the
+ * scan of the binary index for their coarse candidates, not for the rows finally returned.
+ *
+ * A user's chunks are those of the user's documents. A document created by deduplication
+ * has no chunks of its own and reads those of {@code chunks_document_id}; results always
+ * name the user's document, never the one the chunks belong to.
+ */
+@Repository
+class PgVectorRepository {
 
-    @Query(value = """
-        SELECT d.*,
-               1 - (d.embedding <=> CAST(:embedding AS vector)) AS similarity
-        FROM tb_documents d
-        WHERE d.embedding IS NOT NULL
-          AND d.user_id = :userId
-        ORDER BY d.embedding <=> CAST(:embedding AS vector)
+    /**
+     * Largest {@code hnsw.ef_search} accepted by pgvector.
+     */
+    private static final int MAX_EF_SEARCH = 1000;
+
+    private static final Set<String> ITERATIVE_SCAN_MODES = Set.of("off", "relaxed_order", "strict_order");
+
+    private static final String SET_EF_SEARCH_SQL = """
+        SELECT set_config('hnsw.ef_search', :efSearch, true)
+        """;
+
+    private static final String SET_EF_SEARCH_AND_ITERATIVE_SCAN_SQL = """
+        SELECT set_config('hnsw.ef_search', :efSearch, true),
+               set_config('hnsw.iterative_scan', :iterativeScan, true)
+        """;
+
+    /**
+     * Ranks the user's documents by their closest chunk. The inner query walks the
+     * chunk HNSW index for the {@code candidateLimit} nearest chunks; those are then
+     * collapsed per document, keeping the best chunk. Only the columns needed by the
+     * search response are returned, with the snippet cut on the server.
+     */
+    private static final String FIND_SIMILAR_DOCUMENTS_SQL = """
+        SELECT d.id,
+               d.original_file_name,
+               1 - best.distance AS similarity,
+               best.snippet
+        FROM (
+            SELECT DISTINCT ON (c.document_id) c.document_id, c.distance, c.snippet
+            FROM (
+                SELECT ch.document_id,
+                       ch.embedding <=> :embedding AS distance,
+                       CASE WHEN length(ch.content) > :snippetLength
+                            THEN left(ch.content, :snippetLength) || '...'
+                            ELSE ch.content
+                       END AS snippet
+                FROM tb_document_chunks ch
+                WHERE ch.document_id IN (
+                    SELECT COALESCE(ud.chunks_document_id, ud.id) FROM tb_documents ud WHERE ud.user_id = :userId)
+                ORDER BY ch.embedding <=> :embedding
+                LIMIT :candidateLimit
+            ) c
+            ORDER BY c.document_id, c.distance
+        ) best
+        JOIN tb_documents d ON COALESCE(d.chunks_document_id, d.id) = best.document_id AND d.user_id = :userId
+        ORDER BY best.distance
+        LIMIT :limit
+        """;
+
+    /**
+     * Same ranking as {@link #FIND_SIMILAR_DOCUMENTS_SQL}, but the nearest chunks are first
+     * found by Hamming distance over the binary quantized embeddings, through their much
+     * smaller HNSW index. The {@code coarseLimit} candidates are then rescored against the
+     * full-precision embeddings, so the returned similarities stay exact.
+     */
+    private static final String FIND_SIMILAR_DOCUMENTS_QUANTIZED_SQL = """
+        SELECT d.id,
+               d.original_file_name,
+               1 - best.distance AS similarity,
+               best.snippet
+        FROM (
+            SELECT DISTINCT ON (c.document_id) c.document_id, c.distance, c.snippet
+            FROM (
+                SELECT coarse.document_id,
+                       coarse.embedding <=> :embedding AS distance,
+                       CASE WHEN length(coarse.content) > :snippetLength
+                            THEN left(coarse.content, :snippetLength) || '...'
+                            ELSE coarse.content
+                       END AS snippet
+                FROM (
+                    SELECT ch.document_id, ch.embedding, ch.content
+                    FROM tb_document_chunks ch
+                    WHERE ch.document_id IN (
+                        SELECT COALESCE(ud.chunks_document_id, ud.id) FROM tb_documents ud WHERE ud.user_id = :userId)
+                    ORDER BY ch.embedding_binary <~> binary_quantize(:embedding)::bit(768)
+                    LIMIT :coarseLimit
+                ) coarse
+                ORDER BY coarse.embedding <=> :embedding
+                LIMIT :candidateLimit
+            ) c
+            ORDER BY c.document_id, c.distance
+        ) best
+        JOIN tb_documents d ON COALESCE(d.chunks_document_id, d.id) = best.document_id AND d.user_id = :userId
+        ORDER BY best.distance
         LIMIT :limit
-        """, nativeQuery = true)
-    List<Document> findSimilarDocuments(
-            @Param("embedding") String embedding,
-            @Param("userId") UUID userId,
-            @Param("limit") int limit
-    );
+        """;
+
+    /**
+     * The user's chunks nearest to the embedding, with their full content. The nearest
+     * chunks are found first, through the HNSW index, and only then joined to their documents.
+     */
+    private static final String FIND_SIMILAR_CHUNKS_SQL = """
+        SELECT nearest.id,
+               d.id AS document_id,
+               d.original_file_name,
+               nearest.chunk_index,
+               nearest.page_start,
+               nearest.page_end,
+               nearest.content,
+               1 - nearest.distance AS similarity
+        FROM (
+            SELECT ch.id, ch.document_id, ch.chunk_index, ch.page_start, ch.page_end, ch.content,
+                   ch.embedding <=> :embedding AS distance
+            FROM tb_document_chunks ch
+            WHERE ch.document_id IN (
+                SELECT COALESCE(ud.chunks_document_id, ud.id) FROM tb_documents ud WHERE ud.user_id = :userId)
+            ORDER BY ch.embedding <=> :embedding
+            LIMIT :limit
+        ) nearest
+        JOIN tb_documents d ON COALESCE(d.chunks_document_id, d.id) = nearest.document_id AND d.user_id = :userId
+        ORDER BY nearest.distance
+        """;
+
+    /**
+     * Same as {@link #FIND_SIMILAR_CHUNKS_SQL}, with the coarse Hamming distance pass over
+     * the binary quantized embeddings described in {@link #FIND_SIMILAR_DOCUMENTS_QUANTIZED_SQL}.
+     */
+    private static final String FIND_SIMILAR_CHUNKS_QUANTIZED_SQL = """
+        SELECT nearest.id,
+               d.id AS document_id,
+               d.original_file_name,
+               nearest.chunk_index,
+               nearest.page_start,
+               nearest.page_end,
+               nearest.content,
+               1 - nearest.distance AS similarity
+        FROM (
+            SELECT coarse.id, coarse.document_id, coarse.chunk_index, coarse.page_start, coarse.page_end, coarse.content,
+                   coarse.embedding <=> :embedding AS distance
+            FROM (
+                SELECT ch.id, ch.document_id, ch.chunk_index, ch.page_start, ch.page_end, ch.content, ch.embedding
+                FROM tb_document_chunks ch
+                WHERE ch.document_id IN (
+                    SELECT COALESCE(ud.chunks_document_id, ud.id) FROM tb_documents ud WHERE ud.user_id = :userId)
+                ORDER BY ch.embedding_binary <~> binary_quantize(:embedding)::bit(768)
+                LIMIT :coarseLimit
+            ) coarse
+            ORDER BY coarse.embedding <=> :embedding
+            LIMIT :limit
+        ) nearest
+        JOIN tb_documents d ON COALESCE(d.chunks_document_id, d.id) = nearest.document_id AND d.user_id = :userId
+        ORDER BY nearest.distance
+        """;
+
+    private static final RowMapper<SimilarChunkResult> SIMILAR_CHUNK_MAPPER = (rs, rowNum) ->
+            new SimilarChunkResult(
+                    rs.getObject("id", UUID.class),
+                    rs.getObject("document_id", UUID.class),
+                    rs.getString("original_file_name"),
+                    rs.getInt("chunk_index"),
+                    rs.getInt("page_start"),
+                    rs.getInt("page_end"),
+                    rs.getString("content"),
+                    rs.getFloat("similarity")
+            );
+
+    private static final RowMapper<SimilarDocumentResult> SIMILAR_DOCUMENT_MAPPER = (rs, rowNum) ->
+            new SimilarDocumentResult(
+                    rs.getObject("id", UUID.class),
+                    rs.getString("original_file_name"),
+                    rs.getFloat("similarity"),
+                    rs.getString("snippet")
+            );
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int efSearch;
+    private final String iterativeScan;
+
+    PgVectorRepository(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            @Value("${application.vector-store.pgvector.ef-search}") int efSearch,
+            @Value("${application.vector-store.pgvector.iterative-scan}") String iterativeScan) {
+        if (efSearch <= 0 || efSearch > MAX_EF_SEARCH) {
+            throw new IllegalArgumentException("hnsw.ef_search deve estar entre 1 e " + MAX_EF_SEARCH);
+        }
+        if (!ITERATIVE_SCAN_MODES.contains(iterativeScan)) {
+            throw new IllegalArgumentException("Modo de varredura iterativa inválido: " + iterativeScan);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.efSearch = efSearch;
+        this.iterativeScan = iterativeScan;
+    }
+
+    @Transactional(readOnly = true)
+    List<SimilarDocumentResult> findSimilarDocuments(
+            PGvector embedding,
+            UUID userId,
+            int candidateLimit,
+            int limit,
+            int snippetLength) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("embedding", embedding)
+                .addValue("userId", userId)
+                .addValue("candidateLimit", candidateLimit)
+                .addValue("limit", limit)
+                .addValue("snippetLength", snippetLength);
+
+        prepareIndexScan(candidateLimit);
+        return jdbcTemplate.query(FIND_SIMILAR_DOCUMENTS_SQL, params, SIMILAR_DOCUMENT_MAPPER);
+    }
+
+    @Transactional(readOnly = true)
+    List<SimilarDocumentResult> findSimilarDocumentsQuantized(
+            PGvector embedding,
+            UUID userId,
+            int coarseLimit,
+            int candidateLimit,
+            int limit,
+            int snippetLength) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("embedding", embedding)
+                .addValue("userId", userId)
+                .addValue("coarseLimit", coarseLimit)
+                .addValue("candidateLimit", candidateLimit)
+                .addValue("limit", limit)
+                .addValue("snippetLength", snippetLength);
+
+        prepareIndexScan(coarseLimit);
+        return jdbcTemplate.query(FIND_SIMILAR_DOCUMENTS_QUANTIZED_SQL, params, SIMILAR_DOCUMENT_MAPPER);
+    }
+
+    @Transactional(readOnly = true)
+    List<SimilarChunkResult> findSimilarChunks(PGvector embedding, UUID userId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("embedding", embedding)
+                .addValue("userId", userId)
+                .addValue("limit", limit);
+
+        prepareIndexScan(limit);
+        return jdbcTemplate.query(FIND_SIMILAR_CHUNKS_SQL, params, SIMILAR_CHUNK_MAPPER);
+    }
+
+    @Transactional(readOnly = true)
+    List<SimilarChunkResult> findSimilarChunksQuantized(PGvector embedding, UUID userId, int coarseLimit, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("embedding", embedding)
+                .addValue("userId", userId)
+                .addValue("coarseLimit", coarseLimit)
+                .addValue("limit", limit);
+
+        prepareIndexScan(coarseLimit);
+        return jdbcTemplate.query(FIND_SIMILAR_CHUNKS_QUANTIZED_SQL, params, SIMILAR_CHUNK_MAPPER);
+    }
+
+    /**
+     * Sizes the HNSW scans of the current transaction for {@code rows} results. Must run
+     * inside the transaction of the search, since the settings are local to it.
+     */
+    private void prepareIndexScan(int rows) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("efSearch", String.valueOf(Math.min(Math.max(efSearch, rows), MAX_EF_SEARCH)))
+                .addValue("iterativeScan", iterativeScan);
+        jdbcTemplate.queryForMap("off".equals(iterativeScan)
+                ? SET_EF_SEARCH_SQL
+                : SET_EF_SEARCH_AND_ITERATIVE_SCAN_SQL, params);
+    }
 }
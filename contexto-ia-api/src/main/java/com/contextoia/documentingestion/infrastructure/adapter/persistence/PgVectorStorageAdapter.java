@@ -1,7 +1,11 @@
 package com.contextoia.documentingestion.infrastructure.adapter.persistence;
 
+import com.contextoia.documentingestion.application.dto.SimilarChunkResult;
+import com.contextoia.documentingestion.application.dto.SimilarDocumentResult;
 import com.contextoia.documentingestion.application.port.out.DocumentVectorStoragePort;
-import com.contextoia.documentingestion.domain.model.Document;
+import com.pgvector.PGvector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,48 +19,62 @@ import java.util.UUID;
  * This class implements the {@link DocumentVectorStoragePort} interface
  * to provide functionality for querying documents based on vector similarity.
  * It relies on the {@link PgVectorRepository} to interact with the database.
+ * This is the default engine, selected by {@code application.vector-store.engine=pgvector}.
+ * With {@code application.vector-store.quantization.enabled=true}, searches run a coarse
+ * pass over the binary quantized embeddings and rescore the best candidates at full precision.
  */
 @Repository
+@ConditionalOnProperty(name = "application.vector-store.engine", havingValue = "pgvector", matchIfMissing = true)
 public class PgVectorStorageAdapter implements DocumentVectorStoragePort {
 
+    private static final int CANDIDATE_CHUNKS_PER_DOCUMENT = 4;
+    private static final int SNIPPET_LENGTH = 200;
+
     private final PgVectorRepository pgVectorRepository;
+    private final boolean quantizationEnabled;
+    private final int rescoreFactor;
 
-    public PgVectorStorageAdapter(PgVectorRepository pgVectorRepository) {
+    public PgVectorStorageAdapter(
+            PgVectorRepository pgVectorRepository,
+            @Value("${application.vector-store.quantization.enabled:false}") boolean quantizationEnabled,
+            @Value("${application.vector-store.quantization.rescore-factor:10}") int rescoreFactor) {
         this.pgVectorRepository = pgVectorRepository;
+        this.quantizationEnabled = quantizationEnabled;
+        this.rescoreFactor = rescoreFactor;
     }
 
     /**
      * Finds documents similar to the provided embedding vector for a specific user.
-     * The similarity is determined based on the vector distance, and results are limited
-     * to the specified maximum count.
+     * The similarity is determined based on the distance of each document's closest chunk,
+     * and results are limited to the specified maximum count.
      *
      * @param embedding a float array representing the embedding vector to compare against
      * @param userId the unique identifier of the user whose documents are to be searched
      * @param limit the maximum number of similar documents to retrieve
-     * @return a list of documents that are most similar to the given embedding vector, sorted by similarity
+     * @return the most similar documents with their cosine similarity and a snippet of the
+     *         matching chunk, sorted by similarity
      */
     @Override
-    public List<Document> findSimilarDocuments(Float[] embedding, UUID userId, int limit) {
-        String embeddingStr = formatFloatArrayAsVectorString(embedding);
-        return pgVectorRepository.findSimilarDocuments(embeddingStr, userId, limit);
+    public List<SimilarDocumentResult> findSimilarDocuments(float[] embedding, UUID userId, int limit) {
+        int candidateLimit = limit * CANDIDATE_CHUNKS_PER_DOCUMENT;
+        if (quantizationEnabled) {
+            return pgVectorRepository.findSimilarDocumentsQuantized(new PGvector(embedding), userId,
+                    candidateLimit * rescoreFactor, candidateLimit, limit, SNIPPET_LENGTH);
+        }
+        return pgVectorRepository.findSimilarDocuments(
+                new PGvector(embedding), userId, candidateLimit, limit, SNIPPET_LENGTH);
     }
 
-    private static final String VECTOR_DELIMITER = ",";
-
     /**
-     * Converts an array of floats into a formatted string representation of a vector.
-     * Each value in the array is separated by a delimiter and enclosed in brackets.
-     *
-     * @param array a float array to be converted into a vector string format
-     * @return a string representation of the array in vector format, with elements separated by a delimiter
+     * Finds the user's chunks closest to the provided embedding vector, with their full
+     * content, sorted by similarity.
      */
-    private String formatFloatArrayAsVectorString(Float[] array) {
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < array.length; i++) {
-            if (i > 0) sb.append(VECTOR_DELIMITER);
-            sb.append(array[i]);
+    @Override
+    public List<SimilarChunkResult> findSimilarChunks(float[] embedding, UUID userId, int limit) {
+        if (quantizationEnabled) {
+            return pgVectorRepository.findSimilarChunksQuantized(
+                    new PGvector(embedding), userId, limit * rescoreFactor, limit);
         }
-        sb.append("]");
-        return sb.toString();
+        return pgVectorRepository.findSimilarChunks(new PGvector(embedding), userId, limit);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,217 @@
+package com.contextoia.documentingestion.infrastructure.adapter.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Operator endpoint ({@code /actuator/vectorindex}) that switches the HNSW index of the
+ * chunk embeddings to match {@code application.vector-store.quantization.enabled}, after
+ * the setting is changed on an existing installation. Migration V19 applies the setting
+ * in force when it runs; this endpoint only applies later changes.
+ *
+ * A read reports the state of both indexes. A write starts the switch in the background
+ * and returns at once: with quantization on, the missing binary embeddings are filled in
+ * small batches and the binary index is built; otherwise the full-precision index is
+ * built. The index no longer used is dropped only once the other one is valid. Indexes are
+ * built and dropped concurrently, so inserts and searches go on meanwhile.
+ *
+ * Only one switch runs at a time across all instances, serialized by a session advisory
+ * lock held on the connection that runs it. An index that another session is building is
+ * never dropped; the switch stops and can be started again once that build ends. The
+ * database user needs the right to create and drop indexes on the chunk table only when
+ * this endpoint is used. The endpoint is served on the management port and restricted to
+ * administrators.
+ */
+@Component
+@Endpoint(id = "vectorindex")
+public class VectorIndexEndpoint {
+
+    static final String FULL_PRECISION_INDEX = "idx_document_chunks_embedding_hnsw";
+    static final String BINARY_INDEX = "idx_document_chunks_embedding_binary_hnsw";
+
+    private static final Logger logger = LoggerFactory.getLogger(VectorIndexEndpoint.class);
+
+    private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_lock(hashtextextended('vector-index-maintenance', 0))";
+    private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtextextended('vector-index-maintenance', 0))";
+
+    private static final String INDEX_STATE_SQL = """
+            SELECT i.indisvalid,
+                   EXISTS (SELECT 1 FROM pg_stat_progress_create_index p WHERE p.index_relid = c.oid) AS building
+            FROM pg_index i
+            JOIN pg_class c ON c.oid = i.indexrelid
+            WHERE c.relname = ?
+            """;
+
+    private static final String BACKFILL_BATCH_SQL = """
+            UPDATE tb_document_chunks
+            SET embedding_binary = binary_quantize(embedding)::bit(768)
+            WHERE id IN (
+                SELECT id FROM tb_document_chunks
+                WHERE embedding_binary IS NULL
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            """;
+
+    private static final Map<String, String> CREATE_INDEX_SQL = Map.of(
+            FULL_PRECISION_INDEX, """
+                    CREATE INDEX CONCURRENTLY IF NOT EXISTS %s ON tb_document_chunks
+                        USING hnsw (embedding vector_cosine_ops)
+                        WITH (m = 16, ef_construction = 64)
+                    """.formatted(FULL_PRECISION_INDEX),
+            BINARY_INDEX, """
+                    CREATE INDEX CONCURRENTLY IF NOT EXISTS %s ON tb_document_chunks
+                        USING hnsw (embedding_binary bit_hamming_ops)
+                        WITH (m = 16, ef_construction = 64)
+                    """.formatted(BINARY_INDEX));
+
+    enum IndexState {
+        ABSENT,
+        VALID,
+        INVALID,
+        BUILDING
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean quantizationEnabled;
+    private final int backfillBatchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public VectorIndexEndpoint(
+            JdbcTemplate jdbcTemplate,
+            @Value("${application.vector-store.quantization.enabled:false}") boolean quantizationEnabled,
+            @Value("${application.vector-store.quantization.backfill-batch-size:1000}") int backfillBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.quantizationEnabled = quantizationEnabled;
+        this.backfillBatchSize = backfillBatchSize;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("quantization", quantizationEnabled);
+        status.put("running", running.get());
+        status.put(FULL_PRECISION_INDEX, indexState(jdbcTemplate, FULL_PRECISION_INDEX));
+        status.put(BINARY_INDEX, indexState(jdbcTemplate, BINARY_INDEX));
+        return status;
+    }
+
+    @WriteOperation
+    public Map<String, Object> apply() {
+        if (!running.compareAndSet(false, true)) {
+            return Map.of("started", false);
+        }
+        Thread.ofPlatform()
+                .name("vector-index-maintenance")
+                .daemon(true)
+                .start(() -> {
+                    try {
+                        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                            switchIndexes(new JdbcTemplate(new SingleConnectionDataSource(connection, true)));
+                            return null;
+                        });
+                    } catch (RuntimeException e) {
+                        logger.error("Falha ao aplicar os índices vetoriais dos chunks", e);
+                    } finally {
+                        running.set(false);
+                    }
+                });
+        return Map.of("started", true);
+    }
+
+    /**
+     * Runs the switch on a single connection, which holds the advisory lock throughout.
+     */
+    void switchIndexes(JdbcTemplate connection) {
+        if (!Boolean.TRUE.equals(connection.queryForObject(TRY_LOCK_SQL, Boolean.class))) {
+            logger.warn("Índices vetoriais já estão sendo aplicados por outra instância");
+            return;
+        }
+        try {
+            String wanted = quantizationEnabled ? BINARY_INDEX : FULL_PRECISION_INDEX;
+            String unwanted = quantizationEnabled ? FULL_PRECISION_INDEX : BINARY_INDEX;
+
+            if (quantizationEnabled) {
+                backfill(connection);
+            }
+            if (!ensureIndex(connection, wanted)) {
+                return;
+            }
+            dropIndex(connection, unwanted);
+        } finally {
+            connection.queryForObject(UNLOCK_SQL, Boolean.class);
+        }
+    }
+
+    private void backfill(JdbcTemplate connection) {
+        int total = 0;
+        int updated;
+        do {
+            updated = connection.update(BACKFILL_BATCH_SQL, backfillBatchSize);
+            total += updated;
+        } while (updated > 0);
+
+        if (total > 0) {
+            logger.info("{} embeddings quantizados preenchidos", total);
+        }
+    }
+
+    /**
+     * @return whether the index is valid at the end
+     */
+    private boolean ensureIndex(JdbcTemplate connection, String index) {
+        switch (indexState(connection, index)) {
+            case VALID -> {
+                return true;
+            }
+            case BUILDING -> {
+                logger.warn("Índice {} está sendo criado por outra sessão; tente novamente quando terminar", index);
+                return false;
+            }
+            case INVALID -> connection.execute("DROP INDEX CONCURRENTLY IF EXISTS " + index);
+            case ABSENT -> {
+            }
+        }
+
+        long start = System.nanoTime();
+        logger.info("Criando o índice {}", index);
+        connection.execute(CREATE_INDEX_SQL.get(index));
+        logger.info("Índice {} criado em {} s", index, Duration.ofNanos(System.nanoTime() - start).toSeconds());
+        return indexState(connection, index) == IndexState.VALID;
+    }
+
+    private void dropIndex(JdbcTemplate connection, String index) {
+        IndexState state = indexState(connection, index);
+        if (state == IndexState.ABSENT) {
+            return;
+        }
+        if (state == IndexState.BUILDING) {
+            logger.warn("Índice {} está sendo criado por outra sessão e não foi removido", index);
+            return;
+        }
+        connection.execute("DROP INDEX CONCURRENTLY IF EXISTS " + index);
+        logger.info("Índice {} removido", index);
+    }
+
+    static IndexState indexState(JdbcTemplate jdbcTemplate, String index) {
+        List<IndexState> states = jdbcTemplate.query(INDEX_STATE_SQL, (rs, rowNum) -> {
+            if (rs.getBoolean("building")) return IndexState.BUILDING;
+            return rs.getBoolean("indisvalid") ? IndexState.VALID : IndexState.INVALID;
+        }, index);
+        return states.isEmpty() ? IndexState.ABSENT : states.get(0);
+    }
+}
@@ -1,13 +1,24 @@
 package com.contextoia.documentingestion.infrastructure.adapter.storage;
 
+import com.contextoia.common.exceptions.TransientFailureException;
+import com.contextoia.documentingestion.application.dto.PresignedUpload;
+import com.contextoia.documentingestion.application.dto.StoredObjectInfo;
 import com.contextoia.documentingestion.application.port.out.StoragePort;
 import io.minio.*;
+import io.minio.errors.ErrorResponseException;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.util.unit.DataSize;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -19,13 +30,22 @@ import java.util.UUID;
 public class MinioStorageAdapter implements StoragePort {
 
     private final MinioClient minioClient;
+    private final MinioClient presigningClient;
+    private final String publicUrl;
     private final String bucketName;
+    private final long uploadPartSize;
 
     public MinioStorageAdapter(
             MinioClient minioClient,
-            @Value("${minio.bucket.name}") String bucketName) {
+            @Qualifier("presigningMinioClient") MinioClient presigningClient,
+            @Value("${minio.public-url:${minio.url}}") String publicUrl,
+            @Value("${minio.bucket.name}") String bucketName,
+            @Value("${application.storage.upload-part-size:10MB}") DataSize uploadPartSize) {
         this.minioClient = minioClient;
+        this.presigningClient = presigningClient;
+        this.publicUrl = publicUrl.endsWith("/") ? publicUrl.substring(0, publicUrl.length() - 1) : publicUrl;
         this.bucketName = bucketName;
+        this.uploadPartSize = uploadPartSize.toBytes();
         ensureBucketExists();
     }
 
@@ -45,24 +65,21 @@ public class MinioStorageAdapter implements StoragePort {
         }
     }
 
+    /**
+     * Streams the content to MinIO as a multipart upload: only one part of
+     * {@code application.storage.upload-part-size} bytes is buffered at a time, and the
+     * object size does not need to be known up front. A failed upload is aborted by the
+     * client, so no partial object is left behind.
+     */
     @Override
-    public String store(MultipartFile file, String fileName) throws IOException {
-        if (file == null || file.isEmpty()) {
-            throw new IllegalArgumentException("O arquivo não pode estar vazio");
-        }
-
+    public String store(InputStream content, String fileName, String contentType) throws IOException {
         try {
-            String contentType = file.getContentType();
-            if (contentType == null) {
-                contentType = "application/octet-stream";
-            }
-            
             minioClient.putObject(
                     PutObjectArgs.builder()
                             .bucket(bucketName)
                             .object(fileName)
-                            .stream(file.getInputStream(), file.getSize(), -1)
-                            .contentType(contentType)
+                            .stream(content, -1, uploadPartSize)
+                            .contentType(contentType != null ? contentType : "application/octet-stream")
                             .build()
             );
             return fileName;
@@ -80,8 +97,92 @@ public class MinioStorageAdapter implements StoragePort {
                             .object(storageKey)
                             .build()
             );
+        } catch (ErrorResponseException e) {
+            throw new IOException("Erro ao recuperar arquivo do MinIO", e);
         } catch (Exception e) {
+            throw new TransientFailureException("MinIO temporariamente indisponível", e);
+        }
+    }
+
+    @Override
+    public InputStream retrieve(String storageKey, long offset, long length) throws IOException {
+        try {
+            return minioClient.getObject(
+                    GetObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(storageKey)
+                            .offset(offset)
+                            .length(length)
+                            .build()
+            );
+        } catch (ErrorResponseException e) {
             throw new IOException("Erro ao recuperar arquivo do MinIO", e);
+        } catch (Exception e) {
+            throw new TransientFailureException("MinIO temporariamente indisponível", e);
+        }
+    }
+
+    @Override
+    public Optional<StoredObjectInfo> stat(String storageKey) throws IOException {
+        try {
+            StatObjectResponse response = minioClient.statObject(
+                    StatObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(storageKey)
+                            .build()
+            );
+            return Optional.of(new StoredObjectInfo(response.size(), response.contentType()));
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return Optional.empty();
+            }
+            throw new IOException("Erro ao consultar arquivo no MinIO", e);
+        } catch (Exception e) {
+            throw new IOException("Erro ao consultar arquivo no MinIO", e);
+        }
+    }
+
+    /**
+     * Signs a POST policy rather than a presigned {@code PUT} URL: a policy can bound the
+     * content length, which a presigned URL cannot, so MinIO rejects oversized uploads
+     * before storing them.
+     */
+    @Override
+    public PresignedUpload createUpload(String storageKey, String contentType, long maxSize, Duration expiry)
+            throws IOException {
+        try {
+            PostPolicy policy = new PostPolicy(bucketName, ZonedDateTime.now(ZoneOffset.UTC).plus(expiry));
+            policy.addEqualsCondition("key", storageKey);
+            policy.addEqualsCondition("Content-Type", contentType);
+            policy.addContentLengthRangeCondition(1, maxSize);
+
+            Map<String, String> formFields = new LinkedHashMap<>();
+            formFields.put("key", storageKey);
+            formFields.put("Content-Type", contentType);
+            formFields.putAll(presigningClient.getPresignedPostFormData(policy));
+            return new PresignedUpload(publicUrl + "/" + bucketName, formFields);
+        } catch (Exception e) {
+            throw new IOException("Erro ao gerar URL de upload no MinIO", e);
+        }
+    }
+
+    @Override
+    public void copy(String sourceKey, String targetKey) throws IOException {
+        try {
+            minioClient.copyObject(
+                    CopyObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(targetKey)
+                            .source(CopySource.builder()
+                                    .bucket(bucketName)
+                                    .object(sourceKey)
+                                    .build())
+                            .build()
+            );
+        } catch (ErrorResponseException e) {
+            throw new IOException("Erro ao copiar arquivo no MinIO", e);
+        } catch (Exception e) {
+            throw new TransientFailureException("MinIO temporariamente indisponível", e);
         }
     }
 
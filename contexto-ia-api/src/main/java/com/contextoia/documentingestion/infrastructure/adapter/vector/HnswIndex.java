@@ -0,0 +1,393 @@
+package com.contextoia.documentingestion.infrastructure.adapter.vector;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hierarchical Navigable Small World graph for approximate nearest neighbour search
+ * under cosine distance.
+ *
+ * Vectors are normalized on insertion and stored contiguously in a single {@code float[]}
+ * slab; adjacency lists are primitive {@code int[]} arrays whose first slot holds the
+ * neighbour count. Nodes are never physically removed: {@link #markDeleted(int)} hides them
+ * from results while keeping them navigable, and {@link #compact()} builds a new graph
+ * without them once they are worth reclaiming. Searches share a read lock and insertions
+ * take the write lock.
+ *
+ * Besides the approximate graph search, {@link #exactSearch(float[], int)} scans the whole
+ * slab, which is faster and exact while the corpus is small. Distances are computed by the
+ * best available {@link VectorKernel}.
+ */
+public class HnswIndex {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final VectorKernel KERNEL = VectorKernel.best();
+
+    private final int dimension;
+    private final int maxConnections;
+    private final int maxConnectionsLayerZero;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private float[] vectors;
+    private int[][][] links;
+    private final BitSet deleted = new BitSet();
+    private int size;
+    private int deletedCount;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    public HnswIndex(int dimension, int maxConnections, int efConstruction) {
+        if (dimension <= 0 || maxConnections < 2 || efConstruction <= 0) {
+            throw new IllegalArgumentException("Parâmetros inválidos para o índice HNSW");
+        }
+        this.dimension = dimension;
+        this.maxConnections = maxConnections;
+        this.maxConnectionsLayerZero = maxConnections * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(maxConnections);
+        this.vectors = new float[INITIAL_CAPACITY * dimension];
+        this.links = new int[INITIAL_CAPACITY][][];
+    }
+
+    /**
+     * Inserts a vector into the graph.
+     *
+     * @param vector the vector to index; it is copied and normalized
+     * @return the node id assigned to the vector
+     */
+    public int add(float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("Dimensão do vetor deve ser " + dimension);
+        }
+
+        lock.writeLock().lock();
+        try {
+            int node = size;
+            ensureCapacity(node + 1);
+            System.arraycopy(vector, 0, vectors, node * dimension, dimension);
+            normalize(vectors, node * dimension, dimension);
+            size++;
+
+            int level = randomLevel();
+            links[node] = new int[level + 1][];
+            for (int l = 0; l <= level; l++) {
+                links[node][l] = new int[maxConnectionsAt(l) + 1];
+            }
+
+            if (entryPoint == -1) {
+                entryPoint = node;
+                maxLevel = level;
+                return node;
+            }
+
+            int current = entryPoint;
+            for (int l = maxLevel; l > level; l--) {
+                current = greedyClosest(vectors, node * dimension, current, l);
+            }
+
+            for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+                NodeHeap candidates = searchLayer(vectors, node * dimension, current, efConstruction, l, false);
+                int[] selected = selectNeighbors(candidates.sortedAscending(), maxConnectionsAt(l));
+                setLinks(node, l, selected);
+                for (int neighbour : selected) {
+                    connect(neighbour, node, l);
+                }
+                current = candidates.closest();
+            }
+
+            if (level > maxLevel) {
+                maxLevel = level;
+                entryPoint = node;
+            }
+            return node;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Hides a node from future search results.
+     */
+    public void markDeleted(int node) {
+        lock.writeLock().lock();
+        try {
+            if (node < size && !deleted.get(node)) {
+                deleted.set(node);
+                deletedCount++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the {@code k} live nodes closest to the query.
+     *
+     * @param query    the query vector; it is not modified
+     * @param k        the number of results wanted
+     * @param efSearch the size of the dynamic candidate list; larger values trade speed for recall
+     * @return the results ordered by increasing cosine distance
+     */
+    public SearchResult search(float[] query, int k, int efSearch) {
+        float[] normalized = Arrays.copyOf(query, dimension);
+        normalize(normalized, 0, dimension);
+
+        lock.readLock().lock();
+        try {
+            if (entryPoint == -1 || k <= 0) {
+                return new SearchResult(new int[0], new float[0]);
+            }
+
+            int current = entryPoint;
+            for (int l = maxLevel; l > 0; l--) {
+                current = greedyClosest(normalized, 0, current, l);
+            }
+
+            NodeHeap results = searchLayer(normalized, 0, current, Math.max(efSearch, k), 0, true);
+            return results.top(k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the {@code k} live nodes closest to the query by scanning every stored vector,
+     * keeping the best ones in a bounded heap.
+     *
+     * @param query the query vector; it is not modified
+     * @param k     the number of results wanted
+     * @return the results ordered by increasing cosine distance
+     */
+    public SearchResult exactSearch(float[] query, int k) {
+        float[] normalized = Arrays.copyOf(query, dimension);
+        normalize(normalized, 0, dimension);
+
+        lock.readLock().lock();
+        try {
+            if (k <= 0) {
+                return new SearchResult(new int[0], new float[0]);
+            }
+
+            NodeHeap results = new NodeHeap(k + 1, true);
+            for (int node = 0; node < size; node++) {
+                if (deleted.get(node)) continue;
+                float d = distance(normalized, 0, node);
+                if (results.size() < k) {
+                    results.push(node, d);
+                } else if (d < results.peekDistance()) {
+                    results.pop();
+                    results.push(node, d);
+                }
+            }
+            return results.top(k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Builds a new graph holding only the live nodes, inserted in increasing node order, so
+     * the memory and search time taken by deleted nodes are reclaimed.
+     *
+     * @return the new graph and, for each node of this one, its id in the new graph or
+     *         {@code -1} if it was deleted
+     */
+    public Compaction compact() {
+        lock.readLock().lock();
+        try {
+            HnswIndex compacted = new HnswIndex(dimension, maxConnections, efConstruction);
+            compacted.ensureCapacity(size - deletedCount);
+            int[] newIds = new int[size];
+            for (int node = 0; node < size; node++) {
+                newIds[node] = deleted.get(node)
+                        ? -1
+                        : compacted.add(Arrays.copyOfRange(vectors, node * dimension, (node + 1) * dimension));
+            }
+            return new Compaction(compacted, newIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int deletedCount() {
+        lock.readLock().lock();
+        try {
+            return deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int greedyClosest(float[] query, int queryOffset, int start, int level) {
+        int current = start;
+        float currentDistance = distance(query, queryOffset, current);
+        boolean improved = true;
+
+        while (improved) {
+            improved = false;
+            int[] neighbours = links[current][level];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                int candidate = neighbours[i];
+                float d = distance(query, queryOffset, candidate);
+                if (d < currentDistance) {
+                    currentDistance = d;
+                    current = candidate;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    private NodeHeap searchLayer(float[] query, int queryOffset, int start, int ef, int level, boolean skipDeleted) {
+        BitSet visited = new BitSet(size);
+        NodeHeap candidates = new NodeHeap(ef * 2, false);
+        NodeHeap results = new NodeHeap(ef + 1, true);
+
+        float startDistance = distance(query, queryOffset, start);
+        visited.set(start);
+        candidates.push(start, startDistance);
+        if (!skipDeleted || !deleted.get(start)) {
+            results.push(start, startDistance);
+        }
+
+        while (!candidates.isEmpty()) {
+            float candidateDistance = candidates.peekDistance();
+            if (results.size() >= ef && candidateDistance > results.peekDistance()) {
+                break;
+            }
+            int candidate = candidates.pop();
+
+            int[] neighbours = links[candidate][level];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                int neighbour = neighbours[i];
+                if (visited.get(neighbour)) continue;
+                visited.set(neighbour);
+
+                float d = distance(query, queryOffset, neighbour);
+                if (results.size() < ef || d < results.peekDistance()) {
+                    candidates.push(neighbour, d);
+                    if (!skipDeleted || !deleted.get(neighbour)) {
+                        results.push(neighbour, d);
+                        if (results.size() > ef) results.pop();
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Neighbour selection heuristic from the HNSW paper: a candidate is kept only if it is
+     * closer to the base node than to every neighbour already kept, which preserves links
+     * towards distinct regions of the graph. Pruned candidates fill any remaining slots.
+     */
+    private int[] selectNeighbors(SearchResult sortedCandidates, int max) {
+        int[] nodes = sortedCandidates.nodes();
+        float[] distances = sortedCandidates.distances();
+        int[] selected = new int[Math.min(max, nodes.length)];
+        boolean[] taken = new boolean[nodes.length];
+        int count = 0;
+
+        for (int i = 0; i < nodes.length && count < selected.length; i++) {
+            boolean diverse = true;
+            for (int j = 0; j < count && diverse; j++) {
+                diverse = distanceBetween(nodes[i], selected[j]) > distances[i];
+            }
+            if (diverse) {
+                selected[count++] = nodes[i];
+                taken[i] = true;
+            }
+        }
+        for (int i = 0; i < nodes.length && count < selected.length; i++) {
+            if (!taken[i]) selected[count++] = nodes[i];
+        }
+        return selected;
+    }
+
+    private void connect(int node, int newNeighbour, int level) {
+        int[] neighbours = links[node][level];
+        int count = neighbours[0];
+        if (count < neighbours.length - 1) {
+            neighbours[count + 1] = newNeighbour;
+            neighbours[0] = count + 1;
+            return;
+        }
+
+        NodeHeap candidates = new NodeHeap(count + 1, true);
+        int offset = node * dimension;
+        for (int i = 1; i <= count; i++) {
+            candidates.push(neighbours[i], distance(vectors, offset, neighbours[i]));
+        }
+        candidates.push(newNeighbour, distance(vectors, offset, newNeighbour));
+        setLinks(node, level, selectNeighbors(candidates.sortedAscending(), neighbours.length - 1));
+    }
+
+    private void setLinks(int node, int level, int[] neighbours) {
+        int[] target = links[node][level];
+        target[0] = neighbours.length;
+        System.arraycopy(neighbours, 0, target, 1, neighbours.length);
+    }
+
+    private int maxConnectionsAt(int level) {
+        return level == 0 ? maxConnectionsLayerZero : maxConnections;
+    }
+
+    private int randomLevel() {
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        return (int) Math.floor(-Math.log(random) * levelMultiplier);
+    }
+
+    private float distance(float[] query, int queryOffset, int node) {
+        return 1f - KERNEL.dot(query, queryOffset, vectors, node * dimension, dimension);
+    }
+
+    private float distanceBetween(int a, int b) {
+        return distance(vectors, a * dimension, b);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= links.length) return;
+        int capacity = Math.max(required, links.length * 2);
+        vectors = Arrays.copyOf(vectors, capacity * dimension);
+        links = Arrays.copyOf(links, capacity);
+    }
+
+    static void normalize(float[] vector, int offset, int length) {
+        double norm = 0;
+        for (int i = 0; i < length; i++) {
+            norm += vector[offset + i] * vector[offset + i];
+        }
+        if (norm == 0) return;
+        float inverse = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < length; i++) {
+            vector[offset + i] *= inverse;
+        }
+    }
+
+    /**
+     * Nodes returned by a search, ordered by increasing cosine distance.
+     */
+    public record SearchResult(int[] nodes, float[] distances) {
+    }
+
+    /**
+     * A graph rebuilt from the live nodes of another, with the mapping of the old node ids.
+     */
+    public record Compaction(HnswIndex index, int[] newIds) {
+    }
+}
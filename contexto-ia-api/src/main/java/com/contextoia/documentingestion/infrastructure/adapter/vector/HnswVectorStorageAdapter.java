@@ -0,0 +1,139 @@
+package com.contextoia.documentingestion.infrastructure.adapter.vector;
+
+import com.contextoia.documentingestion.application.dto.SimilarChunkResult;
+import com.contextoia.documentingestion.application.dto.SimilarDocumentResult;
+import com.contextoia.documentingestion.application.event.DocumentProcessedEvent;
+import com.contextoia.documentingestion.application.port.out.DocumentVectorStoragePort;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process implementation of {@link DocumentVectorStoragePort}, enabled with
+ * {@code application.vector-store.engine=hnsw}. Similarity searches are answered from one
+ * HNSW graph per user kept in memory, so they do not take a connection from the pool. Users
+ * with at most {@code exact-search-max-vectors} chunks are searched by an exact scan instead.
+ *
+ * The graphs are built on startup from {@code tb_document_chunks} and kept up to date in two
+ * ways: documents processed by this node are read back and indexed on the
+ * {@link DocumentProcessedEvent}, once the processing transaction commits, and chunks written by other nodes are picked up
+ * by a periodic poll on their creation time. The poll re-reads a small overlap window to
+ * catch transactions that committed after the previous poll; documents already indexed are
+ * skipped.
+ */
+@Component
+@ConditionalOnProperty(name = "application.vector-store.engine", havingValue = "hnsw")
+public class HnswVectorStorageAdapter implements DocumentVectorStoragePort {
+
+    private static final Logger logger = LoggerFactory.getLogger(HnswVectorStorageAdapter.class);
+
+    private static final int CANDIDATE_CHUNKS_PER_DOCUMENT = 4;
+    private static final int SNIPPET_LENGTH = 200;
+    private static final OffsetDateTime BEGINNING = OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private final VectorChunkReader chunkReader;
+    private final int dimension;
+    private final int maxConnections;
+    private final int efConstruction;
+    private final int efSearch;
+    private final int exactSearchMaxVectors;
+    private final double maxDeletedRatio;
+    private final Duration refreshOverlap;
+    private final Map<UUID, UserVectorIndex> indexes = new ConcurrentHashMap<>();
+    private volatile OffsetDateTime watermark = BEGINNING;
+
+    public HnswVectorStorageAdapter(
+            VectorChunkReader chunkReader,
+            @Value("${application.vector-store.hnsw.dimension}") int dimension,
+            @Value("${application.vector-store.hnsw.m}") int maxConnections,
+            @Value("${application.vector-store.hnsw.ef-construction}") int efConstruction,
+            @Value("${application.vector-store.hnsw.ef-search}") int efSearch,
+            @Value("${application.vector-store.hnsw.exact-search-max-vectors}") int exactSearchMaxVectors,
+            @Value("${application.vector-store.hnsw.max-deleted-ratio}") double maxDeletedRatio,
+            @Value("${application.vector-store.hnsw.refresh-overlap}") Duration refreshOverlap) {
+        this.chunkReader = chunkReader;
+        this.dimension = dimension;
+        this.maxConnections = maxConnections;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.exactSearchMaxVectors = exactSearchMaxVectors;
+        this.maxDeletedRatio = maxDeletedRatio;
+        this.refreshOverlap = refreshOverlap;
+    }
+
+    @PostConstruct
+    void buildIndexes() {
+        long start = System.nanoTime();
+        watermark = chunkReader.readDocumentsSince(BEGINNING, SNIPPET_LENGTH, this::index);
+
+        int chunks = indexes.values().stream().mapToInt(UserVectorIndex::size).sum();
+        logger.info("Índice HNSW construído com {} chunks de {} usuários em {} ms",
+                chunks, indexes.size(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    @Override
+    public List<SimilarDocumentResult> findSimilarDocuments(float[] embedding, UUID userId, int limit) {
+        UserVectorIndex index = indexes.get(userId);
+        if (index == null) {
+            return List.of();
+        }
+        return index.search(embedding, limit, limit * CANDIDATE_CHUNKS_PER_DOCUMENT, efSearch);
+    }
+
+    /**
+     * Finds the nearest chunks in the user's graph; their content, which is not kept in
+     * memory, is then read by primary key.
+     */
+    @Override
+    public List<SimilarChunkResult> findSimilarChunks(float[] embedding, UUID userId, int limit) {
+        UserVectorIndex index = indexes.get(userId);
+        if (index == null) {
+            return List.of();
+        }
+        return chunkReader.readChunks(userId, index.searchChunks(embedding, limit, efSearch));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentProcessed(DocumentProcessedEvent event) {
+        chunkReader.readDocument(event.documentId(), SNIPPET_LENGTH, this::index);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${application.vector-store.hnsw.refresh-interval}",
+            initialDelayString = "${application.vector-store.hnsw.refresh-interval}")
+    void refresh() {
+        try {
+            OffsetDateTime latest = chunkReader.readDocumentsSince(
+                    watermark.minus(refreshOverlap), SNIPPET_LENGTH, this::index);
+            if (latest.isAfter(watermark)) {
+                watermark = latest;
+            }
+        } catch (Exception e) {
+            logger.warn("Falha ao atualizar o índice HNSW", e);
+        }
+    }
+
+    private void index(IndexedDocument document) {
+        UserVectorIndex index = indexes.computeIfAbsent(document.userId(),
+                userId -> new UserVectorIndex(
+                        new HnswIndex(dimension, maxConnections, efConstruction),
+                        exactSearchMaxVectors, maxDeletedRatio));
+        if (index.apply(document)) {
+            logger.debug("Documento {} indexado no HNSW com {} chunks",
+                    document.documentId(), document.chunks().size());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.contextoia.documentingestion.infrastructure.adapter.vector;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The searchable content of a processed document: its chunks with their embeddings and
+ * the snippet returned in search results.
+ */
+record IndexedDocument(
+        UUID documentId,
+        UUID userId,
+        String fileName,
+        List<Chunk> chunks
+) {
+
+    record Chunk(UUID chunkId, String snippet, float[] embedding) {
+    }
+
+    /**
+     * @return the id of the first chunk; chunks are replaced as a whole when a document is
+     *         reprocessed, so a different id means a new version of the document
+     */
+    UUID version() {
+        return chunks.get(0).chunkId();
+    }
+
+    static String snippet(String content, int snippetLength) {
+        return content.length() > snippetLength
+                ? content.substring(0, snippetLength) + "..."
+                : content;
+    }
+}
@@ -0,0 +1,120 @@
+package com.contextoia.documentingestion.infrastructure.adapter.vector;
+
+import java.util.Arrays;
+
+/**
+ * Binary heap of {@code (node, distance)} pairs backed by primitive arrays. Used as the
+ * candidate queue (min-heap) and the bounded result set (max-heap) of vector searches.
+ */
+final class NodeHeap {
+
+    private final boolean maxHeap;
+    private int[] nodes;
+    private float[] distances;
+    private int size;
+
+    NodeHeap(int initialCapacity, boolean maxHeap) {
+        this.maxHeap = maxHeap;
+        this.nodes = new int[Math.max(initialCapacity, 1)];
+        this.distances = new float[Math.max(initialCapacity, 1)];
+    }
+
+    void push(int node, float distance) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size * 2);
+            distances = Arrays.copyOf(distances, size * 2);
+        }
+        nodes[size] = node;
+        distances[size] = distance;
+        siftUp(size++);
+    }
+
+    int pop() {
+        int top = nodes[0];
+        size--;
+        if (size > 0) {
+            nodes[0] = nodes[size];
+            distances[0] = distances[size];
+            siftDown(0);
+        }
+        return top;
+    }
+
+    float peekDistance() {
+        return distances[0];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the node with the smallest distance currently in the heap
+     */
+    int closest() {
+        int best = 0;
+        for (int i = 1; i < size; i++) {
+            if (distances[i] < distances[best]) best = i;
+        }
+        return nodes[best];
+    }
+
+    HnswIndex.SearchResult sortedAscending() {
+        return top(size);
+    }
+
+    /**
+     * @return the {@code k} entries with the smallest distances, in increasing order
+     */
+    HnswIndex.SearchResult top(int k) {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Float.compare(distances[a], distances[b]));
+
+        int count = Math.min(k, size);
+        int[] topNodes = new int[count];
+        float[] topDistances = new float[count];
+        for (int i = 0; i < count; i++) {
+            topNodes[i] = nodes[order[i]];
+            topDistances[i] = distances[order[i]];
+        }
+        return new HnswIndex.SearchResult(topNodes, topDistances);
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!before(index, parent)) break;
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) break;
+            int child = left + 1 < size && before(left + 1, left) ? left + 1 : left;
+            if (!before(child, index)) break;
+            swap(index, child);
+            index = child;
+        }
+    }
+
+    private boolean before(int a, int b) {
+        return maxHeap ? distances[a] > distances[b] : distances[a] < distances[b];
+    }
+
+    private void swap(int a, int b) {
+        int node = nodes[a];
+        nodes[a] = nodes[b];
+        nodes[b] = node;
+        float distance = distances[a];
+        distances[a] = distances[b];
+        distances[b] = distance;
+    }
+}
@@ -0,0 +1,24 @@
+package com.contextoia.documentingestion.infrastructure.adapter.vector;
+
+/**
+ * Portable {@link VectorKernel}. Four independent accumulators break the dependency chain
+ * of the additions, which lets the JIT keep several multiply-adds in flight.
+ */
+final class ScalarVectorKernel implements VectorKernel {
+
+    @Override
+    public float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+        int i = 0;
+        for (; i + 3 < length; i += 4) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+            s1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+            s2 += a[aOffset + i + 2] * b[bOffset + i + 2];
+            s3 += a[aOffset + i + 3] * b[bOffset + i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+}
@@ -0,0 +1,182 @@
+package com.contextoia.documentingestion.infrastructure.adapter.vector;
+
+import com.contextoia.documentingestion.application.dto.SimilarDocumentResult;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The HNSW graph holding the chunks of a single user, together with the mapping from graph
+ * nodes back to documents and snippets.
+ *
+ * A reprocessed document replaces its previous version: the old nodes are marked deleted
+ * in the graph and the new chunks are inserted. Versions are compared by the id of their
+ * first chunk, which is time ordered, so a stale read can never overwrite a newer version.
+ *
+ * While the user has at most {@code exactSearchMaxVectors} live chunks, searches scan the
+ * vectors exactly; above that they walk the HNSW graph.
+ *
+ * Replaced nodes stay in the graph as tombstones. Once they exceed {@code maxDeletedRatio}
+ * of all the nodes, the graph is rebuilt from the live ones and the node references are
+ * renumbered, so a user who keeps reprocessing documents does not grow the index forever.
+ */
+class UserVectorIndex {
+
+    private final int exactSearchMaxVectors;
+    private final double maxDeletedRatio;
+    private final Map<UUID, DocumentEntry> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private HnswIndex index;
+    private List<NodeRef> nodes = new ArrayList<>();
+
+    UserVectorIndex(HnswIndex index, int exactSearchMaxVectors, double maxDeletedRatio) {
+        this.index = index;
+        this.exactSearchMaxVectors = exactSearchMaxVectors;
+        this.maxDeletedRatio = maxDeletedRatio;
+    }
+
+    /**
+     * Adds the document to the index, replacing any older version of it.
+     *
+     * @return {@code false} if the same or a newer version was already indexed
+     */
+    boolean apply(IndexedDocument document) {
+        lock.writeLock().lock();
+        try {
+            DocumentEntry existing = documents.get(document.documentId());
+            if (existing != null && document.version().compareTo(existing.version()) <= 0) {
+                return false;
+            }
+            if (existing != null) {
+                for (int node : existing.nodes()) {
+                    index.markDeleted(node);
+                }
+            }
+
+            int[] documentNodes = new int[document.chunks().size()];
+            for (int i = 0; i < documentNodes.length; i++) {
+                IndexedDocument.Chunk chunk = document.chunks().get(i);
+                int node = index.add(chunk.embedding());
+                nodes.add(new NodeRef(chunk.chunkId(), document.documentId(), chunk.snippet()));
+                documentNodes[i] = node;
+            }
+            documents.put(document.documentId(),
+                    new DocumentEntry(document.version(), document.fileName(), documentNodes));
+
+            if (existing != null && index.deletedCount() > maxDeletedRatio * nodes.size()) {
+                compact();
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks the indexed documents by their closest chunk.
+     *
+     * @param embedding      the query embedding
+     * @param limit          the maximum number of documents returned
+     * @param candidateLimit the number of nearest chunks collapsed into documents
+     * @param efSearch       the HNSW search breadth
+     */
+    List<SimilarDocumentResult> search(float[] embedding, int limit, int candidateLimit, int efSearch) {
+        lock.readLock().lock();
+        try {
+            HnswIndex.SearchResult result = index.size() <= exactSearchMaxVectors
+                    ? index.exactSearch(embedding, candidateLimit)
+                    : index.search(embedding, candidateLimit, efSearch);
+
+            Map<UUID, SimilarDocumentResult> best = new LinkedHashMap<>();
+            for (int i = 0; i < result.nodes().length && best.size() < limit; i++) {
+                NodeRef ref = nodes.get(result.nodes()[i]);
+                if (best.containsKey(ref.documentId())) continue;
+
+                best.put(ref.documentId(), new SimilarDocumentResult(
+                        ref.documentId(),
+                        documents.get(ref.documentId()).fileName(),
+                        1f - result.distances()[i],
+                        ref.snippet()
+                ));
+            }
+            return List.copyOf(best.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the chunks closest to the embedding.
+     *
+     * @return the similarity of each chunk, by chunk id, in decreasing order of similarity
+     */
+    Map<UUID, Float> searchChunks(float[] embedding, int limit, int efSearch) {
+        lock.readLock().lock();
+        try {
+            HnswIndex.SearchResult result = index.size() <= exactSearchMaxVectors
+                    ? index.exactSearch(embedding, limit)
+                    : index.search(embedding, limit, efSearch);
+
+            Map<UUID, Float> similarities = new LinkedHashMap<>();
+            for (int i = 0; i < result.nodes().length; i++) {
+                similarities.put(nodes.get(result.nodes()[i]).chunkId(), 1f - result.distances()[i]);
+            }
+            return similarities;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int deletedCount() {
+        lock.readLock().lock();
+        try {
+            return index.deletedCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the graph by one without the deleted nodes. Called with the write lock held.
+     */
+    private void compact() {
+        HnswIndex.Compaction compaction = index.compact();
+        int[] newIds = compaction.newIds();
+
+        List<NodeRef> liveNodes = new ArrayList<>(compaction.index().size());
+        for (int node = 0; node < newIds.length; node++) {
+            if (newIds[node] >= 0) liveNodes.add(nodes.get(node));
+        }
+        documents.replaceAll((documentId, entry) -> {
+            int[] documentNodes = new int[entry.nodes().length];
+            for (int i = 0; i < documentNodes.length; i++) {
+                documentNodes[i] = newIds[entry.nodes()[i]];
+            }
+            return new DocumentEntry(entry.version(), entry.fileName(), documentNodes);
+        });
+
+        index = compaction.index();
+        nodes = liveNodes;
+    }
+
+    private record NodeRef(UUID chunkId, UUID documentId, String snippet) {
+    }
+
+    private record DocumentEntry(UUID version, String fileName, int[] nodes) {
+    }
+}
@@ -0,0 +1,218 @@
+package com.contextoia.documentingestion.infrastructure.adapter.vector;
+
+import com.contextoia.documentingestion.application.dto.SimilarChunkResult;
+import com.pgvector.PGvector;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Streams the embedded chunks stored in {@code tb_document_chunks}, grouped per document,
+ * to feed the in-process vector index. Chunks shared through {@code chunks_document_id}
+ * are read once for each document that uses them. Reads run in a read-only transaction
+ * with a fetch size, which makes the PostgreSQL driver use a cursor: rows are consumed as
+ * they arrive and the whole table is never held in memory at once.
+ */
+@Repository
+class VectorChunkReader {
+
+    private static final int FETCH_SIZE = 500;
+    private static final OffsetDateTime BEGINNING = OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    /**
+     * Chunks created since the given instant, for every document that uses them, followed
+     * by the chunks of documents created since then that reuse older chunks of another
+     * document.
+     */
+    private static final String FIND_CHUNKS_SINCE_SQL = """
+        SELECT ch.id,
+               d.id AS document_id,
+               d.user_id,
+               d.original_file_name,
+               ch.chunk_index,
+               ch.content,
+               ch.embedding,
+               ch.created_at
+        FROM tb_document_chunks ch
+        JOIN tb_documents d ON COALESCE(d.chunks_document_id, d.id) = ch.document_id
+        WHERE ch.created_at > :since
+        UNION ALL
+        SELECT ch.id,
+               d.id AS document_id,
+               d.user_id,
+               d.original_file_name,
+               ch.chunk_index,
+               ch.content,
+               ch.embedding,
+               d.created_at
+        FROM tb_documents d
+        JOIN tb_document_chunks ch ON ch.document_id = d.chunks_document_id
+        WHERE d.chunks_document_id IS NOT NULL
+          AND d.created_at > :since
+          AND ch.created_at <= :since
+        ORDER BY document_id, chunk_index
+        """;
+
+    private static final String FIND_CHUNKS_BY_DOCUMENT_SQL = """
+        SELECT ch.id,
+               d.id AS document_id,
+               d.user_id,
+               d.original_file_name,
+               ch.content,
+               ch.embedding,
+               ch.created_at
+        FROM tb_documents d
+        JOIN tb_document_chunks ch ON ch.document_id = COALESCE(d.chunks_document_id, d.id)
+        WHERE d.id = :documentId
+        ORDER BY ch.chunk_index
+        """;
+
+    private static final String FIND_CHUNKS_BY_ID_SQL = """
+        SELECT ch.id,
+               d.id AS document_id,
+               d.original_file_name,
+               ch.chunk_index,
+               ch.page_start,
+               ch.page_end,
+               ch.content
+        FROM tb_document_chunks ch
+        JOIN tb_documents d ON COALESCE(d.chunks_document_id, d.id) = ch.document_id
+        WHERE ch.id IN (:ids)
+          AND d.user_id = :userId
+        """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    VectorChunkReader(DataSource dataSource) {
+        JdbcTemplate cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(FETCH_SIZE);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(cursorTemplate);
+    }
+
+    /**
+     * Reads every chunk created after the given instant and hands each document to the
+     * consumer once all of its chunks have been read.
+     *
+     * @param since         only chunks created strictly after this instant are read
+     * @param snippetLength the maximum length of the snippet kept for each chunk
+     * @param consumer      receives the documents, one at a time
+     * @return the most recent creation time read, or {@code since} if nothing was found
+     */
+    @Transactional(readOnly = true)
+    OffsetDateTime readDocumentsSince(OffsetDateTime since, int snippetLength, Consumer<IndexedDocument> consumer) {
+        DocumentCollector collector = new DocumentCollector(since, snippetLength, consumer);
+        jdbcTemplate.query(FIND_CHUNKS_SINCE_SQL, new MapSqlParameterSource("since", since), collector);
+        collector.flush();
+        return collector.latest;
+    }
+
+    /**
+     * Reads every chunk of one document and hands the document to the consumer, unless it
+     * has no chunks.
+     */
+    @Transactional(readOnly = true)
+    void readDocument(UUID documentId, int snippetLength, Consumer<IndexedDocument> consumer) {
+        DocumentCollector collector = new DocumentCollector(BEGINNING, snippetLength, consumer);
+        jdbcTemplate.query(FIND_CHUNKS_BY_DOCUMENT_SQL, new MapSqlParameterSource("documentId", documentId), collector);
+        collector.flush();
+    }
+
+    /**
+     * Reads the content of the given chunks, which the in-memory index does not keep. A
+     * chunk shared by several documents is reported under the user's one.
+     *
+     * @param userId       the user the chunks were found for
+     * @param similarities the similarity of each chunk to return, by chunk id
+     * @return the chunks still stored, in the iteration order of {@code similarities}
+     */
+    List<SimilarChunkResult> readChunks(UUID userId, Map<UUID, Float> similarities) {
+        if (similarities.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, SimilarChunkResult> found = new HashMap<>();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", similarities.keySet())
+                .addValue("userId", userId);
+        jdbcTemplate.query(FIND_CHUNKS_BY_ID_SQL, params, rs -> {
+            UUID chunkId = rs.getObject("id", UUID.class);
+            found.put(chunkId, new SimilarChunkResult(
+                    chunkId,
+                    rs.getObject("document_id", UUID.class),
+                    rs.getString("original_file_name"),
+                    rs.getInt("chunk_index"),
+                    rs.getInt("page_start"),
+                    rs.getInt("page_end"),
+                    rs.getString("content"),
+                    similarities.get(chunkId)
+            ));
+        });
+
+        return similarities.keySet().stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static final class DocumentCollector implements RowCallbackHandler {
+
+        private final int snippetLength;
+        private final Consumer<IndexedDocument> consumer;
+        private OffsetDateTime latest;
+        private UUID documentId;
+        private UUID userId;
+        private String fileName;
+        private List<IndexedDocument.Chunk> chunks = new ArrayList<>();
+
+        private DocumentCollector(OffsetDateTime since, int snippetLength, Consumer<IndexedDocument> consumer) {
+            this.latest = since;
+            this.snippetLength = snippetLength;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            UUID rowDocumentId = rs.getObject("document_id", UUID.class);
+            if (!rowDocumentId.equals(documentId)) {
+                flush();
+                documentId = rowDocumentId;
+                userId = rs.getObject("user_id", UUID.class);
+                fileName = rs.getString("original_file_name");
+            }
+
+            chunks.add(new IndexedDocument.Chunk(
+                    rs.getObject("id", UUID.class),
+                    IndexedDocument.snippet(rs.getString("content"), snippetLength),
+                    rs.getObject("embedding", PGvector.class).toArray()
+            ));
+
+            OffsetDateTime createdAt = rs.getObject("created_at", OffsetDateTime.class);
+            if (createdAt != null && createdAt.isAfter(latest)) {
+                latest = createdAt;
+            }
+        }
+
+        private void flush() {
+            if (chunks.isEmpty()) return;
+            consumer.accept(new IndexedDocument(documentId, userId, fileName, chunks));
+            chunks = new ArrayList<>();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.contextoia.documentingestion.infrastructure.adapter.vector;
+
+/**
+ * Dot product over slices of {@code float[]} slabs, the inner loop of every in-process
+ * similarity search.
+ */
+interface VectorKernel {
+
+    float dot(float[] a, int aOffset, float[] b, int bOffset, int length);
+
+    /**
+     * Returns the SIMD kernel when the {@code jdk.incubator.vector} module is present in the
+     * boot layer (the JVM was started with {@code --add-modules jdk.incubator.vector}), and
+     * the scalar kernel otherwise. The SIMD class is loaded reflectively so that it is never
+     * linked when the module is missing.
+     */
+    static VectorKernel best() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (VectorKernel) Class
+                        .forName(VectorKernel.class.getPackageName() + ".SimdVectorKernel")
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return new ScalarVectorKernel();
+            }
+        }
+        return new ScalarVectorKernel();
+    }
+}
@@ -0,0 +1,24 @@
+package com.contextoia.documentingestion.infrastructure.config;
+
+import com.contextoia.documentingestion.domain.service.TextChunker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuração do particionamento do texto extraído em chunks
+ */
+@Configuration
+public class ChunkingConfig {
+
+    @Value("${application.ingestion.chunking.chunk-size}")
+    private int chunkSize;
+
+    @Value("${application.ingestion.chunking.chunk-overlap}")
+    private int chunkOverlap;
+
+    @Bean
+    public TextChunker textChunker() {
+        return new TextChunker(chunkSize, chunkOverlap);
+    }
+}
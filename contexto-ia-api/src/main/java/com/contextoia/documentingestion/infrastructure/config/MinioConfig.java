@@ -4,6 +4,7 @@ import io.minio.MinioClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 /**
  * Configuração do cliente MinIO
@@ -21,11 +22,27 @@ public class MinioConfig {
     private String secretKey;
 
     @Bean
+    @Primary
     public MinioClient minioClient() {
         return MinioClient.builder()
                 .endpoint(minioUrl)
                 .credentials(accessKey, secretKey)
                 .build();
     }
-}
 
+    /**
+     * Client used only to sign upload URLs handed to API clients. The endpoint is part of
+     * the signature, so it must be the address clients reach MinIO at, which may differ from
+     * the internal one. The region is fixed so that signing never calls MinIO.
+     */
+    @Bean
+    public MinioClient presigningMinioClient(
+            @Value("${minio.public-url:${minio.url}}") String publicUrl,
+            @Value("${minio.region:us-east-1}") String region) {
+        return MinioClient.builder()
+                .endpoint(publicUrl)
+                .region(region)
+                .credentials(accessKey, secretKey)
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.contextoia.documentingestion.infrastructure.config;
+
+import com.pgvector.PGvector;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Configuração do tipo {@code vector} do pgvector nas conexões do pool
+ *
+ * The application's DataSource is wrapped so that the first time each pooled connection is
+ * handed out, {@link PGvector} is registered on it. The driver then sends and receives
+ * embeddings in pgvector's binary format, and {@code rs.getObject(column, PGvector.class)}
+ * reads them without building or parsing a text literal of several kilobytes.
+ */
+@Configuration
+public class PgVectorConfig {
+
+    @Bean
+    static BeanPostProcessor pgVectorDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof PgVectorDataSource)) {
+                    return new PgVectorDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static final class PgVectorDataSource extends DelegatingDataSource {
+
+        /**
+         * Physical connections the type is already registered on. Weak, so that connections
+         * retired by the pool are forgotten.
+         */
+        private final Set<PGConnection> registered = Collections.synchronizedSet(
+                Collections.newSetFromMap(new WeakHashMap<>()));
+
+        PgVectorDataSource(DataSource targetDataSource) {
+            super(targetDataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return registerVectorType(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return registerVectorType(super.getConnection(username, password));
+        }
+
+        private Connection registerVectorType(Connection connection) throws SQLException {
+            PGConnection physical = connection.unwrap(PGConnection.class);
+            if (registered.contains(physical)) {
+                return connection;
+            }
+            try {
+                PGvector.addVectorType(connection);
+            } catch (SQLException | RuntimeException e) {
+                connection.close();
+                throw e;
+            }
+            registered.add(physical);
+            return connection;
+        }
+    }
+}
@@ -2,17 +2,36 @@ package com.contextoia.documentingestion.infrastructure.config;
 
 
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Configuration class for setting up RabbitMQ components such as queues, exchanges, and bindings.
  * This configuration defines the necessary beans to enable communication with RabbitMQ
  * using specific queues and exchange settings for PDF processing tasks.
+ *
+ * The PDF processing listener runs on its own container factory. It starts
+ * {@code rabbitmq.listener.pdf-processing.concurrency} consumers and adds more, up to
+ * {@code max-concurrency}, while messages keep arriving back to back, then stops the extra
+ * ones once they sit idle, so the consumer count follows the queue depth. Consumers can run
+ * on virtual threads, which suits a workload dominated by waits on storage, the database and
+ * the embedding API.
+ *
+ * Failed messages are never requeued in place. Transient failures are delayed in one retry
+ * queue per attempt, each with a fixed TTL growing exponentially, whose expired messages
+ * are dead-lettered back to the processing queue; per-queue TTLs avoid the head-of-line
+ * blocking of per-message expiration. Permanent failures are rejected and dead-lettered
+ * by the broker to the DLQ.
  */
 @Configuration
 public class RabbitMQConfig {
@@ -26,6 +45,30 @@ public class RabbitMQConfig {
     @Value("${rabbitmq.exchange.pdf-processing}")
     private String exchange;
 
+    @Value("${rabbitmq.queue.pdf-processing-retry}")
+    private String pdfProcessingRetryQueue;
+
+    @Value("${rabbitmq.retry.pdf-processing.max-attempts}")
+    private int maxRetryAttempts;
+
+    @Value("${rabbitmq.retry.pdf-processing.initial-delay}")
+    private Duration initialRetryDelay;
+
+    @Value("${rabbitmq.retry.pdf-processing.multiplier}")
+    private double retryDelayMultiplier;
+
+    @Value("${rabbitmq.listener.pdf-processing.concurrency:1}")
+    private int concurrency;
+
+    @Value("${rabbitmq.listener.pdf-processing.max-concurrency:1}")
+    private int maxConcurrency;
+
+    @Value("${rabbitmq.listener.pdf-processing.prefetch:1}")
+    private int prefetch;
+
+    @Value("${rabbitmq.listener.pdf-processing.virtual-threads:false}")
+    private boolean virtualThreads;
+
     @Bean
     public Queue pdfProcessingQueue() {
         return QueueBuilder.durable(pdfProcessingQueue)
@@ -39,6 +82,30 @@ public class RabbitMQConfig {
         return new Queue(pdfProcessingDLQ, true);
     }
 
+    /**
+     * Declares {@code <retry-queue>-1} to {@code <retry-queue>-N}, one per retry attempt.
+     */
+    @Bean
+    public Declarables pdfProcessingRetryQueues() {
+        List<Declarable> queues = new ArrayList<>(maxRetryAttempts);
+        for (int attempt = 1; attempt <= maxRetryAttempts; attempt++) {
+            queues.add(QueueBuilder.durable(retryQueueName(pdfProcessingRetryQueue, attempt))
+                    .ttl((int) retryDelay(attempt).toMillis())
+                    .withArgument("x-dead-letter-exchange", "")
+                    .withArgument("x-dead-letter-routing-key", pdfProcessingQueue)
+                    .build());
+        }
+        return new Declarables(queues);
+    }
+
+    public static String retryQueueName(String retryQueue, int attempt) {
+        return retryQueue + "-" + attempt;
+    }
+
+    private Duration retryDelay(int attempt) {
+        return Duration.ofMillis((long) (initialRetryDelay.toMillis() * Math.pow(retryDelayMultiplier, attempt - 1)));
+    }
+
     @Bean
     public DirectExchange exchange() {
         return new DirectExchange(exchange);
@@ -56,6 +123,25 @@ public class RabbitMQConfig {
         return new Jackson2JsonMessageConverter();
     }
 
+    @Bean
+    public SimpleRabbitListenerContainerFactory pdfProcessingContainerFactory(ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter());
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(Math.max(concurrency, maxConcurrency));
+        factory.setPrefetchCount(prefetch);
+        factory.setDefaultRequeueRejected(false);
+        factory.setConsecutiveActiveTrigger(2);
+        factory.setStartConsumerMinInterval(5_000L);
+        factory.setConsecutiveIdleTrigger(10);
+        factory.setStopConsumerMinInterval(30_000L);
+        if (virtualThreads) {
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor("pdf-consumer-"));
+        }
+        return factory;
+    }
+
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
@@ -0,0 +1,56 @@
+package com.contextoia.identityaccess.application.config;
+
+import com.contextoia.identityaccess.application.service.JwtService;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Interceptor que autentica as conexões STOMP pelo token JWT.
+ * O token é lido do cabeçalho {@code Authorization: Bearer} do frame CONNECT e o usuário
+ * autenticado fica associado à sessão WebSocket pelo restante da conexão.
+ */
+@Component
+public class JwtChannelInterceptor implements ChannelInterceptor {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtService jwtService;
+    private final UserDetailsService userDetailsService;
+
+    public JwtChannelInterceptor(JwtService jwtService, UserDetailsService userDetailsService) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || !StompCommand.CONNECT.equals(accessor.getCommand())) {
+            return message;
+        }
+
+        String authorization = accessor.getFirstNativeHeader("Authorization");
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            throw new BadCredentialsException("Token de autenticação ausente");
+        }
+
+        String jwt = authorization.substring(BEARER_PREFIX.length());
+        UserDetails userDetails = userDetailsService.loadUserByUsername(jwtService.extractUsername(jwt));
+        if (!jwtService.isTokenValid(jwt, userDetails)) {
+            throw new BadCredentialsException("Token de autenticação inválido");
+        }
+
+        accessor.setUser(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+        return message;
+    }
+}
@@ -4,28 +4,39 @@ import com.contextoia.identityaccess.application.dto.UserAuthDetails;
 import com.contextoia.identityaccess.domain.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 
 /**
  * Implementação da interface UserDetailsService do Spring Security.
  * Responsável por carregar os detalhes de autenticação do usuário a partir do banco de dados.
+ * Os usuários listados em {@code application.security.admin-usernames} recebem o papel ADMIN,
+ * exigido pelos endpoints do actuator.
  */
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private static final Logger log = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
 
+    private static final String ADMIN_AUTHORITY = "ROLE_ADMIN";
+
     private final UserRepository userRepository;
+    private final Set<String> adminUsernames;
 
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(
+            UserRepository userRepository,
+            @Value("${application.security.admin-usernames:}") List<String> adminUsernames) {
         this.userRepository = userRepository;
+        this.adminUsernames = Set.copyOf(adminUsernames.stream().filter(name -> !name.isBlank()).toList());
     }
 
     @Override
@@ -63,7 +74,9 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 .password(authDetails.getPasswordHash())
                 .disabled(!authDetails.isEnabled())
                 .accountLocked(authDetails.isLocked())
-                .authorities(new ArrayList<>())
+                .authorities(adminUsernames.contains(authDetails.getUsername())
+                        ? List.of(new SimpleGrantedAuthority(ADMIN_AUTHORITY))
+                        : List.of())
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS tb_document_outbox(
+    id UUID PRIMARY KEY,
+    document_id UUID NOT NULL,
+    storage_key VARCHAR(1024) NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_document_outbox_created_at ON tb_document_outbox(created_at);
@@ -0,0 +1,2 @@
+ALTER TABLE tb_documents
+    ADD COLUMN IF NOT EXISTS content_sha256 VARCHAR(64);
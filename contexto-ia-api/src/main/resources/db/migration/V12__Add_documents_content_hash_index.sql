@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS idx_documents_content_sha256 ON tb_documents(content_sha256, created_at)
+    WHERE content_sha256 IS NOT NULL;
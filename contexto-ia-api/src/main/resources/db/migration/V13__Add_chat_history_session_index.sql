@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_chat_history_session_created_at_id ON tb_chat_history(session_id, created_at DESC, id DESC);
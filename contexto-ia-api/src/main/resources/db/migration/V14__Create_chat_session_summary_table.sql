@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS tb_chat_session_summary(
+    session_id UUID PRIMARY KEY,
+    user_id UUID NOT NULL,
+    summary TEXT NOT NULL,
+    summarized_until_created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    summarized_until_id UUID NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_chat_session_summary_user FOREIGN KEY (user_id) REFERENCES tb_users(id)
+);
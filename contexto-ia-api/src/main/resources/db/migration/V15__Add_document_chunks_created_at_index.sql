@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_document_chunks_created_at ON tb_document_chunks(created_at);
@@ -0,0 +1,23 @@
+-- Token da tentativa de processamento que detém o documento: só ela pode renovar,
+-- liberar ou concluir o processamento.
+ALTER TABLE tb_documents
+    ADD COLUMN IF NOT EXISTS processing_attempt UUID;
+
+-- Chunks gravados a cada janela de embeddings durante o processamento; passam para
+-- tb_document_chunks na transação que conclui o documento.
+CREATE TABLE IF NOT EXISTS tb_document_chunks_staging(
+    id UUID PRIMARY KEY,
+    document_id UUID NOT NULL,
+    attempt_id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    chunk_index INTEGER NOT NULL,
+    content TEXT NOT NULL,
+    page_start INTEGER NOT NULL,
+    page_end INTEGER NOT NULL,
+    embedding vector(768) NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_chunk_staging_document FOREIGN KEY (document_id) REFERENCES tb_documents(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_document_chunks_staging_document_attempt
+    ON tb_document_chunks_staging(document_id, attempt_id);
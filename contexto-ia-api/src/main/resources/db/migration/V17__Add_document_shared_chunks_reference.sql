@@ -0,0 +1,31 @@
+-- Documento cujos chunks este documento reaproveita, quando o mesmo conteúdo já foi
+-- processado para outro envio; NULL quando o documento tem chunks próprios.
+ALTER TABLE tb_documents
+    ADD COLUMN IF NOT EXISTS chunks_document_id UUID,
+    ADD CONSTRAINT fk_documents_chunks_document FOREIGN KEY (chunks_document_id) REFERENCES tb_documents(id);
+
+-- Liga cada chunk aos documentos que o usam, próprios ou compartilhados.
+CREATE INDEX IF NOT EXISTS idx_documents_chunks_source ON tb_documents((COALESCE(chunks_document_id, id)));
+
+-- Os chunks já copiados por deduplicação passam a referenciar os do documento de origem.
+UPDATE tb_documents shared
+SET chunks_document_id = source.id
+FROM tb_documents source
+WHERE shared.content_sha256 = source.content_sha256
+  AND shared.id <> source.id
+  AND shared.storage_key = source.storage_key
+  AND source.status = 'COMPLETED'
+  AND shared.status = 'COMPLETED'
+  AND source.created_at < shared.created_at
+  AND NOT EXISTS (
+      SELECT 1 FROM tb_documents older
+      WHERE older.content_sha256 = source.content_sha256
+        AND older.storage_key = source.storage_key
+        AND older.status = 'COMPLETED'
+        AND older.created_at < source.created_at
+  );
+
+DELETE FROM tb_document_chunks ch
+USING tb_documents shared
+WHERE shared.chunks_document_id IS NOT NULL
+  AND ch.document_id = shared.id;
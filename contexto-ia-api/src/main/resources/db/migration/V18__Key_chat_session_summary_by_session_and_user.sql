@@ -0,0 +1,5 @@
+-- O resumo pertence à sessão de um usuário, como as mensagens do histórico.
+ALTER TABLE tb_chat_session_summary
+    DROP CONSTRAINT IF EXISTS tb_chat_session_summary_pkey;
+ALTER TABLE tb_chat_session_summary
+    ADD CONSTRAINT pk_chat_session_summary PRIMARY KEY (session_id, user_id);
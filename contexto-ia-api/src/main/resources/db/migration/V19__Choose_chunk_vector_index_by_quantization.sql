@@ -0,0 +1,42 @@
+-- Mantém só o índice HNSW que as buscas usam, conforme
+-- application.vector-store.quantization.enabled no momento da migração: sem quantização,
+-- o de precisão completa; com ela, o binário, depois de preencher os embeddings binários
+-- que faltam. Trocas posteriores da configuração são aplicadas pelo endpoint
+-- /actuator/vectorindex. Um índice inválido, deixado por uma criação concorrente
+-- interrompida, é recriado.
+DO $$
+DECLARE
+    wanted TEXT;
+    unwanted TEXT;
+BEGIN
+    IF '${vector_quantization}' = 'true' THEN
+        wanted := 'idx_document_chunks_embedding_binary_hnsw';
+        unwanted := 'idx_document_chunks_embedding_hnsw';
+        UPDATE tb_document_chunks
+        SET embedding_binary = binary_quantize(embedding)::bit(768)
+        WHERE embedding_binary IS NULL;
+    ELSE
+        wanted := 'idx_document_chunks_embedding_hnsw';
+        unwanted := 'idx_document_chunks_embedding_binary_hnsw';
+    END IF;
+
+    IF EXISTS (SELECT 1
+               FROM pg_index i
+               JOIN pg_class c ON c.oid = i.indexrelid
+               WHERE c.relname = wanted
+                 AND NOT i.indisvalid) THEN
+        EXECUTE format('DROP INDEX %I', wanted);
+    END IF;
+
+    IF '${vector_quantization}' = 'true' THEN
+        CREATE INDEX IF NOT EXISTS idx_document_chunks_embedding_binary_hnsw ON tb_document_chunks
+            USING hnsw (embedding_binary bit_hamming_ops)
+            WITH (m = 16, ef_construction = 64);
+    ELSE
+        CREATE INDEX IF NOT EXISTS idx_document_chunks_embedding_hnsw ON tb_document_chunks
+            USING hnsw (embedding vector_cosine_ops)
+            WITH (m = 16, ef_construction = 64);
+    END IF;
+
+    EXECUTE format('DROP INDEX IF EXISTS %I', unwanted);
+END $$;
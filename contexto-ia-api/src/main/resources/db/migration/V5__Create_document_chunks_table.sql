@@ -0,0 +1,19 @@
+CREATE TABLE IF NOT EXISTS tb_document_chunks(
+    id UUID PRIMARY KEY,
+    document_id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    chunk_index INTEGER NOT NULL,
+    content TEXT NOT NULL,
+    page_start INTEGER NOT NULL,
+    page_end INTEGER NOT NULL,
+    embedding vector(768) NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_chunk_document FOREIGN KEY (document_id) REFERENCES tb_documents(id) ON DELETE CASCADE,
+    CONSTRAINT uk_chunk_document_index UNIQUE (document_id, chunk_index)
+);
+
+CREATE INDEX IF NOT EXISTS idx_document_chunks_user_id ON tb_document_chunks(user_id);
+
+CREATE INDEX IF NOT EXISTS idx_document_chunks_embedding_hnsw ON tb_document_chunks
+    USING hnsw (embedding vector_cosine_ops)
+    WITH (m = 16, ef_construction = 64);
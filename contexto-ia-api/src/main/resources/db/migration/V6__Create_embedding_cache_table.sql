@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS tb_embedding_cache(
+    cache_key VARCHAR(64) PRIMARY KEY,
+    model_name VARCHAR(100) NOT NULL,
+    embedding vector(768) NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_embedding_cache_created_at ON tb_embedding_cache(created_at);
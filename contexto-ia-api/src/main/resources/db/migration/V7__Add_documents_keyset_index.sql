@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_documents_user_created_at_id ON tb_documents(user_id, created_at DESC, id DESC);
@@ -0,0 +1,12 @@
+-- O embedding por documento não é mais gravado desde a introdução dos chunks;
+-- o índice HNSW sobre ele só ocupava memória.
+DROP INDEX IF EXISTS idx_documents_embedding_hnsw;
+
+-- Representação binária (1 bit por dimensão) usada na busca grosseira,
+-- reordenada depois pelo embedding completo.
+ALTER TABLE tb_document_chunks
+    ADD COLUMN IF NOT EXISTS embedding_binary bit(768);
+
+CREATE INDEX IF NOT EXISTS idx_document_chunks_embedding_binary_hnsw ON tb_document_chunks
+    USING hnsw (embedding_binary bit_hamming_ops)
+    WITH (m = 16, ef_construction = 64);
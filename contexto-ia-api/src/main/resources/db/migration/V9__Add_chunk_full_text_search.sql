@@ -0,0 +1,7 @@
+-- Configuração 'simple': sem stemming nem stopwords, preserva códigos e números de peça.
+ALTER TABLE tb_document_chunks
+    ADD COLUMN IF NOT EXISTS content_tsv tsvector
+        GENERATED ALWAYS AS (to_tsvector('simple', content)) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_document_chunks_content_tsv ON tb_document_chunks
+    USING gin (content_tsv);
@@ -0,0 +1,88 @@
+package com.contextoia.chatinteraction.api.websocket;
+
+import com.contextoia.chatinteraction.api.dto.ChatMessageRequest;
+import com.contextoia.chatinteraction.api.dto.ChatStreamEvent;
+import com.contextoia.chatinteraction.application.dto.SendMessageCommand;
+import com.contextoia.chatinteraction.application.port.in.ChatResponseListener;
+import com.contextoia.chatinteraction.application.port.in.SendMessageUseCase;
+import com.contextoia.chatinteraction.domain.model.ChatMessage;
+import com.contextoia.chatinteraction.domain.model.ContextPassage;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class ChatWebSocketControllerTest {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final UUID SESSION_ID = UUID.randomUUID();
+
+    private final SendMessageUseCase sendMessageUseCase = mock(SendMessageUseCase.class);
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final ChatWebSocketController controller = new ChatWebSocketController(sendMessageUseCase, messagingTemplate);
+    private final Principal principal = USER_ID::toString;
+
+    @Test
+    void answerIsStreamedToTheSendersQueueAsItIsProduced() {
+        ContextPassage passage = new ContextPassage(UUID.randomUUID(), "contrato.pdf", 0, 1, 2, 3, "texto", 0.9f);
+        doAnswer(invocation -> {
+            ChatResponseListener listener = invocation.getArgument(1);
+            listener.onSources(List.of(passage));
+            listener.onToken("Trinta dias");
+            listener.onComplete(ChatMessage.assistant(SESSION_ID, USER_ID, "Trinta dias"));
+            return null;
+        }).when(sendMessageUseCase).execute(eq(new SendMessageCommand(USER_ID, SESSION_ID, "Qual o prazo?")), any());
+
+        controller.sendMessage(new ChatMessageRequest(SESSION_ID, "Qual o prazo?"), principal);
+
+        InOrder order = inOrder(messagingTemplate);
+        order.verify(messagingTemplate).convertAndSendToUser(USER_ID.toString(), ChatWebSocketController.CHAT_QUEUE,
+                ChatStreamEvent.sources(SESSION_ID, List.of(passage)));
+        order.verify(messagingTemplate).convertAndSendToUser(USER_ID.toString(), ChatWebSocketController.CHAT_QUEUE,
+                ChatStreamEvent.token(SESSION_ID, "Trinta dias"));
+        order.verify(messagingTemplate).convertAndSendToUser(USER_ID.toString(), ChatWebSocketController.CHAT_QUEUE,
+                ChatStreamEvent.complete(SESSION_ID, "Trinta dias"));
+    }
+
+    @Test
+    void errorReportedByTheUseCaseIsSentAsAnErrorEvent() {
+        doAnswer(invocation -> {
+            invocation.<ChatResponseListener>getArgument(1).onError("Não foi possível gerar a resposta.");
+            return null;
+        }).when(sendMessageUseCase).execute(any(), any());
+
+        controller.sendMessage(new ChatMessageRequest(SESSION_ID, "Qual o prazo?"), principal);
+
+        verify(messagingTemplate).convertAndSendToUser(USER_ID.toString(), ChatWebSocketController.CHAT_QUEUE,
+                ChatStreamEvent.error(SESSION_ID, "Não foi possível gerar a resposta."));
+    }
+
+    @Test
+    void invalidMessageIsAnsweredWithItsReason() {
+        IllegalArgumentException invalid = new IllegalArgumentException("Mensagem não pode estar vazia");
+
+        controller.handleInvalidMessage(invalid, new ChatMessageRequest(SESSION_ID, " "), principal);
+
+        verify(messagingTemplate).convertAndSendToUser(USER_ID.toString(), ChatWebSocketController.CHAT_QUEUE,
+                ChatStreamEvent.error(SESSION_ID, "Mensagem não pode estar vazia"));
+    }
+
+    @Test
+    void unexpectedFailureIsAnsweredWithoutItsCause() {
+        controller.handleUnexpectedError(new IllegalStateException("conexão recusada: db:5432"),
+                new ChatMessageRequest(SESSION_ID, "Qual o prazo?"), principal);
+
+        verify(messagingTemplate).convertAndSendToUser(USER_ID.toString(), ChatWebSocketController.CHAT_QUEUE,
+                ChatStreamEvent.error(SESSION_ID, ChatWebSocketController.UNEXPECTED_ERROR_MESSAGE));
+    }
+}
@@ -0,0 +1,211 @@
+package com.contextoia.chatinteraction.application.service;
+
+import com.contextoia.chatinteraction.application.dto.AnswerLookup;
+import com.contextoia.chatinteraction.application.dto.ChatHistoryCursor;
+import com.contextoia.chatinteraction.application.dto.SendMessageCommand;
+import com.contextoia.chatinteraction.application.port.in.ChatResponseListener;
+import com.contextoia.chatinteraction.application.port.out.AnswerCachePort;
+import com.contextoia.chatinteraction.application.port.out.ChatHistoryPort;
+import com.contextoia.chatinteraction.application.port.out.ChatModelPort;
+import com.contextoia.chatinteraction.application.port.out.RagQueryPort;
+import com.contextoia.chatinteraction.domain.model.CachedAnswer;
+import com.contextoia.chatinteraction.domain.model.ChatMessage;
+import com.contextoia.chatinteraction.domain.model.ContextPassage;
+import com.contextoia.chatinteraction.domain.model.ConversationContext;
+import com.contextoia.chatinteraction.domain.service.ContextAssembler;
+import com.contextoia.chatinteraction.domain.service.RagDomainService;
+import com.contextoia.chatinteraction.domain.service.TokenEstimator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChatServiceTest {
+
+    private static final UUID SESSION_ID = UUID.randomUUID();
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final String QUESTION = "Qual o prazo de entrega?";
+    private static final float[] EMBEDDING = {0.1f, 0.2f};
+    private static final ContextPassage PASSAGE = new ContextPassage(
+            UUID.randomUUID(), "contrato.pdf", 0, 0, 3, 3, "O prazo de entrega é de trinta dias.", 0.9f);
+
+    private final RagQueryPort ragQueryPort = mock(RagQueryPort.class);
+    private final ChatModelPort chatModelPort = mock(ChatModelPort.class);
+    private final AnswerCachePort answerCachePort = mock(AnswerCachePort.class);
+    private final SessionMemoryService sessionMemoryService = mock(SessionMemoryService.class);
+    private final RecordingChatHistory history = new RecordingChatHistory();
+    private final RecordingListener listener = new RecordingListener();
+    private final TokenEstimator tokenEstimator = new TokenEstimator();
+    private final RagDomainService ragDomainService = new RagDomainService(
+            new ContextAssembler(tokenEstimator, 1000, 0.5, 0.9), tokenEstimator);
+    private final ChatService service = new ChatService(ragQueryPort, chatModelPort, answerCachePort, history,
+            sessionMemoryService, ragDomainService, 20, new SimpleMeterRegistry());
+
+    private final AnswerLookup miss = new AnswerLookup(USER_ID, EMBEDDING, 1, null);
+
+    @BeforeEach
+    void setUp() {
+        when(sessionMemoryService.load(SESSION_ID, USER_ID)).thenReturn(ConversationContext.empty());
+        when(ragQueryPort.embedQuestion(QUESTION)).thenReturn(EMBEDDING);
+    }
+
+    @Test
+    void cachedAnswerIsReplayedWithoutSearchOrModelCall() {
+        CachedAnswer cached = new CachedAnswer("Trinta dias [1].", List.of(PASSAGE));
+        when(answerCachePort.lookup(USER_ID, EMBEDDING)).thenReturn(new AnswerLookup(USER_ID, EMBEDDING, 1, cached));
+
+        service.execute(command(), listener);
+
+        assertThat(listener.events).containsExactly(
+                "sources:contrato.pdf", "token:Trinta dias [1].", "complete:Trinta dias [1].");
+        verify(ragQueryPort, never()).findRelevantPassages(any(), any(), anyInt());
+        verify(chatModelPort, never()).streamAnswer(any(), any());
+        verify(answerCachePort, never()).store(any(), any());
+        assertThat(history.contents()).containsExactly("USER:" + QUESTION, "ASSISTANT:Trinta dias [1].");
+        verify(sessionMemoryService).compactAsync(SESSION_ID, USER_ID);
+    }
+
+    @Test
+    void questionWithoutMatchingPassagesGetsTheFixedAnswerWithoutAModelCall() {
+        when(answerCachePort.lookup(USER_ID, EMBEDDING)).thenReturn(miss);
+        when(ragQueryPort.findRelevantPassages(EMBEDDING, USER_ID, 20)).thenReturn(List.of());
+
+        service.execute(command(), listener);
+
+        assertThat(listener.events).containsExactly(
+                "sources:", "complete:" + ChatService.NO_CONTEXT_ANSWER);
+        verify(chatModelPort, never()).streamAnswer(any(), any());
+        verify(answerCachePort, never()).store(any(), any());
+        assertThat(history.contents()).containsExactly("USER:" + QUESTION, "ASSISTANT:" + ChatService.NO_CONTEXT_ANSWER);
+    }
+
+    @Test
+    void generatedAnswerIsStreamedCachedAndAppended() {
+        when(answerCachePort.lookup(USER_ID, EMBEDDING)).thenReturn(miss);
+        when(ragQueryPort.findRelevantPassages(EMBEDDING, USER_ID, 20)).thenReturn(List.of(PASSAGE));
+        doAnswer(invocation -> {
+            ChatModelPort.AnswerStreamHandler handler = invocation.getArgument(1);
+            handler.onToken("Trinta ");
+            handler.onToken("dias [1].");
+            handler.onComplete("Trinta dias [1].");
+            return null;
+        }).when(chatModelPort).streamAnswer(any(), any());
+
+        service.execute(command(), listener);
+
+        assertThat(listener.events).containsExactly(
+                "sources:contrato.pdf", "token:Trinta ", "token:dias [1].", "complete:Trinta dias [1].");
+        verify(answerCachePort).store(miss, new CachedAnswer("Trinta dias [1].", List.of(PASSAGE)));
+        assertThat(history.contents()).containsExactly("USER:" + QUESTION, "ASSISTANT:Trinta dias [1].");
+        verify(sessionMemoryService).compactAsync(SESSION_ID, USER_ID);
+    }
+
+    @Test
+    void modelErrorIsReportedAndNothingIsCachedOrAppended() {
+        when(answerCachePort.lookup(USER_ID, EMBEDDING)).thenReturn(miss);
+        when(ragQueryPort.findRelevantPassages(EMBEDDING, USER_ID, 20)).thenReturn(List.of(PASSAGE));
+        doAnswer(invocation -> {
+            invocation.<ChatModelPort.AnswerStreamHandler>getArgument(1)
+                    .onError(new IllegalStateException("cota excedida"));
+            return null;
+        }).when(chatModelPort).streamAnswer(any(), any());
+
+        service.execute(command(), listener);
+
+        assertThat(listener.events).containsExactly("sources:contrato.pdf", "error:" + ChatService.MODEL_ERROR_MESSAGE);
+        verify(answerCachePort, never()).store(any(), any());
+        assertThat(history.contents()).containsExactly("USER:" + QUESTION);
+        verify(sessionMemoryService, never()).compactAsync(any(), any());
+    }
+
+    @Test
+    void followUpQuestionIsNeitherLookedUpNorCached() {
+        ChatMessage earlier = ChatMessage.user(SESSION_ID, USER_ID, "Quem são as partes?");
+        when(sessionMemoryService.load(SESSION_ID, USER_ID)).thenReturn(new ConversationContext(null, List.of(earlier)));
+        when(ragQueryPort.findRelevantPassages(EMBEDDING, USER_ID, 20)).thenReturn(List.of(PASSAGE));
+        doAnswer(invocation -> {
+            invocation.<ChatModelPort.AnswerStreamHandler>getArgument(1).onComplete("Trinta dias [1].");
+            return null;
+        }).when(chatModelPort).streamAnswer(any(), any());
+
+        service.execute(command(), listener);
+
+        verify(answerCachePort, never()).lookup(any(), any());
+        verify(answerCachePort, never()).store(any(), any());
+        assertThat(listener.events).last().isEqualTo("complete:Trinta dias [1].");
+    }
+
+    private static SendMessageCommand command() {
+        return new SendMessageCommand(USER_ID, SESSION_ID, QUESTION);
+    }
+
+    private static final class RecordingChatHistory implements ChatHistoryPort {
+
+        private final List<ChatMessage> messages = new ArrayList<>();
+
+        @Override
+        public void append(ChatMessage message) {
+            messages.add(message);
+        }
+
+        @Override
+        public List<ChatMessage> findRecent(UUID sessionId, UUID userId, ChatHistoryCursor before, int limit) {
+            return List.of();
+        }
+
+        @Override
+        public List<ChatMessage> findOldest(UUID sessionId, UUID userId, ChatHistoryCursor after, int limit) {
+            return List.of();
+        }
+
+        private List<String> contents() {
+            assertThat(messages).allSatisfy(message -> {
+                assertThat(message.sessionId()).isEqualTo(SESSION_ID);
+                assertThat(message.userId()).isEqualTo(USER_ID);
+            });
+            return messages.stream()
+                    .map(message -> message.role() + ":" + message.content())
+                    .toList();
+        }
+    }
+
+    /**
+     * Records what the listener was sent, in order, as {@code kind:content}.
+     */
+    private static final class RecordingListener implements ChatResponseListener {
+
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onSources(List<ContextPassage> passages) {
+            events.add("sources:" + String.join(",", passages.stream().map(ContextPassage::fileName).toList()));
+        }
+
+        @Override
+        public void onToken(String token) {
+            events.add("token:" + token);
+        }
+
+        @Override
+        public void onComplete(ChatMessage answer) {
+            events.add("complete:" + answer.content());
+        }
+
+        @Override
+        public void onError(String message) {
+            events.add("error:" + message);
+        }
+    }
+}
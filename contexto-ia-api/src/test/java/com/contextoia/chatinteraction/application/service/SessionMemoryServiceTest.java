@@ -0,0 +1,208 @@
+package com.contextoia.chatinteraction.application.service;
+
+import com.contextoia.chatinteraction.application.dto.ChatHistoryCursor;
+import com.contextoia.chatinteraction.application.port.out.ChatHistoryPort;
+import com.contextoia.chatinteraction.application.port.out.ChatModelPort;
+import com.contextoia.chatinteraction.application.port.out.ChatSummaryPort;
+import com.contextoia.chatinteraction.domain.model.ChatMessage;
+import com.contextoia.chatinteraction.domain.model.ChatPrompt;
+import com.contextoia.chatinteraction.domain.model.SessionSummary;
+import com.contextoia.chatinteraction.domain.service.ConversationSummarizer;
+import com.contextoia.chatinteraction.domain.service.TokenEstimator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class SessionMemoryServiceTest {
+
+    private static final UUID SESSION_ID = UUID.randomUUID();
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final Instant START = Instant.parse("2026-10-17T12:00:00Z");
+
+    private final InMemoryChatHistory history = new InMemoryChatHistory();
+    private final InMemoryChatSummaries summaries = new InMemoryChatSummaries();
+    private final ChatModelPort chatModelPort = mock(ChatModelPort.class);
+    private final AtomicInteger generatedSummaries = new AtomicInteger();
+    private SessionMemoryService service;
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void oldMessagesAreFoldedOnceEnoughLeftTheVerbatimWindow() {
+        service = service(2, 2, 10);
+        List<ChatMessage> messages = messages(5);
+
+        service.compactAsync(SESSION_ID, USER_ID);
+
+        SessionSummary summary = awaitSummaryUntil(messages.get(2));
+        assertThat(summary.content()).isEqualTo("resumo 1");
+        assertThat(prompts(1).get(0).userMessage())
+                .contains("mensagem 1", "mensagem 2", "mensagem 3")
+                .doesNotContain("mensagem 4", "mensagem 5");
+    }
+
+    @Test
+    void backlogLargerThanOneCompactionIsFoldedOldestFirstUntilCaughtUp() {
+        service = service(2, 2, 3);
+        List<ChatMessage> messages = messages(12);
+        summaries.current = summaryUntil(messages.get(0), "resumo 0");
+
+        service.compactAsync(SESSION_ID, USER_ID);
+
+        SessionSummary summary = awaitSummaryUntil(messages.get(9));
+        assertThat(summary.content()).isEqualTo("resumo 3");
+        List<ChatPrompt> prompts = prompts(3);
+        assertThat(prompts.get(0).userMessage())
+                .contains("resumo 0", "mensagem 2\n", "mensagem 3\n", "mensagem 4\n")
+                .doesNotContain("mensagem 1\n", "mensagem 5\n");
+        assertThat(prompts.get(1).userMessage())
+                .contains("resumo 1", "mensagem 5\n", "mensagem 6\n", "mensagem 7\n");
+        assertThat(prompts.get(2).userMessage())
+                .contains("resumo 2", "mensagem 8\n", "mensagem 9\n", "mensagem 10\n")
+                .doesNotContain("mensagem 11\n", "mensagem 12\n");
+    }
+
+    @Test
+    void nothingIsFoldedUntilEnoughMessagesLeftTheWindow() {
+        service = service(2, 2, 10);
+        List<ChatMessage> messages = messages(5);
+        summaries.current = summaryUntil(messages.get(1), "resumo 0");
+
+        service.compactAsync(SESSION_ID, USER_ID);
+
+        verify(chatModelPort, after(300).never()).streamAnswer(any(), any());
+        assertThat(summaries.current.summarizedUntilId()).isEqualTo(messages.get(1).id());
+    }
+
+    @Test
+    void compactionStopsWhenAnotherOneReplacedTheSummary() {
+        service = service(2, 2, 3);
+        List<ChatMessage> messages = messages(12);
+        summaries.rejectSaves = true;
+
+        service.compactAsync(SESSION_ID, USER_ID);
+
+        verify(chatModelPort, after(300).times(1)).streamAnswer(any(), any());
+        assertThat(summaries.current).isNull();
+    }
+
+    private SessionMemoryService service(int recentTurns, int compactAfter, int maxCompactedTurns) {
+        doAnswer(invocation -> {
+            invocation.<ChatModelPort.AnswerStreamHandler>getArgument(1)
+                    .onComplete("resumo " + generatedSummaries.incrementAndGet());
+            return null;
+        }).when(chatModelPort).streamAnswer(any(), any());
+        return new SessionMemoryService(history, summaries, chatModelPort,
+                new ConversationSummarizer(new TokenEstimator(), 300),
+                recentTurns, compactAfter, maxCompactedTurns, Duration.ofSeconds(5), 1, new SimpleMeterRegistry());
+    }
+
+    private List<ChatMessage> messages(int count) {
+        IntStream.rangeClosed(1, count).forEach(i -> history.messages.add(new ChatMessage(
+                UUID.randomUUID(), SESSION_ID, USER_ID, i % 2 == 1 ? ChatMessage.Role.USER : ChatMessage.Role.ASSISTANT,
+                "mensagem " + i, START.plusSeconds(i))));
+        return List.copyOf(history.messages);
+    }
+
+    private List<ChatPrompt> prompts(int count) {
+        ArgumentCaptor<ChatPrompt> prompts = ArgumentCaptor.forClass(ChatPrompt.class);
+        verify(chatModelPort, times(count)).streamAnswer(prompts.capture(), any());
+        return prompts.getAllValues();
+    }
+
+    private SessionSummary awaitSummaryUntil(ChatMessage message) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            SessionSummary summary = summaries.current;
+            if (summary != null && summary.summarizedUntilId().equals(message.id())) {
+                return summary;
+            }
+            Thread.onSpinWait();
+        }
+        throw new AssertionError("Resumo não alcançou " + message.content() + ": " + summaries.current);
+    }
+
+    private static SessionSummary summaryUntil(ChatMessage message, String content) {
+        return new SessionSummary(SESSION_ID, USER_ID, content, message.createdAt(), message.id());
+    }
+
+    private static final class InMemoryChatHistory implements ChatHistoryPort {
+
+        private static final Comparator<ChatMessage> CHRONOLOGICAL = Comparator
+                .comparing(ChatMessage::createdAt)
+                .thenComparing(ChatMessage::id);
+
+        private final List<ChatMessage> messages = new ArrayList<>();
+
+        @Override
+        public void append(ChatMessage message) {
+            messages.add(message);
+        }
+
+        @Override
+        public List<ChatMessage> findRecent(UUID sessionId, UUID userId, ChatHistoryCursor before, int limit) {
+            return messages.stream()
+                    .filter(message -> before == null || compare(message, before) < 0)
+                    .sorted(CHRONOLOGICAL.reversed())
+                    .limit(limit)
+                    .toList();
+        }
+
+        @Override
+        public List<ChatMessage> findOldest(UUID sessionId, UUID userId, ChatHistoryCursor after, int limit) {
+            return messages.stream()
+                    .filter(message -> after == null || compare(message, after) > 0)
+                    .sorted(CHRONOLOGICAL)
+                    .limit(limit)
+                    .toList();
+        }
+
+        private static int compare(ChatMessage message, ChatHistoryCursor cursor) {
+            int byTime = message.createdAt().compareTo(cursor.createdAt());
+            return byTime != 0 ? byTime : message.id().compareTo(cursor.id());
+        }
+    }
+
+    private static final class InMemoryChatSummaries implements ChatSummaryPort {
+
+        private volatile SessionSummary current;
+        private volatile boolean rejectSaves;
+
+        @Override
+        public Optional<SessionSummary> find(UUID sessionId, UUID userId) {
+            return Optional.ofNullable(current);
+        }
+
+        @Override
+        public synchronized boolean save(SessionSummary summary, SessionSummary previous) {
+            if (rejectSaves || current != previous) {
+                return false;
+            }
+            current = summary;
+            return true;
+        }
+    }
+}
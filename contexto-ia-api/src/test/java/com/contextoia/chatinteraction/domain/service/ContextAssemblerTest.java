@@ -0,0 +1,134 @@
+package com.contextoia.chatinteraction.domain.service;
+
+import com.contextoia.chatinteraction.domain.model.ContextPassage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContextAssemblerTest {
+
+    private static final UUID CONTRACT = UUID.randomUUID();
+    private static final UUID POLICY = UUID.randomUUID();
+    private static final UUID MANUAL = UUID.randomUUID();
+
+    private final TokenEstimator tokenEstimator = new TokenEstimator();
+
+    @Test
+    void nearDuplicateOfAMoreRelevantPassageIsDropped() {
+        ContextPassage original = passage(CONTRACT, 0, "O prazo de entrega é de trinta dias.", 0.9f);
+        ContextPassage copy = passage(POLICY, 3, "o prazo de entrega é de trinta dias", 0.8f);
+        ContextPassage other = passage(MANUAL, 1, "A multa por atraso é de cinco por cento.", 0.5f);
+
+        List<ContextPassage> context = assembler(1000, 0.5).assemble(List.of(copy, other, original));
+
+        assertThat(context).containsExactly(original, other);
+    }
+
+    @Test
+    void redundantPassageYieldsToADiverseOneWhenRelevanceIsBalanced() {
+        ContextPassage deadline = passage(CONTRACT, 0, "prazo de entrega do contrato trinta dias uteis", 0.9f);
+        ContextPassage restated = passage(POLICY, 0, "prazo de entrega do contrato trinta dias uteis corridos", 0.85f);
+        ContextPassage penalty = passage(MANUAL, 0, "multa por atraso cinco por cento", 0.6f);
+        List<ContextPassage> passages = List.of(deadline, restated, penalty);
+
+        assertThat(assembler(1000, 0.5).assemble(passages)).containsExactly(deadline, penalty, restated);
+        assertThat(assembler(1000, 1).assemble(passages)).containsExactly(deadline, restated, penalty);
+    }
+
+    @Test
+    void passagesThatDoNotFitTheBudgetAreSkippedForSmallerOnes() {
+        ContextPassage best = passage(CONTRACT, 0, words("a", 20), 0.9f);
+        ContextPassage tooLarge = passage(POLICY, 0, words("b", 20), 0.8f);
+        ContextPassage small = passage(MANUAL, 0, words("c", 4), 0.5f);
+        int budget = tokens(best) + tokens(small);
+
+        List<ContextPassage> context = assembler(budget, 0.5).assemble(List.of(best, tooLarge, small));
+
+        assertThat(tokens(best) + tokens(tooLarge)).isGreaterThan(budget);
+        assertThat(context).containsExactly(best, small);
+    }
+
+    @Test
+    void mostRelevantPassageIsKeptEvenIfItExceedsTheBudget() {
+        ContextPassage best = passage(CONTRACT, 0, words("a", 20), 0.9f);
+        ContextPassage small = passage(POLICY, 0, words("b", 1), 0.5f);
+
+        List<ContextPassage> context = assembler(10, 0.5).assemble(List.of(small, best));
+
+        assertThat(context).containsExactly(best);
+    }
+
+    @Test
+    void adjacentChunksOfADocumentAreMergedInPlaceOfTheEarliestSelected() {
+        ContextPassage start = new ContextPassage(CONTRACT, "contrato.pdf", 4, 4, 2, 2,
+                "O contrato entra em vigor quando as partes assinam o acordo", 0.9f);
+        ContextPassage continuation = new ContextPassage(CONTRACT, "contrato.pdf", 5, 5, 2, 3,
+                "as partes assinam o acordo e vale por dois anos", 0.7f);
+        ContextPassage other = passage(MANUAL, 0, "A multa por atraso é de cinco por cento.", 0.8f);
+
+        List<ContextPassage> context = assembler(1000, 1).assemble(List.of(continuation, other, start));
+
+        assertThat(context).containsExactly(
+                new ContextPassage(CONTRACT, "contrato.pdf", 4, 5, 2, 3,
+                        "O contrato entra em vigor quando as partes assinam o acordo e vale por dois anos", 0.9f),
+                other);
+    }
+
+    @Test
+    void chunksWithAGapBetweenThemAreNotMerged() {
+        ContextPassage first = passage(CONTRACT, 4, "cláusula primeira trata do objeto", 0.9f);
+        ContextPassage third = passage(CONTRACT, 6, "cláusula terceira trata do pagamento", 0.8f);
+
+        assertThat(assembler(1000, 1).assemble(List.of(first, third))).containsExactly(first, third);
+    }
+
+    @Test
+    void joinOverlappingSkipsTheSharedText() {
+        assertThat(ContextAssembler.joinOverlapping(
+                "Rescisão com aviso prévio de trinta dias",
+                "aviso prévio de trinta dias, por escrito"))
+                .isEqualTo("Rescisão com aviso prévio de trinta dias, por escrito");
+    }
+
+    @Test
+    void joinOverlappingKeepsShortCoincidencesAndSeparatesTheTexts() {
+        assertThat(ContextAssembler.joinOverlapping("termina em dias", "dias de carência"))
+                .isEqualTo("termina em dias\ndias de carência");
+        assertThat(ContextAssembler.joinOverlapping("primeira parte", "segunda parte"))
+                .isEqualTo("primeira parte\nsegunda parte");
+    }
+
+    @Test
+    void invalidSettingsAreRejected() {
+        assertThatThrownBy(() -> new ContextAssembler(tokenEstimator, 0, 0.5, 0.9))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ContextAssembler(tokenEstimator, 100, 1.5, 0.9))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ContextAssembler(tokenEstimator, 100, 0.5, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ContextAssembler assembler(int maxTokens, double relevanceWeight) {
+        return new ContextAssembler(tokenEstimator, maxTokens, relevanceWeight, 0.9);
+    }
+
+    private int tokens(ContextPassage passage) {
+        return tokenEstimator.estimate(passage.content()) + ContextAssembler.PASSAGE_OVERHEAD_TOKENS;
+    }
+
+    private static ContextPassage passage(UUID documentId, int chunk, String content, float similarity) {
+        return new ContextPassage(documentId, documentId + ".pdf", chunk, chunk, 1, 1, content, similarity);
+    }
+
+    private static String words(String prefix, int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> prefix + i)
+                .collect(Collectors.joining(" "));
+    }
+}
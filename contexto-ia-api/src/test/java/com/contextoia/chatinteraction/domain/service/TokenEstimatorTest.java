@@ -0,0 +1,41 @@
+package com.contextoia.chatinteraction.domain.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenEstimatorTest {
+
+    private final TokenEstimator estimator = new TokenEstimator();
+
+    @Test
+    void emptyAndBlankTextsTakeNoTokens() {
+        assertThat(estimator.estimate("")).isZero();
+        assertThat(estimator.estimate(" \n\t ")).isZero();
+    }
+
+    @Test
+    void wordsTakeOneTokenPerFourCharactersRoundedUp() {
+        assertThat(estimator.estimate("casa")).isEqualTo(1);
+        assertThat(estimator.estimate("prazo")).isEqualTo(2);
+        assertThat(estimator.estimate("responsabilidade")).isEqualTo(4);
+        assertThat(estimator.estimate("2024")).isEqualTo(1);
+    }
+
+    @Test
+    void accentedLettersArePartOfTheWord() {
+        assertThat(estimator.estimate("não")).isEqualTo(1);
+        assertThat(estimator.estimate("informação")).isEqualTo(3);
+    }
+
+    @Test
+    void punctuationCountsAsOneTokenPerCharacterAndWhitespaceAsNone() {
+        assertThat(estimator.estimate("olá, mundo!")).isEqualTo(5);
+        assertThat(estimator.estimate("R$ 1.500,00")).isEqualTo(7);
+    }
+
+    @Test
+    void acceptsAnyCharSequence() {
+        assertThat(estimator.estimate(new StringBuilder("cláusula quinta"))).isEqualTo(4);
+    }
+}
@@ -0,0 +1,207 @@
+package com.contextoia.chatinteraction.infrastructure.adapter.cache;
+
+import com.contextoia.chatinteraction.application.dto.AnswerLookup;
+import com.contextoia.chatinteraction.domain.model.CachedAnswer;
+import com.contextoia.documentingestion.application.event.DocumentProcessedEvent;
+import com.contextoia.documentingestion.application.port.out.DocumentRepositoryPort;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InMemorySemanticAnswerCacheTest {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final UUID OTHER_USER_ID = UUID.randomUUID();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DocumentRepositoryPort documentRepository = mock(DocumentRepositoryPort.class);
+
+    @Test
+    void similarQuestionGetsTheCachedAnswer() {
+        InMemorySemanticAnswerCache cache = cache(10, 10, Duration.ofHours(1));
+        cache.store(cache.lookup(USER_ID, axis(0)), answer("prazo"));
+
+        AnswerLookup similar = cache.lookup(USER_ID, new float[]{10, 1, 0, 0});
+        AnswerLookup different = cache.lookup(USER_ID, axis(1));
+
+        assertThat(similar.hit()).isEqualTo(answer("prazo"));
+        assertThat(different.isHit()).isFalse();
+        assertThat(requests("hit")).isEqualTo(1);
+        assertThat(requests("miss")).isEqualTo(2);
+    }
+
+    @Test
+    void answersAreNotSharedBetweenUsers() {
+        InMemorySemanticAnswerCache cache = cache(10, 10, Duration.ofHours(1));
+        cache.store(cache.lookup(USER_ID, axis(0)), answer("prazo"));
+
+        assertThat(cache.lookup(OTHER_USER_ID, axis(0)).isHit()).isFalse();
+    }
+
+    @Test
+    void answerGeneratedBeforeADocumentWasProcessedIsNotStored() {
+        InMemorySemanticAnswerCache cache = cache(10, 10, Duration.ofHours(1));
+        AnswerLookup stale = cache.lookup(USER_ID, axis(0));
+
+        cache.onDocumentProcessed(new DocumentProcessedEvent(UUID.randomUUID(), USER_ID, "novo.pdf"));
+        cache.store(stale, answer("desatualizada"));
+
+        assertThat(cache.lookup(USER_ID, axis(0)).isHit()).isFalse();
+    }
+
+    @Test
+    void processedDocumentDropsTheUsersAnswersAndLaterAnswersAreStored() {
+        InMemorySemanticAnswerCache cache = cache(10, 10, Duration.ofHours(1));
+        cache.store(cache.lookup(USER_ID, axis(0)), answer("antiga"));
+        cache.store(cache.lookup(OTHER_USER_ID, axis(0)), answer("outro usuário"));
+
+        cache.invalidate(USER_ID);
+        AnswerLookup fresh = cache.lookup(USER_ID, axis(0));
+        cache.store(fresh, answer("nova"));
+
+        assertThat(fresh.isHit()).isFalse();
+        assertThat(cache.lookup(USER_ID, axis(0)).hit()).isEqualTo(answer("nova"));
+        assertThat(cache.lookup(OTHER_USER_ID, axis(0)).hit()).isEqualTo(answer("outro usuário"));
+    }
+
+    @Test
+    void documentCompletedOnAnotherInstanceDropsTheUsersAnswersAtTheNextLookup() {
+        LocalDateTime completedAt = LocalDateTime.parse("2026-10-17T12:00:00");
+        when(documentRepository.findLatestCompletedChange(USER_ID)).thenReturn(Optional.of(completedAt));
+        InMemorySemanticAnswerCache cache = cache(10, 10, Duration.ofHours(1));
+        cache.store(cache.lookup(USER_ID, axis(0)), answer("antiga"));
+        AnswerLookup stale = cache.lookup(USER_ID, axis(1));
+        assertThat(cache.lookup(USER_ID, axis(0)).hit()).isEqualTo(answer("antiga"));
+
+        when(documentRepository.findLatestCompletedChange(USER_ID))
+                .thenReturn(Optional.of(completedAt.plusSeconds(1)));
+        AnswerLookup fresh = cache.lookup(USER_ID, axis(0));
+        cache.store(stale, answer("desatualizada"));
+        cache.store(fresh, answer("nova"));
+
+        assertThat(fresh.isHit()).isFalse();
+        assertThat(cache.lookup(USER_ID, axis(1)).isHit()).isFalse();
+        assertThat(cache.lookup(USER_ID, axis(0)).hit()).isEqualTo(answer("nova"));
+    }
+
+    @Test
+    void lookupWithoutTheDocumentStateIsAMissThatIsNotStored() {
+        when(documentRepository.findLatestCompletedChange(USER_ID))
+                .thenThrow(new IllegalStateException("banco indisponível"))
+                .thenReturn(Optional.empty());
+        InMemorySemanticAnswerCache cache = cache(10, 10, Duration.ofHours(1));
+
+        cache.store(cache.lookup(USER_ID, axis(0)), answer("prazo"));
+
+        assertThat(cache.lookup(USER_ID, axis(0)).isHit()).isFalse();
+        assertThat(requests("miss")).isEqualTo(2);
+    }
+
+    @Test
+    void answerLookedUpBeforeTheUserWasEvictedIsNotStored() {
+        InMemorySemanticAnswerCache cache = cache(10, 1, Duration.ofHours(1));
+        AnswerLookup stale = cache.lookup(USER_ID, axis(0));
+
+        cache.lookup(OTHER_USER_ID, axis(0));
+        cache.lookup(USER_ID, axis(1));
+        cache.store(stale, answer("desatualizada"));
+
+        assertThat(cache.lookup(USER_ID, axis(0)).isHit()).isFalse();
+    }
+
+    @Test
+    void expiredAnswersAreNotReturned() throws InterruptedException {
+        InMemorySemanticAnswerCache cache = cache(10, 10, Duration.ofMillis(20));
+        cache.store(cache.lookup(USER_ID, axis(0)), answer("prazo"));
+
+        Thread.sleep(50);
+
+        assertThat(cache.lookup(USER_ID, axis(0)).isHit()).isFalse();
+        assertThat(cacheSize()).isZero();
+    }
+
+    @Test
+    void leastRecentlyUsedAnswerOfAUserIsEvicted() {
+        InMemorySemanticAnswerCache cache = cache(2, 10, Duration.ofHours(1));
+        cache.store(cache.lookup(USER_ID, axis(0)), answer("a"));
+        cache.store(cache.lookup(USER_ID, axis(1)), answer("b"));
+        cache.lookup(USER_ID, axis(0));
+
+        cache.store(cache.lookup(USER_ID, axis(2)), answer("c"));
+
+        assertThat(cache.lookup(USER_ID, axis(0)).hit()).isEqualTo(answer("a"));
+        assertThat(cache.lookup(USER_ID, axis(1)).isHit()).isFalse();
+        assertThat(cache.lookup(USER_ID, axis(2)).hit()).isEqualTo(answer("c"));
+        assertThat(cacheSize()).isEqualTo(2);
+    }
+
+    @Test
+    void leastRecentlyUsedUserIsEvicted() {
+        UUID thirdUserId = UUID.randomUUID();
+        InMemorySemanticAnswerCache cache = cache(10, 2, Duration.ofHours(1));
+        cache.store(cache.lookup(USER_ID, axis(0)), answer("a"));
+        cache.store(cache.lookup(OTHER_USER_ID, axis(0)), answer("b"));
+        cache.lookup(USER_ID, axis(1));
+
+        cache.store(cache.lookup(thirdUserId, axis(0)), answer("c"));
+
+        assertThat(cache.lookup(USER_ID, axis(0)).hit()).isEqualTo(answer("a"));
+        assertThat(cache.lookup(thirdUserId, axis(0)).hit()).isEqualTo(answer("c"));
+        assertThat(cache.lookup(OTHER_USER_ID, axis(0)).isHit()).isFalse();
+    }
+
+    @Test
+    void disabledCacheNeverAnswers() {
+        InMemorySemanticAnswerCache cache = new InMemorySemanticAnswerCache(
+                documentRepository, false, 0.95f, 10, 10, Duration.ofHours(1), meterRegistry);
+
+        cache.store(cache.lookup(USER_ID, axis(0)), answer("prazo"));
+
+        assertThat(cache.lookup(USER_ID, axis(0)).isHit()).isFalse();
+        assertThat(requests("miss")).isZero();
+    }
+
+    @Test
+    void invalidSettingsAreRejected() {
+        assertThatThrownBy(() -> new InMemorySemanticAnswerCache(
+                documentRepository, true, 1.5f, 10, 10, Duration.ofHours(1), meterRegistry))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new InMemorySemanticAnswerCache(
+                documentRepository, true, 0.95f, 0, 10, Duration.ofHours(1), meterRegistry))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private InMemorySemanticAnswerCache cache(int maxEntriesPerUser, int maxUsers, Duration ttl) {
+        return new InMemorySemanticAnswerCache(
+                documentRepository, true, 0.95f, maxEntriesPerUser, maxUsers, ttl, meterRegistry);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("chat.answer.cache.requests").tag("result", result).counter().count();
+    }
+
+    private double cacheSize() {
+        return meterRegistry.get("chat.answer.cache.size").gauge().value();
+    }
+
+    private static float[] axis(int dimension) {
+        float[] vector = new float[4];
+        vector[dimension] = 1;
+        return vector;
+    }
+
+    private static CachedAnswer answer(String text) {
+        return new CachedAnswer(text, List.of());
+    }
+}
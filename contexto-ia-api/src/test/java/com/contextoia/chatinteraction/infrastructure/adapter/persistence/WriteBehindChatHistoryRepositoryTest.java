@@ -0,0 +1,226 @@
+package com.contextoia.chatinteraction.infrastructure.adapter.persistence;
+
+import com.contextoia.chatinteraction.application.dto.ChatHistoryCursor;
+import com.contextoia.chatinteraction.domain.model.ChatMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WriteBehindChatHistoryRepositoryTest {
+
+    private static final UUID SESSION_ID = UUID.randomUUID();
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final Instant NOW = Instant.parse("2026-10-17T12:00:00Z");
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final NamedParameterJdbcTemplate namedJdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final WriteBehindChatHistoryRepository repository = new WriteBehindChatHistoryRepository(
+            jdbcTemplate, namedJdbcTemplate, 2, Duration.ofHours(1), 4, new SimpleMeterRegistry());
+    private final WriteBehindChatHistoryRepository largeBatchRepository = new WriteBehindChatHistoryRepository(
+            jdbcTemplate, namedJdbcTemplate, 10, Duration.ofHours(1), 20, new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        for (WriteBehindChatHistoryRepository started : List.of(repository, largeBatchRepository)) {
+            if (started.isRunning()) {
+                started.stop();
+            }
+        }
+    }
+
+    @Test
+    void appendedMessagesAreWrittenInOneStatementOnceABatchIsWaiting() throws SQLException {
+        repository.start();
+        ChatMessage question = message(SESSION_ID, USER_ID, 1);
+        ChatMessage answer = message(SESSION_ID, USER_ID, 2);
+
+        repository.append(question);
+        verify(jdbcTemplate, never()).update(anyString(), any(PreparedStatementSetter.class));
+        repository.append(answer);
+
+        verify(jdbcTemplate, timeout(5000)).update(anyString(), any(PreparedStatementSetter.class));
+        assertThat(insertedIds()).containsExactly(List.of(question.id(), answer.id()));
+    }
+
+    @Test
+    void failedBatchStaysVisibleAndIsWrittenAgain() throws SQLException {
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("conexão recusada"))
+                .thenReturn(2);
+        storedRows(List.of());
+        repository.start();
+        ChatMessage question = message(SESSION_ID, USER_ID, 1);
+        ChatMessage answer = message(SESSION_ID, USER_ID, 2);
+
+        repository.append(question);
+        repository.append(answer);
+        verify(jdbcTemplate, timeout(5000)).update(anyString(), any(PreparedStatementSetter.class));
+
+        assertThat(repository.findRecent(SESSION_ID, USER_ID, null, 10)).containsExactly(answer, question);
+
+        repository.stop();
+
+        verify(jdbcTemplate, times(2)).update(contains("ON CONFLICT (id) DO NOTHING"), any(PreparedStatementSetter.class));
+        List<UUID> batch = List.of(question.id(), answer.id());
+        assertThat(insertedIds()).containsExactly(batch, batch);
+    }
+
+    @Test
+    void bufferedMessagesAreMergedWithStoredRowsNewestFirst() {
+        ChatMessage first = message(SESSION_ID, USER_ID, 1);
+        ChatMessage second = message(SESSION_ID, USER_ID, 2);
+        ChatMessage third = message(SESSION_ID, USER_ID, 3);
+        storedRows(List.of(second, first));
+        largeBatchRepository.start();
+
+        largeBatchRepository.append(second);
+        largeBatchRepository.append(third);
+
+        assertThat(largeBatchRepository.findRecent(SESSION_ID, USER_ID, null, 10)).containsExactly(third, second, first);
+        assertThat(largeBatchRepository.findRecent(SESSION_ID, USER_ID, null, 2)).containsExactly(third, second);
+    }
+
+    @Test
+    void bufferedMessagesOfOtherSessionsOrUsersAreNotReturned() {
+        storedRows(List.of());
+        largeBatchRepository.start();
+        ChatMessage own = message(SESSION_ID, USER_ID, 1);
+
+        largeBatchRepository.append(own);
+        largeBatchRepository.append(message(UUID.randomUUID(), USER_ID, 2));
+        largeBatchRepository.append(message(SESSION_ID, UUID.randomUUID(), 3));
+
+        assertThat(largeBatchRepository.findRecent(SESSION_ID, USER_ID, null, 10)).containsExactly(own);
+    }
+
+    @Test
+    void bufferedMessagesFromTheCursorOnAreNotReturned() {
+        ChatMessage first = message(SESSION_ID, USER_ID, 1);
+        ChatMessage second = message(SESSION_ID, USER_ID, 2);
+        storedRows(List.of());
+        largeBatchRepository.start();
+
+        largeBatchRepository.append(first);
+        largeBatchRepository.append(second);
+
+        ChatHistoryCursor cursor = new ChatHistoryCursor(second.createdAt(), second.id());
+        assertThat(largeBatchRepository.findRecent(SESSION_ID, USER_ID, cursor, 10)).containsExactly(first);
+    }
+
+    @Test
+    void oldestMessagesAfterTheCursorIncludeBufferedOnesOldestFirst() {
+        ChatMessage first = message(SESSION_ID, USER_ID, 1);
+        ChatMessage second = message(SESSION_ID, USER_ID, 2);
+        ChatMessage third = message(SESSION_ID, USER_ID, 3);
+        storedRows(List.of(second));
+        largeBatchRepository.start();
+
+        largeBatchRepository.append(first);
+        largeBatchRepository.append(third);
+
+        ChatHistoryCursor cursor = new ChatHistoryCursor(first.createdAt(), first.id());
+        assertThat(largeBatchRepository.findOldest(SESSION_ID, USER_ID, cursor, 10)).containsExactly(second, third);
+        assertThat(largeBatchRepository.findOldest(SESSION_ID, USER_ID, null, 2)).containsExactly(first, second);
+    }
+
+    @Test
+    void messageFlushedWhileTheQueryRunsIsStillReturned() {
+        ChatMessage question = message(SESSION_ID, USER_ID, 1);
+        when(namedJdbcTemplate.query(anyString(), any(MapSqlParameterSource.class), any(RowMapper.class)))
+                .thenAnswer(invocation -> {
+                    largeBatchRepository.stop();
+                    return List.of();
+                });
+        largeBatchRepository.start();
+        largeBatchRepository.append(question);
+
+        List<ChatMessage> recent = largeBatchRepository.findRecent(SESSION_ID, USER_ID, null, 10);
+
+        verify(jdbcTemplate).update(anyString(), any(PreparedStatementSetter.class));
+        assertThat(recent).containsExactly(question);
+    }
+
+    @Test
+    void pageSizeIsCapped() {
+        storedRows(List.of());
+
+        repository.findRecent(SESSION_ID, USER_ID, null, 1000);
+
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(namedJdbcTemplate).query(anyString(), params.capture(), any(RowMapper.class));
+        assertThat(params.getValue().getValue("limit")).isEqualTo(100);
+    }
+
+    @Test
+    void messagesAreWrittenDirectlyWhenNotRunning() throws SQLException {
+        ChatMessage question = message(SESSION_ID, USER_ID, 1);
+
+        repository.append(question);
+
+        assertThat(insertedIds()).containsExactly(List.of(question.id()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void storedRows(List<ChatMessage> rows) {
+        when(namedJdbcTemplate.query(anyString(), any(MapSqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(rows);
+    }
+
+    /**
+     * The ids bound by each insert statement, in the order they were executed.
+     */
+    private List<List<UUID>> insertedIds() throws SQLException {
+        ArgumentCaptor<PreparedStatementSetter> setters = ArgumentCaptor.forClass(PreparedStatementSetter.class);
+        verify(jdbcTemplate, atLeastOnce()).update(anyString(), setters.capture());
+
+        List<List<UUID>> statements = new ArrayList<>();
+        for (PreparedStatementSetter setter : setters.getAllValues()) {
+            PreparedStatement ps = mock(PreparedStatement.class);
+            setter.setValues(ps);
+
+            ArgumentCaptor<Integer> indexes = ArgumentCaptor.forClass(Integer.class);
+            ArgumentCaptor<Object> values = ArgumentCaptor.forClass(Object.class);
+            verify(ps, atLeastOnce()).setObject(indexes.capture(), values.capture());
+            List<UUID> ids = new ArrayList<>();
+            for (int i = 0; i < indexes.getAllValues().size(); i++) {
+                if (indexes.getAllValues().get(i) % 6 == 1) {
+                    ids.add((UUID) values.getAllValues().get(i));
+                }
+            }
+            statements.add(ids);
+        }
+        return statements;
+    }
+
+    private static ChatMessage message(UUID sessionId, UUID userId, int second) {
+        return new ChatMessage(UUID.randomUUID(), sessionId, userId, ChatMessage.Role.USER,
+                "mensagem " + second, NOW.plusSeconds(second));
+    }
+}
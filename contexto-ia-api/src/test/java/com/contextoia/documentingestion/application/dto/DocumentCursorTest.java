@@ -0,0 +1,81 @@
+package com.contextoia.documentingestion.application.dto;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DocumentCursorTest {
+
+    @Test
+    void roundTripsCreationTimeAndId() {
+        DocumentCursor cursor = new DocumentCursor(
+                LocalDateTime.of(2024, 5, 17, 13, 45, 12, 123_456_000),
+                UUID.fromString("01900000-0000-7000-8000-000000000001"));
+
+        assertThat(DocumentCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void roundTripsTimesWithoutSeconds() {
+        DocumentCursor cursor = new DocumentCursor(LocalDateTime.of(2024, 1, 1, 0, 0), UUID.randomUUID());
+
+        assertThat(DocumentCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        DocumentCursor cursor = new DocumentCursor(LocalDateTime.now(), UUID.randomUUID());
+
+        assertThat(cursor.encode()).matches("[A-Za-z0-9_-]+");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "not a cursor", "%%%", "YWJj"})
+    void rejectsMalformedTokens(String token) {
+        assertThatThrownBy(() -> DocumentCursor.decode(token))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cursor de paginação inválido");
+    }
+
+    @Test
+    void rejectsTamperedContent() {
+        String badDate = encode("2024-13-45T99:00|" + UUID.randomUUID());
+        String badId = encode("2024-05-17T13:45:12|not-a-uuid");
+        String noSeparator = encode("2024-05-17T13:45:12");
+
+        for (String token : new String[]{badDate, badId, noSeparator}) {
+            assertThatThrownBy(() -> DocumentCursor.decode(token))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Cursor de paginação inválido");
+        }
+    }
+
+    @Test
+    void rejectsTruncatedToken() {
+        String token = new DocumentCursor(LocalDateTime.now(), UUID.randomUUID()).encode();
+
+        assertThatThrownBy(() -> DocumentCursor.decode(token.substring(0, token.length() - 6)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsIdsThatOnlyParseLeniently() {
+        String token = encode("2024-05-17T13:45:12|1-2-3-4-5");
+
+        assertThatThrownBy(() -> DocumentCursor.decode(token))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cursor de paginação inválido");
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
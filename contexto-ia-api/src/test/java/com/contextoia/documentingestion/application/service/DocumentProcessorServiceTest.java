@@ -0,0 +1,212 @@
+package com.contextoia.documentingestion.application.service;
+
+import com.contextoia.common.exceptions.TransientFailureException;
+import com.contextoia.documentingestion.application.dto.DocumentProcessingView;
+import com.contextoia.documentingestion.application.event.DocumentProcessedEvent;
+import com.contextoia.documentingestion.application.exception.DocumentProcessingException;
+import com.contextoia.documentingestion.application.port.out.DocumentChunkRepositoryPort;
+import com.contextoia.documentingestion.application.port.out.DocumentRepositoryPort;
+import com.contextoia.documentingestion.application.port.out.EmbeddingPort;
+import com.contextoia.documentingestion.application.port.out.PdfProcessorPort;
+import com.contextoia.documentingestion.application.port.out.StoragePort;
+import com.contextoia.documentingestion.domain.enums.DocumentStatus;
+import com.contextoia.documentingestion.domain.model.DocumentChunk;
+import com.contextoia.documentingestion.domain.model.PageText;
+import com.contextoia.documentingestion.domain.service.TextChunker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentProcessorServiceTest {
+
+    private static final UUID DOCUMENT_ID = UUID.randomUUID();
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final int PAGES = 60;
+
+    private final DocumentRepositoryPort documentRepository = mock(DocumentRepositoryPort.class);
+    private final StoragePort storagePort = mock(StoragePort.class);
+    private final PdfProcessorPort pdfProcessor = mock(PdfProcessorPort.class);
+    private final EmbeddingPort embeddingPort = mock(EmbeddingPort.class);
+    private final DocumentChunkRepositoryPort chunkRepository = mock(DocumentChunkRepositoryPort.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final TextChunker textChunker = new TextChunker(200, 20);
+    private final List<PageText> pages = new ArrayList<>();
+
+    private final DocumentProcessorService service = new DocumentProcessorService(
+            documentRepository, storagePort, pdfProcessor, embeddingPort, chunkRepository, textChunker,
+            eventPublisher, new NoOpTransactionManager(), new SimpleMeterRegistry(), Duration.ofMinutes(10));
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DocumentProcessingView view = mock(DocumentProcessingView.class);
+        when(view.getId()).thenReturn(DOCUMENT_ID);
+        when(view.getUserId()).thenReturn(USER_ID);
+        when(view.getStorageKey()).thenReturn("documentos/a.pdf");
+        when(view.getOriginalFileName()).thenReturn("a.pdf");
+        when(view.getStatus()).thenReturn(DocumentStatus.PENDING);
+        when(documentRepository.findProcessingViewById(DOCUMENT_ID)).thenReturn(Optional.of(view));
+        when(documentRepository.claimForProcessing(eq(DOCUMENT_ID), any(), any())).thenReturn(true);
+
+        when(storagePort.retrieve("documentos/a.pdf")).thenReturn(new ByteArrayInputStream(new byte[]{1, 2, 3}));
+        for (int page = 1; page <= PAGES; page++) {
+            pages.add(new PageText(page, ("Cláusula " + page + " do contrato de locação. ").repeat(30)));
+        }
+        doAnswer(invocation -> {
+            Consumer<PageText> consumer = invocation.getArgument(1);
+            pages.forEach(consumer);
+            return null;
+        }).when(pdfProcessor).extractPages(any(), any());
+        when(embeddingPort.generateEmbeddings(anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            return texts.stream().map(text -> new float[]{text.length(), 1f}).toList();
+        });
+    }
+
+    @Test
+    void stagesEachWindowUnderTheClaimAndPublishesOnCompletion() {
+        int expectedChunks = textChunker.chunk(pages).size();
+        assertThat(expectedChunks).isGreaterThan(256);
+        when(documentRepository.renewProcessingClaim(eq(DOCUMENT_ID), any())).thenReturn(true);
+        when(documentRepository.markCompleted(eq(DOCUMENT_ID), any(), anyString(), any())).thenReturn(true);
+
+        service.processDocument(DOCUMENT_ID);
+
+        ArgumentCaptor<UUID> attempt = ArgumentCaptor.forClass(UUID.class);
+        verify(documentRepository).claimForProcessing(eq(DOCUMENT_ID), attempt.capture(), any());
+        UUID attemptId = attempt.getValue();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DocumentChunk>> windows = ArgumentCaptor.forClass(List.class);
+        int windowCount = (expectedChunks + 127) / 128;
+        verify(chunkRepository, times(windowCount)).stageChunks(eq(attemptId), windows.capture());
+        verify(documentRepository, times(windowCount)).renewProcessingClaim(DOCUMENT_ID, attemptId);
+        assertThat(windows.getAllValues()).allSatisfy(window -> assertThat(window).hasSizeLessThanOrEqualTo(128));
+        assertThat(windows.getAllValues().stream().flatMap(List::stream).map(DocumentChunk::chunkIndex))
+                .containsExactlyElementsOf(IntStream.range(0, expectedChunks).boxed().toList());
+
+        InOrder order = inOrder(chunkRepository, documentRepository, eventPublisher);
+        order.verify(chunkRepository).publishStagedChunks(DOCUMENT_ID, attemptId);
+        order.verify(documentRepository).markCompleted(eq(DOCUMENT_ID), eq(attemptId), anyString(), any());
+        order.verify(eventPublisher).publishEvent(new DocumentProcessedEvent(DOCUMENT_ID, USER_ID, "a.pdf"));
+    }
+
+    @Test
+    void attemptThatLostItsClaimStopsAndDiscardsItsWork() {
+        when(documentRepository.renewProcessingClaim(eq(DOCUMENT_ID), any())).thenReturn(true, false);
+
+        service.processDocument(DOCUMENT_ID);
+
+        verify(chunkRepository, times(1)).stageChunks(any(), anyList());
+        verify(embeddingPort, times(2)).generateEmbeddings(anyList());
+        verify(chunkRepository).discardStagedChunks(eq(DOCUMENT_ID), any());
+        verify(chunkRepository, never()).publishStagedChunks(any(), any());
+        verify(documentRepository, never()).markFailed(any(), any(), any(), any());
+        verify(documentRepository, never()).releaseProcessingClaim(any(), any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void completionByAFencedOffAttemptIsDiscarded() {
+        when(documentRepository.renewProcessingClaim(eq(DOCUMENT_ID), any())).thenReturn(true);
+        when(documentRepository.markCompleted(eq(DOCUMENT_ID), any(), anyString(), any())).thenReturn(false);
+
+        service.processDocument(DOCUMENT_ID);
+
+        verify(chunkRepository).discardStagedChunks(eq(DOCUMENT_ID), any());
+        verify(documentRepository, never()).markFailed(any(), any(), any(), any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void transientFailureReleasesOnlyItsOwnClaim() {
+        when(documentRepository.renewProcessingClaim(eq(DOCUMENT_ID), any())).thenReturn(true);
+        when(embeddingPort.generateEmbeddings(anyList()))
+                .thenThrow(new TransientFailureException("Serviço de embedding temporariamente indisponível", null));
+
+        assertThatThrownBy(() -> service.processDocument(DOCUMENT_ID)).isInstanceOf(TransientFailureException.class);
+
+        ArgumentCaptor<UUID> attempt = ArgumentCaptor.forClass(UUID.class);
+        verify(documentRepository).claimForProcessing(eq(DOCUMENT_ID), attempt.capture(), any());
+        verify(chunkRepository).discardStagedChunks(DOCUMENT_ID, attempt.getValue());
+        verify(documentRepository).releaseProcessingClaim(DOCUMENT_ID, attempt.getValue());
+    }
+
+    @Test
+    void permanentFailureFailsTheDocumentOnlyUnderItsOwnClaim() {
+        when(documentRepository.renewProcessingClaim(eq(DOCUMENT_ID), any())).thenReturn(true);
+        when(embeddingPort.generateEmbeddings(anyList())).thenThrow(new IllegalStateException("PDF corrompido"));
+
+        assertThatThrownBy(() -> service.processDocument(DOCUMENT_ID)).isInstanceOf(DocumentProcessingException.class);
+
+        ArgumentCaptor<UUID> attempt = ArgumentCaptor.forClass(UUID.class);
+        verify(documentRepository).claimForProcessing(eq(DOCUMENT_ID), attempt.capture(), any());
+        verify(documentRepository).markFailed(eq(DOCUMENT_ID), eq(attempt.getValue()), eq("PDF corrompido"), any());
+        verify(documentRepository, never()).markFailedUnlessClaimed(any(), any(), any(), any());
+    }
+
+    @Test
+    void exhaustedRetriesFailTheDocumentOnlyOnceTheClaimIsOlderThanTheLease() {
+        when(documentRepository.markFailedUnlessClaimed(eq(DOCUMENT_ID), anyString(), any(), any())).thenReturn(false);
+        LocalDateTime before = LocalDateTime.now();
+
+        boolean failed = service.failDocument(DOCUMENT_ID, "Documento já está em processamento");
+
+        ArgumentCaptor<LocalDateTime> staleBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(documentRepository).markFailedUnlessClaimed(
+                eq(DOCUMENT_ID), eq("Documento já está em processamento"), staleBefore.capture(), any());
+        assertThat(failed).isFalse();
+        assertThat(staleBefore.getValue())
+                .isBetween(before.minusMinutes(10), LocalDateTime.now().minusMinutes(10));
+        verify(documentRepository, never()).markFailed(any(), any(), any(), any());
+    }
+
+    /**
+     * Runs the callbacks of {@link org.springframework.transaction.support.TransactionTemplate}
+     * without a database.
+     */
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.contextoia.documentingestion.application.service;
+
+import com.contextoia.documentingestion.application.dto.SearchSimilarRequest;
+import com.contextoia.documentingestion.application.dto.SimilarDocumentResponse;
+import com.contextoia.documentingestion.application.dto.SimilarDocumentResult;
+import com.contextoia.documentingestion.application.port.out.DocumentLexicalSearchPort;
+import com.contextoia.documentingestion.application.port.out.DocumentRepositoryPort;
+import com.contextoia.documentingestion.application.port.out.DocumentVectorStoragePort;
+import com.contextoia.documentingestion.application.port.out.EmbeddingPort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.List;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentQueryServiceTest {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final float[] EMBEDDING = {0.1f, 0.2f};
+
+    private final DocumentVectorStoragePort vectorStorage = mock(DocumentVectorStoragePort.class);
+    private final DocumentLexicalSearchPort lexicalSearch = mock(DocumentLexicalSearchPort.class);
+    private final EmbeddingPort embeddingPort = mock(EmbeddingPort.class);
+    private DocumentQueryService service = service(1);
+
+    private final UUID both = UUID.randomUUID();
+    private final UUID vectorOnly = UUID.randomUUID();
+    private final UUID lexicalOnly = UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void hybridHitsReportFusedScoreAndCosineOnlyFromTheVectorRanking() {
+        when(embeddingPort.generateEmbedding("contrato de aluguel")).thenReturn(EMBEDDING);
+        when(vectorStorage.findSimilarDocuments(EMBEDDING, USER_ID, 10)).thenReturn(List.of(
+                new SimilarDocumentResult(vectorOnly, "v.pdf", 0.91f, "v"),
+                new SimilarDocumentResult(both, "b.pdf", 0.87f, "b")));
+        when(lexicalSearch.findMatchingDocuments("contrato de aluguel", USER_ID, 10)).thenReturn(List.of(
+                new SimilarDocumentResult(both, "b.pdf", 0.08f, "b"),
+                new SimilarDocumentResult(lexicalOnly, "l.pdf", 0.05f, "l")));
+
+        List<SimilarDocumentResponse> results = service.execute(new SearchSimilarRequest("contrato de aluguel", 10), USER_ID);
+
+        assertThat(results).extracting(SimilarDocumentResponse::id).containsExactly(both, vectorOnly, lexicalOnly);
+        assertThat(results).extracting(SimilarDocumentResponse::similarity).containsExactly(0.87f, 0.91f, null);
+        assertThat(results).extracting(SimilarDocumentResponse::score).isSortedAccordingTo((x, y) -> Double.compare(y, x));
+    }
+
+    @Test
+    void lexicalQueryRunsWhileTheQueryIsEmbedded() {
+        CountDownLatch lexicalStarted = new CountDownLatch(1);
+        when(lexicalSearch.findMatchingDocuments(anyString(), eq(USER_ID), anyInt())).thenAnswer(invocation -> {
+            lexicalStarted.countDown();
+            return List.of();
+        });
+        when(embeddingPort.generateEmbedding(anyString())).thenAnswer(invocation -> {
+            assertThat(lexicalStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            return EMBEDDING;
+        });
+        when(vectorStorage.findSimilarDocuments(any(), eq(USER_ID), anyInt())).thenReturn(List.of());
+
+        assertThat(service.execute(new SearchSimilarRequest("relatório anual", 5), USER_ID)).isEmpty();
+    }
+
+    @Test
+    void lexicalQueryRunsAfterTheVectorSearchWhenNoParallelQueryIsAllowed() {
+        service = service(0);
+        Thread caller = Thread.currentThread();
+        when(embeddingPort.generateEmbedding(anyString())).thenReturn(EMBEDDING);
+        when(vectorStorage.findSimilarDocuments(any(), eq(USER_ID), anyInt())).thenReturn(List.of());
+        when(lexicalSearch.findMatchingDocuments(anyString(), eq(USER_ID), anyInt())).thenAnswer(invocation -> {
+            assertThat(Thread.currentThread()).isSameAs(caller);
+            return List.of(new SimilarDocumentResult(lexicalOnly, "l.pdf", 0.05f, "l"));
+        });
+
+        List<SimilarDocumentResponse> results = service.execute(new SearchSimilarRequest("relatório anual", 5), USER_ID);
+
+        assertThat(results).extracting(SimilarDocumentResponse::id).containsExactly(lexicalOnly);
+        InOrder order = inOrder(vectorStorage, lexicalSearch);
+        order.verify(vectorStorage).findSimilarDocuments(any(), eq(USER_ID), anyInt());
+        order.verify(lexicalSearch).findMatchingDocuments(anyString(), eq(USER_ID), anyInt());
+    }
+
+    @Test
+    void parallelLexicalQueryReleasesItsPermitAlsoWhenTheVectorSearchFails() throws InterruptedException {
+        List<Thread> lexicalThreads = new CopyOnWriteArrayList<>();
+        when(lexicalSearch.findMatchingDocuments(anyString(), eq(USER_ID), anyInt())).thenAnswer(invocation -> {
+            lexicalThreads.add(Thread.currentThread());
+            return List.of();
+        });
+        when(embeddingPort.generateEmbedding(anyString()))
+                .thenThrow(new IllegalStateException("modelo indisponível"))
+                .thenReturn(EMBEDDING);
+        when(vectorStorage.findSimilarDocuments(any(), eq(USER_ID), anyInt())).thenReturn(List.of());
+
+        assertThatThrownBy(() -> service.execute(new SearchSimilarRequest("relatório anual", 5), USER_ID))
+                .isInstanceOf(IllegalStateException.class);
+        verify(lexicalSearch, timeout(5000)).findMatchingDocuments(anyString(), eq(USER_ID), anyInt());
+        assertThat(lexicalThreads.get(0).join(Duration.ofSeconds(5))).isTrue();
+        service.execute(new SearchSimilarRequest("relatório anual", 5), USER_ID);
+
+        assertThat(lexicalThreads).hasSize(2).doesNotContain(Thread.currentThread());
+    }
+
+    @Test
+    void exactTermQueryWithLexicalHitsSkipsTheEmbedding() {
+        when(lexicalSearch.findMatchingDocuments("NF-2024-0042", USER_ID, 5)).thenReturn(List.of(
+                new SimilarDocumentResult(lexicalOnly, "l.pdf", 0.3f, "l")));
+
+        List<SimilarDocumentResponse> results = service.execute(new SearchSimilarRequest("NF-2024-0042", 5), USER_ID);
+
+        assertThat(results).singleElement().satisfies(hit -> {
+            assertThat(hit.similarity()).isNull();
+            assertThat(hit.score()).isEqualTo(1.0 / (ReciprocalRankFusion.K + 1));
+        });
+        verify(embeddingPort, never()).generateEmbedding(anyString());
+    }
+
+    private DocumentQueryService service(int maxConcurrentLexicalQueries) {
+        return new DocumentQueryService(mock(DocumentRepositoryPort.class), vectorStorage, lexicalSearch,
+                embeddingPort, maxConcurrentLexicalQueries);
+    }
+}
@@ -0,0 +1,123 @@
+package com.contextoia.documentingestion.application.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PdfUploadInputStreamTest {
+
+    private static final byte[] PDF = "%PDF-1.7\n1 0 obj << >> endobj\n%%EOF\n".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    void countsAndHashesAValidPdf() throws Exception {
+        PdfUploadInputStream inspected = new PdfUploadInputStream(new ByteArrayInputStream(PDF), 1024);
+
+        inspected.transferTo(OutputStream.nullOutputStream());
+
+        assertThat(inspected.size()).isEqualTo(PDF.length);
+        assertThat(inspected.sha256()).isEqualTo(sha256(PDF));
+        assertThat(inspected.rejection()).isNull();
+    }
+
+    @Test
+    void hashIncludesBytesReadOneAtATimeAndSkipped() throws Exception {
+        PdfUploadInputStream inspected = new PdfUploadInputStream(new ByteArrayInputStream(PDF), 1024);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(inspected.read()).isEqualTo(PDF[i]);
+        }
+        assertThat(inspected.skip(10)).isEqualTo(10);
+        inspected.transferTo(OutputStream.nullOutputStream());
+
+        assertThat(inspected.size()).isEqualTo(PDF.length);
+        assertThat(inspected.sha256()).isEqualTo(sha256(PDF));
+    }
+
+    @Test
+    void rejectsContentWithoutThePdfSignature() {
+        byte[] html = "<html><body>não é pdf</body></html>".getBytes(StandardCharsets.UTF_8);
+        PdfUploadInputStream inspected = new PdfUploadInputStream(new ByteArrayInputStream(html), 1024);
+
+        assertThatThrownBy(() -> inspected.transferTo(OutputStream.nullOutputStream()))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Apenas arquivos PDF são permitidos");
+        assertThat(inspected.rejection()).isEqualTo("Apenas arquivos PDF são permitidos");
+    }
+
+    @Test
+    void checksTheSignatureWhenItArrivesAcrossReads() {
+        InputStream oneByteReads = new ByteArrayInputStream("%PDX-1.7 resto".getBytes(StandardCharsets.US_ASCII)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+        PdfUploadInputStream inspected = new PdfUploadInputStream(oneByteReads, 1024);
+
+        assertThatThrownBy(() -> inspected.transferTo(OutputStream.nullOutputStream()))
+                .isInstanceOf(IOException.class);
+        assertThat(inspected.rejection()).isEqualTo("Apenas arquivos PDF são permitidos");
+        assertThat(inspected.size()).isLessThanOrEqualTo(PdfUploadInputStream.signatureLength());
+    }
+
+    @Test
+    void rejectsFilesShorterThanTheSignature() {
+        PdfUploadInputStream inspected = new PdfUploadInputStream(
+                new ByteArrayInputStream("%PD".getBytes(StandardCharsets.US_ASCII)), 1024);
+
+        assertThatThrownBy(() -> inspected.transferTo(OutputStream.nullOutputStream()))
+                .isInstanceOf(IOException.class);
+        assertThat(inspected.rejection()).isEqualTo("Apenas arquivos PDF são permitidos");
+    }
+
+    @Test
+    void rejectsEmptyFiles() {
+        PdfUploadInputStream inspected = new PdfUploadInputStream(new ByteArrayInputStream(new byte[0]), 1024);
+
+        assertThatThrownBy(() -> inspected.transferTo(OutputStream.nullOutputStream()))
+                .isInstanceOf(IOException.class);
+        assertThat(inspected.rejection()).isEqualTo("Arquivo não pode estar vazio");
+    }
+
+    @Test
+    void acceptsAFileOfExactlyTheMaximumSize() throws Exception {
+        PdfUploadInputStream inspected = new PdfUploadInputStream(new ByteArrayInputStream(PDF), PDF.length);
+
+        inspected.transferTo(OutputStream.nullOutputStream());
+
+        assertThat(inspected.rejection()).isNull();
+    }
+
+    @Test
+    void stopsReadingOnceTheMaximumSizeIsExceeded() {
+        byte[] large = new byte[3 * 1024 * 1024];
+        System.arraycopy(PDF, 0, large, 0, PDF.length);
+        PdfUploadInputStream inspected = new PdfUploadInputStream(new ByteArrayInputStream(large), 1024 * 1024);
+
+        assertThatThrownBy(() -> inspected.transferTo(OutputStream.nullOutputStream()))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Arquivo excede o tamanho máximo de 1MB");
+        assertThat(inspected.rejection()).isEqualTo("Arquivo excede o tamanho máximo de 1MB");
+        assertThat(inspected.size()).isLessThan(large.length);
+    }
+
+    @Test
+    void recognisesThePdfSignature() {
+        assertThat(PdfUploadInputStream.hasPdfSignature(PDF)).isTrue();
+        assertThat(PdfUploadInputStream.hasPdfSignature("%PDF".getBytes(StandardCharsets.US_ASCII))).isFalse();
+        assertThat(PdfUploadInputStream.hasPdfSignature("%pdf-1.4".getBytes(StandardCharsets.US_ASCII))).isFalse();
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
@@ -0,0 +1,163 @@
+package com.contextoia.documentingestion.application.service;
+
+import com.contextoia.documentingestion.application.dto.DocumentUploadResponse;
+import com.contextoia.documentingestion.application.dto.PresignedUpload;
+import com.contextoia.documentingestion.application.dto.ProcessDocumentMessage;
+import com.contextoia.documentingestion.application.dto.StoredObjectInfo;
+import com.contextoia.documentingestion.application.dto.UploadUrlRequest;
+import com.contextoia.documentingestion.application.dto.UploadUrlResponse;
+import com.contextoia.documentingestion.application.port.out.DocumentMessagePublisher;
+import com.contextoia.documentingestion.application.port.out.DocumentRepositoryPort;
+import com.contextoia.documentingestion.application.port.out.StoragePort;
+import com.contextoia.documentingestion.domain.model.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PresignedUploadServiceTest {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final UUID DOCUMENT_ID = UUID.randomUUID();
+    private static final String STORAGE_KEY = "3f1c.pdf";
+    private static final String UPLOAD_KEY = PresignedUploadService.UPLOAD_KEY_PREFIX + STORAGE_KEY;
+
+    private final DocumentRepositoryPort documentRepository = mock(DocumentRepositoryPort.class);
+    private final StoragePort storagePort = mock(StoragePort.class);
+    private final DocumentMessagePublisher messagePublisher = mock(DocumentMessagePublisher.class);
+    private final PresignedUploadService service = new PresignedUploadService(
+            documentRepository, storagePort, messagePublisher, new NoOpTransactionManager(),
+            Duration.ofMinutes(15), DataSize.ofMegabytes(50));
+
+    private final Document document = mock(Document.class);
+
+    @BeforeEach
+    void setUp() {
+        when(document.getId()).thenReturn(DOCUMENT_ID);
+        when(document.getUserId()).thenReturn(USER_ID);
+        when(document.getStorageKey()).thenReturn(STORAGE_KEY);
+        when(document.getOriginalFileName()).thenReturn("contrato.pdf");
+        when(document.getFileSize()).thenReturn(null);
+        when(documentRepository.findById(DOCUMENT_ID)).thenReturn(Optional.of(document));
+    }
+
+    @Test
+    void signsAnUploadToTheStagingKeyBoundedByTheMaximumSize() throws Exception {
+        when(storagePort.generateFileName("contrato.pdf")).thenReturn(STORAGE_KEY);
+        when(documentRepository.save(any())).thenReturn(document);
+        when(storagePort.createUpload(anyString(), anyString(), anyLong(), any()))
+                .thenReturn(new PresignedUpload("http://minio:9000/documentos", Map.of("key", UPLOAD_KEY)));
+
+        UploadUrlResponse response = service.execute(new UploadUrlRequest("contrato.pdf"), USER_ID);
+
+        verify(storagePort).createUpload(
+                UPLOAD_KEY, "application/pdf", DataSize.ofMegabytes(50).toBytes(), Duration.ofMinutes(15));
+        assertThat(response.method()).isEqualTo("POST");
+        assertThat(response.uploadUrl()).isEqualTo("http://minio:9000/documentos");
+        assertThat(response.formFields()).containsEntry("key", UPLOAD_KEY);
+    }
+
+    @Test
+    void completionVerifiesTheServerOwnedCopyAndQueuesIt() throws Exception {
+        when(storagePort.stat(UPLOAD_KEY)).thenReturn(Optional.of(new StoredObjectInfo(1024, "application/pdf")));
+        when(storagePort.stat(STORAGE_KEY)).thenReturn(Optional.of(new StoredObjectInfo(1024, "application/pdf")));
+        when(storagePort.retrieve(eq(STORAGE_KEY), eq(0L), anyLong())).thenReturn(pdfHeader());
+        when(documentRepository.confirmUpload(DOCUMENT_ID, 1024)).thenReturn(true);
+
+        DocumentUploadResponse response = service.execute(DOCUMENT_ID, USER_ID);
+
+        InOrder order = inOrder(storagePort, documentRepository, messagePublisher);
+        order.verify(storagePort).copy(UPLOAD_KEY, STORAGE_KEY);
+        order.verify(storagePort).delete(UPLOAD_KEY);
+        order.verify(storagePort).retrieve(eq(STORAGE_KEY), eq(0L), anyLong());
+        order.verify(documentRepository).confirmUpload(DOCUMENT_ID, 1024);
+        order.verify(messagePublisher).publishProcessingMessage(new ProcessDocumentMessage(DOCUMENT_ID, STORAGE_KEY));
+        verify(storagePort, never()).retrieve(eq(UPLOAD_KEY), anyLong(), anyLong());
+        assertThat(response.fileSize()).isEqualTo(1024);
+    }
+
+    @Test
+    void repeatedCompletionUsesTheCopyAlreadyMade() throws Exception {
+        when(storagePort.stat(UPLOAD_KEY)).thenReturn(Optional.empty());
+        when(storagePort.stat(STORAGE_KEY)).thenReturn(Optional.of(new StoredObjectInfo(1024, "application/pdf")));
+        when(storagePort.retrieve(eq(STORAGE_KEY), eq(0L), anyLong())).thenReturn(pdfHeader());
+        when(documentRepository.confirmUpload(DOCUMENT_ID, 1024)).thenReturn(true);
+
+        service.execute(DOCUMENT_ID, USER_ID);
+
+        verify(storagePort, never()).copy(anyString(), anyString());
+        verify(documentRepository).confirmUpload(DOCUMENT_ID, 1024);
+    }
+
+    @Test
+    void copyThatIsNotAPdfIsDeletedAndNotQueued() throws Exception {
+        when(storagePort.stat(UPLOAD_KEY)).thenReturn(Optional.of(new StoredObjectInfo(1024, "application/pdf")));
+        when(storagePort.stat(STORAGE_KEY)).thenReturn(Optional.of(new StoredObjectInfo(1024, "application/pdf")));
+        when(storagePort.retrieve(eq(STORAGE_KEY), eq(0L), anyLong()))
+                .thenReturn(new ByteArrayInputStream("<html>".getBytes(StandardCharsets.US_ASCII)));
+
+        assertThatThrownBy(() -> service.execute(DOCUMENT_ID, USER_ID))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Apenas arquivos PDF são permitidos");
+
+        verify(storagePort).delete(STORAGE_KEY);
+        verify(documentRepository, never()).confirmUpload(any(), anyLong());
+        verify(messagePublisher, never()).publishProcessingMessage(any());
+    }
+
+    @Test
+    void completionBeforeTheUploadIsRejected() throws Exception {
+        when(storagePort.stat(anyString())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.execute(DOCUMENT_ID, USER_ID))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Arquivo ainda não foi enviado");
+        verify(documentRepository, never()).confirmUpload(any(), anyLong());
+    }
+
+    private static ByteArrayInputStream pdfHeader() {
+        return new ByteArrayInputStream("%PDF-".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Runs the callbacks of {@link org.springframework.transaction.support.TransactionTemplate}
+     * without a database.
+     */
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.contextoia.documentingestion.application.service;
+
+import com.contextoia.documentingestion.application.dto.SimilarDocumentResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ReciprocalRankFusionTest {
+
+    private static final int K = ReciprocalRankFusion.K;
+
+    private final UUID a = UUID.randomUUID();
+    private final UUID b = UUID.randomUUID();
+    private final UUID c = UUID.randomUUID();
+    private final UUID d = UUID.randomUUID();
+
+    @Test
+    void documentInBothListsOutranksDocumentsOnTopOfOnlyOne() {
+        List<ReciprocalRankFusion.FusedDocument> fused = ReciprocalRankFusion.fuse(List.of(
+                List.of(result(a, 0.9f), result(c, 0.8f)),
+                List.of(result(b, 0.5f), result(c, 0.4f))
+        ), 10);
+
+        assertThat(fused).extracting(doc -> doc.document().documentId()).containsExactly(c, a, b);
+        assertThat(fused.get(0).score()).isCloseTo(2.0 / (K + 2), within(1e-12));
+        assertThat(fused.get(1).score()).isCloseTo(1.0 / (K + 1), within(1e-12));
+    }
+
+    @Test
+    void scoresDependOnRanksOnly() {
+        List<ReciprocalRankFusion.FusedDocument> cosine = ReciprocalRankFusion.fuse(
+                List.of(List.of(result(a, 0.95f), result(b, 0.2f))), 10);
+        List<ReciprocalRankFusion.FusedDocument> textRank = ReciprocalRankFusion.fuse(
+                List.of(List.of(result(a, 0.01f), result(b, 0.009f))), 10);
+
+        assertThat(cosine).extracting(ReciprocalRankFusion.FusedDocument::score)
+                .containsExactlyElementsOf(textRank.stream().map(ReciprocalRankFusion.FusedDocument::score).toList());
+    }
+
+    @Test
+    void entryOfTheFirstListIsKept() {
+        SimilarDocumentResult vector = new SimilarDocumentResult(a, "a.pdf", 0.8f, "trecho semântico");
+        SimilarDocumentResult lexical = new SimilarDocumentResult(a, "a.pdf", 0.1f, "trecho lexical");
+
+        List<ReciprocalRankFusion.FusedDocument> fused = ReciprocalRankFusion.fuse(
+                List.of(List.of(vector), List.of(lexical)), 10);
+
+        assertThat(fused).singleElement().extracting(ReciprocalRankFusion.FusedDocument::document).isSameAs(vector);
+    }
+
+    @Test
+    void tiesKeepFirstSeenOrderAndLimitApplies() {
+        List<ReciprocalRankFusion.FusedDocument> fused = ReciprocalRankFusion.fuse(List.of(
+                List.of(result(a, 0.9f), result(b, 0.8f)),
+                List.of(result(c, 0.5f), result(d, 0.4f))
+        ), 3);
+
+        assertThat(fused).extracting(doc -> doc.document().documentId()).containsExactly(a, c, b);
+    }
+
+    @Test
+    void emptyRankingsFuseToNothing() {
+        assertThat(ReciprocalRankFusion.fuse(List.of(List.of(), List.of()), 10)).isEmpty();
+    }
+
+    private static SimilarDocumentResult result(UUID id, float similarity) {
+        return new SimilarDocumentResult(id, id + ".pdf", similarity, "trecho");
+    }
+}
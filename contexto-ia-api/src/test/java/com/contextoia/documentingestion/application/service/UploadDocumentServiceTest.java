@@ -0,0 +1,172 @@
+package com.contextoia.documentingestion.application.service;
+
+import com.contextoia.documentingestion.application.dto.DocumentUploadResponse;
+import com.contextoia.documentingestion.application.event.DocumentProcessedEvent;
+import com.contextoia.documentingestion.application.port.out.DocumentMessagePublisher;
+import com.contextoia.documentingestion.application.port.out.DocumentRepositoryPort;
+import com.contextoia.documentingestion.application.port.out.StoragePort;
+import com.contextoia.documentingestion.domain.enums.DocumentStatus;
+import com.contextoia.documentingestion.domain.model.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UploadDocumentServiceTest {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final byte[] PDF = "%PDF-1.7\nconteúdo do contrato\n%%EOF\n".getBytes(StandardCharsets.UTF_8);
+    private static final String NEW_KEY = "novo.pdf";
+
+    private final DocumentRepositoryPort documentRepository = mock(DocumentRepositoryPort.class);
+    private final StoragePort storagePort = mock(StoragePort.class);
+    private final DocumentMessagePublisher messagePublisher = mock(DocumentMessagePublisher.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final UploadDocumentService service = new UploadDocumentService(
+            documentRepository, storagePort, messagePublisher, eventPublisher,
+            new NoOpTransactionManager(), DataSize.ofMegabytes(50));
+
+    private String contentSha256;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        contentSha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(PDF));
+        when(storagePort.generateFileName("contrato.pdf")).thenReturn(NEW_KEY);
+        when(storagePort.store(any(), eq(NEW_KEY), anyString())).thenAnswer(invocation -> {
+            invocation.<InputStream>getArgument(0).transferTo(OutputStream.nullOutputStream());
+            return NEW_KEY;
+        });
+        when(documentRepository.findActiveByUserIdAndContentSha256(any(), any())).thenReturn(Optional.empty());
+        when(documentRepository.findCompletedByContentSha256(any())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void newContentIsStoredAndQueuedUnderTheContentLock() throws Exception {
+        Document saved = document(UUID.randomUUID(), NEW_KEY, null);
+        when(saved.getStatus()).thenReturn(DocumentStatus.PENDING);
+        when(documentRepository.save(any())).thenReturn(saved);
+
+        DocumentUploadResponse response = upload();
+
+        InOrder order = inOrder(documentRepository, messagePublisher);
+        order.verify(documentRepository).lockContentHash(USER_ID, contentSha256);
+        order.verify(documentRepository).findActiveByUserIdAndContentSha256(USER_ID, contentSha256);
+        order.verify(documentRepository).save(any());
+        order.verify(messagePublisher).publishProcessingMessage(any());
+        verify(storagePort, never()).delete(anyString());
+        assertThat(response.status()).isEqualTo(DocumentStatus.PENDING);
+    }
+
+    @Test
+    void repeatedUploadByTheSameUserReturnsTheExistingDocument() throws Exception {
+        Document owned = document(UUID.randomUUID(), "anterior.pdf", null);
+        when(owned.getStatus()).thenReturn(DocumentStatus.PROCESSING);
+        when(documentRepository.findActiveByUserIdAndContentSha256(USER_ID, contentSha256))
+                .thenReturn(Optional.of(owned));
+
+        DocumentUploadResponse response = upload();
+
+        verify(documentRepository).lockContentHash(USER_ID, contentSha256);
+        verify(documentRepository, never()).save(any());
+        verify(documentRepository, never()).saveAndFlush(any());
+        verify(storagePort).delete(NEW_KEY);
+        assertThat(response.id()).isEqualTo(owned.getId());
+    }
+
+    @Test
+    void contentProcessedForAnotherUserReferencesItsChunks() throws Exception {
+        UUID sourceId = UUID.randomUUID();
+        Document source = document(sourceId, "origem.pdf", null);
+        when(documentRepository.findCompletedByContentSha256(contentSha256)).thenReturn(Optional.of(source));
+        Document shared = document(UUID.randomUUID(), "origem.pdf", sourceId);
+        when(documentRepository.saveAndFlush(any())).thenReturn(shared);
+
+        DocumentUploadResponse response = upload();
+
+        ArgumentCaptor<Document> created = ArgumentCaptor.forClass(Document.class);
+        verify(documentRepository).saveAndFlush(created.capture());
+        assertThat(created.getValue().getChunksDocumentId()).isEqualTo(sourceId);
+        assertThat(created.getValue().getStorageKey()).isEqualTo("origem.pdf");
+        assertThat(created.getValue().getUserId()).isEqualTo(USER_ID);
+        verify(documentRepository).markCompleted(eq(shared.getId()), any(), eq(contentSha256), any());
+        verify(eventPublisher).publishEvent(new DocumentProcessedEvent(shared.getId(), USER_ID, "contrato.pdf"));
+        verify(messagePublisher, never()).publishProcessingMessage(any());
+        verify(storagePort).delete(NEW_KEY);
+        assertThat(response.status()).isEqualTo(DocumentStatus.COMPLETED);
+    }
+
+    @Test
+    void sharingASharedDocumentReferencesTheOriginalChunks() throws Exception {
+        UUID originalId = UUID.randomUUID();
+        Document source = document(UUID.randomUUID(), "origem.pdf", originalId);
+        when(documentRepository.findCompletedByContentSha256(contentSha256)).thenReturn(Optional.of(source));
+        Document shared = document(UUID.randomUUID(), "origem.pdf", originalId);
+        when(documentRepository.saveAndFlush(any())).thenReturn(shared);
+
+        upload();
+
+        ArgumentCaptor<Document> created = ArgumentCaptor.forClass(Document.class);
+        verify(documentRepository).saveAndFlush(created.capture());
+        assertThat(created.getValue().getChunksDocumentId()).isEqualTo(originalId);
+    }
+
+    private DocumentUploadResponse upload() throws Exception {
+        return service.execute(new ByteArrayInputStream(PDF), "contrato.pdf", USER_ID);
+    }
+
+    private Document document(UUID id, String storageKey, UUID chunksDocumentId) {
+        Document document = mock(Document.class);
+        when(document.getId()).thenReturn(id);
+        when(document.getStorageKey()).thenReturn(storageKey);
+        when(document.getFileName()).thenReturn(storageKey);
+        when(document.getChunksDocumentId()).thenReturn(chunksDocumentId);
+        when(document.getContentSha256()).thenReturn(contentSha256);
+        when(document.getOriginalFileName()).thenReturn("contrato.pdf");
+        when(document.getFileSize()).thenReturn((long) PDF.length);
+        return document;
+    }
+
+    /**
+     * Runs the callbacks of {@link org.springframework.transaction.support.TransactionTemplate}
+     * without a database.
+     */
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.contextoia.documentingestion.domain.service;
+
+import com.contextoia.documentingestion.domain.model.PageText;
+import com.contextoia.documentingestion.domain.model.TextChunk;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TextChunkerTest {
+
+    private static final int CHUNK_SIZE = 200;
+    private static final int CHUNK_OVERLAP = 40;
+    private static final Pattern WORD = Pattern.compile("p(\\d+)w\\d+");
+
+    private final TextChunker chunker = new TextChunker(CHUNK_SIZE, CHUNK_OVERLAP);
+    private final Random random = new Random(11);
+
+    @Test
+    void incrementalPagesYieldTheSameContentAsTheWholeText() {
+        List<PageText> pages = pages(40);
+        String wholeText = pages.stream().map(PageText::text).collect(Collectors.joining("\n\n"));
+
+        List<TextChunk> byPage = chunker.chunk(pages);
+        List<TextChunk> whole = chunker.chunk(List.of(new PageText(1, wholeText)));
+
+        assertThat(byPage).extracting(TextChunk::content)
+                .containsExactlyElementsOf(whole.stream().map(TextChunk::content).toList());
+        assertThat(byPage).extracting(TextChunk::chunkIndex)
+                .containsExactlyElementsOf(IntStream.range(0, byPage.size()).boxed().toList());
+    }
+
+    @Test
+    void chunksStayWithinTheSizeLimitAndOverlapTheirPredecessor() {
+        List<TextChunk> chunks = chunker.chunk(pages(30));
+
+        assertThat(chunks).hasSizeGreaterThan(10).allSatisfy(chunk ->
+                assertThat(chunk.content().length()).isLessThanOrEqualTo(CHUNK_SIZE));
+        for (int i = 1; i < chunks.size(); i++) {
+            String previous = chunks.get(i - 1).content();
+            String next = chunks.get(i).content();
+            assertThat(sharedLength(previous, next))
+                    .as("sobreposição entre os chunks %d e %d", i - 1, i)
+                    .isBetween(1, CHUNK_OVERLAP);
+        }
+    }
+
+    @Test
+    void pageRangesCoverEveryWordOfTheChunkAcrossCompactions() {
+        List<TextChunk> chunks = chunker.chunk(pages(50));
+
+        boolean crossesPages = false;
+        for (TextChunk chunk : chunks) {
+            Matcher word = WORD.matcher(chunk.content());
+            int first = Integer.MAX_VALUE;
+            int last = Integer.MIN_VALUE;
+            while (word.find()) {
+                int page = Integer.parseInt(word.group(1));
+                first = Math.min(first, page);
+                last = Math.max(last, page);
+            }
+            assertThat(chunk.pageStart()).isEqualTo(first);
+            assertThat(chunk.pageEnd()).isEqualTo(last);
+            crossesPages |= chunk.pageStart() < chunk.pageEnd();
+        }
+        assertThat(crossesPages).isTrue();
+    }
+
+    @Test
+    void chunksAreEmittedBeforeTheSessionFinishes() {
+        List<TextChunk> emitted = new ArrayList<>();
+        TextChunker.Session session = chunker.newSession(emitted::add);
+
+        List<PageText> pages = pages(20);
+        for (int i = 0; i < 10; i++) {
+            session.addPage(pages.get(i));
+        }
+        int beforeFinish = emitted.size();
+        pages.subList(10, 20).forEach(session::addPage);
+        session.finish();
+
+        assertThat(beforeFinish).isPositive();
+        assertThat(emitted).extracting(TextChunk::content)
+                .containsExactlyElementsOf(chunker.chunk(pages).stream().map(TextChunk::content).toList());
+    }
+
+    @Test
+    void blankAndSkippedPagesKeepTheirNumbers() {
+        List<TextChunk> chunks = chunker.chunk(List.of(
+                new PageText(1, "   "),
+                new PageText(3, "p3w1 p3w2 conteúdo curto."),
+                new PageText(7, "")
+        ));
+
+        assertThat(chunks).singleElement().satisfies(chunk -> {
+            assertThat(chunk.content()).isEqualTo("p3w1 p3w2 conteúdo curto.");
+            assertThat(chunk.pageStart()).isEqualTo(3);
+            assertThat(chunk.pageEnd()).isEqualTo(3);
+        });
+    }
+
+    @Test
+    void documentWithoutTextHasNoChunks() {
+        assertThat(chunker.chunk(List.of(new PageText(1, ""), new PageText(2, "\n \t")))).isEmpty();
+    }
+
+    @Test
+    void finishedSessionRejectsPages() {
+        TextChunker.Session session = chunker.newSession(chunk -> { });
+        session.finish();
+
+        assertThatThrownBy(() -> session.addPage(new PageText(1, "texto")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void invalidSizesAreRejected() {
+        assertThatThrownBy(() -> new TextChunker(0, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TextChunker(100, 100)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Pages of words tagged with their page number, of random length (often shorter than a
+     * chunk, sometimes several chunks long), with sentence ends and paragraph breaks.
+     */
+    private List<PageText> pages(int count) {
+        List<PageText> pages = new ArrayList<>();
+        for (int page = 1; page <= count; page++) {
+            StringBuilder text = new StringBuilder();
+            int words = 5 + random.nextInt(80);
+            for (int w = 1; w <= words; w++) {
+                if (w > 1) text.append(random.nextInt(25) == 0 ? "\n\n" : " ");
+                text.append('p').append(page).append('w').append(w);
+                if (random.nextInt(8) == 0) text.append('.');
+            }
+            pages.add(new PageText(page, text.toString()));
+        }
+        return pages;
+    }
+
+    /**
+     * @return the length of the longest suffix of {@code previous} that starts {@code next}
+     */
+    private static int sharedLength(String previous, String next) {
+        for (int length = Math.min(previous.length(), next.length()); length > 0; length--) {
+            if (next.startsWith(previous.substring(previous.length() - length))) return length;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,161 @@
+package com.contextoia.documentingestion.infrastructure.adapter.ai;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingEmbeddingAdapterTest {
+
+    private static final String MODEL = "text-embedding-004";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private GeminiEmbeddingAdapter model;
+    private InMemoryEmbeddingCacheStore memory;
+    private MapCacheStore database;
+
+    @BeforeEach
+    void setUp() {
+        model = mock(GeminiEmbeddingAdapter.class);
+        when(model.generateEmbeddings(anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            return texts.stream().map(CachingEmbeddingAdapterTest::vectorOf).toList();
+        });
+        memory = new InMemoryEmbeddingCacheStore(100, Duration.ofHours(1), meterRegistry);
+        database = new MapCacheStore();
+    }
+
+    @Test
+    void textsDifferingOnlyInWhitespaceAndUnicodeFormShareAnEntry() {
+        CachingEmbeddingAdapter adapter = adapter(MODEL, memory);
+
+        float[] composed = adapter.generateEmbedding("Relat\u00f3rio   anual\n");
+        float[] decomposed = adapter.generateEmbedding("  Relato\u0301rio anual");
+
+        assertThat(decomposed).isEqualTo(composed);
+        verify(model).generateEmbeddings(List.of("Relat\u00f3rio   anual\n"));
+        assertThat(requests("memory", "hit")).isEqualTo(1);
+    }
+
+    @Test
+    void modelNameIsPartOfTheKey() {
+        adapter(MODEL, memory).generateEmbedding("mesmo texto");
+        adapter("outro-modelo", memory).generateEmbedding("mesmo texto");
+
+        verify(model, times(2)).generateEmbeddings(List.of("mesmo texto"));
+    }
+
+    @Test
+    void duplicatesInABatchAreEmbeddedOnceAndReturnedInInputOrder() {
+        CachingEmbeddingAdapter adapter = adapter(MODEL, memory);
+
+        List<float[]> embeddings = adapter.generateEmbeddings(List.of("a", "b", "a"));
+
+        verify(model).generateEmbeddings(List.of("a", "b"));
+        assertThat(embeddings).hasSize(3);
+        assertThat(embeddings.get(0)).containsExactly(vectorOf("a"));
+        assertThat(embeddings.get(1)).containsExactly(vectorOf("b"));
+        assertThat(embeddings.get(2)).isSameAs(embeddings.get(0));
+    }
+
+    @Test
+    void computedEmbeddingsAreWrittenToEveryTier() {
+        CachingEmbeddingAdapter adapter = adapter(MODEL, memory, database);
+
+        adapter.generateEmbeddings(List.of("a", "b"));
+
+        assertThat(database.entries).hasSize(2);
+        assertThat(memory.getAll(database.entries.keySet())).hasSize(2);
+    }
+
+    @Test
+    void hitInASlowerTierIsPromotedToTheFasterOnes() {
+        adapter(MODEL, database).generateEmbedding("promovido");
+        CachingEmbeddingAdapter adapter = adapter(MODEL, memory, database);
+
+        float[] fromDatabase = adapter.generateEmbedding("promovido");
+        database.entries.clear();
+        float[] fromMemory = adapter.generateEmbedding("promovido");
+
+        assertThat(fromMemory).isEqualTo(fromDatabase);
+        verify(model).generateEmbeddings(anyList());
+        assertThat(requests("database", "hit")).isEqualTo(1);
+        assertThat(requests("memory", "hit")).isEqualTo(1);
+        assertThat(requests("memory", "miss")).isEqualTo(1);
+    }
+
+    @Test
+    void changingAReturnedEmbeddingDoesNotAlterTheCachedOne() {
+        CachingEmbeddingAdapter adapter = adapter(MODEL, memory);
+
+        adapter.generateEmbedding("imutável")[0] = -1f;
+        adapter.generateEmbedding("imutável")[0] = -1f;
+
+        assertThat(adapter.generateEmbedding("imutável")).containsExactly(vectorOf("imutável"));
+        verify(model).generateEmbeddings(anyList());
+    }
+
+    @Test
+    void blankTextIsRejectedBeforeAnyLookup() {
+        CachingEmbeddingAdapter adapter = adapter(MODEL, memory);
+
+        assertThatThrownBy(() -> adapter.generateEmbedding("   "))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(model, never()).generateEmbeddings(anyList());
+    }
+
+    private CachingEmbeddingAdapter adapter(String modelName, EmbeddingCacheStore... tiers) {
+        return new CachingEmbeddingAdapter(model, List.of(tiers), modelName, meterRegistry);
+    }
+
+    private double requests(String tier, String result) {
+        return meterRegistry.get("embedding.cache.requests")
+                .tag("tier", tier)
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+
+    private static float[] vectorOf(String text) {
+        return new float[]{text.length(), text.hashCode()};
+    }
+
+    private static final class MapCacheStore implements EmbeddingCacheStore {
+
+        private final Map<String, float[]> entries = new HashMap<>();
+
+        @Override
+        public String tierName() {
+            return "database";
+        }
+
+        @Override
+        public Map<String, float[]> getAll(Collection<String> keys) {
+            Map<String, float[]> found = new HashMap<>();
+            for (String key : keys) {
+                if (entries.containsKey(key)) found.put(key, entries.get(key));
+            }
+            return found;
+        }
+
+        @Override
+        public void putAll(Map<String, float[]> newEntries) {
+            entries.putAll(newEntries);
+        }
+    }
+}
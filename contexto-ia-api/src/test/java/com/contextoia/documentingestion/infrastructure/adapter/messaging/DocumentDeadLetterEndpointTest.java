@@ -0,0 +1,105 @@
+package com.contextoia.documentingestion.infrastructure.adapter.messaging;
+
+import com.contextoia.documentingestion.application.dto.ProcessDocumentMessage;
+import com.contextoia.documentingestion.application.service.DocumentProcessorService;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.GetResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.core.ChannelCallback;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentDeadLetterEndpointTest {
+
+    private static final String PROCESSING_QUEUE = "pdf-processing";
+    private static final String DEAD_LETTER_QUEUE = "pdf-processing-dlq";
+    private static final long DELIVERY_TAG = 7;
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final RabbitOperations operations = mock(RabbitOperations.class);
+    private final Channel channel = mock(Channel.class);
+    private final MessageConverter messageConverter = mock(MessageConverter.class);
+    private final DocumentProcessorService documentProcessorService = mock(DocumentProcessorService.class);
+    private final DocumentDeadLetterEndpoint endpoint = new DocumentDeadLetterEndpoint(rabbitTemplate,
+            mock(AmqpAdmin.class), documentProcessorService, PROCESSING_QUEUE, DEAD_LETTER_QUEUE, Duration.ofSeconds(10));
+
+    private final ProcessDocumentMessage payload = new ProcessDocumentMessage(UUID.randomUUID(), "documentos/a.pdf");
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        when(rabbitTemplate.invoke(any(RabbitOperations.OperationsCallback.class))).thenAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(operations));
+        when(operations.execute(any(ChannelCallback.class))).thenAnswer(invocation ->
+                invocation.<ChannelCallback<?>>getArgument(0).doInRabbit(channel));
+        when(rabbitTemplate.getMessageConverter()).thenReturn(messageConverter);
+        when(messageConverter.fromMessage(any())).thenReturn(payload);
+        when(channel.basicGet(DEAD_LETTER_QUEUE, false)).thenReturn(deadLetter(), (GetResponse) null);
+    }
+
+    @Test
+    void messageIsAcknowledgedOnlyAfterItsCopyIsConfirmed() throws Exception {
+        when(documentProcessorService.resetForRetry(payload.documentId())).thenReturn(true);
+
+        Map<String, Object> result = endpoint.replay(null);
+
+        InOrder order = inOrder(documentProcessorService, operations, channel);
+        order.verify(documentProcessorService).resetForRetry(payload.documentId());
+        order.verify(operations).convertAndSend(PROCESSING_QUEUE, payload);
+        order.verify(operations).waitForConfirmsOrDie(10_000);
+        order.verify(channel).basicAck(DELIVERY_TAG, false);
+        assertThat(result).containsEntry("replayed", 1).containsEntry("discarded", 0);
+    }
+
+    @Test
+    void messageStaysInTheDeadLetterQueueWhenRepublishingFails() throws Exception {
+        when(documentProcessorService.resetForRetry(payload.documentId())).thenReturn(true);
+        doThrow(new AmqpTimeoutException("confirmação não recebida")).when(operations).waitForConfirmsOrDie(anyLong());
+
+        assertThatThrownBy(() -> endpoint.replay(10)).isInstanceOf(AmqpTimeoutException.class);
+
+        verify(channel).basicNack(DELIVERY_TAG, false, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void messageOfADeletedDocumentIsDiscarded() throws Exception {
+        when(documentProcessorService.resetForRetry(payload.documentId())).thenReturn(false);
+
+        Map<String, Object> result = endpoint.replay(10);
+
+        verify(operations, never()).convertAndSend(anyString(), any(Object.class));
+        verify(channel).basicAck(DELIVERY_TAG, false);
+        assertThat(result).containsEntry("replayed", 0).containsEntry("discarded", 1);
+    }
+
+    private static GetResponse deadLetter() {
+        Envelope envelope = new Envelope(DELIVERY_TAG, false, "", DEAD_LETTER_QUEUE);
+        AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder().contentType("application/json").build();
+        return new GetResponse(envelope, properties, "{}".getBytes(), 0);
+    }
+}
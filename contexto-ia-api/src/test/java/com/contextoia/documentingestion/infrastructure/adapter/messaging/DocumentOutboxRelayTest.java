@@ -0,0 +1,128 @@
+package com.contextoia.documentingestion.infrastructure.adapter.messaging;
+
+import com.contextoia.documentingestion.application.dto.ProcessDocumentMessage;
+import com.contextoia.documentingestion.infrastructure.adapter.persistence.DocumentOutboxRepository;
+import com.contextoia.documentingestion.infrastructure.adapter.persistence.DocumentOutboxRepository.OutboxEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentOutboxRelayTest {
+
+    private final DocumentOutboxRepository outboxRepository = mock(DocumentOutboxRepository.class);
+    private final RabbitMQMessagePublisher messagePublisher = mock(RabbitMQMessagePublisher.class);
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final RabbitOperations channel = mock(RabbitOperations.class);
+    private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+    private final DocumentOutboxRelay relay = new DocumentOutboxRelay(outboxRepository, messagePublisher,
+            rabbitTemplate, new TransactionTemplate(transactionManager), 2, Duration.ofSeconds(10));
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(rabbitTemplate.invoke(any(RabbitOperations.OperationsCallback.class))).thenAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(channel));
+    }
+
+    @Test
+    void entriesAreDeletedOnlyAfterTheBrokerConfirmsTheBatch() {
+        OutboxEntry first = entry();
+        OutboxEntry second = entry();
+        OutboxEntry third = entry();
+        when(outboxRepository.lockBatch(2)).thenReturn(List.of(first, second), List.of(third));
+
+        relay.relay();
+
+        InOrder order = inOrder(messagePublisher, channel, outboxRepository);
+        order.verify(messagePublisher).publishProcessingMessage(first.message());
+        order.verify(messagePublisher).publishProcessingMessage(second.message());
+        order.verify(channel).waitForConfirmsOrDie(10_000);
+        order.verify(outboxRepository).delete(List.of(first.id(), second.id()));
+        order.verify(messagePublisher).publishProcessingMessage(third.message());
+        order.verify(channel).waitForConfirmsOrDie(10_000);
+        order.verify(outboxRepository).delete(List.of(third.id()));
+        assertThat(transactionManager.commits).isEqualTo(2);
+    }
+
+    @Test
+    void entriesAreKeptWhenConfirmsAreMissing() {
+        OutboxEntry entry = entry();
+        when(outboxRepository.lockBatch(2)).thenReturn(List.of(entry));
+        doThrow(new AmqpTimeoutException("confirmações não recebidas")).when(channel).waitForConfirmsOrDie(anyLong());
+
+        relay.relay();
+
+        verify(messagePublisher).publishProcessingMessage(entry.message());
+        verify(outboxRepository, never()).delete(anyCollection());
+        assertThat(transactionManager.rollbacks).isEqualTo(1);
+        assertThat(transactionManager.commits).isZero();
+    }
+
+    @Test
+    void emptyOutboxPublishesNothing() {
+        when(outboxRepository.lockBatch(2)).thenReturn(List.of());
+
+        relay.relay();
+
+        verify(rabbitTemplate, never()).invoke(any(RabbitOperations.OperationsCallback.class));
+        verify(outboxRepository, times(1)).lockBatch(2);
+    }
+
+    private static OutboxEntry entry() {
+        UUID documentId = UUID.randomUUID();
+        return new OutboxEntry(UUID.randomUUID(), new ProcessDocumentMessage(documentId, "documentos/" + documentId));
+    }
+
+    /**
+     * Runs the callbacks of {@link TransactionTemplate} without a database, counting how
+     * each transaction ended.
+     */
+    private static final class RecordingTransactionManager implements PlatformTransactionManager {
+
+        private int commits;
+        private int rollbacks;
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            if (status.isRollbackOnly()) {
+                rollbacks++;
+            } else {
+                commits++;
+            }
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            rollbacks++;
+        }
+    }
+}
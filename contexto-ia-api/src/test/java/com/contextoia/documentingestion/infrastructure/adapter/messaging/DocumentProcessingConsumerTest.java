@@ -0,0 +1,100 @@
+package com.contextoia.documentingestion.infrastructure.adapter.messaging;
+
+import com.contextoia.common.exceptions.TransientFailureException;
+import com.contextoia.documentingestion.application.dto.ProcessDocumentMessage;
+import com.contextoia.documentingestion.application.exception.DocumentProcessingException;
+import com.contextoia.documentingestion.application.service.DocumentProcessorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentProcessingConsumerTest {
+
+    private static final UUID DOCUMENT_ID = UUID.randomUUID();
+    private static final ProcessDocumentMessage MESSAGE = new ProcessDocumentMessage(DOCUMENT_ID, "documentos/a.pdf");
+
+    private final DocumentProcessorService documentProcessorService = mock(DocumentProcessorService.class);
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final DocumentProcessingConsumer consumer = new DocumentProcessingConsumer(
+            documentProcessorService, rabbitTemplate, "pdf-processing-retry", 4);
+
+    @BeforeEach
+    void setUp() {
+        doThrow(new TransientFailureException("Serviço de embedding temporariamente indisponível", null))
+                .when(documentProcessorService).processDocument(DOCUMENT_ID);
+    }
+
+    @Test
+    void firstTransientFailureGoesToTheFirstRetryQueue() {
+        consumer.processDocument(MESSAGE, null);
+
+        assertThat(retryCountSentTo("pdf-processing-retry-1")).isEqualTo(1);
+    }
+
+    @Test
+    void laterTransientFailureGoesToTheNextRetryQueueWithTheCountIncremented() {
+        consumer.processDocument(MESSAGE, 2);
+
+        assertThat(retryCountSentTo("pdf-processing-retry-3")).isEqualTo(3);
+        verify(documentProcessorService, never()).failDocument(any(), anyString());
+    }
+
+    @Test
+    void exhaustedRetriesFailTheDocumentAndRejectTheMessage() {
+        when(documentProcessorService.failDocument(eq(DOCUMENT_ID), anyString())).thenReturn(true);
+
+        assertThatThrownBy(() -> consumer.processDocument(MESSAGE, 4))
+                .isInstanceOf(AmqpRejectAndDontRequeueException.class);
+
+        verify(documentProcessorService).failDocument(DOCUMENT_ID, "Serviço de embedding temporariamente indisponível");
+        verify(rabbitTemplate, never()).convertAndSend(anyString(), any(Object.class), any(MessagePostProcessor.class));
+    }
+
+    @Test
+    void exhaustedRetriesOfADocumentStillClaimedElsewhereAreDropped() {
+        when(documentProcessorService.failDocument(eq(DOCUMENT_ID), anyString())).thenReturn(false);
+
+        consumer.processDocument(MESSAGE, 4);
+
+        verify(rabbitTemplate, never()).convertAndSend(anyString(), any(Object.class), any(MessagePostProcessor.class));
+    }
+
+    @Test
+    void permanentFailureIsRejectedWithoutRetry() {
+        doThrow(new DocumentProcessingException(DOCUMENT_ID, new IllegalStateException("PDF corrompido")))
+                .when(documentProcessorService).processDocument(DOCUMENT_ID);
+
+        assertThatThrownBy(() -> consumer.processDocument(MESSAGE, 0))
+                .isInstanceOf(AmqpRejectAndDontRequeueException.class);
+
+        verify(rabbitTemplate, never()).convertAndSend(anyString(), any(Object.class), any(MessagePostProcessor.class));
+    }
+
+    /**
+     * The retry count header the message sent to the queue carries.
+     */
+    private Object retryCountSentTo(String queue) {
+        ArgumentCaptor<MessagePostProcessor> postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(rabbitTemplate).convertAndSend(eq(queue), eq(MESSAGE), postProcessor.capture());
+        Message sent = postProcessor.getValue().postProcessMessage(new Message(new byte[0], new MessageProperties()));
+        return sent.getMessageProperties().getHeader(DocumentProcessingConsumer.RETRY_COUNT_HEADER);
+    }
+}
@@ -0,0 +1,81 @@
+package com.contextoia.documentingestion.infrastructure.adapter.pdf;
+
+import com.contextoia.documentingestion.domain.model.PageText;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ApachePDFProcessorAdapterTest {
+
+    private static final int PAGES = 150;
+
+    private final List<ApachePDFProcessorAdapter> adapters = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        adapters.forEach(ApachePDFProcessorAdapter::shutdown);
+    }
+
+    @Test
+    void parallelExtractionFromMemoryDeliversEveryPageInOrder() throws IOException {
+        assertPagesInOrder(adapter(4, DataSize.ofMegabytes(8)), TestPdfs.generate(PAGES, 5), PAGES);
+    }
+
+    @Test
+    void parallelExtractionFromSpooledFileDeliversEveryPageInOrder() throws IOException {
+        assertPagesInOrder(adapter(4, DataSize.ofBytes(1024)), TestPdfs.generate(PAGES, 5), PAGES);
+    }
+
+    @Test
+    void singleThreadExtractionDeliversEveryPageInOrder() throws IOException {
+        assertPagesInOrder(adapter(1, DataSize.ofMegabytes(8)), TestPdfs.generate(40, 5), 40);
+    }
+
+    @Test
+    void consumerFailureStopsTheExtraction() throws IOException {
+        ApachePDFProcessorAdapter adapter = adapter(4, DataSize.ofMegabytes(8));
+        byte[] pdf = TestPdfs.generate(PAGES, 5);
+
+        assertThatThrownBy(() -> adapter.extractPages(new ByteArrayInputStream(pdf), page -> {
+            if (page.pageNumber() == 40) throw new IllegalStateException("falha do consumidor");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("falha do consumidor");
+
+        assertPagesInOrder(adapter, pdf, PAGES);
+    }
+
+    @Test
+    void invalidDocumentIsRejected() {
+        ApachePDFProcessorAdapter adapter = adapter(4, DataSize.ofMegabytes(8));
+
+        assertThatThrownBy(() -> adapter.extractPages(
+                new ByteArrayInputStream("%PDF-1.4 truncado".getBytes()), page -> { }))
+                .isInstanceOf(IOException.class);
+    }
+
+    private void assertPagesInOrder(ApachePDFProcessorAdapter adapter, byte[] pdf, int expectedPages) throws IOException {
+        List<PageText> pages = new ArrayList<>();
+        adapter.extractPages(new ByteArrayInputStream(pdf), pages::add);
+
+        assertThat(pages).extracting(PageText::pageNumber)
+                .containsExactlyElementsOf(IntStream.rangeClosed(1, expectedPages).boxed().toList());
+        for (PageText page : pages) {
+            assertThat(page.text()).startsWith(TestPdfs.pageMarker(page.pageNumber()) + " linha 1");
+        }
+    }
+
+    private ApachePDFProcessorAdapter adapter(int parallelism, DataSize spoolThreshold) {
+        ApachePDFProcessorAdapter adapter = new ApachePDFProcessorAdapter(
+                DataSize.ofMegabytes(32), parallelism, 1, spoolThreshold);
+        adapters.add(adapter);
+        return adapter;
+    }
+}
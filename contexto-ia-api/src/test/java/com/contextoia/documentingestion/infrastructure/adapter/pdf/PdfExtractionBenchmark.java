@@ -0,0 +1,66 @@
+package com.contextoia.documentingestion.infrastructure.adapter.pdf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to extract every page of a text PDF, single-threaded and in parallel, by page count.
+ * The speedup of the parallel extraction at each size is what
+ * {@code application.ingestion.pdf.parallel-min-pages} should be chosen from; parallel runs
+ * use no minimum here. The spool threshold sets whether the copies are loaded from memory or
+ * from a temporary file:
+ * <pre>./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark=PdfExtractionBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfExtractionBenchmark {
+
+    @Param({"16", "64", "256", "1024"})
+    private int pages;
+
+    @Param({"1", "2", "4"})
+    private int parallelism;
+
+    @Param({"8MB", "0B"})
+    private String spoolThreshold;
+
+    private byte[] pdf;
+    private ApachePDFProcessorAdapter adapter;
+
+    @Setup
+    public void setUp() throws IOException {
+        pdf = TestPdfs.generate(pages, 40);
+        adapter = new ApachePDFProcessorAdapter(
+                DataSize.ofMegabytes(32), parallelism, 1, DataSize.parse(spoolThreshold));
+    }
+
+    @TearDown
+    public void tearDown() {
+        adapter.shutdown();
+    }
+
+    @Benchmark
+    public void extractPages(Blackhole blackhole) throws IOException {
+        adapter.extractPages(new ByteArrayInputStream(pdf), blackhole::consume);
+    }
+}
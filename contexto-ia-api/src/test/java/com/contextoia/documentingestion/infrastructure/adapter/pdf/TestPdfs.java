@@ -0,0 +1,46 @@
+package com.contextoia.documentingestion.infrastructure.adapter.pdf;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Builds PDFs whose page {@code n} holds {@code linesPerPage} lines starting with
+ * {@link #pageMarker(int)}.
+ */
+final class TestPdfs {
+
+    private TestPdfs() {
+    }
+
+    static byte[] generate(int pages, int linesPerPage) throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int page = 1; page <= pages; page++) {
+                PDPage pdfPage = new PDPage();
+                document.addPage(pdfPage);
+                try (PDPageContentStream content = new PDPageContentStream(document, pdfPage)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 10);
+                    content.setLeading(12);
+                    content.newLineAtOffset(40, 750);
+                    for (int line = 1; line <= linesPerPage; line++) {
+                        content.showText(pageMarker(page) + " linha " + line
+                                + " do documento de teste com algumas palavras a mais");
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    static String pageMarker(int page) {
+        return "pagina-" + page;
+    }
+}
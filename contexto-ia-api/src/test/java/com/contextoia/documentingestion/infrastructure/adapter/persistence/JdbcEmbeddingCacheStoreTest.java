@@ -0,0 +1,69 @@
+package com.contextoia.documentingestion.infrastructure.adapter.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JdbcEmbeddingCacheStoreTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final NamedParameterJdbcTemplate namedJdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final JdbcEmbeddingCacheStore store = new JdbcEmbeddingCacheStore(
+            jdbcTemplate, namedJdbcTemplate, "text-embedding-004", Duration.ofDays(30));
+
+    @Test
+    void expiredEntriesAreDeletedInBatchesUntilNoneAreLeft() {
+        when(jdbcTemplate.update(contains("DELETE FROM tb_embedding_cache"), any(), eq(1000)))
+                .thenReturn(1000, 1000, 12);
+        OffsetDateTime before = OffsetDateTime.now().minusDays(30);
+
+        store.pruneExpired();
+
+        ArgumentCaptor<Object> expiredBefore = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate, times(3)).update(anyString(), expiredBefore.capture(), eq(1000));
+        assertThat(expiredBefore.getAllValues()).containsOnly(expiredBefore.getValue());
+        assertThat((OffsetDateTime) expiredBefore.getValue())
+                .isBetween(before, OffsetDateTime.now().minusDays(30));
+    }
+
+    @Test
+    void pruningFailureIsLeftForTheNextRun() {
+        when(jdbcTemplate.update(anyString(), any(), eq(1000)))
+                .thenThrow(new DataAccessResourceFailureException("conexão recusada"));
+
+        store.pruneExpired();
+
+        verify(jdbcTemplate).update(anyString(), any(), eq(1000));
+    }
+
+    @Test
+    void lookupsIgnoreEntriesOlderThanTheTtl() {
+        OffsetDateTime before = OffsetDateTime.now().minusDays(30);
+
+        store.getAll(List.of("chave"));
+
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(namedJdbcTemplate).query(contains("created_at >= :notBefore"), params.capture(),
+                any(RowCallbackHandler.class));
+        assertThat((OffsetDateTime) params.getValue().getValue("notBefore"))
+                .isBetween(before, OffsetDateTime.now().minusDays(30));
+    }
+}
@@ -0,0 +1,108 @@
+package com.contextoia.documentingestion.infrastructure.adapter.persistence;
+
+import com.contextoia.documentingestion.infrastructure.adapter.persistence.VectorIndexEndpoint.IndexState;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+
+import static com.contextoia.documentingestion.infrastructure.adapter.persistence.VectorIndexEndpoint.BINARY_INDEX;
+import static com.contextoia.documentingestion.infrastructure.adapter.persistence.VectorIndexEndpoint.FULL_PRECISION_INDEX;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VectorIndexEndpointTest {
+
+    private final JdbcTemplate connection = mock(JdbcTemplate.class);
+
+    @Test
+    void nothingIsChangedWhileAnotherInstanceHoldsTheLock() {
+        when(connection.queryForObject(contains("pg_try_advisory_lock"), eq(Boolean.class))).thenReturn(false);
+
+        endpoint(true).switchIndexes(connection);
+
+        verify(connection, never()).execute(anyString());
+        verify(connection, never()).update(anyString(), anyInt());
+        verify(connection, never()).queryForObject(contains("pg_advisory_unlock"), eq(Boolean.class));
+    }
+
+    @Test
+    void enablingQuantizationBackfillsBuildsTheBinaryIndexAndThenDropsTheOther() {
+        lockAcquired();
+        when(connection.update(anyString(), anyInt())).thenReturn(1000, 0);
+        states(BINARY_INDEX, List.of(), List.of(IndexState.VALID));
+        states(FULL_PRECISION_INDEX, List.of(IndexState.VALID));
+
+        endpoint(true).switchIndexes(connection);
+
+        var order = inOrder(connection);
+        order.verify(connection, times(2)).update(contains("binary_quantize"), eq(1000));
+        order.verify(connection).execute(contains("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + BINARY_INDEX));
+        order.verify(connection).execute("DROP INDEX CONCURRENTLY IF EXISTS " + FULL_PRECISION_INDEX);
+        order.verify(connection).queryForObject(contains("pg_advisory_unlock"), eq(Boolean.class));
+    }
+
+    @Test
+    void invalidIndexLeftByAnInterruptedBuildIsRebuilt() {
+        lockAcquired();
+        states(FULL_PRECISION_INDEX, List.of(IndexState.INVALID), List.of(IndexState.VALID));
+        states(BINARY_INDEX, List.of());
+
+        endpoint(false).switchIndexes(connection);
+
+        var order = inOrder(connection);
+        order.verify(connection).execute("DROP INDEX CONCURRENTLY IF EXISTS " + FULL_PRECISION_INDEX);
+        order.verify(connection).execute(contains("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + FULL_PRECISION_INDEX));
+        verify(connection, never()).update(anyString(), anyInt());
+    }
+
+    @Test
+    void indexBeingBuiltByAnotherSessionIsNeverDropped() {
+        lockAcquired();
+        states(FULL_PRECISION_INDEX, List.of(IndexState.BUILDING));
+        states(BINARY_INDEX, List.of(IndexState.VALID));
+
+        endpoint(false).switchIndexes(connection);
+
+        verify(connection, never()).execute(anyString());
+        verify(connection).queryForObject(contains("pg_advisory_unlock"), eq(Boolean.class));
+    }
+
+    @Test
+    void unusedIndexBeingBuiltByAnotherSessionIsKept() {
+        lockAcquired();
+        states(FULL_PRECISION_INDEX, List.of(IndexState.VALID));
+        states(BINARY_INDEX, List.of(IndexState.BUILDING));
+
+        endpoint(false).switchIndexes(connection);
+
+        verify(connection, never()).execute(anyString());
+    }
+
+    private VectorIndexEndpoint endpoint(boolean quantizationEnabled) {
+        return new VectorIndexEndpoint(mock(JdbcTemplate.class), quantizationEnabled, 1000);
+    }
+
+    private void lockAcquired() {
+        when(connection.queryForObject(contains("pg_try_advisory_lock"), eq(Boolean.class))).thenReturn(true);
+    }
+
+    /**
+     * Stubs the state of the index as read on each successive check; the last one repeats.
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private void states(String index, List<IndexState> first, List<IndexState>... next) {
+        when(connection.query(anyString(), any(RowMapper.class), eq(index))).thenReturn(first, next);
+    }
+}
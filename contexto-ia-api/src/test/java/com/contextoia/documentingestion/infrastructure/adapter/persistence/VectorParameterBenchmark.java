@@ -0,0 +1,88 @@
+package com.contextoia.documentingestion.infrastructure.adapter.persistence;
+
+import com.pgvector.PGvector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side cost of sending a 768-dimension query embedding to Postgres and of reading one
+ * back, per search. The {@code literal*} benchmarks reproduce the former path: a boxed
+ * {@code Float[]} formatted into a {@code [..]} literal for {@code CAST(:embedding AS vector)},
+ * and the {@code embedding::text} column parsed back. The {@code binary*} benchmarks are what
+ * the driver does with a {@link PGvector} once the type is registered on the connection.
+ *
+ * The parsing of the literal by Postgres, which the binary format also avoids, is not
+ * measured here. Run with {@code -prof gc} to see the allocation per operation:
+ * <pre>./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark="VectorParameterBenchmark -prof gc"</pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorParameterBenchmark {
+
+    private static final int DIMENSION = 768;
+
+    private float[] embedding;
+    private String literal;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        embedding = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            embedding[i] = random.nextFloat() * 2 - 1;
+        }
+        literal = literalEncode();
+        binary = binaryEncode();
+    }
+
+    @Benchmark
+    public String literalEncode() {
+        Float[] boxed = new Float[embedding.length];
+        for (int i = 0; i < embedding.length; i++) {
+            boxed[i] = embedding[i];
+        }
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < boxed.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(boxed[i]);
+        }
+        return sb.append(']').toString();
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        PGvector vector = new PGvector(embedding);
+        byte[] bytes = new byte[vector.lengthInBytes()];
+        vector.toBytes(bytes, 0);
+        return bytes;
+    }
+
+    @Benchmark
+    public float[] literalDecode() throws SQLException {
+        return new PGvector(literal).toArray();
+    }
+
+    @Benchmark
+    public float[] binaryDecode() throws SQLException {
+        PGvector vector = new PGvector();
+        vector.setByteValue(binary, 0);
+        return vector.toArray();
+    }
+}
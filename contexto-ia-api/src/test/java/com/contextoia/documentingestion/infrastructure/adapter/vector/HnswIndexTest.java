@@ -0,0 +1,145 @@
+package com.contextoia.documentingestion.infrastructure.adapter.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HnswIndexTest {
+
+    private static final int DIMENSION = 32;
+    private static final int K = 10;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void graphSearchRecallsTheExactNearestNeighbours() {
+        HnswIndex index = indexOf(randomVectors(5_000));
+
+        assertThat(recallAtK(index, 100, 100)).isGreaterThanOrEqualTo(0.95);
+    }
+
+    @Test
+    void exactSearchMatchesABruteForceScan() {
+        float[][] vectors = randomVectors(500);
+        HnswIndex index = indexOf(vectors);
+        float[] query = randomVector();
+
+        HnswIndex.SearchResult result = index.exactSearch(query, K);
+
+        Integer[] order = new Integer[vectors.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Float.compare(cosineDistance(query, vectors[a]), cosineDistance(query, vectors[b])));
+        for (int i = 0; i < K; i++) {
+            assertThat(result.nodes()[i]).isEqualTo(order[i]);
+            assertThat(result.distances()[i]).isCloseTo(cosineDistance(query, vectors[order[i]]), within(1e-5f));
+        }
+    }
+
+    @Test
+    void deletedNodesAreNeverReturned() {
+        float[][] vectors = randomVectors(2_000);
+        HnswIndex index = indexOf(vectors);
+        for (int node = 0; node < vectors.length; node += 2) {
+            index.markDeleted(node);
+        }
+
+        for (int q = 0; q < 50; q++) {
+            float[] query = randomVector();
+            assertThat(Arrays.stream(index.search(query, K, 64).nodes()).boxed())
+                    .hasSize(K)
+                    .allMatch(node -> node % 2 == 1);
+            assertThat(Arrays.stream(index.exactSearch(query, K).nodes()).boxed())
+                    .hasSize(K)
+                    .allMatch(node -> node % 2 == 1);
+        }
+        assertThat(index.size()).isEqualTo(1_000);
+        assertThat(index.deletedCount()).isEqualTo(1_000);
+    }
+
+    @Test
+    void compactionDropsDeletedNodesAndKeepsRecall() {
+        float[][] vectors = randomVectors(4_000);
+        HnswIndex index = indexOf(vectors);
+        for (int node = 0; node < vectors.length; node += 3) {
+            index.markDeleted(node);
+        }
+
+        HnswIndex.Compaction compaction = index.compact();
+        HnswIndex compacted = compaction.index();
+
+        assertThat(compacted.size()).isEqualTo(index.size());
+        assertThat(compacted.deletedCount()).isZero();
+        int expectedId = 0;
+        for (int node = 0; node < vectors.length; node++) {
+            assertThat(compaction.newIds()[node]).isEqualTo(node % 3 == 0 ? -1 : expectedId++);
+        }
+        float[] query = randomVector();
+        int[] before = index.exactSearch(query, K).nodes();
+        int[] after = compacted.exactSearch(query, K).nodes();
+        for (int i = 0; i < K; i++) {
+            assertThat(after[i]).isEqualTo(compaction.newIds()[before[i]]);
+        }
+        assertThat(recallAtK(compacted, 100, 100)).isGreaterThanOrEqualTo(0.95);
+    }
+
+    @Test
+    void emptyIndexReturnsNothing() {
+        HnswIndex index = new HnswIndex(DIMENSION, 16, 64);
+
+        assertThat(index.search(randomVector(), K, 64).nodes()).isEmpty();
+        assertThat(index.exactSearch(randomVector(), K).nodes()).isEmpty();
+    }
+
+    /**
+     * Fraction of the true {@code K} nearest neighbours, found by an exact scan, that the
+     * graph search returns, averaged over random queries.
+     */
+    private double recallAtK(HnswIndex index, int queries, int efSearch) {
+        int found = 0;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVector();
+            Set<Integer> expected = new HashSet<>();
+            for (int node : index.exactSearch(query, K).nodes()) expected.add(node);
+            for (int node : index.search(query, K, efSearch).nodes()) {
+                if (expected.contains(node)) found++;
+            }
+        }
+        return (double) found / (queries * K);
+    }
+
+    private HnswIndex indexOf(float[][] vectors) {
+        HnswIndex index = new HnswIndex(DIMENSION, 16, 64);
+        for (float[] vector : vectors) {
+            index.add(vector);
+        }
+        return index;
+    }
+
+    private float[][] randomVectors(int count) {
+        float[][] vectors = new float[count][];
+        for (int i = 0; i < count; i++) vectors[i] = randomVector();
+        return vectors;
+    }
+
+    private float[] randomVector() {
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) vector[i] = (float) random.nextGaussian();
+        return vector;
+    }
+
+    private static float cosineDistance(float[] a, float[] b) {
+        double dot = 0, normA = 0, normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return (float) (1 - dot / Math.sqrt(normA * normB));
+    }
+}
@@ -0,0 +1,81 @@
+package com.contextoia.documentingestion.infrastructure.adapter.vector;
+
+import com.contextoia.documentingestion.application.dto.SimilarDocumentResult;
+import com.github.f4b6a3.uuid.UuidCreator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class UserVectorIndexTest {
+
+    private static final int DIMENSION = 16;
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    private final Random random = new Random(7);
+
+    @Test
+    void reprocessedDocumentReplacesItsPreviousVersion() {
+        UserVectorIndex index = new UserVectorIndex(new HnswIndex(DIMENSION, 8, 32), 0, 10);
+        UUID documentId = UUID.randomUUID();
+        IndexedDocument first = document(documentId, 3);
+        IndexedDocument second = document(documentId, 2);
+
+        assertThat(index.apply(first)).isTrue();
+        assertThat(index.apply(second)).isTrue();
+        assertThat(index.apply(first)).isFalse();
+
+        Map<UUID, Float> chunks = index.searchChunks(second.chunks().get(0).embedding(), 10, 32);
+        assertThat(chunks.keySet()).containsExactlyInAnyOrderElementsOf(chunkIds(second));
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.deletedCount()).isEqualTo(3);
+    }
+
+    @Test
+    void graphIsCompactedOnceDeletedNodesPassTheRatio() {
+        UserVectorIndex index = new UserVectorIndex(new HnswIndex(DIMENSION, 8, 32), 0, 0.2);
+        List<UUID> documentIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            UUID documentId = UUID.randomUUID();
+            documentIds.add(documentId);
+            index.apply(document(documentId, 5));
+        }
+
+        index.apply(document(documentIds.get(0), 5));
+        index.apply(document(documentIds.get(1), 5));
+        assertThat(index.deletedCount()).isEqualTo(10);
+
+        IndexedDocument latest = document(documentIds.get(2), 5);
+        index.apply(latest);
+
+        assertThat(index.deletedCount()).isZero();
+        assertThat(index.size()).isEqualTo(50);
+        for (IndexedDocument.Chunk chunk : latest.chunks()) {
+            Map<UUID, Float> nearest = index.searchChunks(chunk.embedding(), 1, 32);
+            assertThat(nearest).containsOnlyKeys(chunk.chunkId());
+            assertThat(nearest.get(chunk.chunkId())).isCloseTo(1f, within(1e-5f));
+        }
+        List<SimilarDocumentResult> documents = index.search(latest.chunks().get(0).embedding(), 1, 4, 32);
+        assertThat(documents).extracting(SimilarDocumentResult::documentId).containsExactly(documentIds.get(2));
+    }
+
+    private IndexedDocument document(UUID documentId, int chunkCount) {
+        List<IndexedDocument.Chunk> chunks = new ArrayList<>();
+        for (int i = 0; i < chunkCount; i++) {
+            float[] embedding = new float[DIMENSION];
+            for (int d = 0; d < DIMENSION; d++) embedding[d] = (float) random.nextGaussian();
+            chunks.add(new IndexedDocument.Chunk(UuidCreator.getTimeOrderedEpoch(), "trecho " + i, embedding));
+        }
+        return new IndexedDocument(documentId, USER_ID, "documento.pdf", chunks);
+    }
+
+    private static List<UUID> chunkIds(IndexedDocument document) {
+        return document.chunks().stream().map(IndexedDocument.Chunk::chunkId).toList();
+    }
+}
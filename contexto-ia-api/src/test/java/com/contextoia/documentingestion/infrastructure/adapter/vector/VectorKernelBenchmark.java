@@ -0,0 +1,71 @@
+package com.contextoia.documentingestion.infrastructure.adapter.vector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The exact-search inner loop: one query scored against a slab of 768-dimension vectors, by
+ * {@link ScalarVectorKernel} and by {@link SimdVectorKernel}. The fork is started with the
+ * incubator module, as the application is, so {@link VectorKernel#best()} picks the SIMD
+ * kernel:
+ * <pre>./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark=VectorKernelBenchmark</pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class VectorKernelBenchmark {
+
+    private static final int DIMENSION = 768;
+
+    @Param({"scalar", "simd"})
+    private String kernel;
+
+    @Param({"1000", "10000"})
+    private int vectors;
+
+    private VectorKernel vectorKernel;
+    private float[] query;
+    private float[] slab;
+
+    @Setup
+    public void setUp() {
+        vectorKernel = "scalar".equals(kernel) ? new ScalarVectorKernel() : VectorKernel.best();
+        if ("simd".equals(kernel) && vectorKernel instanceof ScalarVectorKernel) {
+            throw new IllegalStateException("jdk.incubator.vector indisponível; o kernel SIMD não foi carregado");
+        }
+
+        Random random = new Random(42);
+        query = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            query[i] = random.nextFloat() * 2 - 1;
+        }
+        slab = new float[vectors * DIMENSION];
+        for (int i = 0; i < slab.length; i++) {
+            slab[i] = random.nextFloat() * 2 - 1;
+        }
+    }
+
+    @Benchmark
+    public float scan() {
+        float best = Float.NEGATIVE_INFINITY;
+        for (int offset = 0; offset < slab.length; offset += DIMENSION) {
+            best = Math.max(best, vectorKernel.dot(query, 0, slab, offset, DIMENSION));
+        }
+        return best;
+    }
+}